@@ -0,0 +1,252 @@
+// Description: Java 25 JMH benchmarks for the CFInt License buffer classes
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.time.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffLicenseBench measures construction, copying, equals(),
+ *	hashCode(), compareTo() and getXmlAttrFragment() of the License buffer
+ *	classes.  Each class has a populated instance and an equal copy, so
+ *	equals() and compareTo() walk every attribute.  hashCodeUncached
+ *	measures the full hash computation that hashCode() memoizes.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class CFIntBuffLicenseBench
+{
+	protected final static LocalDateTime STAMP = LocalDateTime.of( 2026, 1, 1, 0, 0 );
+	protected final static String LONG_TEXT = "Licensed under the Apache License, Version 2.0. ".repeat( 64 );
+
+	protected CFIntBuffLicense vRec;
+	protected CFIntBuffLicense vRecCopy;
+	protected CFIntBuffLicenseByDomainIdxKey vByDomainIdxKey;
+	protected CFIntBuffLicenseByDomainIdxKey vByDomainIdxKeyCopy;
+	protected CFIntBuffLicenseByLicnTenantIdxKey vByLicnTenantIdxKey;
+	protected CFIntBuffLicenseByLicnTenantIdxKey vByLicnTenantIdxKeyCopy;
+	protected CFIntBuffLicenseByUNameIdxKey vByUNameIdxKey;
+	protected CFIntBuffLicenseByUNameIdxKey vByUNameIdxKeyCopy;
+
+	@Setup( Level.Trial )
+	public void setup() {
+		vRec = newRec();
+		vRecCopy = newRec();
+		vByDomainIdxKey = newByDomainIdxKey();
+		vByDomainIdxKeyCopy = newByDomainIdxKey();
+		vByLicnTenantIdxKey = newByLicnTenantIdxKey();
+		vByLicnTenantIdxKeyCopy = newByLicnTenantIdxKey();
+		vByUNameIdxKey = newByUNameIdxKey();
+		vByUNameIdxKeyCopy = newByUNameIdxKey();
+	}
+
+	protected static CFIntBuffLicense newRec() {
+		CFIntBuffLicense ret = new CFIntBuffLicense();
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000002eef" ) );
+		ret.setRequiredRevision( 1 );
+		ret.setRequiredOwnerTenant( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000004dde" ) );
+		ret.setRequiredContainerTopDomain( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000006ccd" ) );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setOptionalDescription( "optionalDescription-value" );
+		ret.setOptionalEmbeddedText( LONG_TEXT );
+		ret.setOptionalFullText( LONG_TEXT );
+		return( ret );
+	}
+
+	protected static CFIntBuffLicenseByDomainIdxKey newByDomainIdxKey() {
+		CFIntBuffLicenseByDomainIdxKey ret = new CFIntBuffLicenseByDomainIdxKey();
+		ret.setRequiredTopDomainId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000008bbc" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffLicenseByLicnTenantIdxKey newByLicnTenantIdxKey() {
+		CFIntBuffLicenseByLicnTenantIdxKey ret = new CFIntBuffLicenseByLicnTenantIdxKey();
+		ret.setRequiredTenantId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000000aaab" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffLicenseByUNameIdxKey newByUNameIdxKey() {
+		CFIntBuffLicenseByUNameIdxKey ret = new CFIntBuffLicenseByUNameIdxKey();
+		ret.setRequiredTopDomainId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000000c99a" ) );
+		ret.setRequiredName( "requiredName-value" );
+		return( ret );
+	}
+
+	@Benchmark
+	public CFIntBuffLicense constructRec() {
+		return( new CFIntBuffLicense() );
+	}
+
+	@Benchmark
+	public CFIntBuffLicense copyRec() {
+		CFIntBuffLicense ret = new CFIntBuffLicense();
+		ret.set( vRec );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsRec() {
+		return( vRec.equals( vRecCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeRec() {
+		return( vRec.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedRec() {
+		return( vRec.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToRec() {
+		return( vRec.compareTo( vRecCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentRec() {
+		return( vRec.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffLicenseByDomainIdxKey constructByDomainIdxKey() {
+		return( new CFIntBuffLicenseByDomainIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffLicenseByDomainIdxKey copyByDomainIdxKey() {
+		CFIntBuffLicenseByDomainIdxKey ret = new CFIntBuffLicenseByDomainIdxKey();
+		ret.setRequiredTopDomainId( vByDomainIdxKey.getRequiredTopDomainId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByDomainIdxKey() {
+		return( vByDomainIdxKey.equals( vByDomainIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByDomainIdxKey() {
+		return( vByDomainIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByDomainIdxKey() {
+		return( vByDomainIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByDomainIdxKey() {
+		return( vByDomainIdxKey.compareTo( vByDomainIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByDomainIdxKey() {
+		return( vByDomainIdxKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffLicenseByLicnTenantIdxKey constructByLicnTenantIdxKey() {
+		return( new CFIntBuffLicenseByLicnTenantIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffLicenseByLicnTenantIdxKey copyByLicnTenantIdxKey() {
+		CFIntBuffLicenseByLicnTenantIdxKey ret = new CFIntBuffLicenseByLicnTenantIdxKey();
+		ret.setRequiredTenantId( vByLicnTenantIdxKey.getRequiredTenantId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByLicnTenantIdxKey() {
+		return( vByLicnTenantIdxKey.equals( vByLicnTenantIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByLicnTenantIdxKey() {
+		return( vByLicnTenantIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByLicnTenantIdxKey() {
+		return( vByLicnTenantIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByLicnTenantIdxKey() {
+		return( vByLicnTenantIdxKey.compareTo( vByLicnTenantIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByLicnTenantIdxKey() {
+		return( vByLicnTenantIdxKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffLicenseByUNameIdxKey constructByUNameIdxKey() {
+		return( new CFIntBuffLicenseByUNameIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffLicenseByUNameIdxKey copyByUNameIdxKey() {
+		CFIntBuffLicenseByUNameIdxKey ret = new CFIntBuffLicenseByUNameIdxKey();
+		ret.setRequiredTopDomainId( vByUNameIdxKey.getRequiredTopDomainId() );
+		ret.setRequiredName( vByUNameIdxKey.getRequiredName() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByUNameIdxKey() {
+		return( vByUNameIdxKey.equals( vByUNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByUNameIdxKey() {
+		return( vByUNameIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByUNameIdxKey() {
+		return( vByUNameIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByUNameIdxKey() {
+		return( vByUNameIdxKey.compareTo( vByUNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByUNameIdxKey() {
+		return( vByUNameIdxKey.getXmlAttrFragment() );
+	}
+}
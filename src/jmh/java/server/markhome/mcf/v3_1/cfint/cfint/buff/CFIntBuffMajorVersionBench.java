@@ -0,0 +1,370 @@
+// Description: Java 25 JMH benchmarks for the CFInt MajorVersion buffer classes
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.time.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffMajorVersionBench measures construction, copying, equals(),
+ *	hashCode(), compareTo() and getXmlAttrFragment() of the MajorVersion buffer
+ *	classes.  Each class has a populated instance and an equal copy, so
+ *	equals() and compareTo() walk every attribute.  hashCodeUncached
+ *	measures the full hash computation that hashCode() memoizes.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class CFIntBuffMajorVersionBench
+{
+	protected final static LocalDateTime STAMP = LocalDateTime.of( 2026, 1, 1, 0, 0 );
+
+	protected CFIntBuffMajorVersion vRec;
+	protected CFIntBuffMajorVersion vRecCopy;
+	protected CFIntBuffMajorVersionH vH;
+	protected CFIntBuffMajorVersionH vHCopy;
+	protected CFIntBuffMajorVersionHPKey vHPKey;
+	protected CFIntBuffMajorVersionHPKey vHPKeyCopy;
+	protected CFIntBuffMajorVersionByNameIdxKey vByNameIdxKey;
+	protected CFIntBuffMajorVersionByNameIdxKey vByNameIdxKeyCopy;
+	protected CFIntBuffMajorVersionBySubProjectIdxKey vBySubProjectIdxKey;
+	protected CFIntBuffMajorVersionBySubProjectIdxKey vBySubProjectIdxKeyCopy;
+	protected CFIntBuffMajorVersionByTenantIdxKey vByTenantIdxKey;
+	protected CFIntBuffMajorVersionByTenantIdxKey vByTenantIdxKeyCopy;
+
+	@Setup( Level.Trial )
+	public void setup() {
+		vRec = newRec();
+		vRecCopy = newRec();
+		vH = newH();
+		vHCopy = newH();
+		vHPKey = newHPKey();
+		vHPKeyCopy = newHPKey();
+		vByNameIdxKey = newByNameIdxKey();
+		vByNameIdxKeyCopy = newByNameIdxKey();
+		vBySubProjectIdxKey = newBySubProjectIdxKey();
+		vBySubProjectIdxKeyCopy = newBySubProjectIdxKey();
+		vByTenantIdxKey = newByTenantIdxKey();
+		vByTenantIdxKeyCopy = newByTenantIdxKey();
+	}
+
+	protected static CFIntBuffMajorVersion newRec() {
+		CFIntBuffMajorVersion ret = new CFIntBuffMajorVersion();
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000050447" ) );
+		ret.setRequiredRevision( 1 );
+		ret.setCreatedByUserId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000052336" ) );
+		ret.setCreatedAt( STAMP );
+		ret.setUpdatedByUserId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000054225" ) );
+		ret.setUpdatedAt( STAMP );
+		ret.setRequiredOwnerTenant( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000056114" ) );
+		ret.setRequiredContainerParentSPrj( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000058003" ) );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setOptionalDescription( "optionalDescription-value" );
+		return( ret );
+	}
+
+	protected static CFIntBuffMajorVersionH newH() {
+		CFIntBuffMajorVersionH ret = new CFIntBuffMajorVersionH();
+		ret.setCreatedByUserId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000059ef2" ) );
+		ret.setCreatedAt( STAMP );
+		ret.setUpdatedByUserId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000005bde1" ) );
+		ret.setUpdatedAt( STAMP );
+		ret.setRequiredTenantId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000005dcd0" ) );
+		ret.setRequiredSubProjectId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000005fbbf" ) );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setOptionalDescription( "optionalDescription-value" );
+		ret.setAuditClusterId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000061aae" ) );
+		ret.setAuditStamp( STAMP );
+		ret.setAuditActionId( (short)1 );
+		ret.setRequiredRevision( 1 );
+		ret.setAuditSessionId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000006399d" ) );
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000006588c" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffMajorVersionHPKey newHPKey() {
+		CFIntBuffMajorVersionHPKey ret = new CFIntBuffMajorVersionHPKey();
+		ret.setAuditClusterId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000006777b" ) );
+		ret.setAuditStamp( STAMP );
+		ret.setAuditActionId( (short)1 );
+		ret.setRequiredRevision( 1 );
+		ret.setAuditSessionId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000006966a" ) );
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000006b559" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffMajorVersionByNameIdxKey newByNameIdxKey() {
+		CFIntBuffMajorVersionByNameIdxKey ret = new CFIntBuffMajorVersionByNameIdxKey();
+		ret.setRequiredSubProjectId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000006d448" ) );
+		ret.setRequiredName( "requiredName-value" );
+		return( ret );
+	}
+
+	protected static CFIntBuffMajorVersionBySubProjectIdxKey newBySubProjectIdxKey() {
+		CFIntBuffMajorVersionBySubProjectIdxKey ret = new CFIntBuffMajorVersionBySubProjectIdxKey();
+		ret.setRequiredSubProjectId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000006f337" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffMajorVersionByTenantIdxKey newByTenantIdxKey() {
+		CFIntBuffMajorVersionByTenantIdxKey ret = new CFIntBuffMajorVersionByTenantIdxKey();
+		ret.setRequiredTenantId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000071226" ) );
+		return( ret );
+	}
+
+	@Benchmark
+	public CFIntBuffMajorVersion constructRec() {
+		return( new CFIntBuffMajorVersion() );
+	}
+
+	@Benchmark
+	public CFIntBuffMajorVersion copyRec() {
+		CFIntBuffMajorVersion ret = new CFIntBuffMajorVersion();
+		ret.set( vRec );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsRec() {
+		return( vRec.equals( vRecCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeRec() {
+		return( vRec.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedRec() {
+		return( vRec.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToRec() {
+		return( vRec.compareTo( vRecCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentRec() {
+		return( vRec.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffMajorVersionH constructH() {
+		return( new CFIntBuffMajorVersionH() );
+	}
+
+	@Benchmark
+	public CFIntBuffMajorVersionH copyH() {
+		CFIntBuffMajorVersionH ret = new CFIntBuffMajorVersionH();
+		ret.set( vH );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsH() {
+		return( vH.equals( vHCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeH() {
+		return( vH.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedH() {
+		return( vH.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToH() {
+		return( vH.compareTo( vHCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentH() {
+		return( vH.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffMajorVersionHPKey constructHPKey() {
+		return( new CFIntBuffMajorVersionHPKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffMajorVersionHPKey copyHPKey() {
+		CFIntBuffMajorVersionHPKey ret = new CFIntBuffMajorVersionHPKey();
+		ret.setAuditClusterId( vHPKey.getAuditClusterId() );
+		ret.setAuditStamp( vHPKey.getAuditStamp() );
+		ret.setAuditActionId( vHPKey.getAuditActionId() );
+		ret.setRequiredRevision( vHPKey.getRequiredRevision() );
+		ret.setAuditSessionId( vHPKey.getAuditSessionId() );
+		ret.setRequiredId( vHPKey.getRequiredId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsHPKey() {
+		return( vHPKey.equals( vHPKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeHPKey() {
+		return( vHPKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedHPKey() {
+		return( vHPKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToHPKey() {
+		return( vHPKey.compareTo( vHPKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentHPKey() {
+		return( vHPKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffMajorVersionByNameIdxKey constructByNameIdxKey() {
+		return( new CFIntBuffMajorVersionByNameIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffMajorVersionByNameIdxKey copyByNameIdxKey() {
+		CFIntBuffMajorVersionByNameIdxKey ret = new CFIntBuffMajorVersionByNameIdxKey();
+		ret.setRequiredSubProjectId( vByNameIdxKey.getRequiredSubProjectId() );
+		ret.setRequiredName( vByNameIdxKey.getRequiredName() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByNameIdxKey() {
+		return( vByNameIdxKey.equals( vByNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByNameIdxKey() {
+		return( vByNameIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByNameIdxKey() {
+		return( vByNameIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByNameIdxKey() {
+		return( vByNameIdxKey.compareTo( vByNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByNameIdxKey() {
+		return( vByNameIdxKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffMajorVersionBySubProjectIdxKey constructBySubProjectIdxKey() {
+		return( new CFIntBuffMajorVersionBySubProjectIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffMajorVersionBySubProjectIdxKey copyBySubProjectIdxKey() {
+		CFIntBuffMajorVersionBySubProjectIdxKey ret = new CFIntBuffMajorVersionBySubProjectIdxKey();
+		ret.setRequiredSubProjectId( vBySubProjectIdxKey.getRequiredSubProjectId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsBySubProjectIdxKey() {
+		return( vBySubProjectIdxKey.equals( vBySubProjectIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeBySubProjectIdxKey() {
+		return( vBySubProjectIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedBySubProjectIdxKey() {
+		return( vBySubProjectIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToBySubProjectIdxKey() {
+		return( vBySubProjectIdxKey.compareTo( vBySubProjectIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentBySubProjectIdxKey() {
+		return( vBySubProjectIdxKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffMajorVersionByTenantIdxKey constructByTenantIdxKey() {
+		return( new CFIntBuffMajorVersionByTenantIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffMajorVersionByTenantIdxKey copyByTenantIdxKey() {
+		CFIntBuffMajorVersionByTenantIdxKey ret = new CFIntBuffMajorVersionByTenantIdxKey();
+		ret.setRequiredTenantId( vByTenantIdxKey.getRequiredTenantId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByTenantIdxKey() {
+		return( vByTenantIdxKey.equals( vByTenantIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByTenantIdxKey() {
+		return( vByTenantIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByTenantIdxKey() {
+		return( vByTenantIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByTenantIdxKey() {
+		return( vByTenantIdxKey.compareTo( vByTenantIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByTenantIdxKey() {
+		return( vByTenantIdxKey.getXmlAttrFragment() );
+	}
+}
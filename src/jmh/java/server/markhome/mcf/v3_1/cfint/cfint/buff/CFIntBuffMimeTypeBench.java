@@ -0,0 +1,270 @@
+// Description: Java 25 JMH benchmarks for the CFInt MimeType buffer classes
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.time.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffMimeTypeBench measures construction, copying, equals(),
+ *	hashCode(), compareTo() and getXmlAttrFragment() of the MimeType buffer
+ *	classes.  Each class has a populated instance and an equal copy, so
+ *	equals() and compareTo() walk every attribute.  hashCodeUncached
+ *	measures the full hash computation that hashCode() memoizes.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class CFIntBuffMimeTypeBench
+{
+	protected final static LocalDateTime STAMP = LocalDateTime.of( 2026, 1, 1, 0, 0 );
+
+	protected CFIntBuffMimeType vRec;
+	protected CFIntBuffMimeType vRecCopy;
+	protected CFIntBuffMimeTypeH vH;
+	protected CFIntBuffMimeTypeH vHCopy;
+	protected CFIntBuffMimeTypeHPKey vHPKey;
+	protected CFIntBuffMimeTypeHPKey vHPKeyCopy;
+	protected CFIntBuffMimeTypeByUNameIdxKey vByUNameIdxKey;
+	protected CFIntBuffMimeTypeByUNameIdxKey vByUNameIdxKeyCopy;
+
+	@Setup( Level.Trial )
+	public void setup() {
+		vRec = newRec();
+		vRecCopy = newRec();
+		vH = newH();
+		vHCopy = newH();
+		vHPKey = newHPKey();
+		vHPKeyCopy = newHPKey();
+		vByUNameIdxKey = newByUNameIdxKey();
+		vByUNameIdxKeyCopy = newByUNameIdxKey();
+	}
+
+	protected static CFIntBuffMimeType newRec() {
+		CFIntBuffMimeType ret = new CFIntBuffMimeType();
+		ret.setRequiredMimeTypeId( 42 );
+		ret.setRequiredRevision( 1 );
+		ret.setCreatedByUserId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000009d99f" ) );
+		ret.setCreatedAt( STAMP );
+		ret.setUpdatedByUserId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000009f88e" ) );
+		ret.setUpdatedAt( STAMP );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setOptionalFileTypes( "optionalFileTypes-value" );
+		return( ret );
+	}
+
+	protected static CFIntBuffMimeTypeH newH() {
+		CFIntBuffMimeTypeH ret = new CFIntBuffMimeTypeH();
+		ret.setCreatedByUserId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000a177d" ) );
+		ret.setCreatedAt( STAMP );
+		ret.setUpdatedByUserId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000a366c" ) );
+		ret.setUpdatedAt( STAMP );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setOptionalFileTypes( "optionalFileTypes-value" );
+		ret.setAuditClusterId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000a555b" ) );
+		ret.setAuditStamp( STAMP );
+		ret.setAuditActionId( (short)1 );
+		ret.setRequiredRevision( 1 );
+		ret.setAuditSessionId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000a744a" ) );
+		ret.setRequiredMimeTypeId( 42 );
+		return( ret );
+	}
+
+	protected static CFIntBuffMimeTypeHPKey newHPKey() {
+		CFIntBuffMimeTypeHPKey ret = new CFIntBuffMimeTypeHPKey();
+		ret.setAuditClusterId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000a9339" ) );
+		ret.setAuditStamp( STAMP );
+		ret.setAuditActionId( (short)1 );
+		ret.setRequiredRevision( 1 );
+		ret.setAuditSessionId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000ab228" ) );
+		ret.setRequiredMimeTypeId( 42 );
+		return( ret );
+	}
+
+	protected static CFIntBuffMimeTypeByUNameIdxKey newByUNameIdxKey() {
+		CFIntBuffMimeTypeByUNameIdxKey ret = new CFIntBuffMimeTypeByUNameIdxKey();
+		ret.setRequiredName( "requiredName-value" );
+		return( ret );
+	}
+
+	@Benchmark
+	public CFIntBuffMimeType constructRec() {
+		return( new CFIntBuffMimeType() );
+	}
+
+	@Benchmark
+	public CFIntBuffMimeType copyRec() {
+		CFIntBuffMimeType ret = new CFIntBuffMimeType();
+		ret.set( vRec );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsRec() {
+		return( vRec.equals( vRecCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeRec() {
+		return( vRec.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedRec() {
+		return( vRec.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToRec() {
+		return( vRec.compareTo( vRecCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentRec() {
+		return( vRec.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffMimeTypeH constructH() {
+		return( new CFIntBuffMimeTypeH() );
+	}
+
+	@Benchmark
+	public CFIntBuffMimeTypeH copyH() {
+		CFIntBuffMimeTypeH ret = new CFIntBuffMimeTypeH();
+		ret.set( vH );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsH() {
+		return( vH.equals( vHCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeH() {
+		return( vH.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedH() {
+		return( vH.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToH() {
+		return( vH.compareTo( vHCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentH() {
+		return( vH.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffMimeTypeHPKey constructHPKey() {
+		return( new CFIntBuffMimeTypeHPKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffMimeTypeHPKey copyHPKey() {
+		CFIntBuffMimeTypeHPKey ret = new CFIntBuffMimeTypeHPKey();
+		ret.setAuditClusterId( vHPKey.getAuditClusterId() );
+		ret.setAuditStamp( vHPKey.getAuditStamp() );
+		ret.setAuditActionId( vHPKey.getAuditActionId() );
+		ret.setRequiredRevision( vHPKey.getRequiredRevision() );
+		ret.setAuditSessionId( vHPKey.getAuditSessionId() );
+		ret.setRequiredMimeTypeId( vHPKey.getRequiredMimeTypeId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsHPKey() {
+		return( vHPKey.equals( vHPKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeHPKey() {
+		return( vHPKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedHPKey() {
+		return( vHPKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToHPKey() {
+		return( vHPKey.compareTo( vHPKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentHPKey() {
+		return( vHPKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffMimeTypeByUNameIdxKey constructByUNameIdxKey() {
+		return( new CFIntBuffMimeTypeByUNameIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffMimeTypeByUNameIdxKey copyByUNameIdxKey() {
+		CFIntBuffMimeTypeByUNameIdxKey ret = new CFIntBuffMimeTypeByUNameIdxKey();
+		ret.setRequiredName( vByUNameIdxKey.getRequiredName() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByUNameIdxKey() {
+		return( vByUNameIdxKey.equals( vByUNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByUNameIdxKey() {
+		return( vByUNameIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByUNameIdxKey() {
+		return( vByUNameIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByUNameIdxKey() {
+		return( vByUNameIdxKey.compareTo( vByUNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByUNameIdxKey() {
+		return( vByUNameIdxKey.getXmlAttrFragment() );
+	}
+}
@@ -0,0 +1,370 @@
+// Description: Java 25 JMH benchmarks for the CFInt MinorVersion buffer classes
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.time.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffMinorVersionBench measures construction, copying, equals(),
+ *	hashCode(), compareTo() and getXmlAttrFragment() of the MinorVersion buffer
+ *	classes.  Each class has a populated instance and an equal copy, so
+ *	equals() and compareTo() walk every attribute.  hashCodeUncached
+ *	measures the full hash computation that hashCode() memoizes.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class CFIntBuffMinorVersionBench
+{
+	protected final static LocalDateTime STAMP = LocalDateTime.of( 2026, 1, 1, 0, 0 );
+
+	protected CFIntBuffMinorVersion vRec;
+	protected CFIntBuffMinorVersion vRecCopy;
+	protected CFIntBuffMinorVersionH vH;
+	protected CFIntBuffMinorVersionH vHCopy;
+	protected CFIntBuffMinorVersionHPKey vHPKey;
+	protected CFIntBuffMinorVersionHPKey vHPKeyCopy;
+	protected CFIntBuffMinorVersionByMajorVerIdxKey vByMajorVerIdxKey;
+	protected CFIntBuffMinorVersionByMajorVerIdxKey vByMajorVerIdxKeyCopy;
+	protected CFIntBuffMinorVersionByNameIdxKey vByNameIdxKey;
+	protected CFIntBuffMinorVersionByNameIdxKey vByNameIdxKeyCopy;
+	protected CFIntBuffMinorVersionByTenantIdxKey vByTenantIdxKey;
+	protected CFIntBuffMinorVersionByTenantIdxKey vByTenantIdxKeyCopy;
+
+	@Setup( Level.Trial )
+	public void setup() {
+		vRec = newRec();
+		vRecCopy = newRec();
+		vH = newH();
+		vHCopy = newH();
+		vHPKey = newHPKey();
+		vHPKeyCopy = newHPKey();
+		vByMajorVerIdxKey = newByMajorVerIdxKey();
+		vByMajorVerIdxKeyCopy = newByMajorVerIdxKey();
+		vByNameIdxKey = newByNameIdxKey();
+		vByNameIdxKeyCopy = newByNameIdxKey();
+		vByTenantIdxKey = newByTenantIdxKey();
+		vByTenantIdxKeyCopy = newByTenantIdxKey();
+	}
+
+	protected static CFIntBuffMinorVersion newRec() {
+		CFIntBuffMinorVersion ret = new CFIntBuffMinorVersion();
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000eaef7" ) );
+		ret.setRequiredRevision( 1 );
+		ret.setCreatedByUserId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000ecde6" ) );
+		ret.setCreatedAt( STAMP );
+		ret.setUpdatedByUserId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000eecd5" ) );
+		ret.setUpdatedAt( STAMP );
+		ret.setRequiredOwnerTenant( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000f0bc4" ) );
+		ret.setRequiredContainerParentMajVer( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000f2ab3" ) );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setOptionalDescription( "optionalDescription-value" );
+		return( ret );
+	}
+
+	protected static CFIntBuffMinorVersionH newH() {
+		CFIntBuffMinorVersionH ret = new CFIntBuffMinorVersionH();
+		ret.setCreatedByUserId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000f49a2" ) );
+		ret.setCreatedAt( STAMP );
+		ret.setUpdatedByUserId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000f6891" ) );
+		ret.setUpdatedAt( STAMP );
+		ret.setRequiredTenantId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000f8780" ) );
+		ret.setRequiredMajorVersionId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000fa66f" ) );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setOptionalDescription( "optionalDescription-value" );
+		ret.setAuditClusterId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000fc55e" ) );
+		ret.setAuditStamp( STAMP );
+		ret.setAuditActionId( (short)1 );
+		ret.setRequiredRevision( 1 );
+		ret.setAuditSessionId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000fe44d" ) );
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000010033c" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffMinorVersionHPKey newHPKey() {
+		CFIntBuffMinorVersionHPKey ret = new CFIntBuffMinorVersionHPKey();
+		ret.setAuditClusterId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000010222b" ) );
+		ret.setAuditStamp( STAMP );
+		ret.setAuditActionId( (short)1 );
+		ret.setRequiredRevision( 1 );
+		ret.setAuditSessionId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000010411a" ) );
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000106009" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffMinorVersionByMajorVerIdxKey newByMajorVerIdxKey() {
+		CFIntBuffMinorVersionByMajorVerIdxKey ret = new CFIntBuffMinorVersionByMajorVerIdxKey();
+		ret.setRequiredMajorVersionId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000107ef8" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffMinorVersionByNameIdxKey newByNameIdxKey() {
+		CFIntBuffMinorVersionByNameIdxKey ret = new CFIntBuffMinorVersionByNameIdxKey();
+		ret.setRequiredMajorVersionId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000109de7" ) );
+		ret.setRequiredName( "requiredName-value" );
+		return( ret );
+	}
+
+	protected static CFIntBuffMinorVersionByTenantIdxKey newByTenantIdxKey() {
+		CFIntBuffMinorVersionByTenantIdxKey ret = new CFIntBuffMinorVersionByTenantIdxKey();
+		ret.setRequiredTenantId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000010bcd6" ) );
+		return( ret );
+	}
+
+	@Benchmark
+	public CFIntBuffMinorVersion constructRec() {
+		return( new CFIntBuffMinorVersion() );
+	}
+
+	@Benchmark
+	public CFIntBuffMinorVersion copyRec() {
+		CFIntBuffMinorVersion ret = new CFIntBuffMinorVersion();
+		ret.set( vRec );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsRec() {
+		return( vRec.equals( vRecCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeRec() {
+		return( vRec.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedRec() {
+		return( vRec.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToRec() {
+		return( vRec.compareTo( vRecCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentRec() {
+		return( vRec.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffMinorVersionH constructH() {
+		return( new CFIntBuffMinorVersionH() );
+	}
+
+	@Benchmark
+	public CFIntBuffMinorVersionH copyH() {
+		CFIntBuffMinorVersionH ret = new CFIntBuffMinorVersionH();
+		ret.set( vH );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsH() {
+		return( vH.equals( vHCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeH() {
+		return( vH.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedH() {
+		return( vH.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToH() {
+		return( vH.compareTo( vHCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentH() {
+		return( vH.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffMinorVersionHPKey constructHPKey() {
+		return( new CFIntBuffMinorVersionHPKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffMinorVersionHPKey copyHPKey() {
+		CFIntBuffMinorVersionHPKey ret = new CFIntBuffMinorVersionHPKey();
+		ret.setAuditClusterId( vHPKey.getAuditClusterId() );
+		ret.setAuditStamp( vHPKey.getAuditStamp() );
+		ret.setAuditActionId( vHPKey.getAuditActionId() );
+		ret.setRequiredRevision( vHPKey.getRequiredRevision() );
+		ret.setAuditSessionId( vHPKey.getAuditSessionId() );
+		ret.setRequiredId( vHPKey.getRequiredId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsHPKey() {
+		return( vHPKey.equals( vHPKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeHPKey() {
+		return( vHPKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedHPKey() {
+		return( vHPKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToHPKey() {
+		return( vHPKey.compareTo( vHPKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentHPKey() {
+		return( vHPKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffMinorVersionByMajorVerIdxKey constructByMajorVerIdxKey() {
+		return( new CFIntBuffMinorVersionByMajorVerIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffMinorVersionByMajorVerIdxKey copyByMajorVerIdxKey() {
+		CFIntBuffMinorVersionByMajorVerIdxKey ret = new CFIntBuffMinorVersionByMajorVerIdxKey();
+		ret.setRequiredMajorVersionId( vByMajorVerIdxKey.getRequiredMajorVersionId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByMajorVerIdxKey() {
+		return( vByMajorVerIdxKey.equals( vByMajorVerIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByMajorVerIdxKey() {
+		return( vByMajorVerIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByMajorVerIdxKey() {
+		return( vByMajorVerIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByMajorVerIdxKey() {
+		return( vByMajorVerIdxKey.compareTo( vByMajorVerIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByMajorVerIdxKey() {
+		return( vByMajorVerIdxKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffMinorVersionByNameIdxKey constructByNameIdxKey() {
+		return( new CFIntBuffMinorVersionByNameIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffMinorVersionByNameIdxKey copyByNameIdxKey() {
+		CFIntBuffMinorVersionByNameIdxKey ret = new CFIntBuffMinorVersionByNameIdxKey();
+		ret.setRequiredMajorVersionId( vByNameIdxKey.getRequiredMajorVersionId() );
+		ret.setRequiredName( vByNameIdxKey.getRequiredName() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByNameIdxKey() {
+		return( vByNameIdxKey.equals( vByNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByNameIdxKey() {
+		return( vByNameIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByNameIdxKey() {
+		return( vByNameIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByNameIdxKey() {
+		return( vByNameIdxKey.compareTo( vByNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByNameIdxKey() {
+		return( vByNameIdxKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffMinorVersionByTenantIdxKey constructByTenantIdxKey() {
+		return( new CFIntBuffMinorVersionByTenantIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffMinorVersionByTenantIdxKey copyByTenantIdxKey() {
+		CFIntBuffMinorVersionByTenantIdxKey ret = new CFIntBuffMinorVersionByTenantIdxKey();
+		ret.setRequiredTenantId( vByTenantIdxKey.getRequiredTenantId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByTenantIdxKey() {
+		return( vByTenantIdxKey.equals( vByTenantIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByTenantIdxKey() {
+		return( vByTenantIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByTenantIdxKey() {
+		return( vByTenantIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByTenantIdxKey() {
+		return( vByTenantIdxKey.compareTo( vByTenantIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByTenantIdxKey() {
+		return( vByTenantIdxKey.getXmlAttrFragment() );
+	}
+}
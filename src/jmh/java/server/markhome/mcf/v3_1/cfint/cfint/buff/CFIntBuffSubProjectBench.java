@@ -0,0 +1,370 @@
+// Description: Java 25 JMH benchmarks for the CFInt SubProject buffer classes
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.time.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffSubProjectBench measures construction, copying, equals(),
+ *	hashCode(), compareTo() and getXmlAttrFragment() of the SubProject buffer
+ *	classes.  Each class has a populated instance and an equal copy, so
+ *	equals() and compareTo() walk every attribute.  hashCodeUncached
+ *	measures the full hash computation that hashCode() memoizes.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class CFIntBuffSubProjectBench
+{
+	protected final static LocalDateTime STAMP = LocalDateTime.of( 2026, 1, 1, 0, 0 );
+
+	protected CFIntBuffSubProject vRec;
+	protected CFIntBuffSubProject vRecCopy;
+	protected CFIntBuffSubProjectH vH;
+	protected CFIntBuffSubProjectH vHCopy;
+	protected CFIntBuffSubProjectHPKey vHPKey;
+	protected CFIntBuffSubProjectHPKey vHPKeyCopy;
+	protected CFIntBuffSubProjectByNameIdxKey vByNameIdxKey;
+	protected CFIntBuffSubProjectByNameIdxKey vByNameIdxKeyCopy;
+	protected CFIntBuffSubProjectByTenantIdxKey vByTenantIdxKey;
+	protected CFIntBuffSubProjectByTenantIdxKey vByTenantIdxKeyCopy;
+	protected CFIntBuffSubProjectByTopProjectIdxKey vByTopProjectIdxKey;
+	protected CFIntBuffSubProjectByTopProjectIdxKey vByTopProjectIdxKeyCopy;
+
+	@Setup( Level.Trial )
+	public void setup() {
+		vRec = newRec();
+		vRecCopy = newRec();
+		vH = newH();
+		vHCopy = newH();
+		vHPKey = newHPKey();
+		vHPKeyCopy = newHPKey();
+		vByNameIdxKey = newByNameIdxKey();
+		vByNameIdxKeyCopy = newByNameIdxKey();
+		vByTenantIdxKey = newByTenantIdxKey();
+		vByTenantIdxKeyCopy = newByTenantIdxKey();
+		vByTopProjectIdxKey = newByTopProjectIdxKey();
+		vByTopProjectIdxKeyCopy = newByTopProjectIdxKey();
+	}
+
+	protected static CFIntBuffSubProject newRec() {
+		CFIntBuffSubProject ret = new CFIntBuffSubProject();
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000013844f" ) );
+		ret.setRequiredRevision( 1 );
+		ret.setCreatedByUserId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000013a33e" ) );
+		ret.setCreatedAt( STAMP );
+		ret.setUpdatedByUserId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000013c22d" ) );
+		ret.setUpdatedAt( STAMP );
+		ret.setRequiredOwnerTenant( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000013e11c" ) );
+		ret.setRequiredContainerParentTPrj( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000014000b" ) );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setOptionalDescription( "optionalDescription-value" );
+		return( ret );
+	}
+
+	protected static CFIntBuffSubProjectH newH() {
+		CFIntBuffSubProjectH ret = new CFIntBuffSubProjectH();
+		ret.setCreatedByUserId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000141efa" ) );
+		ret.setCreatedAt( STAMP );
+		ret.setUpdatedByUserId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000143de9" ) );
+		ret.setUpdatedAt( STAMP );
+		ret.setRequiredTenantId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000145cd8" ) );
+		ret.setRequiredTopProjectId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000147bc7" ) );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setOptionalDescription( "optionalDescription-value" );
+		ret.setAuditClusterId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000149ab6" ) );
+		ret.setAuditStamp( STAMP );
+		ret.setAuditActionId( (short)1 );
+		ret.setRequiredRevision( 1 );
+		ret.setAuditSessionId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000014b9a5" ) );
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000014d894" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffSubProjectHPKey newHPKey() {
+		CFIntBuffSubProjectHPKey ret = new CFIntBuffSubProjectHPKey();
+		ret.setAuditClusterId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000014f783" ) );
+		ret.setAuditStamp( STAMP );
+		ret.setAuditActionId( (short)1 );
+		ret.setRequiredRevision( 1 );
+		ret.setAuditSessionId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000151672" ) );
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000153561" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffSubProjectByNameIdxKey newByNameIdxKey() {
+		CFIntBuffSubProjectByNameIdxKey ret = new CFIntBuffSubProjectByNameIdxKey();
+		ret.setRequiredTopProjectId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000155450" ) );
+		ret.setRequiredName( "requiredName-value" );
+		return( ret );
+	}
+
+	protected static CFIntBuffSubProjectByTenantIdxKey newByTenantIdxKey() {
+		CFIntBuffSubProjectByTenantIdxKey ret = new CFIntBuffSubProjectByTenantIdxKey();
+		ret.setRequiredTenantId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000015733f" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffSubProjectByTopProjectIdxKey newByTopProjectIdxKey() {
+		CFIntBuffSubProjectByTopProjectIdxKey ret = new CFIntBuffSubProjectByTopProjectIdxKey();
+		ret.setRequiredTopProjectId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000015922e" ) );
+		return( ret );
+	}
+
+	@Benchmark
+	public CFIntBuffSubProject constructRec() {
+		return( new CFIntBuffSubProject() );
+	}
+
+	@Benchmark
+	public CFIntBuffSubProject copyRec() {
+		CFIntBuffSubProject ret = new CFIntBuffSubProject();
+		ret.set( vRec );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsRec() {
+		return( vRec.equals( vRecCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeRec() {
+		return( vRec.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedRec() {
+		return( vRec.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToRec() {
+		return( vRec.compareTo( vRecCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentRec() {
+		return( vRec.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffSubProjectH constructH() {
+		return( new CFIntBuffSubProjectH() );
+	}
+
+	@Benchmark
+	public CFIntBuffSubProjectH copyH() {
+		CFIntBuffSubProjectH ret = new CFIntBuffSubProjectH();
+		ret.set( vH );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsH() {
+		return( vH.equals( vHCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeH() {
+		return( vH.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedH() {
+		return( vH.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToH() {
+		return( vH.compareTo( vHCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentH() {
+		return( vH.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffSubProjectHPKey constructHPKey() {
+		return( new CFIntBuffSubProjectHPKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffSubProjectHPKey copyHPKey() {
+		CFIntBuffSubProjectHPKey ret = new CFIntBuffSubProjectHPKey();
+		ret.setAuditClusterId( vHPKey.getAuditClusterId() );
+		ret.setAuditStamp( vHPKey.getAuditStamp() );
+		ret.setAuditActionId( vHPKey.getAuditActionId() );
+		ret.setRequiredRevision( vHPKey.getRequiredRevision() );
+		ret.setAuditSessionId( vHPKey.getAuditSessionId() );
+		ret.setRequiredId( vHPKey.getRequiredId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsHPKey() {
+		return( vHPKey.equals( vHPKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeHPKey() {
+		return( vHPKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedHPKey() {
+		return( vHPKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToHPKey() {
+		return( vHPKey.compareTo( vHPKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentHPKey() {
+		return( vHPKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffSubProjectByNameIdxKey constructByNameIdxKey() {
+		return( new CFIntBuffSubProjectByNameIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffSubProjectByNameIdxKey copyByNameIdxKey() {
+		CFIntBuffSubProjectByNameIdxKey ret = new CFIntBuffSubProjectByNameIdxKey();
+		ret.setRequiredTopProjectId( vByNameIdxKey.getRequiredTopProjectId() );
+		ret.setRequiredName( vByNameIdxKey.getRequiredName() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByNameIdxKey() {
+		return( vByNameIdxKey.equals( vByNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByNameIdxKey() {
+		return( vByNameIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByNameIdxKey() {
+		return( vByNameIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByNameIdxKey() {
+		return( vByNameIdxKey.compareTo( vByNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByNameIdxKey() {
+		return( vByNameIdxKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffSubProjectByTenantIdxKey constructByTenantIdxKey() {
+		return( new CFIntBuffSubProjectByTenantIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffSubProjectByTenantIdxKey copyByTenantIdxKey() {
+		CFIntBuffSubProjectByTenantIdxKey ret = new CFIntBuffSubProjectByTenantIdxKey();
+		ret.setRequiredTenantId( vByTenantIdxKey.getRequiredTenantId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByTenantIdxKey() {
+		return( vByTenantIdxKey.equals( vByTenantIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByTenantIdxKey() {
+		return( vByTenantIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByTenantIdxKey() {
+		return( vByTenantIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByTenantIdxKey() {
+		return( vByTenantIdxKey.compareTo( vByTenantIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByTenantIdxKey() {
+		return( vByTenantIdxKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffSubProjectByTopProjectIdxKey constructByTopProjectIdxKey() {
+		return( new CFIntBuffSubProjectByTopProjectIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffSubProjectByTopProjectIdxKey copyByTopProjectIdxKey() {
+		CFIntBuffSubProjectByTopProjectIdxKey ret = new CFIntBuffSubProjectByTopProjectIdxKey();
+		ret.setRequiredTopProjectId( vByTopProjectIdxKey.getRequiredTopProjectId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByTopProjectIdxKey() {
+		return( vByTopProjectIdxKey.equals( vByTopProjectIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByTopProjectIdxKey() {
+		return( vByTopProjectIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByTopProjectIdxKey() {
+		return( vByTopProjectIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByTopProjectIdxKey() {
+		return( vByTopProjectIdxKey.compareTo( vByTopProjectIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByTopProjectIdxKey() {
+		return( vByTopProjectIdxKey.getXmlAttrFragment() );
+	}
+}
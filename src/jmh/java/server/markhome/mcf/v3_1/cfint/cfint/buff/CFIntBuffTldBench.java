@@ -0,0 +1,319 @@
+// Description: Java 25 JMH benchmarks for the CFInt Tld buffer classes
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.time.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffTldBench measures construction, copying, equals(),
+ *	hashCode(), compareTo() and getXmlAttrFragment() of the Tld buffer
+ *	classes.  Each class has a populated instance and an equal copy, so
+ *	equals() and compareTo() walk every attribute.  hashCodeUncached
+ *	measures the full hash computation that hashCode() memoizes.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class CFIntBuffTldBench
+{
+	protected final static LocalDateTime STAMP = LocalDateTime.of( 2026, 1, 1, 0, 0 );
+
+	protected CFIntBuffTld vRec;
+	protected CFIntBuffTld vRecCopy;
+	protected CFIntBuffTldH vH;
+	protected CFIntBuffTldH vHCopy;
+	protected CFIntBuffTldHPKey vHPKey;
+	protected CFIntBuffTldHPKey vHPKeyCopy;
+	protected CFIntBuffTldByNameIdxKey vByNameIdxKey;
+	protected CFIntBuffTldByNameIdxKey vByNameIdxKeyCopy;
+	protected CFIntBuffTldByTenantIdxKey vByTenantIdxKey;
+	protected CFIntBuffTldByTenantIdxKey vByTenantIdxKeyCopy;
+
+	@Setup( Level.Trial )
+	public void setup() {
+		vRec = newRec();
+		vRecCopy = newRec();
+		vH = newH();
+		vHCopy = newH();
+		vHPKey = newHPKey();
+		vHPKeyCopy = newHPKey();
+		vByNameIdxKey = newByNameIdxKey();
+		vByNameIdxKeyCopy = newByNameIdxKey();
+		vByTenantIdxKey = newByTenantIdxKey();
+		vByTenantIdxKeyCopy = newByTenantIdxKey();
+	}
+
+	protected static CFIntBuffTld newRec() {
+		CFIntBuffTld ret = new CFIntBuffTld();
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001859a7" ) );
+		ret.setRequiredRevision( 1 );
+		ret.setCreatedByUserId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000187896" ) );
+		ret.setCreatedAt( STAMP );
+		ret.setUpdatedByUserId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000189785" ) );
+		ret.setUpdatedAt( STAMP );
+		ret.setRequiredContainerTenant( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000018b674" ) );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setOptionalDescription( "optionalDescription-value" );
+		return( ret );
+	}
+
+	protected static CFIntBuffTldH newH() {
+		CFIntBuffTldH ret = new CFIntBuffTldH();
+		ret.setCreatedByUserId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000018d563" ) );
+		ret.setCreatedAt( STAMP );
+		ret.setUpdatedByUserId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000018f452" ) );
+		ret.setUpdatedAt( STAMP );
+		ret.setRequiredTenantId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000191341" ) );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setOptionalDescription( "optionalDescription-value" );
+		ret.setAuditClusterId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000193230" ) );
+		ret.setAuditStamp( STAMP );
+		ret.setAuditActionId( (short)1 );
+		ret.setRequiredRevision( 1 );
+		ret.setAuditSessionId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000019511f" ) );
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000019700e" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffTldHPKey newHPKey() {
+		CFIntBuffTldHPKey ret = new CFIntBuffTldHPKey();
+		ret.setAuditClusterId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000198efd" ) );
+		ret.setAuditStamp( STAMP );
+		ret.setAuditActionId( (short)1 );
+		ret.setRequiredRevision( 1 );
+		ret.setAuditSessionId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000019adec" ) );
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000019ccdb" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffTldByNameIdxKey newByNameIdxKey() {
+		CFIntBuffTldByNameIdxKey ret = new CFIntBuffTldByNameIdxKey();
+		ret.setRequiredName( "requiredName-value" );
+		return( ret );
+	}
+
+	protected static CFIntBuffTldByTenantIdxKey newByTenantIdxKey() {
+		CFIntBuffTldByTenantIdxKey ret = new CFIntBuffTldByTenantIdxKey();
+		ret.setRequiredTenantId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000019ebca" ) );
+		return( ret );
+	}
+
+	@Benchmark
+	public CFIntBuffTld constructRec() {
+		return( new CFIntBuffTld() );
+	}
+
+	@Benchmark
+	public CFIntBuffTld copyRec() {
+		CFIntBuffTld ret = new CFIntBuffTld();
+		ret.set( vRec );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsRec() {
+		return( vRec.equals( vRecCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeRec() {
+		return( vRec.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedRec() {
+		return( vRec.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToRec() {
+		return( vRec.compareTo( vRecCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentRec() {
+		return( vRec.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffTldH constructH() {
+		return( new CFIntBuffTldH() );
+	}
+
+	@Benchmark
+	public CFIntBuffTldH copyH() {
+		CFIntBuffTldH ret = new CFIntBuffTldH();
+		ret.set( vH );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsH() {
+		return( vH.equals( vHCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeH() {
+		return( vH.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedH() {
+		return( vH.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToH() {
+		return( vH.compareTo( vHCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentH() {
+		return( vH.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffTldHPKey constructHPKey() {
+		return( new CFIntBuffTldHPKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffTldHPKey copyHPKey() {
+		CFIntBuffTldHPKey ret = new CFIntBuffTldHPKey();
+		ret.setAuditClusterId( vHPKey.getAuditClusterId() );
+		ret.setAuditStamp( vHPKey.getAuditStamp() );
+		ret.setAuditActionId( vHPKey.getAuditActionId() );
+		ret.setRequiredRevision( vHPKey.getRequiredRevision() );
+		ret.setAuditSessionId( vHPKey.getAuditSessionId() );
+		ret.setRequiredId( vHPKey.getRequiredId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsHPKey() {
+		return( vHPKey.equals( vHPKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeHPKey() {
+		return( vHPKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedHPKey() {
+		return( vHPKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToHPKey() {
+		return( vHPKey.compareTo( vHPKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentHPKey() {
+		return( vHPKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffTldByNameIdxKey constructByNameIdxKey() {
+		return( new CFIntBuffTldByNameIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffTldByNameIdxKey copyByNameIdxKey() {
+		CFIntBuffTldByNameIdxKey ret = new CFIntBuffTldByNameIdxKey();
+		ret.setRequiredName( vByNameIdxKey.getRequiredName() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByNameIdxKey() {
+		return( vByNameIdxKey.equals( vByNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByNameIdxKey() {
+		return( vByNameIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByNameIdxKey() {
+		return( vByNameIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByNameIdxKey() {
+		return( vByNameIdxKey.compareTo( vByNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByNameIdxKey() {
+		return( vByNameIdxKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffTldByTenantIdxKey constructByTenantIdxKey() {
+		return( new CFIntBuffTldByTenantIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffTldByTenantIdxKey copyByTenantIdxKey() {
+		CFIntBuffTldByTenantIdxKey ret = new CFIntBuffTldByTenantIdxKey();
+		ret.setRequiredTenantId( vByTenantIdxKey.getRequiredTenantId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByTenantIdxKey() {
+		return( vByTenantIdxKey.equals( vByTenantIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByTenantIdxKey() {
+		return( vByTenantIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByTenantIdxKey() {
+		return( vByTenantIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByTenantIdxKey() {
+		return( vByTenantIdxKey.compareTo( vByTenantIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByTenantIdxKey() {
+		return( vByTenantIdxKey.getXmlAttrFragment() );
+	}
+}
@@ -0,0 +1,370 @@
+// Description: Java 25 JMH benchmarks for the CFInt TopDomain buffer classes
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.time.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffTopDomainBench measures construction, copying, equals(),
+ *	hashCode(), compareTo() and getXmlAttrFragment() of the TopDomain buffer
+ *	classes.  Each class has a populated instance and an equal copy, so
+ *	equals() and compareTo() walk every attribute.  hashCodeUncached
+ *	measures the full hash computation that hashCode() memoizes.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class CFIntBuffTopDomainBench
+{
+	protected final static LocalDateTime STAMP = LocalDateTime.of( 2026, 1, 1, 0, 0 );
+
+	protected CFIntBuffTopDomain vRec;
+	protected CFIntBuffTopDomain vRecCopy;
+	protected CFIntBuffTopDomainH vH;
+	protected CFIntBuffTopDomainH vHCopy;
+	protected CFIntBuffTopDomainHPKey vHPKey;
+	protected CFIntBuffTopDomainHPKey vHPKeyCopy;
+	protected CFIntBuffTopDomainByNameIdxKey vByNameIdxKey;
+	protected CFIntBuffTopDomainByNameIdxKey vByNameIdxKeyCopy;
+	protected CFIntBuffTopDomainByTenantIdxKey vByTenantIdxKey;
+	protected CFIntBuffTopDomainByTenantIdxKey vByTenantIdxKeyCopy;
+	protected CFIntBuffTopDomainByTldIdxKey vByTldIdxKey;
+	protected CFIntBuffTopDomainByTldIdxKey vByTldIdxKeyCopy;
+
+	@Setup( Level.Trial )
+	public void setup() {
+		vRec = newRec();
+		vRecCopy = newRec();
+		vH = newH();
+		vHCopy = newH();
+		vHPKey = newHPKey();
+		vHPKeyCopy = newHPKey();
+		vByNameIdxKey = newByNameIdxKey();
+		vByNameIdxKeyCopy = newByNameIdxKey();
+		vByTenantIdxKey = newByTenantIdxKey();
+		vByTenantIdxKeyCopy = newByTenantIdxKey();
+		vByTldIdxKey = newByTldIdxKey();
+		vByTldIdxKeyCopy = newByTldIdxKey();
+	}
+
+	protected static CFIntBuffTopDomain newRec() {
+		CFIntBuffTopDomain ret = new CFIntBuffTopDomain();
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001d2eff" ) );
+		ret.setRequiredRevision( 1 );
+		ret.setCreatedByUserId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001d4dee" ) );
+		ret.setCreatedAt( STAMP );
+		ret.setUpdatedByUserId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001d6cdd" ) );
+		ret.setUpdatedAt( STAMP );
+		ret.setRequiredOwnerTenant( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001d8bcc" ) );
+		ret.setRequiredContainerParentTld( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001daabb" ) );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setOptionalDescription( "optionalDescription-value" );
+		return( ret );
+	}
+
+	protected static CFIntBuffTopDomainH newH() {
+		CFIntBuffTopDomainH ret = new CFIntBuffTopDomainH();
+		ret.setCreatedByUserId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001dc9aa" ) );
+		ret.setCreatedAt( STAMP );
+		ret.setUpdatedByUserId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001de899" ) );
+		ret.setUpdatedAt( STAMP );
+		ret.setRequiredTenantId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001e0788" ) );
+		ret.setRequiredTldId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001e2677" ) );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setOptionalDescription( "optionalDescription-value" );
+		ret.setAuditClusterId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001e4566" ) );
+		ret.setAuditStamp( STAMP );
+		ret.setAuditActionId( (short)1 );
+		ret.setRequiredRevision( 1 );
+		ret.setAuditSessionId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001e6455" ) );
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001e8344" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffTopDomainHPKey newHPKey() {
+		CFIntBuffTopDomainHPKey ret = new CFIntBuffTopDomainHPKey();
+		ret.setAuditClusterId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001ea233" ) );
+		ret.setAuditStamp( STAMP );
+		ret.setAuditActionId( (short)1 );
+		ret.setRequiredRevision( 1 );
+		ret.setAuditSessionId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001ec122" ) );
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001ee011" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffTopDomainByNameIdxKey newByNameIdxKey() {
+		CFIntBuffTopDomainByNameIdxKey ret = new CFIntBuffTopDomainByNameIdxKey();
+		ret.setRequiredTldId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001eff00" ) );
+		ret.setRequiredName( "requiredName-value" );
+		return( ret );
+	}
+
+	protected static CFIntBuffTopDomainByTenantIdxKey newByTenantIdxKey() {
+		CFIntBuffTopDomainByTenantIdxKey ret = new CFIntBuffTopDomainByTenantIdxKey();
+		ret.setRequiredTenantId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001f1def" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffTopDomainByTldIdxKey newByTldIdxKey() {
+		CFIntBuffTopDomainByTldIdxKey ret = new CFIntBuffTopDomainByTldIdxKey();
+		ret.setRequiredTldId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000001f3cde" ) );
+		return( ret );
+	}
+
+	@Benchmark
+	public CFIntBuffTopDomain constructRec() {
+		return( new CFIntBuffTopDomain() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopDomain copyRec() {
+		CFIntBuffTopDomain ret = new CFIntBuffTopDomain();
+		ret.set( vRec );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsRec() {
+		return( vRec.equals( vRecCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeRec() {
+		return( vRec.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedRec() {
+		return( vRec.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToRec() {
+		return( vRec.compareTo( vRecCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentRec() {
+		return( vRec.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopDomainH constructH() {
+		return( new CFIntBuffTopDomainH() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopDomainH copyH() {
+		CFIntBuffTopDomainH ret = new CFIntBuffTopDomainH();
+		ret.set( vH );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsH() {
+		return( vH.equals( vHCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeH() {
+		return( vH.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedH() {
+		return( vH.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToH() {
+		return( vH.compareTo( vHCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentH() {
+		return( vH.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopDomainHPKey constructHPKey() {
+		return( new CFIntBuffTopDomainHPKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopDomainHPKey copyHPKey() {
+		CFIntBuffTopDomainHPKey ret = new CFIntBuffTopDomainHPKey();
+		ret.setAuditClusterId( vHPKey.getAuditClusterId() );
+		ret.setAuditStamp( vHPKey.getAuditStamp() );
+		ret.setAuditActionId( vHPKey.getAuditActionId() );
+		ret.setRequiredRevision( vHPKey.getRequiredRevision() );
+		ret.setAuditSessionId( vHPKey.getAuditSessionId() );
+		ret.setRequiredId( vHPKey.getRequiredId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsHPKey() {
+		return( vHPKey.equals( vHPKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeHPKey() {
+		return( vHPKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedHPKey() {
+		return( vHPKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToHPKey() {
+		return( vHPKey.compareTo( vHPKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentHPKey() {
+		return( vHPKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopDomainByNameIdxKey constructByNameIdxKey() {
+		return( new CFIntBuffTopDomainByNameIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopDomainByNameIdxKey copyByNameIdxKey() {
+		CFIntBuffTopDomainByNameIdxKey ret = new CFIntBuffTopDomainByNameIdxKey();
+		ret.setRequiredTldId( vByNameIdxKey.getRequiredTldId() );
+		ret.setRequiredName( vByNameIdxKey.getRequiredName() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByNameIdxKey() {
+		return( vByNameIdxKey.equals( vByNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByNameIdxKey() {
+		return( vByNameIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByNameIdxKey() {
+		return( vByNameIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByNameIdxKey() {
+		return( vByNameIdxKey.compareTo( vByNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByNameIdxKey() {
+		return( vByNameIdxKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopDomainByTenantIdxKey constructByTenantIdxKey() {
+		return( new CFIntBuffTopDomainByTenantIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopDomainByTenantIdxKey copyByTenantIdxKey() {
+		CFIntBuffTopDomainByTenantIdxKey ret = new CFIntBuffTopDomainByTenantIdxKey();
+		ret.setRequiredTenantId( vByTenantIdxKey.getRequiredTenantId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByTenantIdxKey() {
+		return( vByTenantIdxKey.equals( vByTenantIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByTenantIdxKey() {
+		return( vByTenantIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByTenantIdxKey() {
+		return( vByTenantIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByTenantIdxKey() {
+		return( vByTenantIdxKey.compareTo( vByTenantIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByTenantIdxKey() {
+		return( vByTenantIdxKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopDomainByTldIdxKey constructByTldIdxKey() {
+		return( new CFIntBuffTopDomainByTldIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopDomainByTldIdxKey copyByTldIdxKey() {
+		CFIntBuffTopDomainByTldIdxKey ret = new CFIntBuffTopDomainByTldIdxKey();
+		ret.setRequiredTldId( vByTldIdxKey.getRequiredTldId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByTldIdxKey() {
+		return( vByTldIdxKey.equals( vByTldIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByTldIdxKey() {
+		return( vByTldIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByTldIdxKey() {
+		return( vByTldIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByTldIdxKey() {
+		return( vByTldIdxKey.compareTo( vByTldIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByTldIdxKey() {
+		return( vByTldIdxKey.getXmlAttrFragment() );
+	}
+}
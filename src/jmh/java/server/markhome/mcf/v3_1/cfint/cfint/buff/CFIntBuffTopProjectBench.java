@@ -0,0 +1,370 @@
+// Description: Java 25 JMH benchmarks for the CFInt TopProject buffer classes
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.time.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffTopProjectBench measures construction, copying, equals(),
+ *	hashCode(), compareTo() and getXmlAttrFragment() of the TopProject buffer
+ *	classes.  Each class has a populated instance and an equal copy, so
+ *	equals() and compareTo() walk every attribute.  hashCodeUncached
+ *	measures the full hash computation that hashCode() memoizes.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class CFIntBuffTopProjectBench
+{
+	protected final static LocalDateTime STAMP = LocalDateTime.of( 2026, 1, 1, 0, 0 );
+
+	protected CFIntBuffTopProject vRec;
+	protected CFIntBuffTopProject vRecCopy;
+	protected CFIntBuffTopProjectH vH;
+	protected CFIntBuffTopProjectH vHCopy;
+	protected CFIntBuffTopProjectHPKey vHPKey;
+	protected CFIntBuffTopProjectHPKey vHPKeyCopy;
+	protected CFIntBuffTopProjectByNameIdxKey vByNameIdxKey;
+	protected CFIntBuffTopProjectByNameIdxKey vByNameIdxKeyCopy;
+	protected CFIntBuffTopProjectByTenantIdxKey vByTenantIdxKey;
+	protected CFIntBuffTopProjectByTenantIdxKey vByTenantIdxKeyCopy;
+	protected CFIntBuffTopProjectByTopDomainIdxKey vByTopDomainIdxKey;
+	protected CFIntBuffTopProjectByTopDomainIdxKey vByTopDomainIdxKeyCopy;
+
+	@Setup( Level.Trial )
+	public void setup() {
+		vRec = newRec();
+		vRecCopy = newRec();
+		vH = newH();
+		vHCopy = newH();
+		vHPKey = newHPKey();
+		vHPKeyCopy = newHPKey();
+		vByNameIdxKey = newByNameIdxKey();
+		vByNameIdxKeyCopy = newByNameIdxKey();
+		vByTenantIdxKey = newByTenantIdxKey();
+		vByTenantIdxKeyCopy = newByTenantIdxKey();
+		vByTopDomainIdxKey = newByTopDomainIdxKey();
+		vByTopDomainIdxKeyCopy = newByTopDomainIdxKey();
+	}
+
+	protected static CFIntBuffTopProject newRec() {
+		CFIntBuffTopProject ret = new CFIntBuffTopProject();
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000220457" ) );
+		ret.setRequiredRevision( 1 );
+		ret.setCreatedByUserId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000222346" ) );
+		ret.setCreatedAt( STAMP );
+		ret.setUpdatedByUserId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000224235" ) );
+		ret.setUpdatedAt( STAMP );
+		ret.setRequiredOwnerTenant( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000226124" ) );
+		ret.setRequiredContainerParentSDom( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000228013" ) );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setOptionalDescription( "optionalDescription-value" );
+		return( ret );
+	}
+
+	protected static CFIntBuffTopProjectH newH() {
+		CFIntBuffTopProjectH ret = new CFIntBuffTopProjectH();
+		ret.setCreatedByUserId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000229f02" ) );
+		ret.setCreatedAt( STAMP );
+		ret.setUpdatedByUserId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000022bdf1" ) );
+		ret.setUpdatedAt( STAMP );
+		ret.setRequiredTenantId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000022dce0" ) );
+		ret.setRequiredTopDomainId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000022fbcf" ) );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setOptionalDescription( "optionalDescription-value" );
+		ret.setAuditClusterId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000231abe" ) );
+		ret.setAuditStamp( STAMP );
+		ret.setAuditActionId( (short)1 );
+		ret.setRequiredRevision( 1 );
+		ret.setAuditSessionId( CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000002339ad" ) );
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000023589c" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffTopProjectHPKey newHPKey() {
+		CFIntBuffTopProjectHPKey ret = new CFIntBuffTopProjectHPKey();
+		ret.setAuditClusterId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000023778b" ) );
+		ret.setAuditStamp( STAMP );
+		ret.setAuditActionId( (short)1 );
+		ret.setRequiredRevision( 1 );
+		ret.setAuditSessionId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000023967a" ) );
+		ret.setRequiredId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000023b569" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffTopProjectByNameIdxKey newByNameIdxKey() {
+		CFIntBuffTopProjectByNameIdxKey ret = new CFIntBuffTopProjectByNameIdxKey();
+		ret.setRequiredTopDomainId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000023d458" ) );
+		ret.setRequiredName( "requiredName-value" );
+		return( ret );
+	}
+
+	protected static CFIntBuffTopProjectByTenantIdxKey newByTenantIdxKey() {
+		CFIntBuffTopProjectByTenantIdxKey ret = new CFIntBuffTopProjectByTenantIdxKey();
+		ret.setRequiredTenantId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000023f347" ) );
+		return( ret );
+	}
+
+	protected static CFIntBuffTopProjectByTopDomainIdxKey newByTopDomainIdxKey() {
+		CFIntBuffTopProjectByTopDomainIdxKey ret = new CFIntBuffTopProjectByTopDomainIdxKey();
+		ret.setRequiredTopDomainId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000241236" ) );
+		return( ret );
+	}
+
+	@Benchmark
+	public CFIntBuffTopProject constructRec() {
+		return( new CFIntBuffTopProject() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopProject copyRec() {
+		CFIntBuffTopProject ret = new CFIntBuffTopProject();
+		ret.set( vRec );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsRec() {
+		return( vRec.equals( vRecCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeRec() {
+		return( vRec.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedRec() {
+		return( vRec.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToRec() {
+		return( vRec.compareTo( vRecCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentRec() {
+		return( vRec.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopProjectH constructH() {
+		return( new CFIntBuffTopProjectH() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopProjectH copyH() {
+		CFIntBuffTopProjectH ret = new CFIntBuffTopProjectH();
+		ret.set( vH );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsH() {
+		return( vH.equals( vHCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeH() {
+		return( vH.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedH() {
+		return( vH.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToH() {
+		return( vH.compareTo( vHCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentH() {
+		return( vH.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopProjectHPKey constructHPKey() {
+		return( new CFIntBuffTopProjectHPKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopProjectHPKey copyHPKey() {
+		CFIntBuffTopProjectHPKey ret = new CFIntBuffTopProjectHPKey();
+		ret.setAuditClusterId( vHPKey.getAuditClusterId() );
+		ret.setAuditStamp( vHPKey.getAuditStamp() );
+		ret.setAuditActionId( vHPKey.getAuditActionId() );
+		ret.setRequiredRevision( vHPKey.getRequiredRevision() );
+		ret.setAuditSessionId( vHPKey.getAuditSessionId() );
+		ret.setRequiredId( vHPKey.getRequiredId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsHPKey() {
+		return( vHPKey.equals( vHPKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeHPKey() {
+		return( vHPKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedHPKey() {
+		return( vHPKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToHPKey() {
+		return( vHPKey.compareTo( vHPKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentHPKey() {
+		return( vHPKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopProjectByNameIdxKey constructByNameIdxKey() {
+		return( new CFIntBuffTopProjectByNameIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopProjectByNameIdxKey copyByNameIdxKey() {
+		CFIntBuffTopProjectByNameIdxKey ret = new CFIntBuffTopProjectByNameIdxKey();
+		ret.setRequiredTopDomainId( vByNameIdxKey.getRequiredTopDomainId() );
+		ret.setRequiredName( vByNameIdxKey.getRequiredName() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByNameIdxKey() {
+		return( vByNameIdxKey.equals( vByNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByNameIdxKey() {
+		return( vByNameIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByNameIdxKey() {
+		return( vByNameIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByNameIdxKey() {
+		return( vByNameIdxKey.compareTo( vByNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByNameIdxKey() {
+		return( vByNameIdxKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopProjectByTenantIdxKey constructByTenantIdxKey() {
+		return( new CFIntBuffTopProjectByTenantIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopProjectByTenantIdxKey copyByTenantIdxKey() {
+		CFIntBuffTopProjectByTenantIdxKey ret = new CFIntBuffTopProjectByTenantIdxKey();
+		ret.setRequiredTenantId( vByTenantIdxKey.getRequiredTenantId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByTenantIdxKey() {
+		return( vByTenantIdxKey.equals( vByTenantIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByTenantIdxKey() {
+		return( vByTenantIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByTenantIdxKey() {
+		return( vByTenantIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByTenantIdxKey() {
+		return( vByTenantIdxKey.compareTo( vByTenantIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByTenantIdxKey() {
+		return( vByTenantIdxKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopProjectByTopDomainIdxKey constructByTopDomainIdxKey() {
+		return( new CFIntBuffTopProjectByTopDomainIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffTopProjectByTopDomainIdxKey copyByTopDomainIdxKey() {
+		CFIntBuffTopProjectByTopDomainIdxKey ret = new CFIntBuffTopProjectByTopDomainIdxKey();
+		ret.setRequiredTopDomainId( vByTopDomainIdxKey.getRequiredTopDomainId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByTopDomainIdxKey() {
+		return( vByTopDomainIdxKey.equals( vByTopDomainIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByTopDomainIdxKey() {
+		return( vByTopDomainIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByTopDomainIdxKey() {
+		return( vByTopDomainIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByTopDomainIdxKey() {
+		return( vByTopDomainIdxKey.compareTo( vByTopDomainIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByTopDomainIdxKey() {
+		return( vByTopDomainIdxKey.getXmlAttrFragment() );
+	}
+}
@@ -0,0 +1,319 @@
+// Description: Java 25 JMH benchmarks for the CFInt URLProtocol buffer classes
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.time.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffURLProtocolBench measures construction, copying, equals(),
+ *	hashCode(), compareTo() and getXmlAttrFragment() of the URLProtocol buffer
+ *	classes.  Each class has a populated instance and an equal copy, so
+ *	equals() and compareTo() walk every attribute.  hashCodeUncached
+ *	measures the full hash computation that hashCode() memoizes.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class CFIntBuffURLProtocolBench
+{
+	protected final static LocalDateTime STAMP = LocalDateTime.of( 2026, 1, 1, 0, 0 );
+
+	protected CFIntBuffURLProtocol vRec;
+	protected CFIntBuffURLProtocol vRecCopy;
+	protected CFIntBuffURLProtocolH vH;
+	protected CFIntBuffURLProtocolH vHCopy;
+	protected CFIntBuffURLProtocolHPKey vHPKey;
+	protected CFIntBuffURLProtocolHPKey vHPKeyCopy;
+	protected CFIntBuffURLProtocolByIsSecureIdxKey vByIsSecureIdxKey;
+	protected CFIntBuffURLProtocolByIsSecureIdxKey vByIsSecureIdxKeyCopy;
+	protected CFIntBuffURLProtocolByUNameIdxKey vByUNameIdxKey;
+	protected CFIntBuffURLProtocolByUNameIdxKey vByUNameIdxKeyCopy;
+
+	@Setup( Level.Trial )
+	public void setup() {
+		vRec = newRec();
+		vRecCopy = newRec();
+		vH = newH();
+		vHCopy = newH();
+		vHPKey = newHPKey();
+		vHPKeyCopy = newHPKey();
+		vByIsSecureIdxKey = newByIsSecureIdxKey();
+		vByIsSecureIdxKeyCopy = newByIsSecureIdxKey();
+		vByUNameIdxKey = newByUNameIdxKey();
+		vByUNameIdxKeyCopy = newByUNameIdxKey();
+	}
+
+	protected static CFIntBuffURLProtocol newRec() {
+		CFIntBuffURLProtocol ret = new CFIntBuffURLProtocol();
+		ret.setRequiredURLProtocolId( 42 );
+		ret.setRequiredRevision( 1 );
+		ret.setCreatedByUserId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000026d9af" ) );
+		ret.setCreatedAt( STAMP );
+		ret.setUpdatedByUserId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000026f89e" ) );
+		ret.setUpdatedAt( STAMP );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setRequiredDescription( "requiredDescription-value" );
+		ret.setRequiredIsSecure( true );
+		return( ret );
+	}
+
+	protected static CFIntBuffURLProtocolH newH() {
+		CFIntBuffURLProtocolH ret = new CFIntBuffURLProtocolH();
+		ret.setCreatedByUserId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000027178d" ) );
+		ret.setCreatedAt( STAMP );
+		ret.setUpdatedByUserId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000027367c" ) );
+		ret.setUpdatedAt( STAMP );
+		ret.setRequiredName( "requiredName-value" );
+		ret.setRequiredDescription( "requiredDescription-value" );
+		ret.setRequiredIsSecure( true );
+		ret.setAuditClusterId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000027556b" ) );
+		ret.setAuditStamp( STAMP );
+		ret.setAuditActionId( (short)1 );
+		ret.setRequiredRevision( 1 );
+		ret.setAuditSessionId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000027745a" ) );
+		ret.setRequiredURLProtocolId( 42 );
+		return( ret );
+	}
+
+	protected static CFIntBuffURLProtocolHPKey newHPKey() {
+		CFIntBuffURLProtocolHPKey ret = new CFIntBuffURLProtocolHPKey();
+		ret.setAuditClusterId( CFLibDbKeyHash256.fromHex( "0000000000000000000000000000000000000000000000000000000000279349" ) );
+		ret.setAuditStamp( STAMP );
+		ret.setAuditActionId( (short)1 );
+		ret.setRequiredRevision( 1 );
+		ret.setAuditSessionId( CFLibDbKeyHash256.fromHex( "000000000000000000000000000000000000000000000000000000000027b238" ) );
+		ret.setRequiredURLProtocolId( 42 );
+		return( ret );
+	}
+
+	protected static CFIntBuffURLProtocolByIsSecureIdxKey newByIsSecureIdxKey() {
+		CFIntBuffURLProtocolByIsSecureIdxKey ret = new CFIntBuffURLProtocolByIsSecureIdxKey();
+		ret.setRequiredIsSecure( true );
+		return( ret );
+	}
+
+	protected static CFIntBuffURLProtocolByUNameIdxKey newByUNameIdxKey() {
+		CFIntBuffURLProtocolByUNameIdxKey ret = new CFIntBuffURLProtocolByUNameIdxKey();
+		ret.setRequiredName( "requiredName-value" );
+		return( ret );
+	}
+
+	@Benchmark
+	public CFIntBuffURLProtocol constructRec() {
+		return( new CFIntBuffURLProtocol() );
+	}
+
+	@Benchmark
+	public CFIntBuffURLProtocol copyRec() {
+		CFIntBuffURLProtocol ret = new CFIntBuffURLProtocol();
+		ret.set( vRec );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsRec() {
+		return( vRec.equals( vRecCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeRec() {
+		return( vRec.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedRec() {
+		return( vRec.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToRec() {
+		return( vRec.compareTo( vRecCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentRec() {
+		return( vRec.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffURLProtocolH constructH() {
+		return( new CFIntBuffURLProtocolH() );
+	}
+
+	@Benchmark
+	public CFIntBuffURLProtocolH copyH() {
+		CFIntBuffURLProtocolH ret = new CFIntBuffURLProtocolH();
+		ret.set( vH );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsH() {
+		return( vH.equals( vHCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeH() {
+		return( vH.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedH() {
+		return( vH.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToH() {
+		return( vH.compareTo( vHCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentH() {
+		return( vH.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffURLProtocolHPKey constructHPKey() {
+		return( new CFIntBuffURLProtocolHPKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffURLProtocolHPKey copyHPKey() {
+		CFIntBuffURLProtocolHPKey ret = new CFIntBuffURLProtocolHPKey();
+		ret.setAuditClusterId( vHPKey.getAuditClusterId() );
+		ret.setAuditStamp( vHPKey.getAuditStamp() );
+		ret.setAuditActionId( vHPKey.getAuditActionId() );
+		ret.setRequiredRevision( vHPKey.getRequiredRevision() );
+		ret.setAuditSessionId( vHPKey.getAuditSessionId() );
+		ret.setRequiredURLProtocolId( vHPKey.getRequiredURLProtocolId() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsHPKey() {
+		return( vHPKey.equals( vHPKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeHPKey() {
+		return( vHPKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedHPKey() {
+		return( vHPKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToHPKey() {
+		return( vHPKey.compareTo( vHPKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentHPKey() {
+		return( vHPKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffURLProtocolByIsSecureIdxKey constructByIsSecureIdxKey() {
+		return( new CFIntBuffURLProtocolByIsSecureIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffURLProtocolByIsSecureIdxKey copyByIsSecureIdxKey() {
+		CFIntBuffURLProtocolByIsSecureIdxKey ret = new CFIntBuffURLProtocolByIsSecureIdxKey();
+		ret.setRequiredIsSecure( vByIsSecureIdxKey.getRequiredIsSecure() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByIsSecureIdxKey() {
+		return( vByIsSecureIdxKey.equals( vByIsSecureIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByIsSecureIdxKey() {
+		return( vByIsSecureIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByIsSecureIdxKey() {
+		return( vByIsSecureIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByIsSecureIdxKey() {
+		return( vByIsSecureIdxKey.compareTo( vByIsSecureIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByIsSecureIdxKey() {
+		return( vByIsSecureIdxKey.getXmlAttrFragment() );
+	}
+
+	@Benchmark
+	public CFIntBuffURLProtocolByUNameIdxKey constructByUNameIdxKey() {
+		return( new CFIntBuffURLProtocolByUNameIdxKey() );
+	}
+
+	@Benchmark
+	public CFIntBuffURLProtocolByUNameIdxKey copyByUNameIdxKey() {
+		CFIntBuffURLProtocolByUNameIdxKey ret = new CFIntBuffURLProtocolByUNameIdxKey();
+		ret.setRequiredName( vByUNameIdxKey.getRequiredName() );
+		return( ret );
+	}
+
+	@Benchmark
+	public boolean equalsByUNameIdxKey() {
+		return( vByUNameIdxKey.equals( vByUNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public int hashCodeByUNameIdxKey() {
+		return( vByUNameIdxKey.hashCode() );
+	}
+
+	@Benchmark
+	public int hashCodeUncachedByUNameIdxKey() {
+		return( vByUNameIdxKey.computeHashCode() );
+	}
+
+	@Benchmark
+	public int compareToByUNameIdxKey() {
+		return( vByUNameIdxKey.compareTo( vByUNameIdxKeyCopy ) );
+	}
+
+	@Benchmark
+	public String xmlAttrFragmentByUNameIdxKey() {
+		return( vByUNameIdxKey.getXmlAttrFragment() );
+	}
+}
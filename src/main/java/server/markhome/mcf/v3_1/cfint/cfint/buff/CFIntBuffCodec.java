@@ -0,0 +1,283 @@
+// Description: Java 25 binary field codec shared by the CFInt buffer codecs.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/*
+ *	CFIntBuffCodec holds the field encodings used by the per-entity
+ *	CFIntBuff*Codec classes.  Every encoded record starts with a format
+ *	version byte and the entity class code, followed by its columns:
+ *
+ *	<ul>
+ *	<li>ids are a tag byte and, when present, the 32 raw hash bytes;</li>
+ *	<li>timestamps are UTC epoch seconds and a nanosecond int, with
+ *		Long.MIN_VALUE seconds standing for null;</li>
+ *	<li>strings are an int UTF-8 byte length, -1 for null, and the bytes.</li>
+ *	</ul>
+ *
+ *	Multi-byte values use the byte order of the buffer; the buffers built
+ *	here and by the entity codecs are big-endian.
+ */
+public class CFIntBuffCodec
+{
+	/**
+	 *	The current format version.  Decoders reject any other version.
+	 */
+	public final static byte FORMAT_VERSION = 1;
+
+	public final static int HEADER_SIZE = 1 + 4;
+	public final static int KEY_BYTES = 32;
+	public final static int KEY_SIZE = 1 + KEY_BYTES;
+	public final static int TIMESTAMP_SIZE = 8 + 4;
+	public final static int INT_SIZE = 4;
+	public final static int BOOLEAN_SIZE = 1;
+
+	protected final static byte KEY_ABSENT = 0;
+	protected final static byte KEY_PRESENT = 1;
+	protected final static byte KEY_NULL_VALUE = 2;
+
+	protected final static long NULL_EPOCH_SECOND = Long.MIN_VALUE;
+
+	private CFIntBuffCodec() {
+	}
+
+	public static void putHeader( ByteBuffer buf, int classCode ) {
+		buf.put( FORMAT_VERSION );
+		buf.putInt( classCode );
+	}
+
+	/**
+	 *	Read and check a record header.
+	 *
+	 *	@param	buf	The buffer positioned at the header.
+	 *	@param	classCode	The class code the caller expects.
+	 *	@param	entityName	The entity name for error messages.
+	 */
+	public static void getHeader( ByteBuffer buf, int classCode, String entityName ) {
+		final String S_ProcName = "getHeader";
+		byte version = buf.get();
+		if( version != FORMAT_VERSION ) {
+			throw new CFLibArgumentOverflowException( CFIntBuffCodec.class,
+				S_ProcName,
+				1,
+				entityName + ".version",
+				version,
+				FORMAT_VERSION );
+		}
+		int code = buf.getInt();
+		if( code != classCode ) {
+			throw new CFLibUnsupportedClassException( CFIntBuffCodec.class,
+				S_ProcName,
+				"classCode",
+				Integer.valueOf( code ),
+				entityName );
+		}
+	}
+
+	public static void putKey( ByteBuffer buf, CFLibDbKeyHash256 value ) {
+		if( value == null ) {
+			buf.put( KEY_ABSENT );
+		}
+		else if( value.isNull() ) {
+			buf.put( KEY_NULL_VALUE );
+		}
+		else {
+			buf.put( KEY_PRESENT );
+			buf.put( toKeyBytes( value, new byte[ KEY_BYTES ] ) );
+		}
+	}
+
+	/**
+	 *	Copy the raw hash bytes of a key into dst.
+	 *
+	 *	@param	value	A non-null key.
+	 *	@param	dst	An array of at least KEY_BYTES bytes.
+	 *	@return	dst.
+	 */
+	public static byte[] toKeyBytes( CFLibDbKeyHash256 value, byte[] dst ) {
+		System.arraycopy( value.getBytes(), 0, dst, 0, KEY_BYTES );
+		return( dst );
+	}
+
+	public static CFLibDbKeyHash256 getKey( ByteBuffer buf ) {
+		byte tag = buf.get();
+		switch( tag ) {
+			case KEY_ABSENT:
+				return( null );
+			case KEY_NULL_VALUE:
+				return( CFLibDbKeyHash256.nullGet() );
+			case KEY_PRESENT:
+				byte[] bytes = new byte[ KEY_BYTES ];
+				buf.get( bytes );
+				return( CFIntBuffSchema.canonicalKey( new CFLibDbKeyHash256( bytes ) ) );
+			default:
+				throw new CFLibArgumentOverflowException( CFIntBuffCodec.class,
+					"getKey",
+					1,
+					"tag",
+					tag,
+					KEY_NULL_VALUE );
+		}
+	}
+
+	public static int sizeOfKey( CFLibDbKeyHash256 value ) {
+		return( ( ( value == null ) || value.isNull() ) ? 1 : KEY_SIZE );
+	}
+
+	public static void putTimestamp( ByteBuffer buf, LocalDateTime value ) {
+		if( value == null ) {
+			buf.putLong( NULL_EPOCH_SECOND );
+			buf.putInt( 0 );
+		}
+		else {
+			buf.putLong( value.toEpochSecond( ZoneOffset.UTC ) );
+			buf.putInt( value.getNano() );
+		}
+	}
+
+	public static LocalDateTime getTimestamp( ByteBuffer buf ) {
+		long seconds = buf.getLong();
+		int nanos = buf.getInt();
+		if( seconds == NULL_EPOCH_SECOND ) {
+			return( null );
+		}
+		return( LocalDateTime.ofEpochSecond( seconds, nanos, ZoneOffset.UTC ) );
+	}
+
+	public static void putString( ByteBuffer buf, String value ) {
+		if( value == null ) {
+			buf.putInt( -1 );
+		}
+		else {
+			byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+			buf.putInt( bytes.length );
+			buf.put( bytes );
+		}
+	}
+
+	public static String getString( ByteBuffer buf ) {
+		int len = buf.getInt();
+		if( len < 0 ) {
+			return( null );
+		}
+		if( len > buf.remaining() ) {
+			throw new CFLibArgumentOverflowException( CFIntBuffCodec.class,
+				"getString",
+				1,
+				"length",
+				len,
+				buf.remaining() );
+		}
+		String ret;
+		if( buf.hasArray() ) {
+			ret = new String( buf.array(), buf.arrayOffset() + buf.position(), len, StandardCharsets.UTF_8 );
+			buf.position( buf.position() + len );
+		}
+		else {
+			byte[] bytes = new byte[ len ];
+			buf.get( bytes );
+			ret = new String( bytes, StandardCharsets.UTF_8 );
+		}
+		return( ret );
+	}
+
+	/**
+	 *	Get the encoded size of a string without encoding it.
+	 *
+	 *	@param	value	The string, or null.
+	 *	@return	The length prefix plus the UTF-8 byte count.
+	 */
+	public static int sizeOfString( String value ) {
+		if( value == null ) {
+			return( INT_SIZE );
+		}
+		int len = value.length();
+		int bytes = 0;
+		for( int i = 0; i < len; i++ ) {
+			char c = value.charAt( i );
+			if( c < 0x80 ) {
+				bytes += 1;
+			}
+			else if( c < 0x800 ) {
+				bytes += 2;
+			}
+			else if( Character.isHighSurrogate( c ) && ( i + 1 < len ) && Character.isLowSurrogate( value.charAt( i + 1 ) ) ) {
+				bytes += 4;
+				i++;
+			}
+			else if( Character.isSurrogate( c ) ) {
+				// String.getBytes() replaces an unpaired surrogate with '?'
+				bytes += 1;
+			}
+			else {
+				bytes += 3;
+			}
+		}
+		return( INT_SIZE + bytes );
+	}
+
+	public static void putBoolean( ByteBuffer buf, boolean value ) {
+		buf.put( value ? (byte)1 : (byte)0 );
+	}
+
+	public static boolean getBoolean( ByteBuffer buf ) {
+		return( buf.get() != 0 );
+	}
+
+	/**
+	 *	Write an encoded record to an Externalizable stream as a length
+	 *	prefixed block.
+	 *
+	 *	@param	out	The object stream.
+	 *	@param	buf	The encoded record, flipped for reading.
+	 */
+	public static void writeBlock( ObjectOutput out, ByteBuffer buf ) throws IOException {
+		out.writeInt( buf.remaining() );
+		out.write( buf.array(), buf.arrayOffset() + buf.position(), buf.remaining() );
+	}
+
+	/**
+	 *	Read a block written by writeBlock().
+	 *
+	 *	@param	in	The object stream.
+	 *	@return	A big-endian buffer over the block.
+	 */
+	public static ByteBuffer readBlock( ObjectInput in ) throws IOException {
+		int len = in.readInt();
+		if( len < HEADER_SIZE ) {
+			throw new StreamCorruptedException( "Encoded record length " + len + " is too short" );
+		}
+		byte[] bytes = new byte[ len ];
+		in.readFully( bytes );
+		return( ByteBuffer.wrap( bytes ) );
+	}
+}
@@ -0,0 +1,830 @@
+// Description: Java 25 columnar append-only history store for the CFInt buffer tables.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+import java.util.function.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/*
+ *	CFIntBuffColumnarHistoryStore keeps history rows as columns instead of
+ *	CFIntBuff*H objects.  Rows are appended to fixed size segments of
+ *	primitive arrays: revision, audit action and epoch stamps are stored
+ *	directly, ids are dictionary codes and strings are codes into a string
+ *	pool, both dictionaries being shared with the other stores of the
+ *	schema.  A row costs a few dozen bytes however many objects it names,
+ *	and CFIntBuff*H objects are only built for the rows a read returns.
+ *	Each held row keeps a reference to every code it names, and gives
+ *	them back when its segment is freed or the store is cleared.
+ *
+ *	Each key maps to an immutable array of its row numbers sorted by
+ *	auditStamp and then revision, so an as-of read is one binary search.
+ *	Appends are serialized by the append lock; reads never lock.
+ *	reclaim() frees mostly dead segments one at a time, copying their live
+ *	rows to the tail first, and a read that overlaps the release of a
+ *	segment is retried.  The segments and key map together form a
+ *	generation, which clear() replaces as a whole so that no reader ever
+ *	sees half of each.
+ *
+ *	What columns an entity has, and how to get and set them on its H
+ *	class, is described by a Layout.
+ */
+public class CFIntBuffColumnarHistoryStore< K, H >
+	implements ICFIntBuffHistoryStore< K, H >
+{
+	public final static int SEGMENT_SHIFT = 10;
+	public final static int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+	protected final static int SEGMENT_MASK = SEGMENT_SIZE - 1;
+	protected final static int MAX_SEGMENTS = 1 << ( 31 - SEGMENT_SHIFT );
+
+	protected final static long NULL_EPOCH_SECOND = Long.MIN_VALUE;
+
+	/**
+	 *	Describes the columns of one entity's history rows.  The audit
+	 *	columns every H class carries are set with the named methods; the
+	 *	data columns are added in any order and restored in the same order.
+	 *	A null column value is stored as null and left unset on the rows
+	 *	built from it, since several H setters reject null.
+	 */
+	public static class Layout< K, H >
+	{
+		protected final Supplier< H > newRow;
+		protected final IntFunction< H[] > newArray;
+		protected Function< H, K > idGetter;
+		protected BiConsumer< H, K > idSetter;
+		protected ToIntFunction< H > revisionGetter;
+		protected ObjIntConsumer< H > revisionSetter;
+		protected Function< H, LocalDateTime > stampGetter;
+		protected BiConsumer< H, LocalDateTime > stampSetter;
+		protected ToIntFunction< H > actionGetter;
+		protected ObjIntConsumer< H > actionSetter;
+		protected Function< H, CFLibDbKeyHash256 > clusterGetter;
+		protected BiConsumer< H, CFLibDbKeyHash256 > clusterSetter;
+		protected Function< H, CFLibDbKeyHash256 > sessionGetter;
+		protected BiConsumer< H, CFLibDbKeyHash256 > sessionSetter;
+		protected final ArrayList< Function< H, CFLibDbKeyHash256 > > keyGetters = new ArrayList<>();
+		protected final ArrayList< BiConsumer< H, CFLibDbKeyHash256 > > keySetters = new ArrayList<>();
+		protected final ArrayList< Function< H, String > > stringGetters = new ArrayList<>();
+		protected final ArrayList< BiConsumer< H, String > > stringSetters = new ArrayList<>();
+		protected final ArrayList< ToIntFunction< H > > intGetters = new ArrayList<>();
+		protected final ArrayList< ObjIntConsumer< H > > intSetters = new ArrayList<>();
+		protected final ArrayList< Function< H, LocalDateTime > > timestampGetters = new ArrayList<>();
+		protected final ArrayList< BiConsumer< H, LocalDateTime > > timestampSetters = new ArrayList<>();
+
+		public Layout( Supplier< H > argNewRow, IntFunction< H[] > argNewArray ) {
+			newRow = argNewRow;
+			newArray = argNewArray;
+		}
+
+		public Layout< K, H > id( Function< H, K > getter, BiConsumer< H, K > setter ) {
+			idGetter = getter;
+			idSetter = setter;
+			return( this );
+		}
+
+		public Layout< K, H > revision( ToIntFunction< H > getter, ObjIntConsumer< H > setter ) {
+			revisionGetter = getter;
+			revisionSetter = setter;
+			return( this );
+		}
+
+		public Layout< K, H > auditStamp( Function< H, LocalDateTime > getter, BiConsumer< H, LocalDateTime > setter ) {
+			stampGetter = getter;
+			stampSetter = setter;
+			return( this );
+		}
+
+		public Layout< K, H > auditActionId( ToIntFunction< H > getter, ObjIntConsumer< H > setter ) {
+			actionGetter = getter;
+			actionSetter = setter;
+			return( this );
+		}
+
+		public Layout< K, H > auditClusterId( Function< H, CFLibDbKeyHash256 > getter, BiConsumer< H, CFLibDbKeyHash256 > setter ) {
+			clusterGetter = getter;
+			clusterSetter = setter;
+			return( this );
+		}
+
+		public Layout< K, H > auditSessionId( Function< H, CFLibDbKeyHash256 > getter, BiConsumer< H, CFLibDbKeyHash256 > setter ) {
+			sessionGetter = getter;
+			sessionSetter = setter;
+			return( this );
+		}
+
+		public Layout< K, H > keyColumn( Function< H, CFLibDbKeyHash256 > getter, BiConsumer< H, CFLibDbKeyHash256 > setter ) {
+			keyGetters.add( getter );
+			keySetters.add( setter );
+			return( this );
+		}
+
+		public Layout< K, H > stringColumn( Function< H, String > getter, BiConsumer< H, String > setter ) {
+			stringGetters.add( getter );
+			stringSetters.add( setter );
+			return( this );
+		}
+
+		public Layout< K, H > intColumn( ToIntFunction< H > getter, ObjIntConsumer< H > setter ) {
+			intGetters.add( getter );
+			intSetters.add( setter );
+			return( this );
+		}
+
+		public Layout< K, H > timestampColumn( Function< H, LocalDateTime > getter, BiConsumer< H, LocalDateTime > setter ) {
+			timestampGetters.add( getter );
+			timestampSetters.add( setter );
+			return( this );
+		}
+
+		protected void check() {
+			final String S_ProcName = "check";
+			if( idGetter == null ) {
+				throw new CFLibNullArgumentException( getClass(), S_ProcName, 0, "id" );
+			}
+			if( revisionGetter == null ) {
+				throw new CFLibNullArgumentException( getClass(), S_ProcName, 0, "revision" );
+			}
+			if( stampGetter == null ) {
+				throw new CFLibNullArgumentException( getClass(), S_ProcName, 0, "auditStamp" );
+			}
+			if( actionGetter == null ) {
+				throw new CFLibNullArgumentException( getClass(), S_ProcName, 0, "auditActionId" );
+			}
+			if( clusterGetter == null ) {
+				throw new CFLibNullArgumentException( getClass(), S_ProcName, 0, "auditClusterId" );
+			}
+			if( sessionGetter == null ) {
+				throw new CFLibNullArgumentException( getClass(), S_ProcName, 0, "auditSessionId" );
+			}
+		}
+	}
+
+	/*
+	 *	SEGMENT_SIZE rows of every column.  A segment's rows are never
+	 *	changed once written, and a freed slot gets a new segment.
+	 */
+	protected static class Segment
+	{
+		protected int used = 0;
+		protected int live = 0;
+		protected final int[] idCode = new int[ SEGMENT_SIZE ];
+		protected final int[] revision = new int[ SEGMENT_SIZE ];
+		protected final short[] actionId = new short[ SEGMENT_SIZE ];
+		protected final long[] stampSeconds = new long[ SEGMENT_SIZE ];
+		protected final int[] stampNanos = new int[ SEGMENT_SIZE ];
+		protected final int[] clusterCode = new int[ SEGMENT_SIZE ];
+		protected final int[] sessionCode = new int[ SEGMENT_SIZE ];
+		protected final int[][] keyCodes;
+		protected final int[][] stringCodes;
+		protected final int[][] ints;
+		protected final long[][] timestampSeconds;
+		protected final int[][] timestampNanos;
+
+		protected Segment( Layout< ?, ? > layout ) {
+			keyCodes = new int[ layout.keyGetters.size() ][ SEGMENT_SIZE ];
+			stringCodes = new int[ layout.stringGetters.size() ][ SEGMENT_SIZE ];
+			ints = new int[ layout.intGetters.size() ][ SEGMENT_SIZE ];
+			timestampSeconds = new long[ layout.timestampGetters.size() ][ SEGMENT_SIZE ];
+			timestampNanos = new int[ layout.timestampGetters.size() ][ SEGMENT_SIZE ];
+		}
+	}
+
+	/*
+	 *	The rows and key map that are replaced together.  A row number is
+	 *	its segment slot and offset; freed slots are null until reused.
+	 *	releases counts the segments freed, so readers can tell when one
+	 *	was freed under them.
+	 */
+	protected static class Generation< K >
+	{
+		protected volatile Segment[] segments = new Segment[ 0 ];
+		protected volatile int segmentCount = 0;
+		protected volatile int rowCount = 0;
+		protected volatile int releases = 0;
+		protected final ConcurrentHashMap< K, int[] > rowsById = new ConcurrentHashMap<>();
+		protected final AtomicLong deadRowCount = new AtomicLong();
+		protected int tailSlot = -1;
+		protected final ArrayDeque< Integer > freeSlots = new ArrayDeque<>();
+	}
+
+	protected final Layout< K, H > layout;
+	protected final CFIntBuffHistoryDictionary< K > idDictionary = new CFIntBuffHistoryDictionary<>();
+	protected final CFIntBuffHistoryDictionary< CFLibDbKeyHash256 > keyDictionary;
+	protected final CFIntBuffHistoryDictionary< String > stringPool;
+	protected final ReentrantLock appendLock = new ReentrantLock();
+	protected volatile Generation< K > generation = new Generation<>();
+
+	/**
+	 *	@param	argLayout	The entity's column layout.
+	 *	@param	argKeyDictionary	The dictionary shared by the id columns.
+	 *	@param	argStringPool	The dictionary shared by the string columns.
+	 */
+	public CFIntBuffColumnarHistoryStore( Layout< K, H > argLayout,
+		CFIntBuffHistoryDictionary< CFLibDbKeyHash256 > argKeyDictionary,
+		CFIntBuffHistoryDictionary< String > argStringPool )
+	{
+		final String S_ProcName = "constructor";
+		if( argLayout == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 1, "argLayout" );
+		}
+		if( argKeyDictionary == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 2, "argKeyDictionary" );
+		}
+		if( argStringPool == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 3, "argStringPool" );
+		}
+		argLayout.check();
+		layout = argLayout;
+		keyDictionary = argKeyDictionary;
+		stringPool = argStringPool;
+	}
+
+	@Override
+	public void add( H row ) {
+		if( row == null ) {
+			throw new CFLibNullArgumentException( getClass(),
+				"add",
+				1,
+				"row" );
+		}
+		K id = layout.idGetter.apply( row );
+		appendLock.lock();
+		try {
+			Generation< K > gen = generation;
+			int at = appendRow( gen, row, id );
+			gen.rowsById.compute( id, ( key, rows ) -> insert( gen, rows, at ) );
+		}
+		finally {
+			appendLock.unlock();
+		}
+	}
+
+	/**
+	 *	Write a row into the columns and publish it.  Called with the
+	 *	append lock held.
+	 *
+	 *	@return	The new row number.
+	 */
+	protected int appendRow( Generation< K > gen, H row, K id ) {
+		int at = nextRow( gen );
+		Segment seg = gen.segments[ at >>> SEGMENT_SHIFT ];
+		int off = at & SEGMENT_MASK;
+		seg.idCode[ off ] = idDictionary.encode( id );
+		seg.revision[ off ] = layout.revisionGetter.applyAsInt( row );
+		seg.actionId[ off ] = (short)layout.actionGetter.applyAsInt( row );
+		LocalDateTime stamp = layout.stampGetter.apply( row );
+		seg.stampSeconds[ off ] = toEpochSecond( stamp );
+		seg.stampNanos[ off ] = ( stamp != null ) ? stamp.getNano() : 0;
+		seg.clusterCode[ off ] = keyDictionary.encode( layout.clusterGetter.apply( row ) );
+		seg.sessionCode[ off ] = keyDictionary.encode( layout.sessionGetter.apply( row ) );
+		for( int col = 0; col < seg.keyCodes.length; col++ ) {
+			seg.keyCodes[ col ][ off ] = keyDictionary.encode( layout.keyGetters.get( col ).apply( row ) );
+		}
+		for( int col = 0; col < seg.stringCodes.length; col++ ) {
+			seg.stringCodes[ col ][ off ] = stringPool.encode( layout.stringGetters.get( col ).apply( row ) );
+		}
+		for( int col = 0; col < seg.ints.length; col++ ) {
+			seg.ints[ col ][ off ] = layout.intGetters.get( col ).applyAsInt( row );
+		}
+		for( int col = 0; col < seg.timestampSeconds.length; col++ ) {
+			LocalDateTime value = layout.timestampGetters.get( col ).apply( row );
+			seg.timestampSeconds[ col ][ off ] = toEpochSecond( value );
+			seg.timestampNanos[ col ][ off ] = ( value != null ) ? value.getNano() : 0;
+		}
+		return( at );
+	}
+
+	/**
+	 *	Claim the number of the next row, starting a new tail segment when
+	 *	the current one is full.  A freed slot is reused before the slot
+	 *	array grows.  Called with the append lock held.
+	 *
+	 *	@return	The claimed row number.
+	 */
+	protected int nextRow( Generation< K > gen ) {
+		Segment[] segs = gen.segments;
+		if( ( gen.tailSlot < 0 ) || ( segs[ gen.tailSlot ].used == SEGMENT_SIZE ) ) {
+			int slot;
+			if( gen.freeSlots.isEmpty() ) {
+				slot = segs.length;
+				if( slot == MAX_SEGMENTS ) {
+					throw new CFLibArgumentOverflowException( getClass(),
+						"nextRow",
+						1,
+						"segmentCount",
+						slot,
+						MAX_SEGMENTS - 1 );
+				}
+				segs = Arrays.copyOf( segs, slot + 1 );
+			}
+			else {
+				slot = gen.freeSlots.pop().intValue();
+				segs = segs.clone();
+			}
+			segs[ slot ] = new Segment( layout );
+			gen.segments = segs;
+			gen.segmentCount = gen.segmentCount + 1;
+			gen.tailSlot = slot;
+		}
+		Segment seg = segs[ gen.tailSlot ];
+		int off = seg.used;
+		seg.used = off + 1;
+		seg.live++;
+		gen.rowCount = gen.rowCount + 1;
+		return( ( gen.tailSlot << SEGMENT_SHIFT ) | off );
+	}
+
+	protected static long toEpochSecond( LocalDateTime value ) {
+		return( ( value != null ) ? value.toEpochSecond( ZoneOffset.UTC ) : NULL_EPOCH_SECOND );
+	}
+
+	protected static LocalDateTime fromEpochSecond( long seconds, int nanos ) {
+		if( seconds == NULL_EPOCH_SECOND ) {
+			return( null );
+		}
+		return( LocalDateTime.ofEpochSecond( seconds, nanos, ZoneOffset.UTC ) );
+	}
+
+	protected int[] insert( Generation< K > gen, int[] rows, int row ) {
+		if( rows == null ) {
+			return( new int[] { row } );
+		}
+		Segment[] segs = gen.segments;
+		int at = rows.length;
+		while( ( at > 0 ) && ( compareRows( segs, rows[ at - 1 ], row ) > 0 ) ) {
+			at--;
+		}
+		int[] ret = new int[ rows.length + 1 ];
+		System.arraycopy( rows, 0, ret, 0, at );
+		ret[ at ] = row;
+		System.arraycopy( rows, at, ret, at + 1, rows.length - at );
+		return( ret );
+	}
+
+	protected static int compareRows( Segment[] segs, int lhs, int rhs ) {
+		Segment lseg = segs[ lhs >>> SEGMENT_SHIFT ];
+		Segment rseg = segs[ rhs >>> SEGMENT_SHIFT ];
+		int loff = lhs & SEGMENT_MASK;
+		int roff = rhs & SEGMENT_MASK;
+		int cmp = compareStamp( lseg, loff, rseg.stampSeconds[ roff ], rseg.stampNanos[ roff ] );
+		if( cmp == 0 ) {
+			cmp = Integer.compare( lseg.revision[ loff ], rseg.revision[ roff ] );
+		}
+		return( cmp );
+	}
+
+	protected static int compareStamp( Segment seg, int off, long seconds, int nanos ) {
+		int cmp = Long.compare( seg.stampSeconds[ off ], seconds );
+		if( cmp == 0 ) {
+			cmp = Integer.compare( seg.stampNanos[ off ], nanos );
+		}
+		return( cmp );
+	}
+
+	/**
+	 *	Get the index in rows of the first row stamped after, or when
+	 *	inclusive at or after, the given stamp.
+	 */
+	protected static int searchStamp( Segment[] segs, int[] rows, long seconds, int nanos, boolean inclusive ) {
+		int lo = 0;
+		int hi = rows.length;
+		while( lo < hi ) {
+			int mid = ( lo + hi ) >>> 1;
+			int row = rows[ mid ];
+			int cmp = compareStamp( segs[ row >>> SEGMENT_SHIFT ], row & SEGMENT_MASK, seconds, nanos );
+			if( ( cmp < 0 ) || ( ( cmp == 0 ) && ! inclusive ) ) {
+				lo = mid + 1;
+			}
+			else {
+				hi = mid;
+			}
+		}
+		return( lo );
+	}
+
+	@Override
+	public H readAsOf( K id, LocalDateTime asOf ) {
+		final String S_ProcName = "readAsOf";
+		if( asOf == null ) {
+			throw new CFLibNullArgumentException( getClass(),
+				S_ProcName,
+				2,
+				"asOf" );
+		}
+		long seconds = asOf.toEpochSecond( ZoneOffset.UTC );
+		int nanos = asOf.getNano();
+		return( readStable( ( gen ) -> {
+			int[] rows = gen.rowsById.get( id );
+			if( rows == null ) {
+				return( null );
+			}
+			Segment[] segs = gen.segments;
+			int at = searchStamp( segs, rows, seconds, nanos, false ) - 1;
+			if( at < 0 ) {
+				return( null );
+			}
+			int row = rows[ at ];
+			if( segs[ row >>> SEGMENT_SHIFT ].actionId[ row & SEGMENT_MASK ] == AUDIT_ACTION_DELETE ) {
+				return( null );
+			}
+			return( materialize( segs, row ) );
+		} ) );
+	}
+
+	@Override
+	public H[] readHistory( K id ) {
+		return( readHistory( id, null, null ) );
+	}
+
+	@Override
+	public H[] readHistory( K id, LocalDateTime from, LocalDateTime to ) {
+		return( readStable( ( gen ) -> {
+			int[] rows = gen.rowsById.get( id );
+			if( rows == null ) {
+				return( layout.newArray.apply( 0 ) );
+			}
+			Segment[] segs = gen.segments;
+			int lo = ( from != null )
+				? searchStamp( segs, rows, from.toEpochSecond( ZoneOffset.UTC ), from.getNano(), true )
+				: 0;
+			int hi = ( to != null )
+				? searchStamp( segs, rows, to.toEpochSecond( ZoneOffset.UTC ), to.getNano(), true )
+				: rows.length;
+			if( hi < lo ) {
+				hi = lo;
+			}
+			H[] ret = layout.newArray.apply( hi - lo );
+			for( int i = lo; i < hi; i++ ) {
+				ret[ i - lo ] = materialize( segs, rows[ i ] );
+			}
+			return( ret );
+		} ) );
+	}
+
+	/**
+	 *	Run a read until no segment was freed while it ran.  A read that
+	 *	overlaps a release may have followed an old row number into a freed
+	 *	or reused slot, or decoded a code already handed to another value,
+	 *	and may even have failed doing so; the release count tells whether
+	 *	its result can be trusted.  The row numbers a read finds after a
+	 *	release never point into the freed slot.  A read that overlaps
+	 *	clear() is retried on the new generation.
+	 */
+	protected < R > R readStable( Function< Generation< K >, R > read ) {
+		for( ;; ) {
+			Generation< K > gen = generation;
+			int releases = gen.releases;
+			R ret;
+			try {
+				ret = read.apply( gen );
+			}
+			catch( RuntimeException e ) {
+				if( ( generation == gen ) && ( gen.releases == releases ) ) {
+					throw e;
+				}
+				continue;
+			}
+			if( ( generation == gen ) && ( gen.releases == releases ) ) {
+				return( ret );
+			}
+		}
+	}
+
+	/**
+	 *	Build the H object for a row.  Each call returns a new object the
+	 *	caller may keep or modify.
+	 */
+	protected H materialize( Segment[] segs, int row ) {
+		Segment seg = segs[ row >>> SEGMENT_SHIFT ];
+		int off = row & SEGMENT_MASK;
+		H ret = layout.newRow.get();
+		layout.idSetter.accept( ret, idDictionary.decode( seg.idCode[ off ] ) );
+		layout.revisionSetter.accept( ret, seg.revision[ off ] );
+		layout.stampSetter.accept( ret, fromEpochSecond( seg.stampSeconds[ off ], seg.stampNanos[ off ] ) );
+		layout.actionSetter.accept( ret, seg.actionId[ off ] );
+		setIfPresent( ret, layout.clusterSetter, keyDictionary.decode( seg.clusterCode[ off ] ) );
+		setIfPresent( ret, layout.sessionSetter, keyDictionary.decode( seg.sessionCode[ off ] ) );
+		for( int col = 0; col < seg.keyCodes.length; col++ ) {
+			setIfPresent( ret, layout.keySetters.get( col ), keyDictionary.decode( seg.keyCodes[ col ][ off ] ) );
+		}
+		for( int col = 0; col < seg.stringCodes.length; col++ ) {
+			setIfPresent( ret, layout.stringSetters.get( col ), stringPool.decode( seg.stringCodes[ col ][ off ] ) );
+		}
+		for( int col = 0; col < seg.ints.length; col++ ) {
+			layout.intSetters.get( col ).accept( ret, seg.ints[ col ][ off ] );
+		}
+		for( int col = 0; col < seg.timestampSeconds.length; col++ ) {
+			setIfPresent( ret, layout.timestampSetters.get( col ),
+				fromEpochSecond( seg.timestampSeconds[ col ][ off ], seg.timestampNanos[ col ][ off ] ) );
+		}
+		return( ret );
+	}
+
+	protected static < H, V > void setIfPresent( H row, BiConsumer< H, V > setter, V value ) {
+		if( value != null ) {
+			setter.accept( row, value );
+		}
+	}
+
+	/**
+	 *	Every read materializes new rows from the columns.
+	 */
+	@Override
+	public boolean isSharingRows() {
+		return( false );
+	}
+
+	@Override
+	public int getIdCount() {
+		return( generation.rowsById.size() );
+	}
+
+	@Override
+	public Set< K > getIds() {
+		return( Collections.unmodifiableSet( generation.rowsById.keySet() ) );
+	}
+
+	@Override
+	public long getRowCount() {
+		Generation< K > gen = generation;
+		return( gen.rowCount - gen.deadRowCount.get() );
+	}
+
+	/**
+	 *	Get the number of held rows no key refers to any more.  Their
+	 *	column space is released by reclaim() or clear().
+	 *
+	 *	@return	The dead row count.
+	 */
+	public long getDeadRowCount() {
+		return( generation.deadRowCount.get() );
+	}
+
+	public int getSegmentCount() {
+		return( generation.segmentCount );
+	}
+
+	@Override
+	public int compact( K id, CFIntBuffHistoryRetentionPolicy policy, LocalDateTime now ) {
+		appendLock.lock();
+		try {
+			Generation< K > gen = generation;
+			int[] rows = gen.rowsById.get( id );
+			if( rows == null ) {
+				return( 0 );
+			}
+			Segment[] segs = gen.segments;
+			LocalDateTime[] stamps = new LocalDateTime[ rows.length ];
+			for( int i = 0; i < rows.length; i++ ) {
+				Segment seg = segs[ rows[i] >>> SEGMENT_SHIFT ];
+				int off = rows[i] & SEGMENT_MASK;
+				stamps[i] = fromEpochSecond( seg.stampSeconds[ off ], seg.stampNanos[ off ] );
+			}
+			int lastRow = rows[ rows.length - 1 ];
+			boolean lastIsDelete = segs[ lastRow >>> SEGMENT_SHIFT ].actionId[ lastRow & SEGMENT_MASK ] == AUDIT_ACTION_DELETE;
+			boolean[] keep = policy.retain( stamps, lastIsDelete, now );
+			int keptCount = 0;
+			for( boolean flag : keep ) {
+				if( flag ) {
+					keptCount++;
+				}
+			}
+			int dropped = rows.length - keptCount;
+			if( dropped == 0 ) {
+				return( 0 );
+			}
+			for( int i = 0; i < rows.length; i++ ) {
+				if( ! keep[i] ) {
+					segs[ rows[i] >>> SEGMENT_SHIFT ].live--;
+				}
+			}
+			if( keptCount == 0 ) {
+				gen.rowsById.remove( id );
+			}
+			else {
+				int[] kept = new int[ keptCount ];
+				int at = 0;
+				for( int i = 0; i < rows.length; i++ ) {
+					if( keep[i] ) {
+						kept[ at++ ] = rows[i];
+					}
+				}
+				gen.rowsById.put( id, kept );
+			}
+			gen.deadRowCount.addAndGet( dropped );
+			return( dropped );
+		}
+		finally {
+			appendLock.unlock();
+		}
+	}
+
+	/**
+	 *	Free the segments at least half of whose rows are dead, one
+	 *	segment per hold of the append lock.  Each one's live rows are
+	 *	copied to the tail and their keys repointed before its slot is
+	 *	freed, so an add waits for at most one segment's copy.  Readers
+	 *	never wait; one that overlaps a release retries.
+	 */
+	@Override
+	public long reclaim() {
+		long released = 0L;
+		Generation< K > gen = generation;
+		int slotCount = gen.segments.length;
+		for( int slot = 0; slot < slotCount; slot++ ) {
+			appendLock.lock();
+			try {
+				if( generation != gen ) {
+					break;
+				}
+				released += releaseSegment( gen, slot );
+			}
+			finally {
+				appendLock.unlock();
+			}
+		}
+		return( released );
+	}
+
+	/**
+	 *	Free one segment if at least half of its rows are dead, moving its
+	 *	live rows to the tail first.  The tail segment is never freed.
+	 *	Called with the append lock held.
+	 *
+	 *	@return	The number of dead rows released.
+	 */
+	protected int releaseSegment( Generation< K > gen, int slot ) {
+		Segment seg = gen.segments[ slot ];
+		if( ( seg == null ) || ( slot == gen.tailSlot ) ) {
+			return( 0 );
+		}
+		int dead = seg.used - seg.live;
+		if( dead < ( SEGMENT_SIZE >>> 1 ) ) {
+			return( 0 );
+		}
+		boolean[] kept = new boolean[ seg.used ];
+		if( seg.live > 0 ) {
+			HashSet< Integer > visited = new HashSet<>();
+			for( int off = 0; off < seg.used; off++ ) {
+				if( ! visited.add( Integer.valueOf( seg.idCode[ off ] ) ) ) {
+					continue;
+				}
+				// Dead rows keep their codes until the segment is freed, so this decodes
+				K id = idDictionary.decode( seg.idCode[ off ] );
+				int[] rows = gen.rowsById.get( id );
+				if( rows == null ) {
+					continue;
+				}
+				int[] moved = null;
+				for( int i = 0; i < rows.length; i++ ) {
+					if( ( rows[i] >>> SEGMENT_SHIFT ) == slot ) {
+						if( moved == null ) {
+							moved = rows.clone();
+						}
+						kept[ rows[i] & SEGMENT_MASK ] = true;
+						moved[i] = copyRow( seg, rows[i] & SEGMENT_MASK, gen );
+					}
+				}
+				if( moved != null ) {
+					// The copies keep their stamps and revisions, so the order holds
+					gen.rowsById.put( id, moved );
+				}
+			}
+		}
+		// Count the release before unpublishing the slot, so a reader that sees it gone retries
+		gen.releases = gen.releases + 1;
+		Segment[] segs = gen.segments.clone();
+		segs[ slot ] = null;
+		gen.segments = segs;
+		gen.segmentCount = gen.segmentCount - 1;
+		gen.freeSlots.push( Integer.valueOf( slot ) );
+		gen.rowCount = gen.rowCount - seg.used;
+		gen.deadRowCount.addAndGet( -dead );
+		// The moved rows took their codes with them
+		for( int off = 0; off < seg.used; off++ ) {
+			if( ! kept[ off ] ) {
+				releaseCodes( seg, off );
+			}
+		}
+		return( dead );
+	}
+
+	/**
+	 *	Give back the dictionary codes held by one row.
+	 */
+	protected void releaseCodes( Segment seg, int off ) {
+		idDictionary.release( seg.idCode[ off ] );
+		keyDictionary.release( seg.clusterCode[ off ] );
+		keyDictionary.release( seg.sessionCode[ off ] );
+		for( int col = 0; col < seg.keyCodes.length; col++ ) {
+			keyDictionary.release( seg.keyCodes[ col ][ off ] );
+		}
+		for( int col = 0; col < seg.stringCodes.length; col++ ) {
+			stringPool.release( seg.stringCodes[ col ][ off ] );
+		}
+	}
+
+	/**
+	 *	Copy one row's columns to the tail.  The copy takes over the row's
+	 *	dictionary references.  Called with the append lock held.
+	 *
+	 *	@return	The new row number.
+	 */
+	protected int copyRow( Segment src, int srcOff, Generation< K > gen ) {
+		int at = nextRow( gen );
+		Segment seg = gen.segments[ at >>> SEGMENT_SHIFT ];
+		int off = at & SEGMENT_MASK;
+		seg.idCode[ off ] = src.idCode[ srcOff ];
+		seg.revision[ off ] = src.revision[ srcOff ];
+		seg.actionId[ off ] = src.actionId[ srcOff ];
+		seg.stampSeconds[ off ] = src.stampSeconds[ srcOff ];
+		seg.stampNanos[ off ] = src.stampNanos[ srcOff ];
+		seg.clusterCode[ off ] = src.clusterCode[ srcOff ];
+		seg.sessionCode[ off ] = src.sessionCode[ srcOff ];
+		for( int col = 0; col < seg.keyCodes.length; col++ ) {
+			seg.keyCodes[ col ][ off ] = src.keyCodes[ col ][ srcOff ];
+		}
+		for( int col = 0; col < seg.stringCodes.length; col++ ) {
+			seg.stringCodes[ col ][ off ] = src.stringCodes[ col ][ srcOff ];
+		}
+		for( int col = 0; col < seg.ints.length; col++ ) {
+			seg.ints[ col ][ off ] = src.ints[ col ][ srcOff ];
+		}
+		for( int col = 0; col < seg.timestampSeconds.length; col++ ) {
+			seg.timestampSeconds[ col ][ off ] = src.timestampSeconds[ col ][ srcOff ];
+			seg.timestampNanos[ col ][ off ] = src.timestampNanos[ col ][ srcOff ];
+		}
+		return( at );
+	}
+
+	@Override
+	public void remove( K id ) {
+		appendLock.lock();
+		try {
+			Generation< K > gen = generation;
+			int[] rows = gen.rowsById.remove( id );
+			if( rows != null ) {
+				Segment[] segs = gen.segments;
+				for( int row : rows ) {
+					segs[ row >>> SEGMENT_SHIFT ].live--;
+				}
+				gen.deadRowCount.addAndGet( rows.length );
+			}
+		}
+		finally {
+			appendLock.unlock();
+		}
+	}
+
+	/**
+	 *	Drop every row and give back the dictionary codes they held.
+	 *	Readers still on the old generation retry on the new one.
+	 */
+	@Override
+	public void clear() {
+		appendLock.lock();
+		try {
+			Generation< K > gen = generation;
+			generation = new Generation<>();
+			gen.releases = gen.releases + 1;
+			for( Segment seg : gen.segments ) {
+				if( seg != null ) {
+					for( int off = 0; off < seg.used; off++ ) {
+						releaseCodes( seg, off );
+					}
+				}
+			}
+		}
+		finally {
+			appendLock.unlock();
+		}
+	}
+}
@@ -0,0 +1,111 @@
+// Description: Java 25 lock-free CFLibDbKeyHash256 identifier generator for CFInt buffers
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.security.*;
+import java.util.concurrent.atomic.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffDbKeyHash256IdGen issues collision-free CFLibDbKeyHash256 identifiers.
+ *	The first 24 bytes of each key are a random nonce drawn once per generator,
+ *	the last 8 bytes are a sequence number, so keys from one generator never
+ *	repeat and keys from different generators or processes only collide if two
+ *	192-bit nonces do.  Like CFIntBuffInt32IdGen, each thread reserves a block
+ *	of sequence numbers at a time to keep the shared counter uncontended.
+ */
+public class CFIntBuffDbKeyHash256IdGen
+{
+	public final static int DEFAULT_BLOCK_SIZE = 256;
+	public final static int NONCE_LENGTH = 24;
+
+	protected final static char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	protected final static SecureRandom nonceSource = new SecureRandom();
+
+	protected final String name;
+	protected final int blockSize;
+	protected final char[] nonceHex;
+	protected final AtomicLong nextUnreserved = new AtomicLong( 1L );
+	protected final ThreadLocal<long[]> reserved;
+
+	public CFIntBuffDbKeyHash256IdGen( String argName ) {
+		this( argName, DEFAULT_BLOCK_SIZE );
+	}
+
+	public CFIntBuffDbKeyHash256IdGen( String argName, int argBlockSize ) {
+		if( argBlockSize < 1 ) {
+			throw new CFLibArgumentUnderflowException( getClass(),
+				"constructor",
+				2,
+				"argBlockSize",
+				argBlockSize,
+				1 );
+		}
+		name = argName;
+		blockSize = argBlockSize;
+		byte[] nonce = new byte[ NONCE_LENGTH ];
+		nonceSource.nextBytes( nonce );
+		nonceHex = new char[ NONCE_LENGTH * 2 ];
+		for( int idx = 0; idx < NONCE_LENGTH; idx ++ ) {
+			nonceHex[ idx * 2 ] = HEX_DIGITS[ ( nonce[idx] >> 4 ) & 0x0f ];
+			nonceHex[ idx * 2 + 1 ] = HEX_DIGITS[ nonce[idx] & 0x0f ];
+		}
+		// Slot 0 is the next sequence number to issue, slot 1 the exclusive end of the block
+		reserved = ThreadLocal.withInitial( () -> new long[] { 0L, 0L } );
+	}
+
+	public String getName() {
+		return( name );
+	}
+
+	public int getBlockSize() {
+		return( blockSize );
+	}
+
+	/**
+	 *	Get the next identifier, reserving a fresh block of sequence numbers for
+	 *	the calling thread when its current block is exhausted.
+	 *
+	 *	@return	The next identifier.
+	 */
+	public CFLibDbKeyHash256 next() {
+		long[] block = reserved.get();
+		if( block[0] >= block[1] ) {
+			long start = nextUnreserved.getAndAdd( blockSize );
+			block[0] = start;
+			block[1] = start + blockSize;
+		}
+		long seq = block[0]++;
+		char[] hex = new char[ ( NONCE_LENGTH + 8 ) * 2 ];
+		System.arraycopy( nonceHex, 0, hex, 0, nonceHex.length );
+		for( int idx = hex.length - 1; idx >= nonceHex.length; idx -- ) {
+			hex[idx] = HEX_DIGITS[ (int)( seq & 0x0fL ) ];
+			seq >>>= 4;
+		}
+		return( CFLibDbKeyHash256.fromHex( new String( hex ) ) );
+	}
+}
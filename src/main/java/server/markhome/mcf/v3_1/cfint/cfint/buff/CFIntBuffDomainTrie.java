@@ -0,0 +1,445 @@
+// Description: Java 25 reverse-label domain name trie over CFInt Tld and TopDomain buffers
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffDomainTrie resolves host names to Tld and TopDomain rows in one
+ *	right-to-left walk over the labels of the name.  Tld names, which may
+ *	span several labels such as "co.uk", form the trie.  Each Tld node carries
+ *	the TopDomains of that Tld keyed by their Name.
+ *	<p>
+ *	Lookups compare label character ranges in place, so resolving a host name
+ *	builds no key objects and no substrings.  Lookups match labels ASCII
+ *	case-insensitively, as host names do, preferring an exact match.  The
+ *	Tld and TopDomain name indexes are case-sensitive, so writers key labels
+ *	exactly, and rows whose names differ only in case are kept side by side.
+ *	Readers do not lock.  Writers are serialized by the trie's own lock,
+ *	because the Tld and TopDomain tables update it from under their separate
+ *	write locks.  Nodes left without a Tld or children are pruned.
+ *	<p>
+ *	TopDomains hang off their Tld by TldId, not by name.  Renaming a Tld
+ *	therefore moves its TopDomains with it, and a TopDomain indexed before
+ *	its Tld becomes reachable once the Tld is indexed.
+ */
+public class CFIntBuffDomainTrie
+{
+	protected final ReentrantLock writeLock = new ReentrantLock();
+	protected final Node root = new Node();
+	protected final ConcurrentHashMap< CFLibDbKeyHash256, TldEntry > tldEntries
+		= new ConcurrentHashMap<>();
+
+	public CFIntBuffDomainTrie() {
+	}
+
+	/**
+	 *	Resolve a host name to the TopDomain it belongs to.  The most specific
+	 *	match wins, so "www.example.co.uk" resolves to "example" under the
+	 *	Tld "co.uk" in preference to "co" under the Tld "uk".
+	 *
+	 *	@param	hostName	The host name; a trailing "." is ignored.
+	 *	@return	The shared buffer of the matching TopDomain, or null.
+	 */
+	public CFIntBuffTopDomain resolveTopDomain( CharSequence hostName ) {
+		if( hostName == null ) {
+			return( null );
+		}
+		int end = trimmedEnd( hostName );
+		CFIntBuffTopDomain best = null;
+		Node node = root;
+		while( end > 0 ) {
+			int start = labelStart( hostName, end );
+			LabelMap<Node> children = node.children;
+			node = ( children == null ) ? null : children.get( hostName, start, end );
+			if( node == null ) {
+				break;
+			}
+			TldEntry entry = node.tldEntry;
+			if( ( entry != null ) && ( start > 0 ) ) {
+				int tdEnd = start - 1;
+				int tdStart = labelStart( hostName, tdEnd );
+				CFIntBuffTopDomain match = entry.topDomains.get( hostName, tdStart, tdEnd );
+				if( match != null ) {
+					best = match;
+				}
+			}
+			end = start - 1;
+		}
+		return( best );
+	}
+
+	/**
+	 *	Resolve a host name to the most specific Tld it ends with.
+	 *
+	 *	@param	hostName	The host name; a trailing "." is ignored.
+	 *	@return	The shared buffer of the matching Tld, or null.
+	 */
+	public CFIntBuffTld resolveTld( CharSequence hostName ) {
+		if( hostName == null ) {
+			return( null );
+		}
+		int end = trimmedEnd( hostName );
+		CFIntBuffTld best = null;
+		Node node = root;
+		while( end > 0 ) {
+			int start = labelStart( hostName, end );
+			LabelMap<Node> children = node.children;
+			node = ( children == null ) ? null : children.get( hostName, start, end );
+			if( node == null ) {
+				break;
+			}
+			TldEntry entry = node.tldEntry;
+			if( entry != null ) {
+				best = entry.tld;
+			}
+			end = start - 1;
+		}
+		return( best );
+	}
+
+	public void putTld( CFIntBuffTld buff ) {
+		writeLock.lock();
+		try {
+			TldEntry entry = tldEntries.computeIfAbsent( buff.getRequiredId(), k -> new TldEntry() );
+			entry.tld = buff;
+			Node node = root;
+			List<String> labels = splitLabels( buff.getRequiredName() );
+			if( labels.isEmpty() ) {
+				return;
+			}
+			for( int idx = labels.size() - 1; idx >= 0; idx -- ) {
+				String label = labels.get( idx );
+				if( node.children == null ) {
+					node.children = new LabelMap<>();
+				}
+				Node child = node.children.getExact( label );
+				if( child == null ) {
+					child = new Node();
+					node.children.put( label, child );
+				}
+				node = child;
+			}
+			node.tldEntry = entry;
+			entry.node = node;
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	public void removeTld( CFIntBuffTld buff ) {
+		writeLock.lock();
+		try {
+			TldEntry entry = tldEntries.get( buff.getRequiredId() );
+			if( ( entry == null ) || ( entry.tld != buff ) ) {
+				return;
+			}
+			if( ( entry.node != null ) && ( entry.node.tldEntry == entry ) ) {
+				entry.node.tldEntry = null;
+				prunePath( buff.getRequiredName() );
+			}
+			entry.node = null;
+			entry.tld = null;
+			if( entry.topDomains.isEmpty() ) {
+				tldEntries.remove( buff.getRequiredId() );
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	public void putTopDomain( CFIntBuffTopDomain buff ) {
+		writeLock.lock();
+		try {
+			TldEntry entry = tldEntries.computeIfAbsent( buff.getRequiredTldId(), k -> new TldEntry() );
+			entry.topDomains.put( buff.getRequiredName(), buff );
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	public void removeTopDomain( CFIntBuffTopDomain buff ) {
+		writeLock.lock();
+		try {
+			TldEntry entry = tldEntries.get( buff.getRequiredTldId() );
+			if( entry == null ) {
+				return;
+			}
+			entry.topDomains.remove( buff.getRequiredName(), buff );
+			if( ( entry.tld == null ) && entry.topDomains.isEmpty() ) {
+				tldEntries.remove( buff.getRequiredTldId() );
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 *	Remove the nodes along a Tld name's path that no longer carry a Tld
+	 *	or any children, deepest first.  Must be called under writeLock.
+	 *
+	 *	@param	tldName	The name of the Tld whose node was just cleared.
+	 */
+	protected void prunePath( String tldName ) {
+		List<String> labels = splitLabels( tldName );
+		Node[] path = new Node[ labels.size() + 1 ];
+		path[0] = root;
+		int depth = 0;
+		for( int idx = labels.size() - 1; idx >= 0; idx -- ) {
+			LabelMap<Node> children = path[ depth ].children;
+			Node child = ( children == null ) ? null : children.getExact( labels.get( idx ) );
+			if( child == null ) {
+				return;
+			}
+			path[ ++ depth ] = child;
+		}
+		while( depth > 0 ) {
+			Node node = path[ depth ];
+			if( ( node.tldEntry != null ) || ( ( node.children != null ) && ! node.children.isEmpty() ) ) {
+				return;
+			}
+			Node parent = path[ depth - 1 ];
+			parent.children.remove( labels.get( labels.size() - depth ), node );
+			if( parent.children.isEmpty() ) {
+				parent.children = null;
+			}
+			depth --;
+		}
+	}
+
+	protected static int trimmedEnd( CharSequence name ) {
+		int end = name.length();
+		if( ( end > 0 ) && ( name.charAt( end - 1 ) == '.' ) ) {
+			end --;
+		}
+		return( end );
+	}
+
+	protected static int labelStart( CharSequence name, int end ) {
+		int start = end;
+		while( ( start > 0 ) && ( name.charAt( start - 1 ) != '.' ) ) {
+			start --;
+		}
+		return( start );
+	}
+
+	protected static List<String> splitLabels( String name ) {
+		ArrayList<String> labels = new ArrayList<>();
+		if( name == null ) {
+			return( labels );
+		}
+		int start = 0;
+		int len = name.length();
+		for( int idx = 0; idx <= len; idx ++ ) {
+			if( ( idx == len ) || ( name.charAt( idx ) == '.' ) ) {
+				if( idx > start ) {
+					labels.add( name.substring( start, idx ) );
+				}
+				start = idx + 1;
+			}
+		}
+		return( labels );
+	}
+
+	protected static final class Node {
+		protected volatile LabelMap<Node> children = null;
+		protected volatile TldEntry tldEntry = null;
+	}
+
+	protected static final class TldEntry {
+		protected volatile CFIntBuffTld tld = null;
+		protected Node node = null;
+		protected final LabelMap<CFIntBuffTopDomain> topDomains = new LabelMap<>();
+	}
+
+	/**
+	 *	A chained hash map from labels to values that can be probed with a
+	 *	character range of any CharSequence.  Entries are keyed by the exact
+	 *	label; get() also accepts a match that differs only in ASCII case,
+	 *	which is why the hash folds case.  Readers see either the old or the
+	 *	new chain of a bucket, never a partial one.  Writers must be externally
+	 *	serialized.
+	 */
+	protected static final class LabelMap<V> {
+		protected volatile AtomicReferenceArray< LabelEntry<V> > buckets = new AtomicReferenceArray<>( 4 );
+		protected int size = 0;
+
+		public boolean isEmpty() {
+			return( size == 0 );
+		}
+
+		/**
+		 *	Look up a label case-insensitively.  An entry whose label matches
+		 *	exactly wins over one that differs only in case.
+		 */
+		public V get( CharSequence text, int start, int end ) {
+			int hash = hashRange( text, start, end );
+			AtomicReferenceArray< LabelEntry<V> > tab = buckets;
+			LabelEntry<V> cur = tab.get( hash & ( tab.length() - 1 ) );
+			V folded = null;
+			while( cur != null ) {
+				if( cur.hash == hash ) {
+					int match = cur.match( text, start, end );
+					if( match == LabelEntry.MATCH_EXACT ) {
+						return( cur.value );
+					}
+					else if( ( match == LabelEntry.MATCH_FOLDED ) && ( folded == null ) ) {
+						folded = cur.value;
+					}
+				}
+				cur = cur.next;
+			}
+			return( folded );
+		}
+
+		public V getExact( String label ) {
+			int hash = hashRange( label, 0, label.length() );
+			AtomicReferenceArray< LabelEntry<V> > tab = buckets;
+			LabelEntry<V> cur = tab.get( hash & ( tab.length() - 1 ) );
+			while( cur != null ) {
+				if( ( cur.hash == hash ) && cur.label.equals( label ) ) {
+					return( cur.value );
+				}
+				cur = cur.next;
+			}
+			return( null );
+		}
+
+		public void put( String label, V value ) {
+			remove( label, null );
+			if( size + 1 > ( buckets.length() * 3 ) / 4 ) {
+				resize();
+			}
+			int hash = hashRange( label, 0, label.length() );
+			AtomicReferenceArray< LabelEntry<V> > tab = buckets;
+			int slot = hash & ( tab.length() - 1 );
+			tab.set( slot, new LabelEntry<V>( label, hash, value, tab.get( slot ) ) );
+			size ++;
+		}
+
+		/**
+		 *	Remove the entry of exactly this label, optionally only while it
+		 *	still maps to a given value.
+		 *
+		 *	@param	label	The label to remove.
+		 *	@param	expected	The value to match by identity, or null for any value.
+		 */
+		public void remove( String label, V expected ) {
+			int hash = hashRange( label, 0, label.length() );
+			AtomicReferenceArray< LabelEntry<V> > tab = buckets;
+			int slot = hash & ( tab.length() - 1 );
+			LabelEntry<V> head = tab.get( slot );
+			LabelEntry<V> found = head;
+			while( ( found != null ) && ! ( ( found.hash == hash ) && found.label.equals( label ) ) ) {
+				found = found.next;
+			}
+			if( ( found == null ) || ( ( expected != null ) && ( found.value != expected ) ) ) {
+				return;
+			}
+			// Entries are immutable, so copy the chain ahead of the removed entry
+			LabelEntry<V> rebuilt = found.next;
+			for( LabelEntry<V> cur = head; cur != found; cur = cur.next ) {
+				rebuilt = new LabelEntry<V>( cur.label, cur.hash, cur.value, rebuilt );
+			}
+			tab.set( slot, rebuilt );
+			size --;
+		}
+
+		protected void resize() {
+			AtomicReferenceArray< LabelEntry<V> > tab = buckets;
+			AtomicReferenceArray< LabelEntry<V> > next = new AtomicReferenceArray<>( tab.length() * 2 );
+			int mask = next.length() - 1;
+			for( int idx = 0; idx < tab.length(); idx ++ ) {
+				for( LabelEntry<V> cur = tab.get( idx ); cur != null; cur = cur.next ) {
+					int slot = cur.hash & mask;
+					next.set( slot, new LabelEntry<V>( cur.label, cur.hash, cur.value, next.get( slot ) ) );
+				}
+			}
+			buckets = next;
+		}
+
+		protected static int hashRange( CharSequence text, int start, int end ) {
+			int hash = 0;
+			for( int idx = start; idx < end; idx ++ ) {
+				hash = 31 * hash + foldCase( text.charAt( idx ) );
+			}
+			return( hash ^ ( hash >>> 16 ) );
+		}
+
+		protected static char foldCase( char ch ) {
+			return( ( ( ch >= 'A' ) && ( ch <= 'Z' ) ) ? (char)( ch + ( 'a' - 'A' ) ) : ch );
+		}
+	}
+
+	protected static final class LabelEntry<V> {
+		protected static final int MATCH_NONE = 0;
+		protected static final int MATCH_FOLDED = 1;
+		protected static final int MATCH_EXACT = 2;
+
+		protected final String label;
+		protected final int hash;
+		protected final V value;
+		protected final LabelEntry<V> next;
+
+		protected LabelEntry( String argLabel, int argHash, V argValue, LabelEntry<V> argNext ) {
+			label = argLabel;
+			hash = argHash;
+			value = argValue;
+			next = argNext;
+		}
+
+		/**
+		 *	Compare the label with a character range.
+		 *
+		 *	@return	MATCH_EXACT, MATCH_FOLDED if only ASCII case differs, or MATCH_NONE.
+		 */
+		protected int match( CharSequence text, int start, int end ) {
+			if( label.length() != end - start ) {
+				return( MATCH_NONE );
+			}
+			int ret = MATCH_EXACT;
+			for( int idx = 0; idx < label.length(); idx ++ ) {
+				char lhs = label.charAt( idx );
+				char rhs = text.charAt( start + idx );
+				if( lhs != rhs ) {
+					if( LabelMap.foldCase( lhs ) != LabelMap.foldCase( rhs ) ) {
+						return( MATCH_NONE );
+					}
+					ret = MATCH_FOLDED;
+				}
+			}
+			return( ret );
+		}
+	}
+}
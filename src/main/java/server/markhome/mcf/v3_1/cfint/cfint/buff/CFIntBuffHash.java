@@ -0,0 +1,77 @@
+// Description: Java 25 hash mixing support for CFInt buffers
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+/**
+ *	CFIntBuffHash provides the hash combining used by the buffer records and
+ *	keys.  Each attribute hash is scrambled before it is folded into the
+ *	running value, and the result is finalized with an avalanche step, so
+ *	that permuting attribute values (for example swapping a TenantId and a
+ *	TldId) produces a different hash code.  The mixing constants are those of
+ *	MurmurHash3.
+ */
+public final class CFIntBuffHash
+{
+	private CFIntBuffHash() {
+	}
+
+	/**
+	 *	Fold one attribute hash into a running hash value.
+	 *
+	 *	@param	hash	The running hash value.
+	 *	@param	value	The attribute hash to fold in.
+	 *	@return	The updated running hash value.
+	 */
+	public static int mix( int hash, int value ) {
+		int k = value * 0xcc9e2d51;
+		k = Integer.rotateLeft( k, 15 );
+		k = k * 0x1b873593;
+		int h = hash ^ k;
+		h = Integer.rotateLeft( h, 13 );
+		return( h * 5 + 0xe6546b64 );
+	}
+
+	/**
+	 *	Finalize a running hash value.  The result is never negative and never
+	 *	zero, so callers can use zero to mean "not yet computed".
+	 *
+	 *	@param	hash	The running hash value.
+	 *	@return	The finalized hash code.
+	 */
+	public static int finish( int hash ) {
+		int h = hash;
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		h &= 0x7fffffff;
+		if( h == 0 ) {
+			h = 1;
+		}
+		return( h );
+	}
+}
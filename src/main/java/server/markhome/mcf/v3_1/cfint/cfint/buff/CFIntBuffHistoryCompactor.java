@@ -0,0 +1,247 @@
+// Description: Java 25 incremental history compaction for the CFInt buffer tables.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+import server.markhome.mcf.v3_1.cflib.*;
+
+/*
+ *	CFIntBuffHistoryCompactor applies retention policies to history stores
+ *	a few keys at a time.  Each run() compacts up to idsPerRun keys, picking
+ *	up where the previous run left off and moving round robin across the
+ *	registered stores; when a pass over a store completes, the store is
+ *	asked to reclaim the space of the rows dropped.
+ *
+ *	Compaction never touches the live CFIntBuff tables, and history readers
+ *	see each key's rows switch from the old set to the new set at once.
+ *	Only history appends wait, and only for the key being compacted or for
+ *	the one segment a reclaim is moving; a reclaim takes the store's lock
+ *	once per segment rather than for the whole store.
+ *
+ *	The compactor owns no threads.  Call run() from a maintenance task, or
+ *	hand it to an executor with schedule().
+ */
+public class CFIntBuffHistoryCompactor
+	implements Runnable
+{
+	public final static int DEFAULT_IDS_PER_RUN = 256;
+
+	/*
+	 *	A registered store, its policy and its position in the current pass.
+	 */
+	protected static class Target< K >
+	{
+		protected final ICFIntBuffHistoryStore< K, ? > store;
+		protected volatile CFIntBuffHistoryRetentionPolicy policy;
+		protected Iterator< K > cursor = null;
+
+		protected Target( ICFIntBuffHistoryStore< K, ? > argStore, CFIntBuffHistoryRetentionPolicy argPolicy ) {
+			store = argStore;
+			policy = argPolicy;
+		}
+	}
+
+	protected final CopyOnWriteArrayList< Target< ? > > targets = new CopyOnWriteArrayList<>();
+	protected final ReentrantLock runLock = new ReentrantLock();
+	protected volatile int idsPerRun = DEFAULT_IDS_PER_RUN;
+	protected int nextTarget = 0;
+	protected final AtomicLong rowsDropped = new AtomicLong();
+	protected final AtomicLong rowsReclaimed = new AtomicLong();
+	protected volatile RuntimeException lastFailure = null;
+
+	public CFIntBuffHistoryCompactor() {
+	}
+
+	/**
+	 *	Compact a store with a policy, replacing the policy if the store
+	 *	is already registered.
+	 *
+	 *	@param	store	The history store, such as a table's getHistoryStore().
+	 *	@param	policy	The retention policy for the store's entity.
+	 */
+	public < K > void register( ICFIntBuffHistoryStore< K, ? > store, CFIntBuffHistoryRetentionPolicy policy ) {
+		final String S_ProcName = "register";
+		if( store == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 1, "store" );
+		}
+		if( policy == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 2, "policy" );
+		}
+		runLock.lock();
+		try {
+			for( Target< ? > target : targets ) {
+				if( target.store == store ) {
+					target.policy = policy;
+					return;
+				}
+			}
+			targets.add( new Target< K >( store, policy ) );
+		}
+		finally {
+			runLock.unlock();
+		}
+	}
+
+	public void unregister( ICFIntBuffHistoryStore< ?, ? > store ) {
+		runLock.lock();
+		try {
+			targets.removeIf( ( target ) -> target.store == store );
+		}
+		finally {
+			runLock.unlock();
+		}
+	}
+
+	public int getIdsPerRun() {
+		return( idsPerRun );
+	}
+
+	public void setIdsPerRun( int value ) {
+		if( value < 1 ) {
+			throw new CFLibArgumentUnderflowException( getClass(),
+				"setIdsPerRun",
+				1,
+				"value",
+				value,
+				1 );
+		}
+		idsPerRun = value;
+	}
+
+	public long getRowsDropped() {
+		return( rowsDropped.get() );
+	}
+
+	public long getRowsReclaimed() {
+		return( rowsReclaimed.get() );
+	}
+
+	/**
+	 *	Get the exception that ended the last failed run(), if any.
+	 *
+	 *	@return	The failure, or null.
+	 */
+	public RuntimeException getLastFailure() {
+		return( lastFailure );
+	}
+
+	/**
+	 *	Run one increment of idsPerRun keys.  A failure is kept for
+	 *	getLastFailure() instead of thrown, so that a scheduled compactor
+	 *	keeps running.
+	 */
+	@Override
+	public void run() {
+		try {
+			runIncrement( idsPerRun );
+			lastFailure = null;
+		}
+		catch( RuntimeException e ) {
+			lastFailure = e;
+		}
+	}
+
+	/**
+	 *	Compact up to maxIds keys, visiting each registered store at most
+	 *	once.  Runs do not overlap; a run that finds another in progress
+	 *	returns at once.
+	 *
+	 *	@param	maxIds	The most keys to visit.
+	 *	@return	The number of rows dropped.
+	 */
+	public long runIncrement( int maxIds ) {
+		if( ! runLock.tryLock() ) {
+			return( 0L );
+		}
+		try {
+			LocalDateTime now = LocalDateTime.now();
+			long[] dropped = { 0L };
+			int visited = 0;
+			int count = targets.size();
+			for( int i = 0; ( i < count ) && ( visited < maxIds ); i++ ) {
+				if( nextTarget >= count ) {
+					nextTarget = 0;
+				}
+				visited += compactTarget( targets.get( nextTarget ), maxIds - visited, now, dropped );
+				if( visited < maxIds ) {
+					nextTarget++;
+				}
+			}
+			rowsDropped.addAndGet( dropped[0] );
+			return( dropped[0] );
+		}
+		finally {
+			runLock.unlock();
+		}
+	}
+
+	/**
+	 *	Compact up to limit keys of one store.  When a pass over the
+	 *	store's keys completes, the store reclaims the dropped rows and the
+	 *	next visit starts a new pass.
+	 *
+	 *	@param	dropped	Accumulates the number of rows dropped.
+	 *	@return	The number of keys visited.
+	 */
+	protected < K > int compactTarget( Target< K > target, int limit, LocalDateTime now, long[] dropped ) {
+		CFIntBuffHistoryRetentionPolicy policy = target.policy;
+		if( ! policy.isActive() ) {
+			return( 0 );
+		}
+		if( target.cursor == null ) {
+			target.cursor = target.store.getIds().iterator();
+		}
+		int visited = 0;
+		while( ( visited < limit ) && target.cursor.hasNext() ) {
+			dropped[0] += target.store.compact( target.cursor.next(), policy, now );
+			visited++;
+		}
+		if( ! target.cursor.hasNext() ) {
+			target.cursor = null;
+			rowsReclaimed.addAndGet( target.store.reclaim() );
+		}
+		return( visited );
+	}
+
+	/**
+	 *	Run the compactor on an executor at a fixed delay.
+	 *
+	 *	@param	executor	The executor to run on.
+	 *	@param	delay	The delay between the end of one run and the next.
+	 *	@param	unit	The unit of delay.
+	 *	@return	The future that cancels the schedule.
+	 */
+	public ScheduledFuture< ? > schedule( ScheduledExecutorService executor, long delay, TimeUnit unit ) {
+		if( executor == null ) {
+			throw new CFLibNullArgumentException( getClass(), "schedule", 1, "executor" );
+		}
+		return( executor.scheduleWithFixedDelay( this, delay, delay, unit ) );
+	}
+}
@@ -0,0 +1,203 @@
+// Description: Java 25 append-only value dictionary for the columnar history stores.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+/**
+ *	CFIntBuffHistoryDictionary assigns each distinct value a dense int code,
+ *	so the columnar history stores can hold repeated ids and strings as int
+ *	columns.  One dictionary is meant to be shared by every history store
+ *	of a schema, so a tenant or session id is held once no matter how many
+ *	rows or tables refer to it.
+ *	<p>
+ *	Codes are reference counted.  Each encode() takes a reference, which
+ *	the store gives back with release() once the row holding the code is
+ *	freed.  When the last reference goes the value is forgotten and its
+ *	code is handed to the next new value, so the dictionary holds only the
+ *	values of rows still held.  A holder must not decode a code after
+ *	releasing it.  Encoding a known value and decoding are lock free; only
+ *	adding a value and dropping the last reference take the append lock.
+ */
+public class CFIntBuffHistoryDictionary< T >
+{
+	/**
+	 *	The code that stands for null.
+	 */
+	public final static int NULL_CODE = -1;
+
+	protected final static int INITIAL_CAPACITY = 256;
+
+	/*
+	 *	A value with its code and reference count.  The count drops to -1
+	 *	when the entry is forgotten, and a forgotten entry is never revived.
+	 */
+	protected static class Entry< T >
+	{
+		protected final T value;
+		protected final int code;
+		protected final AtomicInteger refs = new AtomicInteger( 1 );
+
+		protected Entry( T argValue, int argCode ) {
+			value = argValue;
+			code = argCode;
+		}
+
+		protected boolean acquire() {
+			for( ;; ) {
+				int cur = refs.get();
+				if( cur < 0 ) {
+					return( false );
+				}
+				if( refs.compareAndSet( cur, cur + 1 ) ) {
+					return( true );
+				}
+			}
+		}
+	}
+
+	protected final ConcurrentHashMap< T, Entry< T > > codes = new ConcurrentHashMap<>();
+	protected final ReentrantLock appendLock = new ReentrantLock();
+	protected volatile Object[] entries = new Object[ INITIAL_CAPACITY ];
+	protected volatile int size = 0;
+	protected int highWater = 0;
+	protected int[] freeCodes = new int[ 16 ];
+	protected int freeCount = 0;
+
+	public CFIntBuffHistoryDictionary() {
+	}
+
+	/**
+	 *	Get the code of a value and take a reference to it, adding the
+	 *	value if it is new.
+	 *
+	 *	@param	value	The value, or null.
+	 *	@return	The value's code, or NULL_CODE.
+	 */
+	public int encode( T value ) {
+		if( value == null ) {
+			return( NULL_CODE );
+		}
+		Entry< T > entry = codes.get( value );
+		if( ( entry != null ) && entry.acquire() ) {
+			return( entry.code );
+		}
+		appendLock.lock();
+		try {
+			// Forgotten entries leave the map under this lock, so one found here is live
+			entry = codes.get( value );
+			if( ( entry != null ) && entry.acquire() ) {
+				return( entry.code );
+			}
+			Object[] cur = entries;
+			int at;
+			if( freeCount > 0 ) {
+				freeCount--;
+				at = freeCodes[ freeCount ];
+			}
+			else {
+				at = highWater;
+				if( at == cur.length ) {
+					cur = Arrays.copyOf( cur, cur.length * 2 );
+				}
+				highWater = at + 1;
+			}
+			entry = new Entry< T >( value, at );
+			cur[ at ] = entry;
+			entries = cur;
+			codes.put( value, entry );
+			size = size + 1;
+			return( at );
+		}
+		finally {
+			appendLock.unlock();
+		}
+	}
+
+	/**
+	 *	Give back a reference taken by encode().  Releasing the last
+	 *	reference forgets the value and frees its code for reuse.
+	 *
+	 *	@param	code	The code, or NULL_CODE.
+	 */
+	@SuppressWarnings("unchecked")
+	public void release( int code ) {
+		if( code < 0 ) {
+			return;
+		}
+		Entry< T > entry = (Entry< T >)entries[ code ];
+		if( ( entry == null ) || ( entry.refs.decrementAndGet() > 0 ) ) {
+			return;
+		}
+		appendLock.lock();
+		try {
+			// An encode() may have taken the value again before the lock was ours
+			if( ! entry.refs.compareAndSet( 0, -1 ) ) {
+				return;
+			}
+			codes.remove( entry.value, entry );
+			Object[] cur = entries;
+			cur[ code ] = null;
+			entries = cur;
+			if( freeCount == freeCodes.length ) {
+				freeCodes = Arrays.copyOf( freeCodes, freeCodes.length * 2 );
+			}
+			freeCodes[ freeCount ] = code;
+			freeCount++;
+			size = size - 1;
+		}
+		finally {
+			appendLock.unlock();
+		}
+	}
+
+	/**
+	 *	Get the value of a code returned by encode() and not yet released.
+	 *
+	 *	@param	code	The code, or NULL_CODE.
+	 *	@return	The value, or null.
+	 */
+	@SuppressWarnings("unchecked")
+	public T decode( int code ) {
+		if( code < 0 ) {
+			return( null );
+		}
+		Entry< T > entry = (Entry< T >)entries[ code ];
+		return( ( entry != null ) ? entry.value : null );
+	}
+
+	/**
+	 *	Get the number of values currently held.
+	 *
+	 *	@return	The value count.
+	 */
+	public int size() {
+		return( size );
+	}
+}
@@ -0,0 +1,191 @@
+// Description: Java 25 retention policy for the CFInt buffer history stores.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.time.*;
+import server.markhome.mcf.v3_1.cflib.*;
+
+/**
+ *	CFIntBuffHistoryRetentionPolicy decides which history rows of a key
+ *	survive compaction.  The rules are applied together, each one only
+ *	ever dropping rows:
+ *
+ *	<ul>
+ *	<li>collapseIntermediate keeps only the first and last row;</li>
+ *	<li>firstAndLastPerDay keeps the first and last row of each calendar
+ *		day of the audit stamps;</li>
+ *	<li>maxAge drops rows older than the age limit, except the newest of
+ *		them, which is still the state at the cutoff.  A key whose last row
+ *		is a delete older than the limit loses its whole history;</li>
+ *	<li>maxRowsPerId keeps at most that many of the newest rows.</li>
+ *	</ul>
+ *
+ *	The last row of a key is always kept unless the whole history goes, so
+ *	an as-of read of the present never changes.  The rules may be changed
+ *	while a compactor is running; each retain() reads them once, so it
+ *	applies either the old or the new value of each rule.
+ */
+public class CFIntBuffHistoryRetentionPolicy
+{
+	protected volatile boolean collapseIntermediate = false;
+	protected volatile boolean firstAndLastPerDay = false;
+	protected volatile Duration maxAge = null;
+	protected volatile int maxRowsPerId = 0;
+
+	public CFIntBuffHistoryRetentionPolicy() {
+	}
+
+	public boolean getCollapseIntermediate() {
+		return( collapseIntermediate );
+	}
+
+	public void setCollapseIntermediate( boolean value ) {
+		collapseIntermediate = value;
+	}
+
+	public boolean getFirstAndLastPerDay() {
+		return( firstAndLastPerDay );
+	}
+
+	public void setFirstAndLastPerDay( boolean value ) {
+		firstAndLastPerDay = value;
+	}
+
+	public Duration getMaxAge() {
+		return( maxAge );
+	}
+
+	/**
+	 *	@param	value	The age limit, or null for none.
+	 */
+	public void setMaxAge( Duration value ) {
+		if( ( value != null ) && value.isNegative() ) {
+			throw new CFLibArgumentUnderflowException( getClass(),
+				"setMaxAge",
+				1,
+				"value",
+				(int)Math.max( value.getSeconds(), Integer.MIN_VALUE ),
+				0 );
+		}
+		maxAge = value;
+	}
+
+	public int getMaxRowsPerId() {
+		return( maxRowsPerId );
+	}
+
+	/**
+	 *	@param	value	The row limit per key, or 0 for none.
+	 */
+	public void setMaxRowsPerId( int value ) {
+		if( value < 0 ) {
+			throw new CFLibArgumentUnderflowException( getClass(),
+				"setMaxRowsPerId",
+				1,
+				"value",
+				value,
+				0 );
+		}
+		maxRowsPerId = value;
+	}
+
+	/**
+	 *	Choose the rows of one key to keep.
+	 *
+	 *	@param	stamps	The audit stamps of the key's rows, oldest first.
+	 *	@param	lastIsDelete	Whether the newest row records a delete.
+	 *	@param	now	The time the age limit is measured from.
+	 *	@return	A flag per row, true to keep it.
+	 */
+	public boolean[] retain( LocalDateTime[] stamps, boolean lastIsDelete, LocalDateTime now ) {
+		boolean collapse = collapseIntermediate;
+		boolean perDay = firstAndLastPerDay;
+		Duration age = maxAge;
+		int maxRows = maxRowsPerId;
+		int count = stamps.length;
+		boolean[] keep = new boolean[ count ];
+		if( count == 0 ) {
+			return( keep );
+		}
+		for( int i = 0; i < count; i++ ) {
+			keep[i] = true;
+		}
+		int last = count - 1;
+		if( collapse ) {
+			for( int i = 1; i < last; i++ ) {
+				keep[i] = false;
+			}
+		}
+		if( perDay ) {
+			for( int i = 0; i < count; i++ ) {
+				LocalDate day = stamps[i].toLocalDate();
+				boolean first = ( i == 0 ) || ! stamps[ i - 1 ].toLocalDate().equals( day );
+				boolean lastOfDay = ( i == last ) || ! stamps[ i + 1 ].toLocalDate().equals( day );
+				keep[i] &= first || lastOfDay;
+			}
+		}
+		if( ( age != null ) && ( now != null ) ) {
+			LocalDateTime cutoff = now.minus( age );
+			if( lastIsDelete && stamps[ last ].isBefore( cutoff ) ) {
+				for( int i = 0; i < count; i++ ) {
+					keep[i] = false;
+				}
+				return( keep );
+			}
+			int atCutoff = -1;
+			for( int i = 0; i < count; i++ ) {
+				if( stamps[i].isBefore( cutoff ) ) {
+					atCutoff = i;
+				}
+			}
+			for( int i = 0; i < atCutoff; i++ ) {
+				keep[i] = false;
+			}
+		}
+		if( maxRows > 0 ) {
+			int kept = 0;
+			for( int i = last; i >= 0; i-- ) {
+				if( keep[i] ) {
+					kept++;
+					if( kept > maxRows ) {
+						keep[i] = false;
+					}
+				}
+			}
+		}
+		keep[ last ] = true;
+		return( keep );
+	}
+
+	/**
+	 *	Check whether the policy can ever drop a row.
+	 *
+	 *	@return	true if any rule is set.
+	 */
+	public boolean isActive() {
+		return( collapseIntermediate || firstAndLastPerDay || ( maxAge != null ) || ( maxRowsPerId > 0 ) );
+	}
+}
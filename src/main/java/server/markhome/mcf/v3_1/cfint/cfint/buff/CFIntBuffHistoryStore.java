@@ -0,0 +1,303 @@
+// Description: Java 25 in-memory as-of history index for the CFInt buffer tables.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import server.markhome.mcf.v3_1.cflib.*;
+
+/*
+ *	CFIntBuffHistoryStore holds the history rows of one entity, indexed by
+ *	(primary key, auditStamp).  Each key maps to an immutable array of its
+ *	rows sorted by auditStamp and then revision; a new row replaces the
+ *	array with a copy, so readers never lock and an as-of read is a single
+ *	binary search.  Rows with equal stamps and revisions keep the order
+ *	they were added in, so the last one written wins.
+ *
+ *	The store shares the rows it is given.  Callers must not modify a row
+ *	after adding it, and should copy any row they hand out.
+ */
+public class CFIntBuffHistoryStore< K, H >
+	implements ICFIntBuffHistoryStore< K, H >
+{
+	protected final Function< H, K > idOf;
+	protected final Function< H, LocalDateTime > stampOf;
+	protected final ToIntFunction< H > revisionOf;
+	protected final ToIntFunction< H > actionOf;
+	protected final IntFunction< H[] > newArray;
+	protected final ConcurrentHashMap< K, H[] > dictById = new ConcurrentHashMap<>();
+
+	/**
+	 *	@param	argIdOf	Gets the primary key of a history row.
+	 *	@param	argStampOf	Gets the audit stamp of a history row.
+	 *	@param	argRevisionOf	Gets the revision of a history row.
+	 *	@param	argActionOf	Gets the audit action id of a history row.
+	 *	@param	argNewArray	Allocates history row arrays.
+	 */
+	public CFIntBuffHistoryStore( Function< H, K > argIdOf,
+		Function< H, LocalDateTime > argStampOf,
+		ToIntFunction< H > argRevisionOf,
+		ToIntFunction< H > argActionOf,
+		IntFunction< H[] > argNewArray )
+	{
+		idOf = argIdOf;
+		stampOf = argStampOf;
+		revisionOf = argRevisionOf;
+		actionOf = argActionOf;
+		newArray = argNewArray;
+	}
+
+	/**
+	 *	Add a history row, keeping its key's rows in stamp order.
+	 *
+	 *	@param	row	The history row to add.
+	 */
+	@Override
+	public void add( H row ) {
+		if( row == null ) {
+			throw new CFLibNullArgumentException( getClass(),
+				"add",
+				1,
+				"row" );
+		}
+		dictById.compute( idOf.apply( row ), ( key, rows ) -> insert( rows, row ) );
+	}
+
+	protected H[] insert( H[] rows, H row ) {
+		if( rows == null ) {
+			H[] ret = newArray.apply( 1 );
+			ret[0] = row;
+			return( ret );
+		}
+		int at = rows.length;
+		while( ( at > 0 ) && ( compareRows( rows[ at - 1 ], row ) > 0 ) ) {
+			at--;
+		}
+		H[] ret = newArray.apply( rows.length + 1 );
+		System.arraycopy( rows, 0, ret, 0, at );
+		ret[ at ] = row;
+		System.arraycopy( rows, at, ret, at + 1, rows.length - at );
+		return( ret );
+	}
+
+	protected int compareRows( H lhs, H rhs ) {
+		int cmp = stampOf.apply( lhs ).compareTo( stampOf.apply( rhs ) );
+		if( cmp == 0 ) {
+			cmp = Integer.compare( revisionOf.applyAsInt( lhs ), revisionOf.applyAsInt( rhs ) );
+		}
+		return( cmp );
+	}
+
+	/**
+	 *	Find the row that was current for a key at a point in time.
+	 *
+	 *	@param	id	The primary key.
+	 *	@param	asOf	The point in time.
+	 *	@return	The last row stamped at or before asOf, or null if the key
+	 *		did not exist then or had been deleted.
+	 */
+	@Override
+	public H readAsOf( K id, LocalDateTime asOf ) {
+		final String S_ProcName = "readAsOf";
+		if( asOf == null ) {
+			throw new CFLibNullArgumentException( getClass(),
+				S_ProcName,
+				2,
+				"asOf" );
+		}
+		H[] rows = dictById.get( id );
+		if( rows == null ) {
+			return( null );
+		}
+		int at = upperBound( rows, asOf ) - 1;
+		if( at < 0 ) {
+			return( null );
+		}
+		H row = rows[ at ];
+		if( actionOf.applyAsInt( row ) == AUDIT_ACTION_DELETE ) {
+			return( null );
+		}
+		return( row );
+	}
+
+	/**
+	 *	Get the index of the first row stamped after asOf.
+	 */
+	protected int upperBound( H[] rows, LocalDateTime asOf ) {
+		int lo = 0;
+		int hi = rows.length;
+		while( lo < hi ) {
+			int mid = ( lo + hi ) >>> 1;
+			if( stampOf.apply( rows[ mid ] ).compareTo( asOf ) <= 0 ) {
+				lo = mid + 1;
+			}
+			else {
+				hi = mid;
+			}
+		}
+		return( lo );
+	}
+
+	/**
+	 *	Get the index of the first row stamped at or after stamp.
+	 */
+	protected int lowerBound( H[] rows, LocalDateTime stamp ) {
+		int lo = 0;
+		int hi = rows.length;
+		while( lo < hi ) {
+			int mid = ( lo + hi ) >>> 1;
+			if( stampOf.apply( rows[ mid ] ).compareTo( stamp ) < 0 ) {
+				lo = mid + 1;
+			}
+			else {
+				hi = mid;
+			}
+		}
+		return( lo );
+	}
+
+	/**
+	 *	Get every history row of a key, oldest first.
+	 *
+	 *	@param	id	The primary key.
+	 *	@return	The rows, or an empty array.
+	 */
+	@Override
+	public H[] readHistory( K id ) {
+		H[] rows = dictById.get( id );
+		if( rows == null ) {
+			return( newArray.apply( 0 ) );
+		}
+		return( rows.clone() );
+	}
+
+	/**
+	 *	Get the history rows of a key stamped in [from, to).
+	 *
+	 *	@param	id	The primary key.
+	 *	@param	from	The inclusive lower bound, or null for no bound.
+	 *	@param	to	The exclusive upper bound, or null for no bound.
+	 *	@return	The rows, oldest first.
+	 */
+	@Override
+	public H[] readHistory( K id, LocalDateTime from, LocalDateTime to ) {
+		H[] rows = dictById.get( id );
+		if( rows == null ) {
+			return( newArray.apply( 0 ) );
+		}
+		int lo = ( from != null ) ? lowerBound( rows, from ) : 0;
+		int hi = ( to != null ) ? lowerBound( rows, to ) : rows.length;
+		if( hi < lo ) {
+			hi = lo;
+		}
+		return( Arrays.copyOfRange( rows, lo, hi ) );
+	}
+
+	@Override
+	public long getRowCount() {
+		long count = 0L;
+		for( H[] rows : dictById.values() ) {
+			count += rows.length;
+		}
+		return( count );
+	}
+
+	/**
+	 *	The rows are kept as added and read back as they are.
+	 */
+	@Override
+	public boolean isSharingRows() {
+		return( true );
+	}
+
+	@Override
+	public int getIdCount() {
+		return( dictById.size() );
+	}
+
+	@Override
+	public Set< K > getIds() {
+		return( Collections.unmodifiableSet( dictById.keySet() ) );
+	}
+
+	/**
+	 *	Apply a retention policy to the history of one key, replacing its
+	 *	row array with one holding only the rows the policy keeps.
+	 *
+	 *	@param	id	The primary key.
+	 *	@param	policy	The retention policy.
+	 *	@param	now	The time the policy's age limit is measured from.
+	 *	@return	The number of rows dropped.
+	 */
+	@Override
+	public int compact( K id, CFIntBuffHistoryRetentionPolicy policy, LocalDateTime now ) {
+		int[] dropped = { 0 };
+		dictById.computeIfPresent( id, ( key, rows ) -> {
+			LocalDateTime[] stamps = new LocalDateTime[ rows.length ];
+			for( int i = 0; i < rows.length; i++ ) {
+				stamps[i] = stampOf.apply( rows[i] );
+			}
+			boolean lastIsDelete = actionOf.applyAsInt( rows[ rows.length - 1 ] ) == AUDIT_ACTION_DELETE;
+			boolean[] keep = policy.retain( stamps, lastIsDelete, now );
+			ArrayList< H > kept = new ArrayList<>( rows.length );
+			for( int i = 0; i < rows.length; i++ ) {
+				if( keep[i] ) {
+					kept.add( rows[i] );
+				}
+			}
+			dropped[0] = rows.length - kept.size();
+			if( kept.isEmpty() ) {
+				return( null );
+			}
+			if( dropped[0] == 0 ) {
+				return( rows );
+			}
+			return( kept.toArray( newArray.apply( kept.size() ) ) );
+		} );
+		return( dropped[0] );
+	}
+
+	/**
+	 *	Dropped rows are released as soon as they are dropped, so there is
+	 *	nothing to reclaim.
+	 */
+	@Override
+	public long reclaim() {
+		return( 0L );
+	}
+
+	@Override
+	public void remove( K id ) {
+		dictById.remove( id );
+	}
+
+	@Override
+	public void clear() {
+		dictById.clear();
+	}
+}
@@ -0,0 +1,122 @@
+// Description: Java 25 lock-free int identifier generator for CFInt buffers
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.util.concurrent.atomic.*;
+import server.markhome.mcf.v3_1.cflib.*;
+
+/**
+ *	CFIntBuffInt32IdGen hands out int identifiers from a shared AtomicInteger.
+ *	Each thread reserves a block of blockSize values at a time and issues them
+ *	locally, so concurrent bulk inserts touch the shared counter only once per
+ *	block.  Identifiers are unique but are not issued in strict order across
+ *	threads.
+ */
+public class CFIntBuffInt32IdGen
+{
+	public final static int DEFAULT_BLOCK_SIZE = 64;
+
+	protected final String name;
+	protected final int blockSize;
+	protected final AtomicInteger nextUnreserved;
+	protected final AtomicInteger assignedFloor = new AtomicInteger( Integer.MIN_VALUE );
+	protected final ThreadLocal<int[]> reserved;
+
+	public CFIntBuffInt32IdGen( String argName ) {
+		this( argName, 1, DEFAULT_BLOCK_SIZE );
+	}
+
+	public CFIntBuffInt32IdGen( String argName, int argFirstValue, int argBlockSize ) {
+		if( argBlockSize < 1 ) {
+			throw new CFLibArgumentUnderflowException( getClass(),
+				"constructor",
+				3,
+				"argBlockSize",
+				argBlockSize,
+				1 );
+		}
+		name = argName;
+		blockSize = argBlockSize;
+		nextUnreserved = new AtomicInteger( argFirstValue );
+		// Slot 0 is the next value to issue, slot 1 the exclusive end of the block
+		reserved = ThreadLocal.withInitial( () -> new int[] { 0, 0 } );
+	}
+
+	public String getName() {
+		return( name );
+	}
+
+	public int getBlockSize() {
+		return( blockSize );
+	}
+
+	/**
+	 *	Get the next identifier, reserving a fresh block for the calling thread
+	 *	when its current block is exhausted.
+	 *
+	 *	@return	The next identifier.
+	 */
+	public int next() {
+		int[] block = reserved.get();
+		while( true ) {
+			if( block[0] < block[1] ) {
+				int floor = assignedFloor.get();
+				if( block[0] > floor ) {
+					return( block[0]++ );
+				}
+				// Skip the part of the block an explicit assignment has used up
+				block[0] = ( floor < block[1] ) ? floor + 1 : block[1];
+				continue;
+			}
+			int start = nextUnreserved.getAndAdd( blockSize );
+			if( start < 0 || start + blockSize < start ) {
+				throw new CFLibArgumentOverflowException( getClass(),
+					"next",
+					0,
+					name,
+					start,
+					Integer.MAX_VALUE );
+			}
+			block[0] = start;
+			block[1] = start + blockSize;
+		}
+	}
+
+	/**
+	 *	Ensure no identifier at or below one that was assigned elsewhere,
+	 *	such as a row loaded from the backing database, is issued again.
+	 *	Blocks reserved from now on start above it, and blocks threads
+	 *	already hold skip the values up to it.
+	 *
+	 *	@param	value	An identifier already in use.
+	 */
+	public void advancePast( int value ) {
+		assignedFloor.accumulateAndGet( value, Math::max );
+		// At Integer.MAX_VALUE nothing is left, and the next reservation overflows
+		int next = ( value < Integer.MAX_VALUE ) ? value + 1 : Integer.MAX_VALUE;
+		nextUnreserved.accumulateAndGet( next, Math::max );
+	}
+}
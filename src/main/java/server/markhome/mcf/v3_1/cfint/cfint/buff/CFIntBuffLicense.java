@@ -44,8 +44,11 @@ import server.markhome.mcf.v3_1.cfint.cfint.*;
 import server.markhome.mcf.v3_1.cfsec.cfsec.buff.*;
 
 public class CFIntBuffLicense
-	implements ICFIntLicense, Comparable<Object>, Serializable
+	implements ICFIntLicense, Comparable<Object>, Externalizable
 {
+	public final static CFIntBuffPKeyIdentity<ICFIntLicense> PKEY_IDENTITY =
+		CFIntBuffPKeyIdentity.forHashKey( ICFIntLicense::getRequiredId, ICFIntLicense::getRequiredRevision );
+
 	protected CFLibDbKeyHash256 requiredId;
 	protected int requiredRevision;
 	protected CFLibDbKeyHash256 requiredTenantId;
@@ -55,10 +58,14 @@ public class CFIntBuffLicense
 	protected String optionalEmbeddedText;
 	protected String optionalFullText;
 
+	protected transient CFIntBuffResolvedRef<ICFIntTopDomain> resolvedContainerTopDomain = null;
+	protected transient int cachedHashCode = 0;
+	protected transient volatile CFIntBuffLicenseSnapshot cachedSnapshot = null;
+
 	public CFIntBuffLicense() {
-		requiredId = CFLibDbKeyHash256.fromHex( ICFIntLicense.ID_INIT_VALUE.toString() );
-		requiredTenantId = CFLibDbKeyHash256.fromHex( ICFIntLicense.TENANTID_INIT_VALUE.toString() );
-		requiredTopDomainId = CFLibDbKeyHash256.fromHex( ICFIntLicense.TOPDOMAINID_INIT_VALUE.toString() );
+		requiredId = ICFIntLicense.ID_INIT_VALUE;
+		requiredTenantId = ICFIntLicense.TENANTID_INIT_VALUE;
+		requiredTopDomainId = ICFIntLicense.TOPDOMAINID_INIT_VALUE;
 		requiredName = ICFIntLicense.NAME_INIT_VALUE;
 		optionalDescription = null;
 		optionalEmbeddedText = null;
@@ -73,6 +80,8 @@ public class CFIntBuffLicense
 	@Override
 	public void setPKey(CFLibDbKeyHash256 requiredId) {
 		this.requiredId = requiredId;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -89,6 +98,8 @@ public class CFIntBuffLicense
 				"value" );
 		}
 		requiredId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -99,6 +110,8 @@ public class CFIntBuffLicense
 	@Override
 	public void setRequiredRevision( int value ) {
 		requiredRevision = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -125,13 +138,17 @@ public class CFIntBuffLicense
 			throw new CFLibNullArgumentException(getClass(), "setOwnerTenant", 1, "argObj");
 		}
 		else {
-			requiredTenantId = argObj.getRequiredId();
+			requiredTenantId = CFIntBuffSchema.canonicalKey( argObj.getRequiredId() );
+			cachedHashCode = 0;
+			cachedSnapshot = null;
 		}
 	}
 
 	@Override
 	public void setRequiredOwnerTenant(CFLibDbKeyHash256 argTenantId) {
-		requiredTenantId = argTenantId;
+		requiredTenantId = CFIntBuffSchema.canonicalKey( argTenantId );
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -144,6 +161,40 @@ public class CFIntBuffLicense
 		if (targetTable == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredContainerTopDomain", 0, "ICFIntSchema.getBackingCFInt().getTableTopDomain()");
 		}
+		if( CFIntBuffSchema.isNavigationCacheEnabled() ) {
+			CFIntBuffResolvedRef<ICFIntTopDomain> ref = resolvedContainerTopDomain;
+			long stamp = 0L;
+			ICFIntTopDomain targetRec;
+			if( targetTable instanceof ICFIntBuffRevisionSource ) {
+				ICFIntBuffRevisionSource revisionSource = (ICFIntBuffRevisionSource)targetTable;
+				if( ref != null ) {
+					ICFIntTopDomain cachedRec = ref.resolve( revisionSource, getRequiredTopDomainId() );
+					if( cachedRec != null ) {
+						return( cachedRec );
+					}
+				}
+				// Taken before the read, so a change in between fails the next validation
+				stamp = revisionSource.getModStamp();
+				targetRec = targetTable.readDerived(null, getRequiredTopDomainId());
+			}
+			else {
+				// Without a revision source the row is read, but an unchanged one is still shared
+				targetRec = targetTable.readDerived(null, getRequiredTopDomainId());
+				if( ( ref != null ) && ( targetRec != null ) ) {
+					ICFIntTopDomain cachedRec = ref.resolve( targetTable, targetRec.getRequiredId(), targetRec.getRequiredRevision() );
+					if( cachedRec != null ) {
+						return( cachedRec );
+					}
+				}
+			}
+			if( targetRec == null ) {
+				resolvedContainerTopDomain = null;
+				return( null );
+			}
+			CFIntBuffTopDomainView view = new CFIntBuffTopDomainView( targetRec );
+			resolvedContainerTopDomain = new CFIntBuffResolvedRef<>( targetTable, view.getRequiredId(), view.getRequiredRevision(), view, stamp );
+			return( view );
+		}
 		ICFIntTopDomain targetRec = targetTable.readDerived(null, getRequiredTopDomainId());
 		return(targetRec);
 	}
@@ -153,13 +204,17 @@ public class CFIntBuffLicense
 			throw new CFLibNullArgumentException(getClass(), "setContainerTopDomain", 1, "argObj");
 		}
 		else {
-			requiredTopDomainId = argObj.getRequiredId();
+			requiredTopDomainId = CFIntBuffSchema.canonicalKey( argObj.getRequiredId() );
+			cachedHashCode = 0;
+			cachedSnapshot = null;
 		}
 	}
 
 	@Override
 	public void setRequiredContainerTopDomain(CFLibDbKeyHash256 argTopDomainId) {
-		requiredTopDomainId = argTopDomainId;
+		requiredTopDomainId = CFIntBuffSchema.canonicalKey( argTopDomainId );
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -194,6 +249,8 @@ public class CFIntBuffLicense
 				64 );
 		}
 		requiredName = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -212,6 +269,8 @@ public class CFIntBuffLicense
 				1024 );
 		}
 		optionalDescription = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -230,6 +289,8 @@ public class CFIntBuffLicense
 				8000 );
 		}
 		optionalEmbeddedText = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -248,6 +309,8 @@ public class CFIntBuffLicense
 				8000 );
 		}
 		optionalFullText = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -442,25 +505,56 @@ public class CFIntBuffLicense
 		}
 	}
 
+	/**
+	 *	Get an immutable snapshot of this record.  The snapshot is cached until
+	 *	a setter changes the record, so records held by the buffer tables,
+	 *	which are never modified in place, hand every reader the same instance.
+	 *
+	 *	@return	The snapshot of the current values.
+	 */
+	public CFIntBuffLicenseSnapshot toSnapshot() {
+		CFIntBuffLicenseSnapshot snapshot = cachedSnapshot;
+		if( snapshot == null ) {
+			snapshot = CFIntBuffLicenseSnapshot.of( this );
+			cachedSnapshot = snapshot;
+		}
+		return( snapshot );
+	}
+
 	@Override
 	public int hashCode() {
+		int hashCode = cachedHashCode;
+		if( hashCode == 0 ) {
+			hashCode = computeHashCode();
+			cachedHashCode = hashCode;
+		}
+		return( hashCode );
+	}
+
+	/**
+	 *	Compute the hash code from the attribute values.  The setters reset
+	 *	the cached value so it is recomputed on the next hashCode() call.
+	 *
+	 *	@return	The non-zero hash code.
+	 */
+	protected int computeHashCode() {
 		int hashCode = 0;
-		hashCode = hashCode + getRequiredId().hashCode();
-		hashCode = hashCode + getRequiredTenantId().hashCode();
-		hashCode = hashCode + getRequiredTopDomainId().hashCode();
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredTenantId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredTopDomainId().hashCode() );
 		if( getRequiredName() != null ) {
-			hashCode = hashCode + getRequiredName().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getRequiredName().hashCode() );
 		}
 		if( getOptionalDescription() != null ) {
-			hashCode = hashCode + getOptionalDescription().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getOptionalDescription().hashCode() );
 		}
 		if( getOptionalEmbeddedText() != null ) {
-			hashCode = hashCode + getOptionalEmbeddedText().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getOptionalEmbeddedText().hashCode() );
 		}
 		if( getOptionalFullText() != null ) {
-			hashCode = hashCode + getOptionalFullText().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getOptionalFullText().hashCode() );
 		}
-		return( hashCode & 0x7fffffff );
+		return( CFIntBuffHash.finish( hashCode ) );
 	}
 
 	@Override
@@ -665,31 +759,65 @@ public class CFIntBuffLicense
 		setRequiredId(src.getRequiredId());
 		setRequiredRevision( src.getRequiredRevision() );
 		setRequiredOwnerTenant(src.getRequiredTenantId());
-		setRequiredContainerTopDomain(src.getRequiredContainerTopDomain());
+		setRequiredContainerTopDomain(src.getRequiredTopDomainId());
 		setRequiredName(src.getRequiredName());
 		setOptionalDescription(src.getOptionalDescription());
 		setOptionalEmbeddedText(src.getOptionalEmbeddedText());
 		setOptionalFullText(src.getOptionalFullText());
 	}
 
+	/**
+	 *	Write this row in the compact CFIntBuffLicenseCodec form instead of
+	 *	the default field serialization.
+	 */
+	@Override
+	public void writeExternal( ObjectOutput out ) throws IOException {
+		CFIntBuffCodec.writeBlock( out, CFIntBuffLicenseCodec.encode( this ) );
+	}
+
+	@Override
+	public void readExternal( ObjectInput in ) throws IOException {
+		CFIntBuffLicenseCodec.decodeInto( CFIntBuffCodec.readBlock( in ), this );
+	}
+
 	@Override
 	public String getXmlAttrFragment() {
-		String ret = ""
-			+ " RequiredId=" + "\"" + getRequiredId().toString() + "\""
-			+ " RequiredRevision=\"" + Integer.toString( getRequiredRevision() ) + "\""
-			+ " RequiredId=" + "\"" + getRequiredId().toString() + "\""
-			+ " RequiredTenantId=" + "\"" + getRequiredTenantId().toString() + "\""
-			+ " RequiredTopDomainId=" + "\"" + getRequiredTopDomainId().toString() + "\""
-			+ " RequiredName=" + "\"" + StringEscapeUtils.escapeXml11( getRequiredName() ) + "\""
-			+ " OptionalDescription=" + ( ( getOptionalDescription() == null ) ? "null" : "\"" + StringEscapeUtils.escapeXml11( getOptionalDescription() ) + "\"" )
-			+ " OptionalEmbeddedText=" + ( ( getOptionalEmbeddedText() == null ) ? "null" : "\"" + StringEscapeUtils.escapeXml11( getOptionalEmbeddedText() ) + "\"" )
-			+ " OptionalFullText=" + ( ( getOptionalFullText() == null ) ? "null" : "\"" + StringEscapeUtils.escapeXml11( getOptionalFullText() ) + "\"" );
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toFragment( this::appendXmlAttrs ) );
+	}
+
+	/**
+	 *	Stream the getXmlAttrFragment() attributes to out without building
+	 *	the fragment or any escaped copy of the values.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXmlAttrs( Appendable out ) throws IOException {
+		appendXmlAttrs( new CFIntBuffXmlAttrWriter( out ) );
+	}
+
+	public void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException {
+		writer.attrKey( "RequiredId", getRequiredId() );
+		writer.attrInt( "RequiredRevision", getRequiredRevision() );
+		writer.attrKey( "RequiredId", getRequiredId() );
+		writer.attrKey( "RequiredTenantId", getRequiredTenantId() );
+		writer.attrKey( "RequiredTopDomainId", getRequiredTopDomainId() );
+		writer.attrString( "RequiredName", getRequiredName() );
+		writer.attrOptionalString( "OptionalDescription", getOptionalDescription() );
+		writer.attrOptionalString( "OptionalEmbeddedText", getOptionalEmbeddedText() );
+		writer.attrOptionalString( "OptionalFullText", getOptionalFullText() );
+	}
+
+	/**
+	 *	Stream this buffer as the same element toString() returns.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXml( Appendable out ) throws IOException {
+		CFIntBuffXmlAttrWriter.appendElement( out, "CFIntBuffLicense", this::appendXmlAttrs );
 	}
 
 	@Override
 	public String toString() {
-		String ret = "<CFIntBuffLicense" + getXmlAttrFragment() + "/>";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toElement( "CFIntBuffLicense", this::appendXmlAttrs ) );
 	}
 }
@@ -47,8 +47,9 @@ public class CFIntBuffLicenseByDomainIdxKey
 	implements ICFIntLicenseByDomainIdxKey, Comparable<Object>, Serializable
 {
 	protected CFLibDbKeyHash256 requiredTopDomainId;
+	protected transient int cachedHashCode = 0;
 	public CFIntBuffLicenseByDomainIdxKey() {
-		requiredTopDomainId = CFLibDbKeyHash256.fromHex( ICFIntLicense.TOPDOMAINID_INIT_VALUE.toString() );
+		requiredTopDomainId = ICFIntLicense.TOPDOMAINID_INIT_VALUE;
 	}
 
 	@Override
@@ -64,7 +65,8 @@ public class CFIntBuffLicenseByDomainIdxKey
 				1,
 				"value" );
 		}
-		requiredTopDomainId = value;
+		requiredTopDomainId = CFIntBuffSchema.canonicalKey( value );
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -117,9 +119,24 @@ public class CFIntBuffLicenseByDomainIdxKey
 
 	@Override
 	public int hashCode() {
+		int hashCode = cachedHashCode;
+		if( hashCode == 0 ) {
+			hashCode = computeHashCode();
+			cachedHashCode = hashCode;
+		}
+		return( hashCode );
+	}
+
+	/**
+	 *	Compute the hash code from the attribute values.  The setters reset
+	 *	the cached value so it is recomputed on the next hashCode() call.
+	 *
+	 *	@return	The non-zero hash code.
+	 */
+	protected int computeHashCode() {
 		int hashCode = 0;
-		hashCode = hashCode + getRequiredTopDomainId().hashCode();
-		return( hashCode & 0x7fffffff );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredTopDomainId().hashCode() );
+		return( CFIntBuffHash.finish( hashCode ) );
 	}
 
 	@Override
@@ -175,14 +192,34 @@ public class CFIntBuffLicenseByDomainIdxKey
 
 	@Override
 	public String getXmlAttrFragment() {
-		String ret = ""
-			+ " RequiredTopDomainId=" + "\"" + getRequiredTopDomainId().toString() + "\"";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toFragment( this::appendXmlAttrs ) );
+	}
+
+	/**
+	 *	Stream the getXmlAttrFragment() attributes to out without building
+	 *	the fragment or any escaped copy of the values.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXmlAttrs( Appendable out ) throws IOException {
+		appendXmlAttrs( new CFIntBuffXmlAttrWriter( out ) );
+	}
+
+	public void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException {
+		writer.attrKey( "RequiredTopDomainId", getRequiredTopDomainId() );
+	}
+
+	/**
+	 *	Stream this buffer as the same element toString() returns.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXml( Appendable out ) throws IOException {
+		CFIntBuffXmlAttrWriter.appendElement( out, "CFIntBuffLicenseByDomainIdxKey", this::appendXmlAttrs );
 	}
 
 	@Override
 	public String toString() {
-		String ret = "<CFIntBuffLicenseByDomainIdxKey" + getXmlAttrFragment() + "/>";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toElement( "CFIntBuffLicenseByDomainIdxKey", this::appendXmlAttrs ) );
 	}
 }
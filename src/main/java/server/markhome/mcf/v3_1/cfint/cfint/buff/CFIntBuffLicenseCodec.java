@@ -0,0 +1,113 @@
+// Description: Java 25 binary codec for License buffers.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.nio.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cfint.cfint.*;
+
+/*
+ *	CFIntBuffLicenseCodec encodes License rows in the compact format described
+ *	by CFIntBuffCodec, writing every column in declaration order.
+ */
+public class CFIntBuffLicenseCodec
+{
+	private CFIntBuffLicenseCodec() {
+	}
+
+	/**
+	 *	Get the exact number of bytes encode() will write for a row.
+	 *
+	 *	@param	src	The row to measure.
+	 *	@return	The encoded size in bytes.
+	 */
+	public static int encodedSize( ICFIntLicense src ) {
+		return( CFIntBuffCodec.HEADER_SIZE +
+			4 +
+			CFIntBuffCodec.sizeOfKey( src.getRequiredId() ) +
+			CFIntBuffCodec.sizeOfKey( src.getRequiredTenantId() ) +
+			CFIntBuffCodec.sizeOfKey( src.getRequiredTopDomainId() ) +
+			CFIntBuffCodec.sizeOfString( src.getRequiredName() ) +
+			CFIntBuffCodec.sizeOfString( src.getOptionalDescription() ) +
+			CFIntBuffCodec.sizeOfString( src.getOptionalEmbeddedText() ) +
+			CFIntBuffCodec.sizeOfString( src.getOptionalFullText() ) );
+	}
+
+	/**
+	 *	Encode a row into a new heap buffer, flipped ready for reading.
+	 *
+	 *	@param	src	The row to encode.
+	 *	@return	The encoded row.
+	 */
+	public static ByteBuffer encode( ICFIntLicense src ) {
+		if( src == null ) {
+			throw new CFLibNullArgumentException( CFIntBuffLicenseCodec.class,
+				"encode",
+				1,
+				"src" );
+		}
+		ByteBuffer buf = ByteBuffer.allocate( encodedSize( src ) );
+		encode( buf, src );
+		buf.flip();
+		return( buf );
+	}
+
+	public static void encode( ByteBuffer buf, ICFIntLicense src ) {
+		CFIntBuffCodec.putHeader( buf, ICFIntLicense.CLASS_CODE );
+		CFIntBuffCodec.putKey( buf, src.getRequiredId() );
+		buf.putInt( src.getRequiredRevision() );
+		CFIntBuffCodec.putKey( buf, src.getRequiredTenantId() );
+		CFIntBuffCodec.putKey( buf, src.getRequiredTopDomainId() );
+		CFIntBuffCodec.putString( buf, src.getRequiredName() );
+		CFIntBuffCodec.putString( buf, src.getOptionalDescription() );
+		CFIntBuffCodec.putString( buf, src.getOptionalEmbeddedText() );
+		CFIntBuffCodec.putString( buf, src.getOptionalFullText() );
+	}
+
+	public static CFIntBuffLicense decode( ByteBuffer buf ) {
+		CFIntBuffLicense dst = new CFIntBuffLicense();
+		decodeInto( buf, dst );
+		return( dst );
+	}
+
+	/**
+	 *	Decode a row into an existing buffer, overwriting every column.
+	 *
+	 *	@param	buf	The buffer positioned at the start of an encoded row.
+	 *	@param	dst	The record to fill.
+	 */
+	public static void decodeInto( ByteBuffer buf, CFIntBuffLicense dst ) {
+		CFIntBuffCodec.getHeader( buf, ICFIntLicense.CLASS_CODE, "License" );
+		dst.setRequiredId( CFIntBuffCodec.getKey( buf ) );
+		dst.setRequiredRevision( buf.getInt() );
+		dst.setRequiredOwnerTenant( CFIntBuffCodec.getKey( buf ) );
+		dst.setRequiredContainerTopDomain( CFIntBuffCodec.getKey( buf ) );
+		dst.setRequiredName( CFIntBuffCodec.getString( buf ) );
+		dst.setOptionalDescription( CFIntBuffCodec.getString( buf ) );
+		dst.setOptionalEmbeddedText( CFIntBuffCodec.getString( buf ) );
+		dst.setOptionalFullText( CFIntBuffCodec.getString( buf ) );
+	}
+}
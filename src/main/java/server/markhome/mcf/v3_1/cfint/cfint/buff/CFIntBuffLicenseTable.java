@@ -0,0 +1,959 @@
+// Description: Java 25 in-memory buffer table implementation for License.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.io.*;
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+import server.markhome.mcf.v3_1.cfsec.cfsec.*;
+import server.markhome.mcf.v3_1.cfint.cfint.*;
+import server.markhome.mcf.v3_1.cfsec.cfsec.buff.*;
+
+/*
+ *	CFIntBuffLicenseTable in-memory implementation of ICFIntLicenseTable for License.
+ *	Rows are held in concurrent hash maps keyed by primary key, with every
+ *	secondary index maintained alongside.  Reads do not lock.  Writes are
+ *	striped by tenant through ByLicnTenantIdx: creates, deletes and updates
+ *	that move a row between index keys share the table lock and hold the
+ *	read lock of the row's tenant, so they only wait for each other on
+ *	the row's lock stripe.  Updates that leave every index key alone also
+ *	hold the tenant's read lock; every update is checked against the
+ *	stored requiredRevision and bumps it.  Evicting a tenant takes its
+ *	write lock and holds up no other tenant.  Only whole-table work and
+ *	moving a row to another tenant take the table write lock.
+ */
+public class CFIntBuffLicenseTable
+	implements ICFIntLicenseTable,
+		ICFIntBuffRevisionSource,
+		ICFIntBuffSnapshotTable,
+		ICFIntBuffTenantTable
+{
+	/**
+	 *	The secondary indexes written into the table's snapshot section.
+	 */
+	public final static int SNAPSHOT_LICNTENANT_IDX = 0;
+	public final static int SNAPSHOT_DOMAIN_IDX = 1;
+
+	protected CFIntBuffSchema schema;
+	protected final ReentrantReadWriteLock tableLock = new ReentrantReadWriteLock();
+	protected final ReentrantReadWriteLock.WriteLock writeLock = tableLock.writeLock();
+	protected final CFIntBuffRowLocks rowLocks = new CFIntBuffRowLocks();
+	protected final CFIntBuffTenantLocks tenantLocks = new CFIntBuffTenantLocks();
+	protected final AtomicLong modStamp = new AtomicLong();
+	protected final ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffLicense > dictByPKey
+		= new ConcurrentHashMap<>();
+	protected final ConcurrentHashMap< CFIntBuffLicenseByLicnTenantIdxKey,
+		ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffLicense > > dictByLicnTenantIdx
+		= new ConcurrentHashMap<>();
+	protected final ConcurrentHashMap< CFIntBuffLicenseByDomainIdxKey,
+		ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffLicense > > dictByDomainIdx
+		= new ConcurrentHashMap<>();
+	protected final ConcurrentHashMap< CFIntBuffLicenseByUNameIdxKey, CFIntBuffLicense > dictByUNameIdx
+		= new ConcurrentHashMap<>();
+	protected volatile CFIntBuffSnapshotFile.Section snapshotSection = null;
+
+	public CFIntBuffLicenseTable( CFIntBuffSchema argSchema ) {
+		schema = argSchema;
+	}
+
+	public CFIntBuffSchema getSchema() {
+		return( schema );
+	}
+
+	public long getModStamp() {
+		return( modStamp.get() );
+	}
+
+	public boolean isCurrent( CFLibDbKeyHash256 PKey, int revision ) {
+		CFIntBuffLicense buff = lookupPKey( PKey );
+		return( ( buff != null ) && ( buff.getRequiredRevision() == revision ) );
+	}
+
+	protected CFIntBuffLicense copyRec( ICFIntLicense rec ) {
+		CFIntBuffLicense buff = new CFIntBuffLicense();
+		buff.set( rec );
+		return( buff );
+	}
+
+	protected CFIntBuffLicenseByLicnTenantIdxKey newByLicnTenantIdxKey( ICFIntLicense rec ) {
+		CFIntBuffLicenseByLicnTenantIdxKey key = new CFIntBuffLicenseByLicnTenantIdxKey();
+		key.setRequiredTenantId( rec.getRequiredTenantId() );
+		return( key );
+	}
+
+	protected CFIntBuffLicenseByDomainIdxKey newByDomainIdxKey( ICFIntLicense rec ) {
+		CFIntBuffLicenseByDomainIdxKey key = new CFIntBuffLicenseByDomainIdxKey();
+		key.setRequiredTopDomainId( rec.getRequiredTopDomainId() );
+		return( key );
+	}
+
+	protected CFIntBuffLicenseByUNameIdxKey newByUNameIdxKey( ICFIntLicense rec ) {
+		CFIntBuffLicenseByUNameIdxKey key = new CFIntBuffLicenseByUNameIdxKey();
+		key.setRequiredTopDomainId( rec.getRequiredTopDomainId() );
+		key.setRequiredName( rec.getRequiredName() );
+		return( key );
+	}
+
+	protected void indexRec( CFIntBuffLicense buff ) {
+		CFLibDbKeyHash256 pkey = buff.getRequiredId();
+		dictByLicnTenantIdx.compute( newByLicnTenantIdxKey( buff ),
+			( k, subdict ) -> {
+				if( subdict == null ) {
+					subdict = new ConcurrentHashMap<>();
+				}
+				subdict.put( pkey, buff );
+				return( subdict );
+			} );
+		dictByDomainIdx.compute( newByDomainIdxKey( buff ),
+			( k, subdict ) -> {
+				if( subdict == null ) {
+					subdict = new ConcurrentHashMap<>();
+				}
+				subdict.put( pkey, buff );
+				return( subdict );
+			} );
+		dictByUNameIdx.put( newByUNameIdxKey( buff ), buff );
+		dictByPKey.put( pkey, buff );
+		modStamp.incrementAndGet();
+	}
+
+	protected void unindexRec( CFIntBuffLicense buff ) {
+		CFLibDbKeyHash256 pkey = buff.getRequiredId();
+		dictByPKey.remove( pkey );
+		dictByLicnTenantIdx.computeIfPresent( newByLicnTenantIdxKey( buff ),
+			( k, subdict ) -> {
+				subdict.remove( pkey );
+				return( subdict.isEmpty() ? null : subdict );
+			} );
+		dictByDomainIdx.computeIfPresent( newByDomainIdxKey( buff ),
+			( k, subdict ) -> {
+				subdict.remove( pkey );
+				return( subdict.isEmpty() ? null : subdict );
+			} );
+		dictByUNameIdx.computeIfPresent( newByUNameIdxKey( buff ),
+			( k, indexed ) -> ( CFIntBuffLicense.PKEY_IDENTITY.withRevisionCheck().equivalent( indexed, buff ) ? null : indexed ) );
+		modStamp.incrementAndGet();
+	}
+
+	protected ICFIntLicense[] toDerivedArray( Collection< CFIntBuffLicense > values ) {
+		ArrayList< ICFIntLicense > list = new ArrayList<>( values.size() );
+		for( CFIntBuffLicense buff : values ) {
+			list.add( copyRec( buff ) );
+		}
+		return( list.toArray( new ICFIntLicense[ list.size() ] ) );
+	}
+
+	public int getSnapshotClassCode() {
+		return( ICFIntLicense.CLASS_CODE );
+	}
+
+	public int getSnapshotKeyWidth() {
+		return( CFIntBuffSnapshotFile.HASH_KEY_WIDTH );
+	}
+
+	public int getSnapshotIndexCount() {
+		return( 2 );
+	}
+
+	public void attachSnapshot( CFIntBuffSnapshotFile.Section section ) {
+		writeLock.lock();
+		try {
+			snapshotSection = section;
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	public void writeSnapshotSection( CFIntBuffSnapshotFile.SectionWriter writer ) throws IOException {
+		faultInAll();
+		writeLock.lock();
+		try {
+			for( CFIntBuffLicense buff : dictByPKey.values() ) {
+				writer.addRow( buff.getRequiredId(), CFIntBuffLicenseCodec.encode( buff ), buff.getRequiredTenantId(), buff.getRequiredTopDomainId() );
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 *	Get a stored row by primary key, decoding it from the attached
+	 *	snapshot if it has not been read since the snapshot was opened.
+	 *
+	 *	@param	PKey	The primary key.
+	 *	@return	The stored row, or null.
+	 */
+	protected CFIntBuffLicense lookupPKey( CFLibDbKeyHash256 PKey ) {
+		CFIntBuffLicense buff = dictByPKey.get( PKey );
+		if( ( buff == null ) && ( snapshotSection != null ) ) {
+			writeLock.lock();
+			try {
+				buff = dictByPKey.get( PKey );
+				CFIntBuffSnapshotFile.Section section = snapshotSection;
+				if( ( buff == null ) && ( section != null ) ) {
+					int row = section.findRow( PKey );
+					if( ( row >= 0 ) && section.claim( row ) ) {
+						buff = CFIntBuffLicenseCodec.decode( section.getRow( row ) );
+						indexRec( buff );
+					}
+				}
+			}
+			finally {
+				writeLock.unlock();
+			}
+		}
+		return( buff );
+	}
+
+	/**
+	 *	Decode every snapshot row that has not been read yet and detach the
+	 *	snapshot.  Reads of the whole table and the snapshot writer call
+	 *	this first; reads and writes of one tenant or container call
+	 *	faultInBy() instead.
+	 */
+	protected void faultInAll() {
+		if( snapshotSection == null ) {
+			return;
+		}
+		writeLock.lock();
+		try {
+			CFIntBuffSnapshotFile.Section section = snapshotSection;
+			if( section == null ) {
+				return;
+			}
+			for( int row = section.nextUnclaimed( 0 ); row >= 0; row = section.nextUnclaimed( row + 1 ) ) {
+				if( section.claim( row ) ) {
+					CFIntBuffLicense buff = CFIntBuffLicenseCodec.decode( section.getRow( row ) );
+					if( ! dictByPKey.containsKey( buff.getRequiredId() ) ) {
+						indexRec( buff );
+					}
+				}
+			}
+			snapshotSection = null;
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 *	Decode the snapshot rows filed under key in one of the section's
+	 *	secondary indexes, so the matching entry of that index is complete
+	 *	without decoding the rest of the table.  The snapshot is detached
+	 *	once its last row has been read.
+	 *
+	 *	@param	idx	SNAPSHOT_LICNTENANT_IDX or SNAPSHOT_DOMAIN_IDX.
+	 *	@param	key	The indexed key.
+	 */
+	protected void faultInBy( int idx, CFLibDbKeyHash256 key ) {
+		CFIntBuffSnapshotFile.Section section = snapshotSection;
+		if( section == null ) {
+			return;
+		}
+		int[] rows = section.findRows( idx, key );
+		if( section.isClaimed( rows ) ) {
+			return;
+		}
+		writeLock.lock();
+		try {
+			if( snapshotSection == section ) {
+				for( int row : rows ) {
+					if( section.claim( row ) ) {
+						CFIntBuffLicense buff = CFIntBuffLicenseCodec.decode( section.getRow( row ) );
+						if( ! dictByPKey.containsKey( buff.getRequiredId() ) ) {
+							indexRec( buff );
+						}
+					}
+				}
+				if( section.getUnclaimedCount() == 0 ) {
+					snapshotSection = null;
+				}
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	protected long logPut( CFIntBuffLicense buff ) {
+		CFIntBuffWriteAheadLog log = schema.getWriteAheadLog();
+		if( log == null ) {
+			return( 0L );
+		}
+		return( log.appendPut( ICFIntLicense.CLASS_CODE, CFIntBuffLicenseCodec.encode( buff ) ) );
+	}
+
+	protected long logDelete( CFLibDbKeyHash256 PKey ) {
+		CFIntBuffWriteAheadLog log = schema.getWriteAheadLog();
+		if( log == null ) {
+			return( 0L );
+		}
+		return( log.appendDelete( ICFIntLicense.CLASS_CODE, PKey ) );
+	}
+
+	protected long logEvictTenant( CFLibDbKeyHash256 TenantId ) {
+		CFIntBuffWriteAheadLog log = schema.getWriteAheadLog();
+		if( log == null ) {
+			return( 0L );
+		}
+		return( log.appendEvictTenant( ICFIntLicense.CLASS_CODE, TenantId ) );
+	}
+
+	/**
+	 *	Wait for a logged change to reach disk.  This is called after the
+	 *	table and row locks are released so concurrent writers can share
+	 *	an fsync, so the change is already visible in memory.  If the flush
+	 *	fails the change is in doubt: it may or may not survive a restart.
+	 *	The log refuses every append after a failed flush, so no later
+	 *	change is applied.
+	 *
+	 *	@param	logSeq	The sequence returned by logPut() or logDelete(), or 0.
+	 */
+	protected void awaitLogged( long logSeq ) {
+		CFIntBuffWriteAheadLog log = schema.getWriteAheadLog();
+		if( ( logSeq > 0L ) && ( log != null ) ) {
+			try {
+				log.awaitDurable( logSeq );
+			}
+			catch( IOException e ) {
+				throw new UncheckedIOException( "License change was applied but its write-ahead log record may not be durable", e );
+			}
+		}
+	}
+
+	public void replayPut( ByteBuffer payload ) {
+		CFIntBuffLicense buff = CFIntBuffLicenseCodec.decode( payload );
+		writeLock.lock();
+		try {
+			CFIntBuffLicense existing = lookupPKey( buff.getRequiredId() );
+			if( existing != null ) {
+				unindexRec( existing );
+			}
+			indexRec( buff );
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	public void replayDelete( ByteBuffer payload ) {
+		CFLibDbKeyHash256 pkey = CFIntBuffCodec.getKey( payload );
+		writeLock.lock();
+		try {
+			CFIntBuffLicense existing = lookupPKey( pkey );
+			if( existing != null ) {
+				unindexRec( existing );
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	public void replayEvictTenant( ByteBuffer payload ) {
+		CFLibDbKeyHash256 tenantId = CFIntBuffCodec.getKey( payload );
+		writeLock.lock();
+		try {
+			faultInBy( SNAPSHOT_LICNTENANT_IDX, tenantId );
+			CFIntBuffLicenseByLicnTenantIdxKey key = new CFIntBuffLicenseByLicnTenantIdxKey();
+			key.setRequiredTenantId( tenantId );
+			ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffLicense > tenantRows = dictByLicnTenantIdx.remove( key );
+			if( tenantRows != null ) {
+				for( CFIntBuffLicense buff : tenantRows.values() ) {
+					unindexRec( buff );
+				}
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 *	Check an update or delete against the stored revision of its row.
+	 *
+	 *	@param	procName	The calling method, for the exception.
+	 *	@param	existing	The stored row, or null.
+	 *	@param	rec	The caller's copy of the row.
+	 */
+	protected void checkRevision( String procName, CFIntBuffLicense existing, ICFIntLicense rec ) {
+		if( existing == null ) {
+			throw new CFLibStaleCacheDetectedException( getClass(), procName, "Existing record not found", "License", rec.getRequiredId() );
+		}
+		if( existing.getRequiredRevision() != rec.getRequiredRevision() ) {
+			throw new CFLibCollisionDetectedException( getClass(), procName, rec.getRequiredId() );
+		}
+	}
+
+	/**
+	 *	Lock the TopDomain a row is written under, so the TopDomain cannot be
+	 *	deleted, and its cascade cannot miss the row, until the write is
+	 *	done.  Called before any lock of this table is taken.
+	 *
+	 *	@param	procName	The calling method, for the exception.
+	 *	@param	TopDomainId	The primary key of the TopDomain.
+	 *	@return	The held lock, or null if the TopDomain table is not a buffer table.
+	 */
+	protected ReentrantLock lockParent( String procName, CFLibDbKeyHash256 TopDomainId ) {
+		ICFIntTopDomainTable table = schema.getTableTopDomain();
+		if( ! ( table instanceof ICFIntBuffContainerTable ) ) {
+			return( null );
+		}
+		ReentrantLock lock = ( (ICFIntBuffContainerTable)table ).lockContainer( TopDomainId );
+		if( lock == null ) {
+			throw new CFLibStaleCacheDetectedException( getClass(), procName, "Container record not found", "TopDomain", TopDomainId );
+		}
+		return( lock );
+	}
+
+	/**
+	 *	Check whether a new version of a row keeps every index key of the
+	 *	stored version, so it can replace it without reindexing.
+	 */
+	protected boolean sameIndexKeys( CFIntBuffLicense existing, CFIntBuffLicense buff ) {
+		if( ! newByLicnTenantIdxKey( existing ).equals( newByLicnTenantIdxKey( buff ) ) ) {
+			return( false );
+		}
+		if( ! newByDomainIdxKey( existing ).equals( newByDomainIdxKey( buff ) ) ) {
+			return( false );
+		}
+		if( ! newByUNameIdxKey( existing ).equals( newByUNameIdxKey( buff ) ) ) {
+			return( false );
+		}
+		return( true );
+	}
+
+	/**
+	 *	Swap a new version of a row into every index in place of the
+	 *	stored version.  The caller holds the row's lock and has checked
+	 *	sameIndexKeys(), so no index entry is added or removed.
+	 */
+	protected void replaceIndexed( CFIntBuffLicense existing, CFIntBuffLicense buff ) {
+		CFLibDbKeyHash256 pkey = buff.getRequiredId();
+		ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffLicense > subDictByLicnTenantIdx = dictByLicnTenantIdx.get( newByLicnTenantIdxKey( buff ) );
+		if( subDictByLicnTenantIdx != null ) {
+			subDictByLicnTenantIdx.put( pkey, buff );
+		}
+		ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffLicense > subDictByDomainIdx = dictByDomainIdx.get( newByDomainIdxKey( buff ) );
+		if( subDictByDomainIdx != null ) {
+			subDictByDomainIdx.put( pkey, buff );
+		}
+		dictByUNameIdx.put( newByUNameIdxKey( buff ), buff );
+		dictByPKey.put( pkey, buff );
+		modStamp.incrementAndGet();
+	}
+
+	public ICFIntLicense createLicense( ICFSecAuthorization Authorization,
+		ICFIntLicense rec )
+	{
+		final String S_ProcName = "createLicense";
+		if( rec == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 2, "rec" );
+		}
+		CFLibDbKeyHash256 argId = rec.getRequiredId();
+		if( ( argId == null ) || argId.isNull() || argId.equals( ICFIntLicense.ID_INIT_VALUE ) ) {
+			rec.setRequiredId( schema.nextLicenseIdGen() );
+		}
+		CFIntBuffLicense buff = copyRec( rec );
+		long logSeq = 0L;
+		CFLibDbKeyHash256 pkey = buff.getRequiredId();
+		// Decode any snapshot row with this key and the rows of the container,
+		// so the checks below see them
+		lookupPKey( pkey );
+		faultInBy( SNAPSHOT_DOMAIN_IDX, buff.getRequiredTopDomainId() );
+		ReentrantReadWriteLock.ReadLock tenantLock = tenantLocks.lockFor( buff.getRequiredTenantId() ).readLock();
+		ReentrantLock rowLock = rowLocks.lockFor( pkey );
+		ReentrantLock parentLock = lockParent( S_ProcName, buff.getRequiredTopDomainId() );
+		tableLock.readLock().lock();
+		tenantLock.lock();
+		rowLock.lock();
+		try {
+			if( dictByPKey.containsKey( pkey ) ) {
+				throw new CFLibPrimaryKeyNotNewException( getClass(), S_ProcName, pkey );
+			}
+			// Writers of other tenants run concurrently, so claim the unique key atomically
+			CFIntBuffLicenseByUNameIdxKey keyUNameIdx = newByUNameIdxKey( buff );
+			if( dictByUNameIdx.putIfAbsent( keyUNameIdx, buff ) != null ) {
+				throw new CFLibUniqueIndexViolationException( getClass(), S_ProcName, "LicenseUNameIdx", keyUNameIdx );
+			}
+			try {
+				logSeq = logPut( buff );
+			}
+			catch( RuntimeException e ) {
+				// Nothing was applied, so release the claim before failing
+				dictByUNameIdx.computeIfPresent( keyUNameIdx, ( k, indexed ) -> ( ( indexed == buff ) ? null : indexed ) );
+				throw e;
+			}
+			indexRec( buff );
+		}
+		finally {
+			rowLock.unlock();
+			tenantLock.unlock();
+			tableLock.readLock().unlock();
+			if( parentLock != null ) {
+				parentLock.unlock();
+			}
+		}
+		awaitLogged( logSeq );
+		return( copyRec( buff ) );
+	}
+
+	public ICFIntLicense updateLicense( ICFSecAuthorization Authorization,
+		ICFIntLicense rec )
+	{
+		final String S_ProcName = "updateLicense";
+		if( rec == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 2, "rec" );
+		}
+		CFIntBuffLicense buff = copyRec( rec );
+		CFLibDbKeyHash256 pkey = buff.getRequiredId();
+		// Decode the rows of the container the row may move to, so the
+		// unique index check below sees them
+		faultInBy( SNAPSHOT_DOMAIN_IDX, buff.getRequiredTopDomainId() );
+		// A stale revision fails here without taking any lock
+		checkRevision( S_ProcName, lookupPKey( pkey ), buff );
+		long logSeq = 0L;
+		boolean replaced = false;
+		ReentrantLock rowLock = rowLocks.lockFor( pkey );
+		ReentrantReadWriteLock.ReadLock tenantLock = tenantLocks.lockFor( buff.getRequiredTenantId() ).readLock();
+		tableLock.readLock().lock();
+		tenantLock.lock();
+		try {
+			rowLock.lock();
+			try {
+				CFIntBuffLicense existing = dictByPKey.get( pkey );
+				checkRevision( S_ProcName, existing, buff );
+				if( sameIndexKeys( existing, buff ) ) {
+					buff.setRequiredRevision( existing.getRequiredRevision() + 1 );
+					logSeq = logPut( buff );
+					replaceIndexed( existing, buff );
+					replaced = true;
+				}
+			}
+			finally {
+				rowLock.unlock();
+			}
+		}
+		finally {
+			tenantLock.unlock();
+			tableLock.readLock().unlock();
+		}
+		if( ! replaced ) {
+			// A row that moves may move to another container, which must exist
+			ReentrantLock parentLock = lockParent( S_ProcName, buff.getRequiredTopDomainId() );
+			tableLock.readLock().lock();
+			tenantLock.lock();
+			rowLock.lock();
+			try {
+				CFIntBuffLicense existing = dictByPKey.get( pkey );
+				checkRevision( S_ProcName, existing, buff );
+				if( existing.getRequiredTenantId().equals( buff.getRequiredTenantId() ) ) {
+					CFIntBuffLicenseByUNameIdxKey keyUNameIdx = newByUNameIdxKey( buff );
+					CFIntBuffLicense conflictUNameIdx = dictByUNameIdx.putIfAbsent( keyUNameIdx, buff );
+					if( ( conflictUNameIdx != null ) && ( conflictUNameIdx != existing ) ) {
+						throw new CFLibUniqueIndexViolationException( getClass(), S_ProcName, "LicenseUNameIdx", keyUNameIdx );
+					}
+					buff.setRequiredRevision( existing.getRequiredRevision() + 1 );
+					try {
+						logSeq = logPut( buff );
+					}
+					catch( RuntimeException e ) {
+						if( conflictUNameIdx == null ) {
+							dictByUNameIdx.computeIfPresent( keyUNameIdx, ( k, indexed ) -> ( ( indexed == buff ) ? null : indexed ) );
+						}
+						throw e;
+					}
+					if( conflictUNameIdx == existing ) {
+						dictByUNameIdx.computeIfPresent( keyUNameIdx,
+							( k, indexed ) -> ( CFIntBuffLicense.PKEY_IDENTITY.withRevisionCheck().equivalent( indexed, existing ) ? buff : indexed ) );
+					}
+					unindexRec( existing );
+					indexRec( buff );
+					replaced = true;
+				}
+			}
+			finally {
+				rowLock.unlock();
+				tenantLock.unlock();
+				tableLock.readLock().unlock();
+				if( parentLock != null ) {
+					parentLock.unlock();
+				}
+			}
+		}
+		if( ! replaced ) {
+			ReentrantLock parentLock = lockParent( S_ProcName, buff.getRequiredTopDomainId() );
+			writeLock.lock();
+			try {
+				CFIntBuffLicense existing = dictByPKey.get( pkey );
+				checkRevision( S_ProcName, existing, buff );
+				CFIntBuffLicenseByUNameIdxKey keyUNameIdx = newByUNameIdxKey( buff );
+				CFIntBuffLicense conflictUNameIdx = dictByUNameIdx.get( keyUNameIdx );
+				if( ( conflictUNameIdx != null ) && ( conflictUNameIdx != existing ) ) {
+					throw new CFLibUniqueIndexViolationException( getClass(), S_ProcName, "LicenseUNameIdx", keyUNameIdx );
+				}
+				buff.setRequiredRevision( existing.getRequiredRevision() + 1 );
+				logSeq = logPut( buff );
+				unindexRec( existing );
+				indexRec( buff );
+			}
+			finally {
+				writeLock.unlock();
+				if( parentLock != null ) {
+					parentLock.unlock();
+				}
+			}
+		}
+		awaitLogged( logSeq );
+		return( copyRec( buff ) );
+	}
+
+	public void deleteLicense( ICFSecAuthorization Authorization,
+		ICFIntLicense rec )
+	{
+		final String S_ProcName = "deleteLicense";
+		if( rec == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 2, "rec" );
+		}
+		deleteRow( Authorization, S_ProcName, rec.getRequiredId(), rec );
+	}
+
+	public void deleteLicenseByIdIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argKey )
+	{
+		deleteRow( Authorization, "deleteLicenseByIdIdx", argKey, null );
+	}
+
+	/**
+	 *	Delete a row.  The row's tenant and row locks are held from the
+	 *	revision check to the unindex, so the version checked is the
+	 *	version deleted.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	procName	The calling method, for exceptions.
+	 *	@param	argKey	The primary key of the row.
+	 *	@param	rec	The caller's copy of the row, whose revision must match
+	 *		the stored one, or null to delete whatever version is stored.
+	 */
+	protected void deleteRow( ICFSecAuthorization Authorization,
+		String procName,
+		CFLibDbKeyHash256 argKey,
+		ICFIntLicense rec )
+	{
+		CFIntBuffLicense existing = lookupPKey( argKey );
+		if( existing == null ) {
+			if( rec != null ) {
+				checkRevision( procName, null, rec );
+			}
+			return;
+		}
+		long logSeq = 0L;
+		boolean done = false;
+		ReentrantReadWriteLock.ReadLock tenantLock = tenantLocks.lockFor( existing.getRequiredTenantId() ).readLock();
+		ReentrantLock rowLock = rowLocks.lockFor( argKey );
+		tableLock.readLock().lock();
+		tenantLock.lock();
+		rowLock.lock();
+		try {
+			CFIntBuffLicense current = dictByPKey.get( argKey );
+			if( ( current == null ) || current.getRequiredTenantId().equals( existing.getRequiredTenantId() ) ) {
+				logSeq = deleteLocked( Authorization, procName, argKey, current, rec );
+				done = true;
+			}
+		}
+		finally {
+			rowLock.unlock();
+			tenantLock.unlock();
+			tableLock.readLock().unlock();
+		}
+		if( ! done ) {
+			// The row moved to another tenant after it was looked up
+			writeLock.lock();
+			rowLock.lock();
+			try {
+				logSeq = deleteLocked( Authorization, procName, argKey, dictByPKey.get( argKey ), rec );
+			}
+			finally {
+				rowLock.unlock();
+				writeLock.unlock();
+			}
+		}
+		awaitLogged( logSeq );
+	}
+
+	/**
+	 *	Check and delete a row with its locks held.
+	 *
+	 *	@param	current	The stored row, or null if it is gone.
+	 *	@return	The log sequence of the delete, or 0.
+	 */
+	protected long deleteLocked( ICFSecAuthorization Authorization,
+		String procName,
+		CFLibDbKeyHash256 argKey,
+		CFIntBuffLicense current,
+		ICFIntLicense rec )
+	{
+		if( rec != null ) {
+			checkRevision( procName, current, rec );
+		}
+		if( current == null ) {
+			return( 0L );
+		}
+		long logSeq = logDelete( argKey );
+		unindexRec( current );
+		return( logSeq );
+	}
+
+	public void deleteLicenseByLicnTenantIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argTenantId )
+	{
+		ICFIntLicense[] matches = readDerivedByLicnTenantIdx( Authorization, argTenantId );
+		for( ICFIntLicense match : matches ) {
+			deleteLicenseByIdIdx( Authorization, match.getRequiredId() );
+		}
+	}
+
+	public void deleteLicenseByDomainIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argTopDomainId )
+	{
+		ICFIntLicense[] matches = readDerivedByDomainIdx( Authorization, argTopDomainId );
+		for( ICFIntLicense match : matches ) {
+			deleteLicenseByIdIdx( Authorization, match.getRequiredId() );
+		}
+	}
+
+	public void deleteLicenseByUNameIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argTopDomainId,
+		String argName )
+	{
+		ICFIntLicense match = readDerivedByUNameIdx( Authorization, argTopDomainId, argName );
+		if( match != null ) {
+			deleteLicenseByIdIdx( Authorization, match.getRequiredId() );
+		}
+	}
+
+	/**
+	 *	Evict every License row of a tenant from the buffer.  The eviction
+	 *	holds the write lock of the tenant, which every writer of the
+	 *	tenant's rows holds shared, so no change of the tenant's rows can
+	 *	interleave with it, and it is logged as a single record before any
+	 *	row leaves the indexes.  Writers of other tenants do not wait for
+	 *	it.  Its cost is proportional to the tenant's rows, each of which is
+	 *	removed from every index.  It is not a delete: nothing cascades and
+	 *	no history is recorded.
+	 *
+	 *	@param	TenantId	The tenant to evict.
+	 *	@return	The number of rows evicted.
+	 */
+	public int evictTenant( CFLibDbKeyHash256 TenantId ) {
+		faultInBy( SNAPSHOT_LICNTENANT_IDX, TenantId );
+		CFIntBuffLicenseByLicnTenantIdxKey key = new CFIntBuffLicenseByLicnTenantIdxKey();
+		key.setRequiredTenantId( TenantId );
+		int evicted = 0;
+		long logSeq = 0L;
+		ReentrantReadWriteLock.WriteLock tenantLock = tenantLocks.lockFor( TenantId ).writeLock();
+		tableLock.readLock().lock();
+		// Every writer of the tenant's rows holds its read lock, so none is in flight
+		tenantLock.lock();
+		try {
+			ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffLicense > tenantRows = dictByLicnTenantIdx.get( key );
+			if( tenantRows != null ) {
+				logSeq = logEvictTenant( TenantId );
+				dictByLicnTenantIdx.remove( key );
+				for( CFIntBuffLicense buff : tenantRows.values() ) {
+					unindexRec( buff );
+					evicted++;
+				}
+			}
+		}
+		finally {
+			tenantLock.unlock();
+			tableLock.readLock().unlock();
+		}
+		awaitLogged( logSeq );
+		return( evicted );
+	}
+
+	public ICFIntLicense readDerived( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 PKey )
+	{
+		CFIntBuffLicense buff = lookupPKey( PKey );
+		if( buff == null ) {
+			return( null );
+		}
+		return( copyRec( buff ) );
+	}
+
+	/**
+	 *	Read a row as a shared immutable snapshot instead of a private copy.
+	 *	Every reader of the same row version gets the same instance.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	PKey	The primary key of the row.
+	 *	@return	The snapshot, or null if the row does not exist.
+	 */
+	public CFIntBuffLicenseSnapshot readSnapshot( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 PKey )
+	{
+		CFIntBuffLicense buff = lookupPKey( PKey );
+		if( buff == null ) {
+			return( null );
+		}
+		return( buff.toSnapshot() );
+	}
+
+	public ICFIntLicense lockDerived( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 PKey )
+	{
+		return( readDerived( Authorization, PKey ) );
+	}
+
+	public ICFIntLicense[] readAllDerived( ICFSecAuthorization Authorization ) {
+		faultInAll();
+		return( toDerivedArray( dictByPKey.values() ) );
+	}
+
+	public ICFIntLicense readDerivedByIdIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 Id )
+	{
+		return( readDerived( Authorization, Id ) );
+	}
+
+	public ICFIntLicense[] readDerivedByLicnTenantIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 TenantId )
+	{
+		faultInBy( SNAPSHOT_LICNTENANT_IDX, TenantId );
+		CFIntBuffLicenseByLicnTenantIdxKey key = new CFIntBuffLicenseByLicnTenantIdxKey();
+		key.setRequiredTenantId( TenantId );
+		ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffLicense > subdict = dictByLicnTenantIdx.get( key );
+		if( subdict == null ) {
+			return( new ICFIntLicense[0] );
+		}
+		return( toDerivedArray( subdict.values() ) );
+	}
+
+	public ICFIntLicense[] readDerivedByDomainIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 TopDomainId )
+	{
+		faultInBy( SNAPSHOT_DOMAIN_IDX, TopDomainId );
+		CFIntBuffLicenseByDomainIdxKey key = new CFIntBuffLicenseByDomainIdxKey();
+		key.setRequiredTopDomainId( TopDomainId );
+		ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffLicense > subdict = dictByDomainIdx.get( key );
+		if( subdict == null ) {
+			return( new ICFIntLicense[0] );
+		}
+		return( toDerivedArray( subdict.values() ) );
+	}
+
+	public ICFIntLicense readDerivedByUNameIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 TopDomainId,
+		String Name )
+	{
+		faultInBy( SNAPSHOT_DOMAIN_IDX, TopDomainId );
+		CFIntBuffLicenseByUNameIdxKey key = new CFIntBuffLicenseByUNameIdxKey();
+		key.setRequiredTopDomainId( TopDomainId );
+		key.setRequiredName( Name );
+		CFIntBuffLicense buff = dictByUNameIdx.get( key );
+		if( buff == null ) {
+			return( null );
+		}
+		return( copyRec( buff ) );
+	}
+
+	/**
+	 *	Read the License rows of several TenantId values in one pass over ByLicnTenantIdx.
+	 *
+	 *	@return	A map from each distinct TenantId to its rows, in argument order.
+	 */
+	public Map< CFLibDbKeyHash256, List< ICFIntLicense > > readDerivedByLicnTenantIdxBatch( ICFSecAuthorization Authorization,
+		Collection< CFLibDbKeyHash256 > TenantIds )
+	{
+		LinkedHashMap< CFLibDbKeyHash256, List< ICFIntLicense > > results = new LinkedHashMap<>();
+		CFIntBuffLicenseByLicnTenantIdxKey key = new CFIntBuffLicenseByLicnTenantIdxKey();
+		for( CFLibDbKeyHash256 TenantId : TenantIds ) {
+			if( results.containsKey( TenantId ) ) {
+				continue;
+			}
+			faultInBy( SNAPSHOT_LICNTENANT_IDX, TenantId );
+			key.setRequiredTenantId( TenantId );
+			ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffLicense > subdict = dictByLicnTenantIdx.get( key );
+			ArrayList< ICFIntLicense > children;
+			if( subdict == null ) {
+				children = new ArrayList<>( 0 );
+			}
+			else {
+				children = new ArrayList<>( subdict.size() );
+				for( CFIntBuffLicense buff : subdict.values() ) {
+					children.add( copyRec( buff ) );
+				}
+			}
+			results.put( TenantId, children );
+		}
+		return( results );
+	}
+
+	/**
+	 *	Read the License rows of several TopDomainId values in one pass over ByDomainIdx.
+	 *
+	 *	@return	A map from each distinct TopDomainId to its rows, in argument order.
+	 */
+	public Map< CFLibDbKeyHash256, List< ICFIntLicense > > readDerivedByDomainIdxBatch( ICFSecAuthorization Authorization,
+		Collection< CFLibDbKeyHash256 > TopDomainIds )
+	{
+		LinkedHashMap< CFLibDbKeyHash256, List< ICFIntLicense > > results = new LinkedHashMap<>();
+		CFIntBuffLicenseByDomainIdxKey key = new CFIntBuffLicenseByDomainIdxKey();
+		for( CFLibDbKeyHash256 TopDomainId : TopDomainIds ) {
+			if( results.containsKey( TopDomainId ) ) {
+				continue;
+			}
+			faultInBy( SNAPSHOT_DOMAIN_IDX, TopDomainId );
+			key.setRequiredTopDomainId( TopDomainId );
+			ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffLicense > subdict = dictByDomainIdx.get( key );
+			ArrayList< ICFIntLicense > children;
+			if( subdict == null ) {
+				children = new ArrayList<>( 0 );
+			}
+			else {
+				children = new ArrayList<>( subdict.size() );
+				for( CFIntBuffLicense buff : subdict.values() ) {
+					children.add( copyRec( buff ) );
+				}
+			}
+			results.put( TopDomainId, children );
+		}
+		return( results );
+	}
+
+	public void releasePreparedStatements() {
+	}
+}
@@ -34,6 +34,7 @@ import java.sql.*;
 import java.text.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.text.StringEscapeUtils;
 import server.markhome.mcf.v3_1.cflib.*;
@@ -44,23 +45,38 @@ import server.markhome.mcf.v3_1.cfint.cfint.*;
 import server.markhome.mcf.v3_1.cfsec.cfsec.buff.*;
 
 public class CFIntBuffMajorVersion
-	implements ICFIntMajorVersion, Comparable<Object>, Serializable
+	implements ICFIntMajorVersion, Comparable<Object>, Externalizable
 {
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffMajorVersion, LocalDateTime> CREATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffMajorVersion.class, LocalDateTime.class, "createdAt" );
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffMajorVersion, LocalDateTime> UPDATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffMajorVersion.class, LocalDateTime.class, "updatedAt" );
+
+	public final static CFIntBuffPKeyIdentity<ICFIntMajorVersion> PKEY_IDENTITY =
+		CFIntBuffPKeyIdentity.forHashKey( ICFIntMajorVersion::getRequiredId, ICFIntMajorVersion::getRequiredRevision );
+
+	protected final static CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex( ICFIntMajorVersion.S_INIT_CREATED_BY );
+	protected final static CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex( ICFIntMajorVersion.S_INIT_UPDATED_BY );
+
 	protected CFLibDbKeyHash256 requiredId;
 	protected int requiredRevision;
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFIntMajorVersion.S_INIT_CREATED_BY);
-	protected LocalDateTime createdAt = LocalDateTime.now();
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFIntMajorVersion.S_INIT_UPDATED_BY);
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
+	protected volatile LocalDateTime createdAt = null;
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
+	protected volatile LocalDateTime updatedAt = null;
 	protected CFLibDbKeyHash256 requiredTenantId;
 	protected CFLibDbKeyHash256 requiredSubProjectId;
 	protected String requiredName;
 	protected String optionalDescription;
 
+	protected transient CFIntBuffResolvedRef<ICFIntSubProject> resolvedContainerParentSPrj = null;
+	protected transient int cachedHashCode = 0;
+	protected transient volatile CFIntBuffMajorVersionSnapshot cachedSnapshot = null;
+
 	public CFIntBuffMajorVersion() {
-		requiredId = CFLibDbKeyHash256.fromHex( ICFIntMajorVersion.ID_INIT_VALUE.toString() );
-		requiredTenantId = CFLibDbKeyHash256.fromHex( ICFIntMajorVersion.TENANTID_INIT_VALUE.toString() );
-		requiredSubProjectId = CFLibDbKeyHash256.fromHex( ICFIntMajorVersion.SUBPROJECTID_INIT_VALUE.toString() );
+		requiredId = ICFIntMajorVersion.ID_INIT_VALUE;
+		requiredTenantId = ICFIntMajorVersion.TENANTID_INIT_VALUE;
+		requiredSubProjectId = ICFIntMajorVersion.SUBPROJECTID_INIT_VALUE;
 		requiredName = ICFIntMajorVersion.NAME_INIT_VALUE;
 		optionalDescription = null;
 	}
@@ -73,6 +89,8 @@ public class CFIntBuffMajorVersion
 	@Override
 	public void setPKey(CFLibDbKeyHash256 requiredId) {
 		this.requiredId = requiredId;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -89,6 +107,8 @@ public class CFIntBuffMajorVersion
 				"value" );
 		}
 		requiredId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -99,16 +119,26 @@ public class CFIntBuffMajorVersion
 	@Override
 	public void setCreatedByUserId( CFLibDbKeyHash256 value ) {
 		createdByUserId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
 	public LocalDateTime getCreatedAt() {
-		return( createdAt );
+		LocalDateTime value = createdAt;
+		if( value == null ) {
+			// The first reader stamps it, and every reader sees that one stamp
+			CREATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+			value = createdAt;
+		}
+		return( value );
 	}
 
 	@Override
 	public void setCreatedAt( LocalDateTime value ) {
 		createdAt = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -119,16 +149,26 @@ public class CFIntBuffMajorVersion
 	@Override
 	public void setUpdatedByUserId( CFLibDbKeyHash256 value ) {
 		updatedByUserId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
 	public LocalDateTime getUpdatedAt() {
-		return( updatedAt );
+		LocalDateTime value = updatedAt;
+		if( value == null ) {
+			// The first reader stamps it, and every reader sees that one stamp
+			UPDATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+			value = updatedAt;
+		}
+		return( value );
 	}
 
 	@Override
 	public void setUpdatedAt( LocalDateTime value ) {
 		updatedAt = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 	@Override
 	public int getRequiredRevision() {
@@ -138,6 +178,8 @@ public class CFIntBuffMajorVersion
 	@Override
 	public void setRequiredRevision( int value ) {
 		requiredRevision = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -168,6 +210,77 @@ public class CFIntBuffMajorVersion
 			return( results );
 		}
 	}
+
+	/**
+	 *	Get the MinorVersion components as an unmodifiable view over the array read
+	 *	from the table, without copying it into a new list.
+	 *
+	 *	@return	The components; an empty shared list if there are none.
+	 */
+	public List<ICFIntMinorVersion> getOptionalComponentsMinorVerView() {
+		ICFIntSchema targetBackingSchema = ICFIntSchema.getBackingCFInt();
+		if (targetBackingSchema == null) {
+			throw new CFLibNullArgumentException(getClass(), "getOptionalComponentsMinorVerView", 0, "ICFIntSchema.getBackingCFInt()");
+		}
+		ICFIntMinorVersionTable targetTable = targetBackingSchema.getTableMinorVersion();
+		if (targetTable == null) {
+			throw new CFLibNullArgumentException(getClass(), "getOptionalComponentsMinorVerView", 0, "ICFIntSchema.getBackingCFInt().getTableMinorVersion()");
+		}
+		ICFIntMinorVersion[] targetArr = targetTable.readDerivedByMajorVerIdx(null, getRequiredId());
+		if( ( targetArr == null ) || ( targetArr.length == 0 ) ) {
+			return( Collections.emptyList() );
+		}
+		return( Collections.unmodifiableList(Arrays.asList(targetArr)) );
+	}
+
+	/**
+	 *	Read the MinorVersion components of several MajorVersion records at once.  When the
+	 *	backing table is a buffer table all of the parents are resolved in a
+	 *	single pass over its ByMajorVerIdx; otherwise each parent is read in turn.
+	 *
+	 *	@param	parents	The MajorVersion records whose components are wanted.
+	 *
+	 *	@return	A map from each parent id to its components, in argument order.
+	 */
+	public static Map<CFLibDbKeyHash256, List<ICFIntMinorVersion>> readOptionalComponentsMinorVer( Collection<? extends ICFIntMajorVersion> parents ) {
+		if (parents == null) {
+			throw new CFLibNullArgumentException(CFIntBuffMajorVersion.class, "readOptionalComponentsMinorVer", 1, "parents");
+		}
+		ICFIntSchema targetBackingSchema = ICFIntSchema.getBackingCFInt();
+		if (targetBackingSchema == null) {
+			throw new CFLibNullArgumentException(CFIntBuffMajorVersion.class, "readOptionalComponentsMinorVer", 0, "ICFIntSchema.getBackingCFInt()");
+		}
+		ICFIntMinorVersionTable targetTable = targetBackingSchema.getTableMinorVersion();
+		if (targetTable == null) {
+			throw new CFLibNullArgumentException(CFIntBuffMajorVersion.class, "readOptionalComponentsMinorVer", 0, "ICFIntSchema.getBackingCFInt().getTableMinorVersion()");
+		}
+		List<CFLibDbKeyHash256> parentIds = new ArrayList<>(parents.size());
+		for (ICFIntMajorVersion parent : parents) {
+			parentIds.add(parent.getRequiredId());
+		}
+		if (targetTable instanceof CFIntBuffMinorVersionTable) {
+			return( ((CFIntBuffMinorVersionTable)targetTable).readDerivedByMajorVerIdxBatch(null, parentIds) );
+		}
+		Map<CFLibDbKeyHash256, List<ICFIntMinorVersion>> results = new LinkedHashMap<>();
+		for (CFLibDbKeyHash256 parentId : parentIds) {
+			if (results.containsKey(parentId)) {
+				continue;
+			}
+			ICFIntMinorVersion[] targetArr = targetTable.readDerivedByMajorVerIdx(null, parentId);
+			List<ICFIntMinorVersion> children;
+			if( targetArr != null ) {
+				children = new ArrayList<>(targetArr.length);
+				for (int idx = 0; idx < targetArr.length; idx++) {
+					children.add(targetArr[idx]);
+				}
+			}
+			else {
+				children = new ArrayList<>();
+			}
+			results.put(parentId, children);
+		}
+		return( results );
+	}
 	@Override
 	public ICFSecTenant getRequiredOwnerTenant() {
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
@@ -187,13 +300,17 @@ public class CFIntBuffMajorVersion
 			throw new CFLibNullArgumentException(getClass(), "setOwnerTenant", 1, "argObj");
 		}
 		else {
-			requiredTenantId = argObj.getRequiredId();
+			requiredTenantId = CFIntBuffSchema.canonicalKey( argObj.getRequiredId() );
+			cachedHashCode = 0;
+			cachedSnapshot = null;
 		}
 	}
 
 	@Override
 	public void setRequiredOwnerTenant(CFLibDbKeyHash256 argTenantId) {
-		requiredTenantId = argTenantId;
+		requiredTenantId = CFIntBuffSchema.canonicalKey( argTenantId );
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -206,6 +323,40 @@ public class CFIntBuffMajorVersion
 		if (targetTable == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredContainerParentSPrj", 0, "ICFIntSchema.getBackingCFInt().getTableSubProject()");
 		}
+		if( CFIntBuffSchema.isNavigationCacheEnabled() ) {
+			CFIntBuffResolvedRef<ICFIntSubProject> ref = resolvedContainerParentSPrj;
+			long stamp = 0L;
+			ICFIntSubProject targetRec;
+			if( targetTable instanceof ICFIntBuffRevisionSource ) {
+				ICFIntBuffRevisionSource revisionSource = (ICFIntBuffRevisionSource)targetTable;
+				if( ref != null ) {
+					ICFIntSubProject cachedRec = ref.resolve( revisionSource, getRequiredSubProjectId() );
+					if( cachedRec != null ) {
+						return( cachedRec );
+					}
+				}
+				// Taken before the read, so a change in between fails the next validation
+				stamp = revisionSource.getModStamp();
+				targetRec = targetTable.readDerived(null, getRequiredSubProjectId());
+			}
+			else {
+				// Without a revision source the row is read, but an unchanged one is still shared
+				targetRec = targetTable.readDerived(null, getRequiredSubProjectId());
+				if( ( ref != null ) && ( targetRec != null ) ) {
+					ICFIntSubProject cachedRec = ref.resolve( targetTable, targetRec.getRequiredId(), targetRec.getRequiredRevision() );
+					if( cachedRec != null ) {
+						return( cachedRec );
+					}
+				}
+			}
+			if( targetRec == null ) {
+				resolvedContainerParentSPrj = null;
+				return( null );
+			}
+			CFIntBuffSubProjectView view = new CFIntBuffSubProjectView( targetRec );
+			resolvedContainerParentSPrj = new CFIntBuffResolvedRef<>( targetTable, view.getRequiredId(), view.getRequiredRevision(), view, stamp );
+			return( view );
+		}
 		ICFIntSubProject targetRec = targetTable.readDerived(null, getRequiredSubProjectId());
 		return(targetRec);
 	}
@@ -215,13 +366,17 @@ public class CFIntBuffMajorVersion
 			throw new CFLibNullArgumentException(getClass(), "setContainerParentSPrj", 1, "argObj");
 		}
 		else {
-			requiredSubProjectId = argObj.getRequiredId();
+			requiredSubProjectId = CFIntBuffSchema.canonicalKey( argObj.getRequiredId() );
+			cachedHashCode = 0;
+			cachedSnapshot = null;
 		}
 	}
 
 	@Override
 	public void setRequiredContainerParentSPrj(CFLibDbKeyHash256 argSubProjectId) {
-		requiredSubProjectId = argSubProjectId;
+		requiredSubProjectId = CFIntBuffSchema.canonicalKey( argSubProjectId );
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -256,6 +411,8 @@ public class CFIntBuffMajorVersion
 				64 );
 		}
 		requiredName = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -274,6 +431,8 @@ public class CFIntBuffMajorVersion
 				1024 );
 		}
 		optionalDescription = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -548,23 +707,54 @@ public class CFIntBuffMajorVersion
 		}
 	}
 
+	/**
+	 *	Get an immutable snapshot of this record.  The snapshot is cached until
+	 *	a setter changes the record, so records held by the buffer tables,
+	 *	which are never modified in place, hand every reader the same instance.
+	 *
+	 *	@return	The snapshot of the current values.
+	 */
+	public CFIntBuffMajorVersionSnapshot toSnapshot() {
+		CFIntBuffMajorVersionSnapshot snapshot = cachedSnapshot;
+		if( snapshot == null ) {
+			snapshot = CFIntBuffMajorVersionSnapshot.of( this );
+			cachedSnapshot = snapshot;
+		}
+		return( snapshot );
+	}
+
 	@Override
 	public int hashCode() {
+		int hashCode = cachedHashCode;
+		if( hashCode == 0 ) {
+			hashCode = computeHashCode();
+			cachedHashCode = hashCode;
+		}
+		return( hashCode );
+	}
+
+	/**
+	 *	Compute the hash code from the attribute values.  The setters reset
+	 *	the cached value so it is recomputed on the next hashCode() call.
+	 *
+	 *	@return	The non-zero hash code.
+	 */
+	protected int computeHashCode() {
 		int hashCode = 0;
-		hashCode = hashCode + getCreatedByUserId().hashCode();
-		hashCode = hashCode + getCreatedAt().hashCode();
-		hashCode = hashCode + getUpdatedByUserId().hashCode();
-		hashCode = hashCode + getUpdatedAt().hashCode();
-		hashCode = hashCode + getRequiredId().hashCode();
-		hashCode = hashCode + getRequiredTenantId().hashCode();
-		hashCode = hashCode + getRequiredSubProjectId().hashCode();
+		hashCode = CFIntBuffHash.mix( hashCode, getCreatedByUserId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getCreatedAt().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getUpdatedByUserId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getUpdatedAt().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredTenantId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredSubProjectId().hashCode() );
 		if( getRequiredName() != null ) {
-			hashCode = hashCode + getRequiredName().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getRequiredName().hashCode() );
 		}
 		if( getOptionalDescription() != null ) {
-			hashCode = hashCode + getOptionalDescription().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getOptionalDescription().hashCode() );
 		}
-		return( hashCode & 0x7fffffff );
+		return( CFIntBuffHash.finish( hashCode ) );
 	}
 
 	@Override
@@ -863,7 +1053,7 @@ public class CFIntBuffMajorVersion
 		setUpdatedByUserId( src.getUpdatedByUserId() );
 		setUpdatedAt( src.getUpdatedAt() );
 		setRequiredOwnerTenant(src.getRequiredTenantId());
-		setRequiredContainerParentSPrj(src.getRequiredContainerParentSPrj());
+		setRequiredContainerParentSPrj(src.getRequiredSubProjectId());
 		setRequiredName(src.getRequiredName());
 		setOptionalDescription(src.getOptionalDescription());
 	}
@@ -882,22 +1072,56 @@ public class CFIntBuffMajorVersion
 		setOptionalDescription(src.getOptionalDescription());
 	}
 
+	/**
+	 *	Write this row in the compact CFIntBuffMajorVersionCodec form instead of
+	 *	the default field serialization.
+	 */
+	@Override
+	public void writeExternal( ObjectOutput out ) throws IOException {
+		CFIntBuffCodec.writeBlock( out, CFIntBuffMajorVersionCodec.encode( this ) );
+	}
+
+	@Override
+	public void readExternal( ObjectInput in ) throws IOException {
+		CFIntBuffMajorVersionCodec.decodeInto( CFIntBuffCodec.readBlock( in ), this );
+	}
+
 	@Override
 	public String getXmlAttrFragment() {
-		String ret = ""
-			+ " RequiredId=" + "\"" + getRequiredId().toString() + "\""
-			+ " RequiredRevision=\"" + Integer.toString( getRequiredRevision() ) + "\""
-			+ " RequiredId=" + "\"" + getRequiredId().toString() + "\""
-			+ " RequiredTenantId=" + "\"" + getRequiredTenantId().toString() + "\""
-			+ " RequiredSubProjectId=" + "\"" + getRequiredSubProjectId().toString() + "\""
-			+ " RequiredName=" + "\"" + StringEscapeUtils.escapeXml11( getRequiredName() ) + "\""
-			+ " OptionalDescription=" + ( ( getOptionalDescription() == null ) ? "null" : "\"" + StringEscapeUtils.escapeXml11( getOptionalDescription() ) + "\"" );
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toFragment( this::appendXmlAttrs ) );
+	}
+
+	/**
+	 *	Stream the getXmlAttrFragment() attributes to out without building
+	 *	the fragment or any escaped copy of the values.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXmlAttrs( Appendable out ) throws IOException {
+		appendXmlAttrs( new CFIntBuffXmlAttrWriter( out ) );
+	}
+
+	public void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException {
+		writer.attrKey( "RequiredId", getRequiredId() );
+		writer.attrInt( "RequiredRevision", getRequiredRevision() );
+		writer.attrKey( "RequiredId", getRequiredId() );
+		writer.attrKey( "RequiredTenantId", getRequiredTenantId() );
+		writer.attrKey( "RequiredSubProjectId", getRequiredSubProjectId() );
+		writer.attrString( "RequiredName", getRequiredName() );
+		writer.attrOptionalString( "OptionalDescription", getOptionalDescription() );
+	}
+
+	/**
+	 *	Stream this buffer as the same element toString() returns.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXml( Appendable out ) throws IOException {
+		CFIntBuffXmlAttrWriter.appendElement( out, "CFIntBuffMajorVersion", this::appendXmlAttrs );
 	}
 
 	@Override
 	public String toString() {
-		String ret = "<CFIntBuffMajorVersion" + getXmlAttrFragment() + "/>";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toElement( "CFIntBuffMajorVersion", this::appendXmlAttrs ) );
 	}
 }
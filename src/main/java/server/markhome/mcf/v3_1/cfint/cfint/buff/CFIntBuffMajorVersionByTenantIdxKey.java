@@ -47,8 +47,9 @@ public class CFIntBuffMajorVersionByTenantIdxKey
 	implements ICFIntMajorVersionByTenantIdxKey, Comparable<Object>, Serializable
 {
 	protected CFLibDbKeyHash256 requiredTenantId;
+	protected transient int cachedHashCode = 0;
 	public CFIntBuffMajorVersionByTenantIdxKey() {
-		requiredTenantId = CFLibDbKeyHash256.fromHex( ICFIntMajorVersion.TENANTID_INIT_VALUE.toString() );
+		requiredTenantId = ICFIntMajorVersion.TENANTID_INIT_VALUE;
 	}
 
 	@Override
@@ -64,7 +65,8 @@ public class CFIntBuffMajorVersionByTenantIdxKey
 				1,
 				"value" );
 		}
-		requiredTenantId = value;
+		requiredTenantId = CFIntBuffSchema.canonicalKey( value );
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -117,9 +119,24 @@ public class CFIntBuffMajorVersionByTenantIdxKey
 
 	@Override
 	public int hashCode() {
+		int hashCode = cachedHashCode;
+		if( hashCode == 0 ) {
+			hashCode = computeHashCode();
+			cachedHashCode = hashCode;
+		}
+		return( hashCode );
+	}
+
+	/**
+	 *	Compute the hash code from the attribute values.  The setters reset
+	 *	the cached value so it is recomputed on the next hashCode() call.
+	 *
+	 *	@return	The non-zero hash code.
+	 */
+	protected int computeHashCode() {
 		int hashCode = 0;
-		hashCode = hashCode + getRequiredTenantId().hashCode();
-		return( hashCode & 0x7fffffff );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredTenantId().hashCode() );
+		return( CFIntBuffHash.finish( hashCode ) );
 	}
 
 	@Override
@@ -175,14 +192,34 @@ public class CFIntBuffMajorVersionByTenantIdxKey
 
 	@Override
 	public String getXmlAttrFragment() {
-		String ret = ""
-			+ " RequiredTenantId=" + "\"" + getRequiredTenantId().toString() + "\"";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toFragment( this::appendXmlAttrs ) );
+	}
+
+	/**
+	 *	Stream the getXmlAttrFragment() attributes to out without building
+	 *	the fragment or any escaped copy of the values.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXmlAttrs( Appendable out ) throws IOException {
+		appendXmlAttrs( new CFIntBuffXmlAttrWriter( out ) );
+	}
+
+	public void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException {
+		writer.attrKey( "RequiredTenantId", getRequiredTenantId() );
+	}
+
+	/**
+	 *	Stream this buffer as the same element toString() returns.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXml( Appendable out ) throws IOException {
+		CFIntBuffXmlAttrWriter.appendElement( out, "CFIntBuffMajorVersionByTenantIdxKey", this::appendXmlAttrs );
 	}
 
 	@Override
 	public String toString() {
-		String ret = "<CFIntBuffMajorVersionByTenantIdxKey" + getXmlAttrFragment() + "/>";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toElement( "CFIntBuffMajorVersionByTenantIdxKey", this::appendXmlAttrs ) );
 	}
 }
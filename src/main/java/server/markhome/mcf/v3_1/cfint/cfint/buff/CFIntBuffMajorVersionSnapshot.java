@@ -0,0 +1,97 @@
+// Description: Java 25 immutable snapshot of a CFInt MajorVersion buffer
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.io.*;
+import java.time.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+import server.markhome.mcf.v3_1.cfint.cfint.*;
+
+/**
+ *	CFIntBuffMajorVersionSnapshot is a frozen copy of a MajorVersion row.
+ *	It has no setters and can be shared between threads without defensive
+ *	copies.  Snapshots built with of() draw the values that repeat across
+ *	rows, the tenant, container and audit user ids and the name, from the
+ *	shared CFIntBuffWeakInterner pools, so equal values are one instance
+ *	across every cached snapshot.  The primary key and free text are unique
+ *	to a row and are kept as is.  Use toBuff() to get an editable record back.
+ */
+public record CFIntBuffMajorVersionSnapshot(
+	CFLibDbKeyHash256 requiredId,
+	int requiredRevision,
+	CFLibDbKeyHash256 createdByUserId,
+	LocalDateTime createdAt,
+	CFLibDbKeyHash256 updatedByUserId,
+	LocalDateTime updatedAt,
+	CFLibDbKeyHash256 requiredTenantId,
+	CFLibDbKeyHash256 requiredSubProjectId,
+	String requiredName,
+	String optionalDescription )
+	implements Serializable
+{
+	/**
+	 *	Take a snapshot of a MajorVersion row.
+	 *
+	 *	@param	src	The row to snapshot; may be null.
+	 *	@return	The snapshot, or null if src is null.
+	 */
+	public static CFIntBuffMajorVersionSnapshot of( ICFIntMajorVersion src ) {
+		if( src == null ) {
+			return( null );
+		}
+		return( new CFIntBuffMajorVersionSnapshot(
+			src.getRequiredId(),
+			src.getRequiredRevision(),
+			CFIntBuffWeakInterner.KEYS.intern( src.getCreatedByUserId() ),
+			src.getCreatedAt(),
+			CFIntBuffWeakInterner.KEYS.intern( src.getUpdatedByUserId() ),
+			src.getUpdatedAt(),
+			CFIntBuffWeakInterner.KEYS.intern( src.getRequiredTenantId() ),
+			CFIntBuffWeakInterner.KEYS.intern( src.getRequiredSubProjectId() ),
+			CFIntBuffWeakInterner.STRINGS.intern( src.getRequiredName() ),
+			src.getOptionalDescription() ) );
+	}
+
+	/**
+	 *	Get an editable buffer record holding the values of this snapshot.
+	 *
+	 *	@return	A new buffer record.
+	 */
+	public CFIntBuffMajorVersion toBuff() {
+		CFIntBuffMajorVersion buff = new CFIntBuffMajorVersion();
+		buff.setRequiredId( requiredId );
+		buff.setRequiredRevision( requiredRevision );
+		buff.setCreatedByUserId( createdByUserId );
+		buff.setCreatedAt( createdAt );
+		buff.setUpdatedByUserId( updatedByUserId );
+		buff.setUpdatedAt( updatedAt );
+		buff.setRequiredOwnerTenant( requiredTenantId );
+		buff.setRequiredContainerParentSPrj( requiredSubProjectId );
+		buff.setRequiredName( requiredName );
+		buff.setOptionalDescription( optionalDescription );
+		return( buff );
+	}
+}
@@ -34,6 +34,7 @@ import java.sql.*;
 import java.text.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.text.StringEscapeUtils;
 import server.markhome.mcf.v3_1.cflib.*;
@@ -44,16 +45,29 @@ import server.markhome.mcf.v3_1.cfint.cfint.*;
 import server.markhome.mcf.v3_1.cfsec.cfsec.buff.*;
 
 public class CFIntBuffMimeType
-	implements ICFIntMimeType, Comparable<Object>, Serializable
+	implements ICFIntMimeType, Comparable<Object>, Externalizable
 {
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffMimeType, LocalDateTime> CREATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffMimeType.class, LocalDateTime.class, "createdAt" );
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffMimeType, LocalDateTime> UPDATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffMimeType.class, LocalDateTime.class, "updatedAt" );
+
+	public final static CFIntBuffPKeyIdentity<ICFIntMimeType> PKEY_IDENTITY =
+		CFIntBuffPKeyIdentity.forIntKey( ICFIntMimeType::getRequiredMimeTypeId, ICFIntMimeType::getRequiredRevision );
+
+	protected final static CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex( ICFIntMimeType.S_INIT_CREATED_BY );
+	protected final static CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex( ICFIntMimeType.S_INIT_UPDATED_BY );
+
 	protected int requiredMimeTypeId;
 	protected int requiredRevision;
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFIntMimeType.S_INIT_CREATED_BY);
-	protected LocalDateTime createdAt = LocalDateTime.now();
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFIntMimeType.S_INIT_UPDATED_BY);
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
+	protected volatile LocalDateTime createdAt = null;
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
+	protected volatile LocalDateTime updatedAt = null;
 	protected String requiredName;
 	protected String optionalFileTypes;
+	protected transient int cachedHashCode = 0;
+	protected transient volatile CFIntBuffMimeTypeSnapshot cachedSnapshot = null;
 
 	public CFIntBuffMimeType() {
 		requiredMimeTypeId = ICFIntMimeType.MIMETYPEID_INIT_VALUE;
@@ -69,6 +83,8 @@ public class CFIntBuffMimeType
 	@Override
 	public void setPKey(Integer requiredMimeTypeId) {
 		this.requiredMimeTypeId = requiredMimeTypeId;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -87,6 +103,8 @@ public class CFIntBuffMimeType
 				ICFIntMimeType.MIMETYPEID_MIN_VALUE );
 		}
 		requiredMimeTypeId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -97,16 +115,26 @@ public class CFIntBuffMimeType
 	@Override
 	public void setCreatedByUserId( CFLibDbKeyHash256 value ) {
 		createdByUserId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
 	public LocalDateTime getCreatedAt() {
-		return( createdAt );
+		LocalDateTime value = createdAt;
+		if( value == null ) {
+			// The first reader stamps it, and every reader sees that one stamp
+			CREATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+			value = createdAt;
+		}
+		return( value );
 	}
 
 	@Override
 	public void setCreatedAt( LocalDateTime value ) {
 		createdAt = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -117,16 +145,26 @@ public class CFIntBuffMimeType
 	@Override
 	public void setUpdatedByUserId( CFLibDbKeyHash256 value ) {
 		updatedByUserId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
 	public LocalDateTime getUpdatedAt() {
-		return( updatedAt );
+		LocalDateTime value = updatedAt;
+		if( value == null ) {
+			// The first reader stamps it, and every reader sees that one stamp
+			UPDATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+			value = updatedAt;
+		}
+		return( value );
 	}
 
 	@Override
 	public void setUpdatedAt( LocalDateTime value ) {
 		updatedAt = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 	@Override
 	public int getRequiredRevision() {
@@ -136,6 +174,8 @@ public class CFIntBuffMimeType
 	@Override
 	public void setRequiredRevision( int value ) {
 		requiredRevision = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -165,6 +205,8 @@ public class CFIntBuffMimeType
 				128 );
 		}
 		requiredName = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -183,6 +225,8 @@ public class CFIntBuffMimeType
 				128 );
 		}
 		optionalFileTypes = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -308,21 +352,52 @@ public class CFIntBuffMimeType
 		}
 	}
 
+	/**
+	 *	Get an immutable snapshot of this record.  The snapshot is cached until
+	 *	a setter changes the record, so records held by the buffer tables,
+	 *	which are never modified in place, hand every reader the same instance.
+	 *
+	 *	@return	The snapshot of the current values.
+	 */
+	public CFIntBuffMimeTypeSnapshot toSnapshot() {
+		CFIntBuffMimeTypeSnapshot snapshot = cachedSnapshot;
+		if( snapshot == null ) {
+			snapshot = CFIntBuffMimeTypeSnapshot.of( this );
+			cachedSnapshot = snapshot;
+		}
+		return( snapshot );
+	}
+
 	@Override
 	public int hashCode() {
+		int hashCode = cachedHashCode;
+		if( hashCode == 0 ) {
+			hashCode = computeHashCode();
+			cachedHashCode = hashCode;
+		}
+		return( hashCode );
+	}
+
+	/**
+	 *	Compute the hash code from the attribute values.  The setters reset
+	 *	the cached value so it is recomputed on the next hashCode() call.
+	 *
+	 *	@return	The non-zero hash code.
+	 */
+	protected int computeHashCode() {
 		int hashCode = 0;
-		hashCode = hashCode + getCreatedByUserId().hashCode();
-		hashCode = hashCode + getCreatedAt().hashCode();
-		hashCode = hashCode + getUpdatedByUserId().hashCode();
-		hashCode = hashCode + getUpdatedAt().hashCode();
-		hashCode = hashCode + getRequiredMimeTypeId();
+		hashCode = CFIntBuffHash.mix( hashCode, getCreatedByUserId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getCreatedAt().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getUpdatedByUserId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getUpdatedAt().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredMimeTypeId() );
 		if( getRequiredName() != null ) {
-			hashCode = hashCode + getRequiredName().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getRequiredName().hashCode() );
 		}
 		if( getOptionalFileTypes() != null ) {
-			hashCode = hashCode + getOptionalFileTypes().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getOptionalFileTypes().hashCode() );
 		}
-		return( hashCode & 0x7fffffff );
+		return( CFIntBuffHash.finish( hashCode ) );
 	}
 
 	@Override
@@ -506,20 +581,54 @@ public class CFIntBuffMimeType
 		setOptionalFileTypes(src.getOptionalFileTypes());
 	}
 
+	/**
+	 *	Write this row in the compact CFIntBuffMimeTypeCodec form instead of
+	 *	the default field serialization.
+	 */
+	@Override
+	public void writeExternal( ObjectOutput out ) throws IOException {
+		CFIntBuffCodec.writeBlock( out, CFIntBuffMimeTypeCodec.encode( this ) );
+	}
+
+	@Override
+	public void readExternal( ObjectInput in ) throws IOException {
+		CFIntBuffMimeTypeCodec.decodeInto( CFIntBuffCodec.readBlock( in ), this );
+	}
+
 	@Override
 	public String getXmlAttrFragment() {
-		String ret = ""
-			+ " RequiredMimeTypeId=" + "\"" + Integer.toString( getRequiredMimeTypeId() ) + "\""
-			+ " RequiredRevision=\"" + Integer.toString( getRequiredRevision() ) + "\""
-			+ " RequiredMimeTypeId=" + "\"" + Integer.toString( getRequiredMimeTypeId() ) + "\""
-			+ " RequiredName=" + "\"" + StringEscapeUtils.escapeXml11( getRequiredName() ) + "\""
-			+ " OptionalFileTypes=" + ( ( getOptionalFileTypes() == null ) ? "null" : "\"" + StringEscapeUtils.escapeXml11( getOptionalFileTypes() ) + "\"" );
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toFragment( this::appendXmlAttrs ) );
+	}
+
+	/**
+	 *	Stream the getXmlAttrFragment() attributes to out without building
+	 *	the fragment or any escaped copy of the values.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXmlAttrs( Appendable out ) throws IOException {
+		appendXmlAttrs( new CFIntBuffXmlAttrWriter( out ) );
+	}
+
+	public void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException {
+		writer.attrInt( "RequiredMimeTypeId", getRequiredMimeTypeId() );
+		writer.attrInt( "RequiredRevision", getRequiredRevision() );
+		writer.attrInt( "RequiredMimeTypeId", getRequiredMimeTypeId() );
+		writer.attrString( "RequiredName", getRequiredName() );
+		writer.attrOptionalString( "OptionalFileTypes", getOptionalFileTypes() );
+	}
+
+	/**
+	 *	Stream this buffer as the same element toString() returns.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXml( Appendable out ) throws IOException {
+		CFIntBuffXmlAttrWriter.appendElement( out, "CFIntBuffMimeType", this::appendXmlAttrs );
 	}
 
 	@Override
 	public String toString() {
-		String ret = "<CFIntBuffMimeType" + getXmlAttrFragment() + "/>";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toElement( "CFIntBuffMimeType", this::appendXmlAttrs ) );
 	}
 }
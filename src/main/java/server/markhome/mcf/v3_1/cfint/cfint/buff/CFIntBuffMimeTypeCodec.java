@@ -0,0 +1,112 @@
+// Description: Java 25 binary codec for MimeType buffers.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.nio.*;
+import java.time.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+import server.markhome.mcf.v3_1.cfint.cfint.*;
+
+/*
+ *	CFIntBuffMimeTypeCodec encodes MimeType rows in the compact format described
+ *	by CFIntBuffCodec, writing every column in declaration order.
+ */
+public class CFIntBuffMimeTypeCodec
+{
+	private CFIntBuffMimeTypeCodec() {
+	}
+
+	/**
+	 *	Get the exact number of bytes encode() will write for a row.
+	 *
+	 *	@param	src	The row to measure.
+	 *	@return	The encoded size in bytes.
+	 */
+	public static int encodedSize( ICFIntMimeType src ) {
+		return( CFIntBuffCodec.HEADER_SIZE +
+			32 +
+			CFIntBuffCodec.sizeOfKey( src.getCreatedByUserId() ) +
+			CFIntBuffCodec.sizeOfKey( src.getUpdatedByUserId() ) +
+			CFIntBuffCodec.sizeOfString( src.getRequiredName() ) +
+			CFIntBuffCodec.sizeOfString( src.getOptionalFileTypes() ) );
+	}
+
+	/**
+	 *	Encode a row into a new heap buffer, flipped ready for reading.
+	 *
+	 *	@param	src	The row to encode.
+	 *	@return	The encoded row.
+	 */
+	public static ByteBuffer encode( ICFIntMimeType src ) {
+		if( src == null ) {
+			throw new CFLibNullArgumentException( CFIntBuffMimeTypeCodec.class,
+				"encode",
+				1,
+				"src" );
+		}
+		ByteBuffer buf = ByteBuffer.allocate( encodedSize( src ) );
+		encode( buf, src );
+		buf.flip();
+		return( buf );
+	}
+
+	public static void encode( ByteBuffer buf, ICFIntMimeType src ) {
+		CFIntBuffCodec.putHeader( buf, ICFIntMimeType.CLASS_CODE );
+		buf.putInt( src.getRequiredMimeTypeId() );
+		buf.putInt( src.getRequiredRevision() );
+		CFIntBuffCodec.putKey( buf, src.getCreatedByUserId() );
+		CFIntBuffCodec.putTimestamp( buf, src.getCreatedAt() );
+		CFIntBuffCodec.putKey( buf, src.getUpdatedByUserId() );
+		CFIntBuffCodec.putTimestamp( buf, src.getUpdatedAt() );
+		CFIntBuffCodec.putString( buf, src.getRequiredName() );
+		CFIntBuffCodec.putString( buf, src.getOptionalFileTypes() );
+	}
+
+	public static CFIntBuffMimeType decode( ByteBuffer buf ) {
+		CFIntBuffMimeType dst = new CFIntBuffMimeType();
+		decodeInto( buf, dst );
+		return( dst );
+	}
+
+	/**
+	 *	Decode a row into an existing buffer, overwriting every column.
+	 *
+	 *	@param	buf	The buffer positioned at the start of an encoded row.
+	 *	@param	dst	The record to fill.
+	 */
+	public static void decodeInto( ByteBuffer buf, CFIntBuffMimeType dst ) {
+		CFIntBuffCodec.getHeader( buf, ICFIntMimeType.CLASS_CODE, "MimeType" );
+		dst.setRequiredMimeTypeId( buf.getInt() );
+		dst.setRequiredRevision( buf.getInt() );
+		dst.setCreatedByUserId( CFIntBuffCodec.getKey( buf ) );
+		dst.setCreatedAt( CFIntBuffCodec.getTimestamp( buf ) );
+		dst.setUpdatedByUserId( CFIntBuffCodec.getKey( buf ) );
+		dst.setUpdatedAt( CFIntBuffCodec.getTimestamp( buf ) );
+		dst.setRequiredName( CFIntBuffCodec.getString( buf ) );
+		dst.setOptionalFileTypes( CFIntBuffCodec.getString( buf ) );
+	}
+}
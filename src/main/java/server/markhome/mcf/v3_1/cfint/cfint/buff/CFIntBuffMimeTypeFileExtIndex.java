@@ -0,0 +1,217 @@
+// Description: Java 25 file extension index over CFInt MimeType buffers
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ *	CFIntBuffMimeTypeFileExtIndex maps file extensions to MimeType rows.  The
+ *	extensions are parsed out of each row's OptionalFileTypes, which may
+ *	list them separated by whitespace, commas, semicolons or colons, with or
+ *	without a leading "." or "*.".  Extensions are matched case-insensitively.
+ *	<p>
+ *	Several rows may claim the same extension, so each extension maps to an
+ *	array of candidates ordered by MimeTypeId, and the lowest id wins.  The
+ *	arrays are replaced rather than modified, so lookups need no locking.
+ *	Updates are expected to be serialized by the owning table's write lock.
+ */
+public class CFIntBuffMimeTypeFileExtIndex
+{
+	protected final static CFIntBuffMimeType[] NO_CANDIDATES = new CFIntBuffMimeType[0];
+
+	protected final ConcurrentHashMap< String, CFIntBuffMimeType[] > dictByExt
+		= new ConcurrentHashMap<>();
+
+	public CFIntBuffMimeTypeFileExtIndex() {
+	}
+
+	/**
+	 *	Normalize an extension for lookup, stripping any leading "*" and "."
+	 *	and folding it to lower case.
+	 *
+	 *	@param	ext	An extension such as "PDF", ".pdf" or "*.pdf".
+	 *	@return	The normalized extension, or null if nothing is left.
+	 */
+	public static String normalizeExtension( String ext ) {
+		if( ext == null ) {
+			return( null );
+		}
+		int start = 0;
+		int end = ext.length();
+		while( ( start < end ) && ( ( ext.charAt( start ) == '*' ) || ( ext.charAt( start ) == '.' ) ) ) {
+			start ++;
+		}
+		if( start >= end ) {
+			return( null );
+		}
+		return( ext.substring( start, end ).toLowerCase( Locale.ROOT ) );
+	}
+
+	/**
+	 *	Parse an OptionalFileTypes value into normalized extensions.
+	 *
+	 *	@param	fileTypes	The OptionalFileTypes value; may be null.
+	 *	@return	The distinct normalized extensions, in the order listed.
+	 */
+	public static Set<String> parseFileTypes( String fileTypes ) {
+		LinkedHashSet<String> exts = new LinkedHashSet<>();
+		if( fileTypes == null ) {
+			return( exts );
+		}
+		int len = fileTypes.length();
+		int start = 0;
+		for( int idx = 0; idx <= len; idx ++ ) {
+			if( ( idx == len ) || isSeparator( fileTypes.charAt( idx ) ) ) {
+				if( idx > start ) {
+					String ext = normalizeExtension( fileTypes.substring( start, idx ) );
+					if( ext != null ) {
+						exts.add( ext );
+					}
+				}
+				start = idx + 1;
+			}
+		}
+		return( exts );
+	}
+
+	protected static boolean isSeparator( char ch ) {
+		return( Character.isWhitespace( ch ) || ( ch == ',' ) || ( ch == ';' ) || ( ch == ':' ) );
+	}
+
+	/**
+	 *	Get the MimeType registered for an extension.
+	 *
+	 *	@param	ext	The extension, normalized or not.
+	 *	@return	The row with the lowest MimeTypeId claiming the extension, or null.
+	 */
+	public CFIntBuffMimeType lookup( String ext ) {
+		String key = normalizeExtension( ext );
+		if( key == null ) {
+			return( null );
+		}
+		CFIntBuffMimeType[] candidates = dictByExt.get( key );
+		if( ( candidates == null ) || ( candidates.length == 0 ) ) {
+			return( null );
+		}
+		return( candidates[0] );
+	}
+
+	/**
+	 *	Get every MimeType registered for an extension.
+	 *
+	 *	@param	ext	The extension, normalized or not.
+	 *	@return	The rows claiming the extension ordered by MimeTypeId; never null.
+	 */
+	public CFIntBuffMimeType[] lookupAll( String ext ) {
+		String key = normalizeExtension( ext );
+		if( key == null ) {
+			return( NO_CANDIDATES );
+		}
+		CFIntBuffMimeType[] candidates = dictByExt.get( key );
+		if( candidates == null ) {
+			return( NO_CANDIDATES );
+		}
+		return( candidates.clone() );
+	}
+
+	public void add( CFIntBuffMimeType buff ) {
+		int mimeTypeId = buff.getRequiredMimeTypeId();
+		for( String ext : parseFileTypes( buff.getOptionalFileTypes() ) ) {
+			CFIntBuffMimeType[] cur = dictByExt.get( ext );
+			if( cur == null ) {
+				dictByExt.put( ext, new CFIntBuffMimeType[] { buff } );
+				continue;
+			}
+			CFIntBuffMimeType[] next = new CFIntBuffMimeType[ cur.length + 1 ];
+			int src = 0;
+			int dest = 0;
+			while( ( src < cur.length ) && ( cur[src].getRequiredMimeTypeId() < mimeTypeId ) ) {
+				next[ dest++ ] = cur[ src++ ];
+			}
+			next[ dest++ ] = buff;
+			while( src < cur.length ) {
+				next[ dest++ ] = cur[ src++ ];
+			}
+			dictByExt.put( ext, next );
+		}
+	}
+
+	public void remove( CFIntBuffMimeType buff ) {
+		for( String ext : parseFileTypes( buff.getOptionalFileTypes() ) ) {
+			CFIntBuffMimeType[] cur = dictByExt.get( ext );
+			if( cur == null ) {
+				continue;
+			}
+			int found = -1;
+			for( int idx = 0; idx < cur.length; idx ++ ) {
+				if( cur[idx] == buff ) {
+					found = idx;
+					break;
+				}
+			}
+			if( found < 0 ) {
+				continue;
+			}
+			if( cur.length == 1 ) {
+				dictByExt.remove( ext );
+			}
+			else {
+				CFIntBuffMimeType[] next = new CFIntBuffMimeType[ cur.length - 1 ];
+				System.arraycopy( cur, 0, next, 0, found );
+				System.arraycopy( cur, found + 1, next, found, cur.length - found - 1 );
+				dictByExt.put( ext, next );
+			}
+		}
+	}
+
+	/**
+	 *	Replace a mime type with a new version that has the same file
+	 *	types.  Each extension's candidates are swapped atomically, so
+	 *	replacements of different mime types may run concurrently.
+	 *
+	 *	@param	existing	The indexed version.
+	 *	@param	buff	The version that takes its place.
+	 */
+	public void replace( CFIntBuffMimeType existing, CFIntBuffMimeType buff ) {
+		for( String ext : parseFileTypes( buff.getOptionalFileTypes() ) ) {
+			dictByExt.computeIfPresent( ext, ( key, cur ) -> {
+				for( int idx = 0; idx < cur.length; idx ++ ) {
+					if( cur[idx] == existing ) {
+						CFIntBuffMimeType[] next = cur.clone();
+						next[idx] = buff;
+						return( next );
+					}
+				}
+				return( cur );
+			} );
+		}
+	}
+
+	public void clear() {
+		dictByExt.clear();
+	}
+}
@@ -34,6 +34,7 @@ import java.sql.*;
 import java.text.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.text.StringEscapeUtils;
 import server.markhome.mcf.v3_1.cflib.*;
@@ -46,13 +47,22 @@ import server.markhome.mcf.v3_1.cfsec.cfsec.buff.*;
 public class CFIntBuffMimeTypeH
     implements ICFIntMimeTypeH, Comparable<Object>, Serializable
 {
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffMimeTypeH, LocalDateTime> CREATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffMimeTypeH.class, LocalDateTime.class, "createdAt" );
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffMimeTypeH, LocalDateTime> UPDATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffMimeTypeH.class, LocalDateTime.class, "updatedAt" );
+
+	protected final static CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex( ICFIntMimeType.S_INIT_CREATED_BY );
+	protected final static CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex( ICFIntMimeType.S_INIT_UPDATED_BY );
+
     protected CFIntBuffMimeTypeHPKey pkey;
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFIntMimeType.S_INIT_CREATED_BY);
-	protected LocalDateTime createdAt = LocalDateTime.now();
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFIntMimeType.S_INIT_UPDATED_BY);
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
+	protected volatile LocalDateTime createdAt = null;
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
+	protected volatile LocalDateTime updatedAt = null;
 	protected String requiredName;
 	protected String optionalFileTypes;
+	protected transient int cachedHashCode = 0;
 
     public CFIntBuffMimeTypeH() {
             // The primary key member attributes are initialized on construction
@@ -77,11 +87,18 @@ public class CFIntBuffMimeTypeH
             throw new CFLibNullArgumentException(getClass(), "setCreatedByUserId", 1, "value");
         }
         createdByUserId = value;
+        cachedHashCode = 0;
     }
 
     @Override
     public LocalDateTime getCreatedAt() {
-        return( createdAt );
+        LocalDateTime value = createdAt;
+        if( value == null ) {
+            // The first reader stamps it, and every reader sees that one stamp
+            CREATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+            value = createdAt;
+        }
+        return( value );
     }
 
     @Override
@@ -90,6 +107,7 @@ public class CFIntBuffMimeTypeH
             throw new CFLibNullArgumentException(getClass(), "setCreatedAt", 1, "value");
         }
         createdAt = value;
+        cachedHashCode = 0;
     }
 
     @Override
@@ -103,11 +121,18 @@ public class CFIntBuffMimeTypeH
             throw new CFLibNullArgumentException(getClass(), "setUpdatedByUserId", 1, "value");
         }
         updatedByUserId = value;
+        cachedHashCode = 0;
     }
 
     @Override
     public LocalDateTime getUpdatedAt() {
-        return( updatedAt );
+        LocalDateTime value = updatedAt;
+        if( value == null ) {
+            // The first reader stamps it, and every reader sees that one stamp
+            UPDATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+            value = updatedAt;
+        }
+        return( value );
     }
 
     @Override
@@ -116,6 +141,7 @@ public class CFIntBuffMimeTypeH
             throw new CFLibNullArgumentException(getClass(), "setUpdatedAt", 1, "value");
         }
         updatedAt = value;
+        cachedHashCode = 0;
     }
 
     @Override
@@ -217,6 +243,7 @@ public class CFIntBuffMimeTypeH
 				128 );
 		}
 		requiredName = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -235,6 +262,7 @@ public class CFIntBuffMimeTypeH
 				128 );
 		}
 		optionalFileTypes = value;
+		cachedHashCode = 0;
 	}
 
     @Override
@@ -370,16 +398,31 @@ public class CFIntBuffMimeTypeH
     }
     
     @Override
-    public int hashCode() {
-        int hashCode = pkey.hashCode();
+	public int hashCode() {
+		int hashCode = cachedHashCode;
+		if( hashCode == 0 ) {
+			hashCode = computeHashCode();
+			cachedHashCode = hashCode;
+		}
+		return( CFIntBuffHash.finish( CFIntBuffHash.mix( pkey.hashCode(), hashCode ) ) );
+	}
+
+	/**
+	 *	Compute the hash of the history attributes other than the primary key,
+	 *	which keeps its own cached hash code.
+	 *
+	 *	@return	The non-zero hash of the non-key attributes.
+	 */
+	protected int computeHashCode() {
+		int hashCode = 0;
 		if( getRequiredName() != null ) {
-			hashCode = hashCode + getRequiredName().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getRequiredName().hashCode() );
 		}
 		if( getOptionalFileTypes() != null ) {
-			hashCode = hashCode + getOptionalFileTypes().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getOptionalFileTypes().hashCode() );
 		}
-        return( hashCode & 0x7fffffff );
-    }
+		return( CFIntBuffHash.finish( hashCode ) );
+	}
 
     @Override
     public int compareTo( Object obj ) {
@@ -548,15 +591,36 @@ public class CFIntBuffMimeTypeH
     }
 
     public String getXmlAttrFragment() {
-        String ret = pkey.getXmlAttrFragment() 
-			+ " RequiredRevision=\"" + Integer.toString( getRequiredRevision() ) + "\""
-			+ " RequiredName=" + "\"" + StringEscapeUtils.escapeXml11( getRequiredName() ) + "\""
-			+ " OptionalFileTypes=" + ( ( getOptionalFileTypes() == null ) ? "null" : "\"" + StringEscapeUtils.escapeXml11( getOptionalFileTypes() ) + "\"" );
-        return( ret );
+        return( CFIntBuffXmlAttrWriter.toFragment( this::appendXmlAttrs ) );
+    }
+
+    /**
+     *	Stream the getXmlAttrFragment() attributes to out without building
+     *	the fragment or any escaped copy of the values.
+     *
+     *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+     */
+    public void appendXmlAttrs( Appendable out ) throws IOException {
+        appendXmlAttrs( new CFIntBuffXmlAttrWriter( out ) );
+    }
+
+    public void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException {
+        pkey.appendXmlAttrs( writer );
+        writer.attrInt( "RequiredRevision", getRequiredRevision() );
+        writer.attrString( "RequiredName", getRequiredName() );
+        writer.attrOptionalString( "OptionalFileTypes", getOptionalFileTypes() );
+    }
+
+    /**
+     *	Stream this buffer as the same element toString() returns.
+     *
+     *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+     */
+    public void appendXml( Appendable out ) throws IOException {
+        CFIntBuffXmlAttrWriter.appendElement( out, "CFIntBuffMimeTypeH", this::appendXmlAttrs );
     }
 
     public String toString() {
-        String ret = "<CFIntBuffMimeTypeH" + getXmlAttrFragment() + "/>";
-        return( ret );
+        return( CFIntBuffXmlAttrWriter.toElement( "CFIntBuffMimeTypeH", this::appendXmlAttrs ) );
     }
 }
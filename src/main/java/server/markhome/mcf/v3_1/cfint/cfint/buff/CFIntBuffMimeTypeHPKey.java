@@ -25,10 +25,11 @@
 
 package server.markhome.mcf.v3_1.cfint.cfint.buff;
 
-import java.io.Serializable;
+import java.io.*;
 import java.math.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.text.StringEscapeUtils;
 import server.markhome.mcf.v3_1.cflib.*;
@@ -45,17 +46,21 @@ import server.markhome.mcf.v3_1.cfsec.cfsec.buff.*;
 public class CFIntBuffMimeTypeHPKey
 	implements ICFIntMimeTypeHPKey, Comparable<Object>, Serializable
 {
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffMimeTypeHPKey, LocalDateTime> AUDIT_STAMP =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffMimeTypeHPKey.class, LocalDateTime.class, "auditStamp" );
+
 	protected CFLibDbKeyHash256 auditClusterId;
-	protected LocalDateTime auditStamp;
+	protected volatile LocalDateTime auditStamp;
 	protected short auditActionId;
 	protected int requiredRevision;
 	protected CFLibDbKeyHash256 auditSessionId;
 
 	protected int requiredMimeTypeId;
+	protected transient int cachedHashCode = 0;
 
 	public CFIntBuffMimeTypeHPKey() {
 		auditClusterId = ICFSecCluster.ID_INIT_VALUE;
-		auditStamp = LocalDateTime.now();
+		auditStamp = null;
 		auditActionId = 0;
 		requiredRevision = 1;
 		auditSessionId = CFLibDbKeyHash256.nullGet();
@@ -70,16 +75,24 @@ public class CFIntBuffMimeTypeHPKey
 	@Override
 	public void setAuditClusterId( CFLibDbKeyHash256 value ) {
 		auditClusterId = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
 	public LocalDateTime getAuditStamp() {
-		return( auditStamp );
+		LocalDateTime value = auditStamp;
+		if( value == null ) {
+			// The first reader stamps it, and every reader sees that one stamp
+			AUDIT_STAMP.compareAndSet( this, null, LocalDateTime.now() );
+			value = auditStamp;
+		}
+		return( value );
 	}
 
 	@Override
 	public void setAuditStamp( LocalDateTime value ) {
 		auditStamp = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -90,6 +103,7 @@ public class CFIntBuffMimeTypeHPKey
 	@Override
 	public void setAuditActionId( short value ) {
 		auditActionId = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -100,6 +114,7 @@ public class CFIntBuffMimeTypeHPKey
 	@Override
 	public void setRequiredRevision( int value ) {
 		requiredRevision = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -110,6 +125,7 @@ public class CFIntBuffMimeTypeHPKey
 	@Override
 	public void setAuditSessionId( CFLibDbKeyHash256 value ) {
 		auditSessionId = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -128,6 +144,7 @@ public class CFIntBuffMimeTypeHPKey
 				ICFIntMimeType.MIMETYPEID_MIN_VALUE );
 		}
 		requiredMimeTypeId = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -253,20 +270,35 @@ public class CFIntBuffMimeTypeHPKey
 
 	@Override
 	public int hashCode() {
+		int hashCode = cachedHashCode;
+		if( hashCode == 0 ) {
+			hashCode = computeHashCode();
+			cachedHashCode = hashCode;
+		}
+		return( hashCode );
+	}
+
+	/**
+	 *	Compute the hash code from the attribute values.  The setters reset
+	 *	the cached value so it is recomputed on the next hashCode() call.
+	 *
+	 *	@return	The non-zero hash code.
+	 */
+	protected int computeHashCode() {
 		int hashCode = 0;
 		if( auditClusterId != null ) {
-			hashCode = hashCode + auditClusterId.hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, auditClusterId.hashCode() );
 		}
-		if( auditStamp != null ) {
-			hashCode = hashCode + auditStamp.hashCode();
+		if( getAuditStamp() != null ) {
+			hashCode = CFIntBuffHash.mix( hashCode, getAuditStamp().hashCode() );
 		}
-		hashCode = hashCode + auditActionId;
-		hashCode = hashCode + requiredRevision;
+		hashCode = CFIntBuffHash.mix( hashCode, auditActionId );
+		hashCode = CFIntBuffHash.mix( hashCode, requiredRevision );
 		if( auditSessionId != null ) {
-			hashCode = hashCode + auditSessionId.hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, auditSessionId.hashCode() );
 		}
-		hashCode = hashCode + getRequiredMimeTypeId();
-		return( hashCode & 0x7fffffff );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredMimeTypeId() );
+		return( CFIntBuffHash.finish( hashCode ) );
 	}
 
 	@Override
@@ -424,18 +456,39 @@ public class CFIntBuffMimeTypeHPKey
 
 	@Override
 	public String getXmlAttrFragment() {
-		String ret = " auditClusterId=\"" + (auditClusterId != null ? auditClusterId.toString() : "null") + "\""
-			+ " auditStamp=\"" + (auditStamp != null ? CFLibXmlUtil.formatTimestamp(auditStamp) : "null") + "\""
-			+ " auditAction=\"" + auditActionId + "\""
-			+ " revision=\"" + requiredRevision + "\""
-			+ " auditSessionId=\"" + (getAuditSessionId() != null ? getAuditSessionId().toString() : "null") + "\""
-			+ " RequiredMimeTypeId=" + "\"" + Integer.toString( getRequiredMimeTypeId() ) + "\"";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toFragment( this::appendXmlAttrs ) );
+	}
+
+	/**
+	 *	Stream the getXmlAttrFragment() attributes to out without building
+	 *	the fragment or any escaped copy of the values.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXmlAttrs( Appendable out ) throws IOException {
+		appendXmlAttrs( new CFIntBuffXmlAttrWriter( out ) );
+	}
+
+	public void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException {
+		writer.attrKey( "auditClusterId", auditClusterId );
+		writer.attrTimestamp( "auditStamp", getAuditStamp() );
+		writer.attrInt( "auditAction", auditActionId );
+		writer.attrInt( "revision", requiredRevision );
+		writer.attrKey( "auditSessionId", getAuditSessionId() );
+		writer.attrInt( "RequiredMimeTypeId", getRequiredMimeTypeId() );
+	}
+
+	/**
+	 *	Stream this buffer as the same element toString() returns.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXml( Appendable out ) throws IOException {
+		CFIntBuffXmlAttrWriter.appendElement( out, "CFIntBuffMimeTypeHPKey", this::appendXmlAttrs );
 	}
 
 	@Override
 	public String toString() {
-		String ret = "<CFIntBuffMimeTypeHPKey" + getXmlAttrFragment() + "/>";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toElement( "CFIntBuffMimeTypeHPKey", this::appendXmlAttrs ) );
 	}
 }
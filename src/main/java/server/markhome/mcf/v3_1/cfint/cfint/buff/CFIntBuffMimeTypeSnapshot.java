@@ -0,0 +1,91 @@
+// Description: Java 25 immutable snapshot of a CFInt MimeType buffer
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.io.*;
+import java.time.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+import server.markhome.mcf.v3_1.cfint.cfint.*;
+
+/**
+ *	CFIntBuffMimeTypeSnapshot is a frozen copy of a MimeType row.
+ *	It has no setters and can be shared between threads without defensive
+ *	copies.  Snapshots built with of() draw the values that repeat across
+ *	rows, the audit user ids and the name, from the shared
+ *	CFIntBuffWeakInterner pools, so equal values are one instance across
+ *	every cached snapshot.  The primary key and free text are unique to a
+ *	row and are kept as is.  Use toBuff() to get an editable record back.
+ */
+public record CFIntBuffMimeTypeSnapshot(
+	int requiredMimeTypeId,
+	int requiredRevision,
+	CFLibDbKeyHash256 createdByUserId,
+	LocalDateTime createdAt,
+	CFLibDbKeyHash256 updatedByUserId,
+	LocalDateTime updatedAt,
+	String requiredName,
+	String optionalFileTypes )
+	implements Serializable
+{
+	/**
+	 *	Take a snapshot of a MimeType row.
+	 *
+	 *	@param	src	The row to snapshot; may be null.
+	 *	@return	The snapshot, or null if src is null.
+	 */
+	public static CFIntBuffMimeTypeSnapshot of( ICFIntMimeType src ) {
+		if( src == null ) {
+			return( null );
+		}
+		return( new CFIntBuffMimeTypeSnapshot(
+			src.getRequiredMimeTypeId(),
+			src.getRequiredRevision(),
+			CFIntBuffWeakInterner.KEYS.intern( src.getCreatedByUserId() ),
+			src.getCreatedAt(),
+			CFIntBuffWeakInterner.KEYS.intern( src.getUpdatedByUserId() ),
+			src.getUpdatedAt(),
+			CFIntBuffWeakInterner.STRINGS.intern( src.getRequiredName() ),
+			src.getOptionalFileTypes() ) );
+	}
+
+	/**
+	 *	Get an editable buffer record holding the values of this snapshot.
+	 *
+	 *	@return	A new buffer record.
+	 */
+	public CFIntBuffMimeType toBuff() {
+		CFIntBuffMimeType buff = new CFIntBuffMimeType();
+		buff.setRequiredMimeTypeId( requiredMimeTypeId );
+		buff.setRequiredRevision( requiredRevision );
+		buff.setCreatedByUserId( createdByUserId );
+		buff.setCreatedAt( createdAt );
+		buff.setUpdatedByUserId( updatedByUserId );
+		buff.setUpdatedAt( updatedAt );
+		buff.setRequiredName( requiredName );
+		buff.setOptionalFileTypes( optionalFileTypes );
+		return( buff );
+	}
+}
@@ -0,0 +1,703 @@
+// Description: Java 25 in-memory buffer table implementation for MimeType.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.io.*;
+import java.nio.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+import server.markhome.mcf.v3_1.cfsec.cfsec.*;
+import server.markhome.mcf.v3_1.cfint.cfint.*;
+import server.markhome.mcf.v3_1.cfsec.cfsec.buff.*;
+
+/*
+ *	CFIntBuffMimeTypeTable in-memory implementation of ICFIntMimeTypeTable for MimeType.
+ *	Rows are held in concurrent hash maps keyed by primary key, with every
+ *	secondary index maintained alongside.  Reads do not lock.  Creates,
+ *	deletes and updates that move a row between index keys are serialized
+ *	by the table write lock.  Updates that leave every index key alone
+ *	share the table lock and serialize on the row's stripe of
+ *	CFIntBuffRowLocks, which it shares with the other rows that hash to
+ *	it; every update is checked against the stored requiredRevision and
+ *	bumps it.
+ */
+public class CFIntBuffMimeTypeTable
+	implements ICFIntMimeTypeTable,
+		ICFIntBuffSnapshotTable,
+		ICFIntBuffHistoryTable
+{
+	protected CFIntBuffSchema schema;
+	protected final ReentrantReadWriteLock tableLock = new ReentrantReadWriteLock();
+	protected final ReentrantReadWriteLock.WriteLock writeLock = tableLock.writeLock();
+	protected final CFIntBuffRowLocks rowLocks = new CFIntBuffRowLocks();
+	protected final AtomicLong modStamp = new AtomicLong();
+	protected final ConcurrentHashMap< Integer, CFIntBuffMimeType > dictByPKey
+		= new ConcurrentHashMap<>();
+	protected final ConcurrentHashMap< CFIntBuffMimeTypeByUNameIdxKey, CFIntBuffMimeType > dictByUNameIdx
+		= new ConcurrentHashMap<>();
+	protected final CFIntBuffMimeTypeFileExtIndex indexByFileExt = new CFIntBuffMimeTypeFileExtIndex();
+	protected volatile CFIntBuffSnapshotFile.Section snapshotSection = null;
+	protected final ICFIntBuffHistoryStore< Integer, CFIntBuffMimeTypeH > history;
+
+	public CFIntBuffMimeTypeTable( CFIntBuffSchema argSchema ) {
+		schema = argSchema;
+		history = newHistoryStore();
+	}
+
+	/**
+	 *	Create the store that holds this table's history.  The default is a
+	 *	columnar store sharing the schema's history dictionaries; override
+	 *	to keep the rows as objects in a CFIntBuffHistoryStore instead.
+	 *
+	 *	@return	The history store.
+	 */
+	protected ICFIntBuffHistoryStore< Integer, CFIntBuffMimeTypeH > newHistoryStore() {
+		return( new CFIntBuffColumnarHistoryStore<>( newHistoryLayout(),
+			schema.getHistoryKeyDictionary(),
+			schema.getHistoryStringPool() ) );
+	}
+
+	@Override
+	public ICFIntBuffHistoryStore< Integer, CFIntBuffMimeTypeH > getHistoryStore() {
+		return( history );
+	}
+
+	protected static CFIntBuffColumnarHistoryStore.Layout< Integer, CFIntBuffMimeTypeH > newHistoryLayout() {
+		return( new CFIntBuffColumnarHistoryStore.Layout< Integer, CFIntBuffMimeTypeH >( CFIntBuffMimeTypeH::new, CFIntBuffMimeTypeH[]::new )
+			.id( CFIntBuffMimeTypeH::getRequiredMimeTypeId, CFIntBuffMimeTypeH::setRequiredMimeTypeId )
+			.revision( CFIntBuffMimeTypeH::getRequiredRevision, CFIntBuffMimeTypeH::setRequiredRevision )
+			.auditStamp( CFIntBuffMimeTypeH::getAuditStamp, CFIntBuffMimeTypeH::setAuditStamp )
+			.auditActionId( CFIntBuffMimeTypeH::getAuditActionId, ( hist, value ) -> hist.setAuditActionId( (short)value ) )
+			.auditClusterId( CFIntBuffMimeTypeH::getAuditClusterId, CFIntBuffMimeTypeH::setAuditClusterId )
+			.auditSessionId( CFIntBuffMimeTypeH::getAuditSessionId, CFIntBuffMimeTypeH::setAuditSessionId )
+			.keyColumn( CFIntBuffMimeTypeH::getCreatedByUserId, CFIntBuffMimeTypeH::setCreatedByUserId )
+			.timestampColumn( CFIntBuffMimeTypeH::getCreatedAt, CFIntBuffMimeTypeH::setCreatedAt )
+			.keyColumn( CFIntBuffMimeTypeH::getUpdatedByUserId, CFIntBuffMimeTypeH::setUpdatedByUserId )
+			.timestampColumn( CFIntBuffMimeTypeH::getUpdatedAt, CFIntBuffMimeTypeH::setUpdatedAt )
+			.stringColumn( CFIntBuffMimeTypeH::getRequiredName, CFIntBuffMimeTypeH::setRequiredName )
+			.stringColumn( CFIntBuffMimeTypeH::getOptionalFileTypes, CFIntBuffMimeTypeH::setOptionalFileTypes ) );
+	}
+
+	public CFIntBuffSchema getSchema() {
+		return( schema );
+	}
+
+	public long getModStamp() {
+		return( modStamp.get() );
+	}
+
+	public boolean isCurrent( int PKey, int revision ) {
+		CFIntBuffMimeType buff = lookupPKey( PKey );
+		return( ( buff != null ) && ( buff.getRequiredRevision() == revision ) );
+	}
+
+	protected CFIntBuffMimeType copyRec( ICFIntMimeType rec ) {
+		CFIntBuffMimeType buff = new CFIntBuffMimeType();
+		buff.set( rec );
+		return( buff );
+	}
+
+	protected CFIntBuffMimeTypeByUNameIdxKey newByUNameIdxKey( ICFIntMimeType rec ) {
+		CFIntBuffMimeTypeByUNameIdxKey key = new CFIntBuffMimeTypeByUNameIdxKey();
+		key.setRequiredName( rec.getRequiredName() );
+		return( key );
+	}
+
+	protected void indexRec( CFIntBuffMimeType buff ) {
+		Integer pkey = buff.getRequiredMimeTypeId();
+		dictByUNameIdx.put( newByUNameIdxKey( buff ), buff );
+		indexByFileExt.add( buff );
+		dictByPKey.put( pkey, buff );
+		modStamp.incrementAndGet();
+	}
+
+	protected void unindexRec( CFIntBuffMimeType buff ) {
+		Integer pkey = buff.getRequiredMimeTypeId();
+		dictByPKey.remove( pkey );
+		dictByUNameIdx.computeIfPresent( newByUNameIdxKey( buff ),
+			( k, indexed ) -> ( CFIntBuffMimeType.PKEY_IDENTITY.withRevisionCheck().equivalent( indexed, buff ) ? null : indexed ) );
+		indexByFileExt.remove( buff );
+		modStamp.incrementAndGet();
+	}
+
+	protected ICFIntMimeType[] toDerivedArray( Collection< CFIntBuffMimeType > values ) {
+		ArrayList< ICFIntMimeType > list = new ArrayList<>( values.size() );
+		for( CFIntBuffMimeType buff : values ) {
+			list.add( copyRec( buff ) );
+		}
+		return( list.toArray( new ICFIntMimeType[ list.size() ] ) );
+	}
+
+	public int getSnapshotClassCode() {
+		return( ICFIntMimeType.CLASS_CODE );
+	}
+
+	public int getSnapshotKeyWidth() {
+		return( CFIntBuffSnapshotFile.INT_KEY_WIDTH );
+	}
+
+	public int getSnapshotIndexCount() {
+		return( 0 );
+	}
+
+	public void attachSnapshot( CFIntBuffSnapshotFile.Section section ) {
+		writeLock.lock();
+		try {
+			snapshotSection = section;
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	public void writeSnapshotSection( CFIntBuffSnapshotFile.SectionWriter writer ) throws IOException {
+		faultInAll();
+		writeLock.lock();
+		try {
+			for( CFIntBuffMimeType buff : dictByPKey.values() ) {
+				writer.addRow( buff.getRequiredMimeTypeId(), CFIntBuffMimeTypeCodec.encode( buff ) );
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 *	Get a stored row by primary key, decoding it from the attached
+	 *	snapshot if it has not been read since the snapshot was opened.
+	 *
+	 *	@param	PKey	The primary key.
+	 *	@return	The stored row, or null.
+	 */
+	protected CFIntBuffMimeType lookupPKey( int PKey ) {
+		CFIntBuffMimeType buff = dictByPKey.get( PKey );
+		if( ( buff == null ) && ( snapshotSection != null ) ) {
+			writeLock.lock();
+			try {
+				buff = dictByPKey.get( PKey );
+				CFIntBuffSnapshotFile.Section section = snapshotSection;
+				if( ( buff == null ) && ( section != null ) ) {
+					int row = section.findRow( PKey );
+					if( ( row >= 0 ) && section.claim( row ) ) {
+						buff = CFIntBuffMimeTypeCodec.decode( section.getRow( row ) );
+						schema.getMimeTypeIdGen().advancePast( buff.getRequiredMimeTypeId() );
+						indexRec( buff );
+					}
+				}
+			}
+			finally {
+				writeLock.unlock();
+			}
+		}
+		return( buff );
+	}
+
+	/**
+	 *	Decode every snapshot row that has not been read yet and detach the
+	 *	snapshot.  Secondary index lookups and writes call this first, as
+	 *	their indexes only cover decoded rows.
+	 */
+	protected void faultInAll() {
+		if( snapshotSection == null ) {
+			return;
+		}
+		writeLock.lock();
+		try {
+			CFIntBuffSnapshotFile.Section section = snapshotSection;
+			if( section == null ) {
+				return;
+			}
+			for( int row = section.nextUnclaimed( 0 ); row >= 0; row = section.nextUnclaimed( row + 1 ) ) {
+				if( section.claim( row ) ) {
+					CFIntBuffMimeType buff = CFIntBuffMimeTypeCodec.decode( section.getRow( row ) );
+					schema.getMimeTypeIdGen().advancePast( buff.getRequiredMimeTypeId() );
+					if( ! dictByPKey.containsKey( buff.getRequiredMimeTypeId() ) ) {
+						indexRec( buff );
+					}
+				}
+			}
+			snapshotSection = null;
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	protected long logPut( CFIntBuffMimeType buff ) {
+		CFIntBuffWriteAheadLog log = schema.getWriteAheadLog();
+		if( log == null ) {
+			return( 0L );
+		}
+		return( log.appendPut( ICFIntMimeType.CLASS_CODE, CFIntBuffMimeTypeCodec.encode( buff ) ) );
+	}
+
+	protected long logDelete( int PKey ) {
+		CFIntBuffWriteAheadLog log = schema.getWriteAheadLog();
+		if( log == null ) {
+			return( 0L );
+		}
+		return( log.appendDelete( ICFIntMimeType.CLASS_CODE, PKey ) );
+	}
+
+	/**
+	 *	Wait for a logged change to reach disk.  This is called after the
+	 *	table and row locks are released so concurrent writers can share
+	 *	an fsync, so the change is already visible in memory.  If the flush
+	 *	fails the change is in doubt: it may or may not survive a restart.
+	 *	The log refuses every append after a failed flush, so no later
+	 *	change is applied.
+	 *
+	 *	@param	logSeq	The sequence returned by logPut() or logDelete(), or 0.
+	 */
+	protected void awaitLogged( long logSeq ) {
+		CFIntBuffWriteAheadLog log = schema.getWriteAheadLog();
+		if( ( logSeq > 0L ) && ( log != null ) ) {
+			try {
+				log.awaitDurable( logSeq );
+			}
+			catch( IOException e ) {
+				throw new UncheckedIOException( "MimeType change was applied but its write-ahead log record may not be durable", e );
+			}
+		}
+	}
+
+	public void replayPut( ByteBuffer payload ) {
+		CFIntBuffMimeType buff = CFIntBuffMimeTypeCodec.decode( payload );
+		writeLock.lock();
+		try {
+			CFIntBuffMimeType existing = lookupPKey( buff.getRequiredMimeTypeId() );
+			if( existing != null ) {
+				unindexRec( existing );
+			}
+			schema.getMimeTypeIdGen().advancePast( buff.getRequiredMimeTypeId() );
+			indexRec( buff );
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	public void replayDelete( ByteBuffer payload ) {
+		int pkey = payload.getInt();
+		writeLock.lock();
+		try {
+			CFIntBuffMimeType existing = lookupPKey( pkey );
+			if( existing != null ) {
+				unindexRec( existing );
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 *	Append a history row for a row version.  Called under the write
+	 *	lock or the row's lock so a row's history stamps follow the order
+	 *	of its changes.
+	 *
+	 *	@param	Authorization	The session authorization, or null.
+	 *	@param	buff	The row version.
+	 *	@param	actionId	The audit action applied to it.
+	 */
+	protected void recordHistory( ICFSecAuthorization Authorization,
+		CFIntBuffMimeType buff,
+		short actionId )
+	{
+		CFIntBuffMimeTypeH hist = new CFIntBuffMimeTypeH();
+		hist.set( buff );
+		hist.setAuditStamp( LocalDateTime.now() );
+		hist.setAuditActionId( actionId );
+		if( Authorization != null ) {
+			hist.setAuditClusterId( Authorization.getSecClusterId() );
+			hist.setAuditSessionId( Authorization.getSecSessionId() );
+		}
+		history.add( hist );
+	}
+
+	protected CFIntBuffMimeTypeH copyHistRec( ICFIntMimeTypeH src ) {
+		CFIntBuffMimeTypeH hist = new CFIntBuffMimeTypeH();
+		hist.set( src );
+		hist.setAuditClusterId( src.getAuditClusterId() );
+		hist.setAuditStamp( src.getAuditStamp() );
+		hist.setAuditActionId( src.getAuditActionId() );
+		hist.setAuditSessionId( src.getAuditSessionId() );
+		return( hist );
+	}
+
+	/**
+	 *	Check an update or delete against the stored revision of its row.
+	 *
+	 *	@param	procName	The calling method, for the exception.
+	 *	@param	existing	The stored row, or null.
+	 *	@param	rec	The caller's copy of the row.
+	 */
+	protected void checkRevision( String procName, CFIntBuffMimeType existing, ICFIntMimeType rec ) {
+		if( existing == null ) {
+			throw new CFLibStaleCacheDetectedException( getClass(), procName, "Existing record not found", "MimeType", rec.getRequiredMimeTypeId() );
+		}
+		if( existing.getRequiredRevision() != rec.getRequiredRevision() ) {
+			throw new CFLibCollisionDetectedException( getClass(), procName, rec.getRequiredMimeTypeId() );
+		}
+	}
+
+	/**
+	 *	Check whether a new version of a row keeps every index key of the
+	 *	stored version, so it can replace it without reindexing.
+	 */
+	protected boolean sameIndexKeys( CFIntBuffMimeType existing, CFIntBuffMimeType buff ) {
+		if( ! newByUNameIdxKey( existing ).equals( newByUNameIdxKey( buff ) ) ) {
+			return( false );
+		}
+		if( ! Objects.equals( existing.getOptionalFileTypes(), buff.getOptionalFileTypes() ) ) {
+			return( false );
+		}
+		return( true );
+	}
+
+	/**
+	 *	Swap a new version of a row into every index in place of the
+	 *	stored version.  The caller holds the row's lock and has checked
+	 *	sameIndexKeys(), so no index entry is added or removed.
+	 */
+	protected void replaceIndexed( CFIntBuffMimeType existing, CFIntBuffMimeType buff ) {
+		Integer pkey = buff.getRequiredMimeTypeId();
+		dictByUNameIdx.put( newByUNameIdxKey( buff ), buff );
+		indexByFileExt.replace( existing, buff );
+		dictByPKey.put( pkey, buff );
+		modStamp.incrementAndGet();
+	}
+
+	public ICFIntMimeType createMimeType( ICFSecAuthorization Authorization,
+		ICFIntMimeType rec )
+	{
+		final String S_ProcName = "createMimeType";
+		if( rec == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 2, "rec" );
+		}
+		faultInAll();
+		if( rec.getRequiredMimeTypeId() == ICFIntMimeType.MIMETYPEID_INIT_VALUE ) {
+			rec.setRequiredMimeTypeId( schema.nextMimeTypeIdGen() );
+		}
+		else {
+			schema.getMimeTypeIdGen().advancePast( rec.getRequiredMimeTypeId() );
+		}
+		CFIntBuffMimeType buff = copyRec( rec );
+		long logSeq = 0L;
+		writeLock.lock();
+		try {
+			Integer pkey = buff.getRequiredMimeTypeId();
+			if( dictByPKey.containsKey( pkey ) ) {
+				throw new CFLibPrimaryKeyNotNewException( getClass(), S_ProcName, pkey );
+			}
+			CFIntBuffMimeTypeByUNameIdxKey keyUNameIdx = newByUNameIdxKey( buff );
+			if( dictByUNameIdx.containsKey( keyUNameIdx ) ) {
+				throw new CFLibUniqueIndexViolationException( getClass(), S_ProcName, "MimeTypeUNameIdx", keyUNameIdx );
+			}
+			logSeq = logPut( buff );
+			indexRec( buff );
+			recordHistory( Authorization, buff, ICFIntBuffHistoryStore.AUDIT_ACTION_CREATE );
+		}
+		finally {
+			writeLock.unlock();
+		}
+		awaitLogged( logSeq );
+		return( copyRec( buff ) );
+	}
+
+	public ICFIntMimeType updateMimeType( ICFSecAuthorization Authorization,
+		ICFIntMimeType rec )
+	{
+		final String S_ProcName = "updateMimeType";
+		if( rec == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 2, "rec" );
+		}
+		CFIntBuffMimeType buff = copyRec( rec );
+		faultInAll();
+		Integer pkey = buff.getRequiredMimeTypeId();
+		// A stale revision fails here without taking any lock
+		checkRevision( S_ProcName, dictByPKey.get( pkey ), buff );
+		long logSeq = 0L;
+		boolean replaced = false;
+		ReentrantLock rowLock = rowLocks.lockFor( pkey );
+		tableLock.readLock().lock();
+		try {
+			rowLock.lock();
+			try {
+				CFIntBuffMimeType existing = dictByPKey.get( pkey );
+				checkRevision( S_ProcName, existing, buff );
+				if( sameIndexKeys( existing, buff ) ) {
+					buff.setRequiredRevision( existing.getRequiredRevision() + 1 );
+					logSeq = logPut( buff );
+					replaceIndexed( existing, buff );
+					recordHistory( Authorization, buff, ICFIntBuffHistoryStore.AUDIT_ACTION_UPDATE );
+					replaced = true;
+				}
+			}
+			finally {
+				rowLock.unlock();
+			}
+		}
+		finally {
+			tableLock.readLock().unlock();
+		}
+		if( ! replaced ) {
+			writeLock.lock();
+			try {
+				CFIntBuffMimeType existing = dictByPKey.get( pkey );
+				checkRevision( S_ProcName, existing, buff );
+				CFIntBuffMimeTypeByUNameIdxKey keyUNameIdx = newByUNameIdxKey( buff );
+				CFIntBuffMimeType conflictUNameIdx = dictByUNameIdx.get( keyUNameIdx );
+				if( ( conflictUNameIdx != null ) && ( conflictUNameIdx != existing ) ) {
+					throw new CFLibUniqueIndexViolationException( getClass(), S_ProcName, "MimeTypeUNameIdx", keyUNameIdx );
+				}
+				buff.setRequiredRevision( existing.getRequiredRevision() + 1 );
+				logSeq = logPut( buff );
+				unindexRec( existing );
+				indexRec( buff );
+				recordHistory( Authorization, buff, ICFIntBuffHistoryStore.AUDIT_ACTION_UPDATE );
+			}
+			finally {
+				writeLock.unlock();
+			}
+		}
+		awaitLogged( logSeq );
+		return( copyRec( buff ) );
+	}
+
+	public void deleteMimeType( ICFSecAuthorization Authorization,
+		ICFIntMimeType rec )
+	{
+		final String S_ProcName = "deleteMimeType";
+		if( rec == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 2, "rec" );
+		}
+		deleteRow( Authorization, S_ProcName, rec.getRequiredMimeTypeId(), rec );
+	}
+
+	public void deleteMimeTypeByIdIdx( ICFSecAuthorization Authorization,
+		int argKey )
+	{
+		deleteRow( Authorization, "deleteMimeTypeByIdIdx", argKey, null );
+	}
+
+	/**
+	 *	Delete a row under the write lock, so the version checked is the
+	 *	version deleted.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	procName	The calling method, for exceptions.
+	 *	@param	argKey	The primary key of the row.
+	 *	@param	rec	The caller's copy of the row, whose revision must match
+	 *		the stored one, or null to delete whatever version is stored.
+	 */
+	protected void deleteRow( ICFSecAuthorization Authorization,
+		String procName,
+		int argKey,
+		ICFIntMimeType rec )
+	{
+		long logSeq = 0L;
+		writeLock.lock();
+		try {
+			CFIntBuffMimeType existing = lookupPKey( argKey );
+			if( rec != null ) {
+				checkRevision( procName, existing, rec );
+			}
+			if( existing != null ) {
+				logSeq = logDelete( argKey );
+				unindexRec( existing );
+				recordHistory( Authorization, existing, ICFIntBuffHistoryStore.AUDIT_ACTION_DELETE );
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+		awaitLogged( logSeq );
+	}
+
+	public void deleteMimeTypeByUNameIdx( ICFSecAuthorization Authorization,
+		String argName )
+	{
+		ICFIntMimeType match = readDerivedByUNameIdx( Authorization, argName );
+		if( match != null ) {
+			deleteMimeTypeByIdIdx( Authorization, match.getRequiredMimeTypeId() );
+		}
+	}
+
+	public ICFIntMimeType readDerived( ICFSecAuthorization Authorization,
+		int PKey )
+	{
+		CFIntBuffMimeType buff = lookupPKey( PKey );
+		if( buff == null ) {
+			return( null );
+		}
+		return( copyRec( buff ) );
+	}
+
+	/**
+	 *	Read a row as a shared immutable snapshot instead of a private copy.
+	 *	Every reader of the same row version gets the same instance.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	PKey	The primary key of the row.
+	 *	@return	The snapshot, or null if the row does not exist.
+	 */
+	public CFIntBuffMimeTypeSnapshot readSnapshot( ICFSecAuthorization Authorization,
+		int PKey )
+	{
+		CFIntBuffMimeType buff = lookupPKey( PKey );
+		if( buff == null ) {
+			return( null );
+		}
+		return( buff.toSnapshot() );
+	}
+
+	public ICFIntMimeType lockDerived( ICFSecAuthorization Authorization,
+		int PKey )
+	{
+		return( readDerived( Authorization, PKey ) );
+	}
+
+	/**
+	 *	Read a row as it stood at a point in time, rebuilt from the
+	 *	history recorded by this table.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	PKey	The primary key of the row.
+	 *	@param	asOf	The point in time.
+	 *	@return	The row version current at asOf, or null if the row did
+	 *		not exist then or had been deleted.
+	 */
+	public ICFIntMimeType readDerivedAsOf( ICFSecAuthorization Authorization,
+		int PKey,
+		LocalDateTime asOf )
+	{
+		CFIntBuffMimeTypeH hist = history.readAsOf( PKey, asOf );
+		if( hist == null ) {
+			return( null );
+		}
+		CFIntBuffMimeType buff = new CFIntBuffMimeType();
+		buff.set( hist );
+		buff.setRequiredRevision( hist.getRequiredRevision() );
+		return( buff );
+	}
+
+	/**
+	 *	Read the recorded history of a row, oldest first.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	PKey	The primary key of the row.
+	 *	@return	Copies of the history rows.
+	 */
+	public ICFIntMimeTypeH[] readHistory( ICFSecAuthorization Authorization,
+		int PKey )
+	{
+		CFIntBuffMimeTypeH[] rows = history.readHistory( PKey );
+		if( ! history.isSharingRows() ) {
+			return( rows );
+		}
+		ICFIntMimeTypeH[] ret = new ICFIntMimeTypeH[ rows.length ];
+		for( int i = 0; i < rows.length; i++ ) {
+			ret[i] = copyHistRec( rows[i] );
+		}
+		return( ret );
+	}
+
+	public ICFIntMimeType[] readAllDerived( ICFSecAuthorization Authorization ) {
+		faultInAll();
+		return( toDerivedArray( dictByPKey.values() ) );
+	}
+
+	public ICFIntMimeType readDerivedByIdIdx( ICFSecAuthorization Authorization,
+		int MimeTypeId )
+	{
+		return( readDerived( Authorization, MimeTypeId ) );
+	}
+
+	public ICFIntMimeType readDerivedByUNameIdx( ICFSecAuthorization Authorization,
+		String Name )
+	{
+		faultInAll();
+		CFIntBuffMimeTypeByUNameIdxKey key = new CFIntBuffMimeTypeByUNameIdxKey();
+		key.setRequiredName( Name );
+		CFIntBuffMimeType buff = dictByUNameIdx.get( key );
+		if( buff == null ) {
+			return( null );
+		}
+		return( copyRec( buff ) );
+	}
+
+	/**
+	 *	Resolve a MimeType from a file extension listed in OptionalFileTypes.
+	 *	The lookup is a single hash probe; see CFIntBuffMimeTypeFileExtIndex
+	 *	for how extensions are parsed and how shared extensions are resolved.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	FileExt	The extension, with or without a leading ".".
+	 *	@return	A copy of the matching MimeType, or null if none claims it.
+	 */
+	public ICFIntMimeType readDerivedByFileExt( ICFSecAuthorization Authorization,
+		String FileExt )
+	{
+		faultInAll();
+		CFIntBuffMimeType buff = indexByFileExt.lookup( FileExt );
+		if( buff == null ) {
+			return( null );
+		}
+		return( copyRec( buff ) );
+	}
+
+	/**
+	 *	Resolve a MimeType from the extension of a file name such as
+	 *	"report.PDF".  Names without an extension resolve to null.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	FileName	The file name.
+	 *	@return	A copy of the matching MimeType, or null if none claims it.
+	 */
+	public ICFIntMimeType readDerivedByFileName( ICFSecAuthorization Authorization,
+		String FileName )
+	{
+		faultInAll();
+		if( FileName == null ) {
+			return( null );
+		}
+		int dot = FileName.lastIndexOf( '.' );
+		if( ( dot < 0 ) || ( dot == FileName.length() - 1 ) ) {
+			return( null );
+		}
+		return( readDerivedByFileExt( Authorization, FileName.substring( dot + 1 ) ) );
+	}
+
+	public void releasePreparedStatements() {
+	}
+}
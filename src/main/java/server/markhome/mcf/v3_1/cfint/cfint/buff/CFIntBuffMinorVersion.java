@@ -34,6 +34,7 @@ import java.sql.*;
 import java.text.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.text.StringEscapeUtils;
 import server.markhome.mcf.v3_1.cflib.*;
@@ -44,23 +45,38 @@ import server.markhome.mcf.v3_1.cfint.cfint.*;
 import server.markhome.mcf.v3_1.cfsec.cfsec.buff.*;
 
 public class CFIntBuffMinorVersion
-	implements ICFIntMinorVersion, Comparable<Object>, Serializable
+	implements ICFIntMinorVersion, Comparable<Object>, Externalizable
 {
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffMinorVersion, LocalDateTime> CREATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffMinorVersion.class, LocalDateTime.class, "createdAt" );
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffMinorVersion, LocalDateTime> UPDATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffMinorVersion.class, LocalDateTime.class, "updatedAt" );
+
+	public final static CFIntBuffPKeyIdentity<ICFIntMinorVersion> PKEY_IDENTITY =
+		CFIntBuffPKeyIdentity.forHashKey( ICFIntMinorVersion::getRequiredId, ICFIntMinorVersion::getRequiredRevision );
+
+	protected final static CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex( ICFIntMinorVersion.S_INIT_CREATED_BY );
+	protected final static CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex( ICFIntMinorVersion.S_INIT_UPDATED_BY );
+
 	protected CFLibDbKeyHash256 requiredId;
 	protected int requiredRevision;
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFIntMinorVersion.S_INIT_CREATED_BY);
-	protected LocalDateTime createdAt = LocalDateTime.now();
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFIntMinorVersion.S_INIT_UPDATED_BY);
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
+	protected volatile LocalDateTime createdAt = null;
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
+	protected volatile LocalDateTime updatedAt = null;
 	protected CFLibDbKeyHash256 requiredTenantId;
 	protected CFLibDbKeyHash256 requiredMajorVersionId;
 	protected String requiredName;
 	protected String optionalDescription;
 
+	protected transient CFIntBuffResolvedRef<ICFIntMajorVersion> resolvedContainerParentMajVer = null;
+	protected transient int cachedHashCode = 0;
+	protected transient volatile CFIntBuffMinorVersionSnapshot cachedSnapshot = null;
+
 	public CFIntBuffMinorVersion() {
-		requiredId = CFLibDbKeyHash256.fromHex( ICFIntMinorVersion.ID_INIT_VALUE.toString() );
-		requiredTenantId = CFLibDbKeyHash256.fromHex( ICFIntMinorVersion.TENANTID_INIT_VALUE.toString() );
-		requiredMajorVersionId = CFLibDbKeyHash256.fromHex( ICFIntMinorVersion.MAJORVERSIONID_INIT_VALUE.toString() );
+		requiredId = ICFIntMinorVersion.ID_INIT_VALUE;
+		requiredTenantId = ICFIntMinorVersion.TENANTID_INIT_VALUE;
+		requiredMajorVersionId = ICFIntMinorVersion.MAJORVERSIONID_INIT_VALUE;
 		requiredName = ICFIntMinorVersion.NAME_INIT_VALUE;
 		optionalDescription = null;
 	}
@@ -73,6 +89,8 @@ public class CFIntBuffMinorVersion
 	@Override
 	public void setPKey(CFLibDbKeyHash256 requiredId) {
 		this.requiredId = requiredId;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -89,6 +107,8 @@ public class CFIntBuffMinorVersion
 				"value" );
 		}
 		requiredId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -99,16 +119,26 @@ public class CFIntBuffMinorVersion
 	@Override
 	public void setCreatedByUserId( CFLibDbKeyHash256 value ) {
 		createdByUserId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
 	public LocalDateTime getCreatedAt() {
-		return( createdAt );
+		LocalDateTime value = createdAt;
+		if( value == null ) {
+			// The first reader stamps it, and every reader sees that one stamp
+			CREATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+			value = createdAt;
+		}
+		return( value );
 	}
 
 	@Override
 	public void setCreatedAt( LocalDateTime value ) {
 		createdAt = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -119,16 +149,26 @@ public class CFIntBuffMinorVersion
 	@Override
 	public void setUpdatedByUserId( CFLibDbKeyHash256 value ) {
 		updatedByUserId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
 	public LocalDateTime getUpdatedAt() {
-		return( updatedAt );
+		LocalDateTime value = updatedAt;
+		if( value == null ) {
+			// The first reader stamps it, and every reader sees that one stamp
+			UPDATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+			value = updatedAt;
+		}
+		return( value );
 	}
 
 	@Override
 	public void setUpdatedAt( LocalDateTime value ) {
 		updatedAt = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 	@Override
 	public int getRequiredRevision() {
@@ -138,6 +178,8 @@ public class CFIntBuffMinorVersion
 	@Override
 	public void setRequiredRevision( int value ) {
 		requiredRevision = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -164,13 +206,17 @@ public class CFIntBuffMinorVersion
 			throw new CFLibNullArgumentException(getClass(), "setOwnerTenant", 1, "argObj");
 		}
 		else {
-			requiredTenantId = argObj.getRequiredId();
+			requiredTenantId = CFIntBuffSchema.canonicalKey( argObj.getRequiredId() );
+			cachedHashCode = 0;
+			cachedSnapshot = null;
 		}
 	}
 
 	@Override
 	public void setRequiredOwnerTenant(CFLibDbKeyHash256 argTenantId) {
-		requiredTenantId = argTenantId;
+		requiredTenantId = CFIntBuffSchema.canonicalKey( argTenantId );
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -183,6 +229,40 @@ public class CFIntBuffMinorVersion
 		if (targetTable == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredContainerParentMajVer", 0, "ICFIntSchema.getBackingCFInt().getTableMajorVersion()");
 		}
+		if( CFIntBuffSchema.isNavigationCacheEnabled() ) {
+			CFIntBuffResolvedRef<ICFIntMajorVersion> ref = resolvedContainerParentMajVer;
+			long stamp = 0L;
+			ICFIntMajorVersion targetRec;
+			if( targetTable instanceof ICFIntBuffRevisionSource ) {
+				ICFIntBuffRevisionSource revisionSource = (ICFIntBuffRevisionSource)targetTable;
+				if( ref != null ) {
+					ICFIntMajorVersion cachedRec = ref.resolve( revisionSource, getRequiredMajorVersionId() );
+					if( cachedRec != null ) {
+						return( cachedRec );
+					}
+				}
+				// Taken before the read, so a change in between fails the next validation
+				stamp = revisionSource.getModStamp();
+				targetRec = targetTable.readDerived(null, getRequiredMajorVersionId());
+			}
+			else {
+				// Without a revision source the row is read, but an unchanged one is still shared
+				targetRec = targetTable.readDerived(null, getRequiredMajorVersionId());
+				if( ( ref != null ) && ( targetRec != null ) ) {
+					ICFIntMajorVersion cachedRec = ref.resolve( targetTable, targetRec.getRequiredId(), targetRec.getRequiredRevision() );
+					if( cachedRec != null ) {
+						return( cachedRec );
+					}
+				}
+			}
+			if( targetRec == null ) {
+				resolvedContainerParentMajVer = null;
+				return( null );
+			}
+			CFIntBuffMajorVersionView view = new CFIntBuffMajorVersionView( targetRec );
+			resolvedContainerParentMajVer = new CFIntBuffResolvedRef<>( targetTable, view.getRequiredId(), view.getRequiredRevision(), view, stamp );
+			return( view );
+		}
 		ICFIntMajorVersion targetRec = targetTable.readDerived(null, getRequiredMajorVersionId());
 		return(targetRec);
 	}
@@ -192,13 +272,17 @@ public class CFIntBuffMinorVersion
 			throw new CFLibNullArgumentException(getClass(), "setContainerParentMajVer", 1, "argObj");
 		}
 		else {
-			requiredMajorVersionId = argObj.getRequiredId();
+			requiredMajorVersionId = CFIntBuffSchema.canonicalKey( argObj.getRequiredId() );
+			cachedHashCode = 0;
+			cachedSnapshot = null;
 		}
 	}
 
 	@Override
 	public void setRequiredContainerParentMajVer(CFLibDbKeyHash256 argMajorVersionId) {
-		requiredMajorVersionId = argMajorVersionId;
+		requiredMajorVersionId = CFIntBuffSchema.canonicalKey( argMajorVersionId );
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -233,6 +317,8 @@ public class CFIntBuffMinorVersion
 				64 );
 		}
 		requiredName = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -251,6 +337,8 @@ public class CFIntBuffMinorVersion
 				1024 );
 		}
 		optionalDescription = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -525,23 +613,54 @@ public class CFIntBuffMinorVersion
 		}
 	}
 
+	/**
+	 *	Get an immutable snapshot of this record.  The snapshot is cached until
+	 *	a setter changes the record, so records held by the buffer tables,
+	 *	which are never modified in place, hand every reader the same instance.
+	 *
+	 *	@return	The snapshot of the current values.
+	 */
+	public CFIntBuffMinorVersionSnapshot toSnapshot() {
+		CFIntBuffMinorVersionSnapshot snapshot = cachedSnapshot;
+		if( snapshot == null ) {
+			snapshot = CFIntBuffMinorVersionSnapshot.of( this );
+			cachedSnapshot = snapshot;
+		}
+		return( snapshot );
+	}
+
 	@Override
 	public int hashCode() {
+		int hashCode = cachedHashCode;
+		if( hashCode == 0 ) {
+			hashCode = computeHashCode();
+			cachedHashCode = hashCode;
+		}
+		return( hashCode );
+	}
+
+	/**
+	 *	Compute the hash code from the attribute values.  The setters reset
+	 *	the cached value so it is recomputed on the next hashCode() call.
+	 *
+	 *	@return	The non-zero hash code.
+	 */
+	protected int computeHashCode() {
 		int hashCode = 0;
-		hashCode = hashCode + getCreatedByUserId().hashCode();
-		hashCode = hashCode + getCreatedAt().hashCode();
-		hashCode = hashCode + getUpdatedByUserId().hashCode();
-		hashCode = hashCode + getUpdatedAt().hashCode();
-		hashCode = hashCode + getRequiredId().hashCode();
-		hashCode = hashCode + getRequiredTenantId().hashCode();
-		hashCode = hashCode + getRequiredMajorVersionId().hashCode();
+		hashCode = CFIntBuffHash.mix( hashCode, getCreatedByUserId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getCreatedAt().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getUpdatedByUserId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getUpdatedAt().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredTenantId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredMajorVersionId().hashCode() );
 		if( getRequiredName() != null ) {
-			hashCode = hashCode + getRequiredName().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getRequiredName().hashCode() );
 		}
 		if( getOptionalDescription() != null ) {
-			hashCode = hashCode + getOptionalDescription().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getOptionalDescription().hashCode() );
 		}
-		return( hashCode & 0x7fffffff );
+		return( CFIntBuffHash.finish( hashCode ) );
 	}
 
 	@Override
@@ -840,7 +959,7 @@ public class CFIntBuffMinorVersion
 		setUpdatedByUserId( src.getUpdatedByUserId() );
 		setUpdatedAt( src.getUpdatedAt() );
 		setRequiredOwnerTenant(src.getRequiredTenantId());
-		setRequiredContainerParentMajVer(src.getRequiredContainerParentMajVer());
+		setRequiredContainerParentMajVer(src.getRequiredMajorVersionId());
 		setRequiredName(src.getRequiredName());
 		setOptionalDescription(src.getOptionalDescription());
 	}
@@ -859,22 +978,56 @@ public class CFIntBuffMinorVersion
 		setOptionalDescription(src.getOptionalDescription());
 	}
 
+	/**
+	 *	Write this row in the compact CFIntBuffMinorVersionCodec form instead of
+	 *	the default field serialization.
+	 */
+	@Override
+	public void writeExternal( ObjectOutput out ) throws IOException {
+		CFIntBuffCodec.writeBlock( out, CFIntBuffMinorVersionCodec.encode( this ) );
+	}
+
+	@Override
+	public void readExternal( ObjectInput in ) throws IOException {
+		CFIntBuffMinorVersionCodec.decodeInto( CFIntBuffCodec.readBlock( in ), this );
+	}
+
 	@Override
 	public String getXmlAttrFragment() {
-		String ret = ""
-			+ " RequiredId=" + "\"" + getRequiredId().toString() + "\""
-			+ " RequiredRevision=\"" + Integer.toString( getRequiredRevision() ) + "\""
-			+ " RequiredId=" + "\"" + getRequiredId().toString() + "\""
-			+ " RequiredTenantId=" + "\"" + getRequiredTenantId().toString() + "\""
-			+ " RequiredMajorVersionId=" + "\"" + getRequiredMajorVersionId().toString() + "\""
-			+ " RequiredName=" + "\"" + StringEscapeUtils.escapeXml11( getRequiredName() ) + "\""
-			+ " OptionalDescription=" + ( ( getOptionalDescription() == null ) ? "null" : "\"" + StringEscapeUtils.escapeXml11( getOptionalDescription() ) + "\"" );
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toFragment( this::appendXmlAttrs ) );
+	}
+
+	/**
+	 *	Stream the getXmlAttrFragment() attributes to out without building
+	 *	the fragment or any escaped copy of the values.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXmlAttrs( Appendable out ) throws IOException {
+		appendXmlAttrs( new CFIntBuffXmlAttrWriter( out ) );
+	}
+
+	public void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException {
+		writer.attrKey( "RequiredId", getRequiredId() );
+		writer.attrInt( "RequiredRevision", getRequiredRevision() );
+		writer.attrKey( "RequiredId", getRequiredId() );
+		writer.attrKey( "RequiredTenantId", getRequiredTenantId() );
+		writer.attrKey( "RequiredMajorVersionId", getRequiredMajorVersionId() );
+		writer.attrString( "RequiredName", getRequiredName() );
+		writer.attrOptionalString( "OptionalDescription", getOptionalDescription() );
+	}
+
+	/**
+	 *	Stream this buffer as the same element toString() returns.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXml( Appendable out ) throws IOException {
+		CFIntBuffXmlAttrWriter.appendElement( out, "CFIntBuffMinorVersion", this::appendXmlAttrs );
 	}
 
 	@Override
 	public String toString() {
-		String ret = "<CFIntBuffMinorVersion" + getXmlAttrFragment() + "/>";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toElement( "CFIntBuffMinorVersion", this::appendXmlAttrs ) );
 	}
 }
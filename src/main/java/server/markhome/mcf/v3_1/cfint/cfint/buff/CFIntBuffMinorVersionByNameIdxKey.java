@@ -48,8 +48,9 @@ public class CFIntBuffMinorVersionByNameIdxKey
 {
 	protected CFLibDbKeyHash256 requiredMajorVersionId;
 	protected String requiredName;
+	protected transient int cachedHashCode = 0;
 	public CFIntBuffMinorVersionByNameIdxKey() {
-		requiredMajorVersionId = CFLibDbKeyHash256.fromHex( ICFIntMinorVersion.MAJORVERSIONID_INIT_VALUE.toString() );
+		requiredMajorVersionId = ICFIntMinorVersion.MAJORVERSIONID_INIT_VALUE;
 		requiredName = ICFIntMinorVersion.NAME_INIT_VALUE;
 	}
 
@@ -66,7 +67,8 @@ public class CFIntBuffMinorVersionByNameIdxKey
 				1,
 				"value" );
 		}
-		requiredMajorVersionId = value;
+		requiredMajorVersionId = CFIntBuffSchema.canonicalKey( value );
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -91,6 +93,7 @@ public class CFIntBuffMinorVersionByNameIdxKey
 				64 );
 		}
 		requiredName = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -173,12 +176,27 @@ public class CFIntBuffMinorVersionByNameIdxKey
 
 	@Override
 	public int hashCode() {
+		int hashCode = cachedHashCode;
+		if( hashCode == 0 ) {
+			hashCode = computeHashCode();
+			cachedHashCode = hashCode;
+		}
+		return( hashCode );
+	}
+
+	/**
+	 *	Compute the hash code from the attribute values.  The setters reset
+	 *	the cached value so it is recomputed on the next hashCode() call.
+	 *
+	 *	@return	The non-zero hash code.
+	 */
+	protected int computeHashCode() {
 		int hashCode = 0;
-		hashCode = hashCode + getRequiredMajorVersionId().hashCode();
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredMajorVersionId().hashCode() );
 		if( getRequiredName() != null ) {
-			hashCode = hashCode + getRequiredName().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getRequiredName().hashCode() );
 		}
-		return( hashCode & 0x7fffffff );
+		return( CFIntBuffHash.finish( hashCode ) );
 	}
 
 	@Override
@@ -262,15 +280,35 @@ public class CFIntBuffMinorVersionByNameIdxKey
 
 	@Override
 	public String getXmlAttrFragment() {
-		String ret = ""
-			+ " RequiredMajorVersionId=" + "\"" + getRequiredMajorVersionId().toString() + "\""
-			+ " RequiredName=" + "\"" + StringEscapeUtils.escapeXml11( getRequiredName() ) + "\"";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toFragment( this::appendXmlAttrs ) );
+	}
+
+	/**
+	 *	Stream the getXmlAttrFragment() attributes to out without building
+	 *	the fragment or any escaped copy of the values.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXmlAttrs( Appendable out ) throws IOException {
+		appendXmlAttrs( new CFIntBuffXmlAttrWriter( out ) );
+	}
+
+	public void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException {
+		writer.attrKey( "RequiredMajorVersionId", getRequiredMajorVersionId() );
+		writer.attrString( "RequiredName", getRequiredName() );
+	}
+
+	/**
+	 *	Stream this buffer as the same element toString() returns.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXml( Appendable out ) throws IOException {
+		CFIntBuffXmlAttrWriter.appendElement( out, "CFIntBuffMinorVersionByNameIdxKey", this::appendXmlAttrs );
 	}
 
 	@Override
 	public String toString() {
-		String ret = "<CFIntBuffMinorVersionByNameIdxKey" + getXmlAttrFragment() + "/>";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toElement( "CFIntBuffMinorVersionByNameIdxKey", this::appendXmlAttrs ) );
 	}
 }
@@ -0,0 +1,242 @@
+// Description: Java 25 primary key identity strategy for CFInt buffers
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.util.*;
+import java.util.function.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffPKeyIdentity compares, orders and hashes records by their primary
+ *	key alone.  The records' own equals(), hashCode() and compareTo() work on
+ *	every attribute, including the audit columns, and walk the instanceof
+ *	chain of the interfaces they accept.  Index structures that only need row
+ *	identity can use one of these strategies instead; the buffer tables use
+ *	the records' PKEY_IDENTITY when they conditionally remove or replace a
+ *	unique index entry.
+ *	<p>
+ *	A revision-checking variant also requires the revisions to match, which
+ *	identifies a particular version of a row rather than the row itself.
+ */
+public abstract class CFIntBuffPKeyIdentity<T>
+	implements Comparator<T>
+{
+	protected final ToIntFunction<? super T> revisionFn;
+	protected final boolean checkRevision;
+
+	protected CFIntBuffPKeyIdentity( ToIntFunction<? super T> argRevisionFn, boolean argCheckRevision ) {
+		revisionFn = argRevisionFn;
+		checkRevision = argCheckRevision;
+	}
+
+	/**
+	 *	Create a strategy for records keyed by a CFLibDbKeyHash256 id.
+	 *
+	 *	@param	idFn	Accessor for the primary key of a record.
+	 *	@param	revisionFn	Accessor for the revision of a record.
+	 *	@return	A strategy that ignores revisions.
+	 */
+	public static <T> CFIntBuffPKeyIdentity<T> forHashKey( Function<? super T, CFLibDbKeyHash256> idFn, ToIntFunction<? super T> revisionFn ) {
+		return( new HashKeyIdentity<T>( idFn, revisionFn, false ) );
+	}
+
+	/**
+	 *	Create a strategy for records keyed by an int id.
+	 *
+	 *	@param	idFn	Accessor for the primary key of a record.
+	 *	@param	revisionFn	Accessor for the revision of a record.
+	 *	@return	A strategy that ignores revisions.
+	 */
+	public static <T> CFIntBuffPKeyIdentity<T> forIntKey( ToIntFunction<? super T> idFn, ToIntFunction<? super T> revisionFn ) {
+		return( new IntKeyIdentity<T>( idFn, revisionFn, false ) );
+	}
+
+	public boolean isRevisionChecked() {
+		return( checkRevision );
+	}
+
+	/**
+	 *	Get the variant of this strategy that also requires matching revisions.
+	 *
+	 *	@return	The revision-checking strategy.
+	 */
+	public abstract CFIntBuffPKeyIdentity<T> withRevisionCheck();
+
+	/**
+	 *	Hash a record by primary key.  The revision is never hashed, so the
+	 *	revision-checking variant stays consistent with equivalent().
+	 *
+	 *	@param	rec	The record to hash; may be null.
+	 *	@return	The hash of the primary key, or 0 for null.
+	 */
+	public abstract int hash( T rec );
+
+	/**
+	 *	Test whether two records identify the same row, and the same revision
+	 *	of it if revisions are checked.
+	 *
+	 *	@param	lhs	The first record; may be null.
+	 *	@param	rhs	The second record; may be null.
+	 *	@return	True if the records are equivalent.
+	 */
+	public boolean equivalent( T lhs, T rhs ) {
+		if( lhs == rhs ) {
+			return( true );
+		}
+		else if( ( lhs == null ) || ( rhs == null ) ) {
+			return( false );
+		}
+		else if( ! sameKey( lhs, rhs ) ) {
+			return( false );
+		}
+		else if( checkRevision ) {
+			return( revisionFn.applyAsInt( lhs ) == revisionFn.applyAsInt( rhs ) );
+		}
+		else {
+			return( true );
+		}
+	}
+
+	/**
+	 *	Order records by primary key, then by revision if revisions are checked.
+	 *	Nulls sort first.
+	 */
+	@Override
+	public int compare( T lhs, T rhs ) {
+		if( lhs == rhs ) {
+			return( 0 );
+		}
+		else if( lhs == null ) {
+			return( -1 );
+		}
+		else if( rhs == null ) {
+			return( 1 );
+		}
+		int cmp = compareKey( lhs, rhs );
+		if( ( cmp != 0 ) || ! checkRevision ) {
+			return( cmp );
+		}
+		return( Integer.compare( revisionFn.applyAsInt( lhs ), revisionFn.applyAsInt( rhs ) ) );
+	}
+
+	protected abstract boolean sameKey( T lhs, T rhs );
+
+	protected abstract int compareKey( T lhs, T rhs );
+
+	protected static class HashKeyIdentity<T>
+		extends CFIntBuffPKeyIdentity<T>
+	{
+		protected final Function<? super T, CFLibDbKeyHash256> idFn;
+		protected HashKeyIdentity<T> revisionChecked = null;
+
+		protected HashKeyIdentity( Function<? super T, CFLibDbKeyHash256> argIdFn, ToIntFunction<? super T> argRevisionFn, boolean argCheckRevision ) {
+			super( argRevisionFn, argCheckRevision );
+			idFn = argIdFn;
+		}
+
+		@Override
+		public CFIntBuffPKeyIdentity<T> withRevisionCheck() {
+			if( checkRevision ) {
+				return( this );
+			}
+			if( revisionChecked == null ) {
+				revisionChecked = new HashKeyIdentity<T>( idFn, revisionFn, true );
+			}
+			return( revisionChecked );
+		}
+
+		@Override
+		public int hash( T rec ) {
+			if( rec == null ) {
+				return( 0 );
+			}
+			CFLibDbKeyHash256 id = idFn.apply( rec );
+			return( ( id == null ) ? 0 : id.hashCode() );
+		}
+
+		@Override
+		protected boolean sameKey( T lhs, T rhs ) {
+			return( Objects.equals( idFn.apply( lhs ), idFn.apply( rhs ) ) );
+		}
+
+		@Override
+		protected int compareKey( T lhs, T rhs ) {
+			CFLibDbKeyHash256 lhsId = idFn.apply( lhs );
+			CFLibDbKeyHash256 rhsId = idFn.apply( rhs );
+			if( lhsId == rhsId ) {
+				return( 0 );
+			}
+			else if( lhsId == null ) {
+				return( -1 );
+			}
+			else if( rhsId == null ) {
+				return( 1 );
+			}
+			return( lhsId.compareTo( rhsId ) );
+		}
+	}
+
+	protected static class IntKeyIdentity<T>
+		extends CFIntBuffPKeyIdentity<T>
+	{
+		protected final ToIntFunction<? super T> idFn;
+		protected IntKeyIdentity<T> revisionChecked = null;
+
+		protected IntKeyIdentity( ToIntFunction<? super T> argIdFn, ToIntFunction<? super T> argRevisionFn, boolean argCheckRevision ) {
+			super( argRevisionFn, argCheckRevision );
+			idFn = argIdFn;
+		}
+
+		@Override
+		public CFIntBuffPKeyIdentity<T> withRevisionCheck() {
+			if( checkRevision ) {
+				return( this );
+			}
+			if( revisionChecked == null ) {
+				revisionChecked = new IntKeyIdentity<T>( idFn, revisionFn, true );
+			}
+			return( revisionChecked );
+		}
+
+		@Override
+		public int hash( T rec ) {
+			if( rec == null ) {
+				return( 0 );
+			}
+			return( CFIntBuffHash.finish( CFIntBuffHash.mix( 0, idFn.applyAsInt( rec ) ) ) );
+		}
+
+		@Override
+		protected boolean sameKey( T lhs, T rhs ) {
+			return( idFn.applyAsInt( lhs ) == idFn.applyAsInt( rhs ) );
+		}
+
+		@Override
+		protected int compareKey( T lhs, T rhs ) {
+			return( Integer.compare( idFn.applyAsInt( lhs ), idFn.applyAsInt( rhs ) ) );
+		}
+	}
+}
@@ -0,0 +1,122 @@
+// Description: Java 25 cached navigation reference for CFInt buffers
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffResolvedRef remembers the record a getRequiredContainer*() call
+ *	resolved, together with the table it came from and the requiredRevision
+ *	it had.  The target is a read-only CFIntBuff*View, so it is handed to
+ *	every caller as is, and a hit costs no allocation.  Over an
+ *	ICFIntBuffRevisionSource a hit is a field read while the table's
+ *	modification stamp is unchanged, and one revision check after that;
+ *	over any other table the caller reads the row and the revision decides
+ *	whether the shared target still stands for it.  The holder is
+ *	immutable apart from the validated stamp, so a record can publish it
+ *	through a single field without locking.
+ */
+public class CFIntBuffResolvedRef<T>
+{
+	protected final Object source;
+	protected final CFLibDbKeyHash256 targetId;
+	protected final int targetRevision;
+	protected final T target;
+	protected volatile long validatedStamp;
+
+	/**
+	 *	@param	argSource	The table the target was read from.
+	 *
+	 *	@param	argTargetId	The primary key of the target.
+	 *
+	 *	@param	argTargetRevision	The requiredRevision the target was read at.
+	 *
+	 *	@param	argTarget	The read-only target, shared with every caller.
+	 *
+	 *	@param	argStamp	The modification stamp taken before the target was
+	 *		read, or any value if argSource is not an ICFIntBuffRevisionSource.
+	 */
+	public CFIntBuffResolvedRef( Object argSource,
+		CFLibDbKeyHash256 argTargetId,
+		int argTargetRevision,
+		T argTarget,
+		long argStamp )
+	{
+		source = argSource;
+		targetId = argTargetId;
+		targetRevision = argTargetRevision;
+		target = argTarget;
+		validatedStamp = argStamp;
+	}
+
+	protected boolean refersTo( Object argSource, CFLibDbKeyHash256 argTargetId ) {
+		return( ( source == argSource ) && ( argTargetId != null ) && targetId.equals( argTargetId ) );
+	}
+
+	/**
+	 *	Get the cached target if it still refers to argTargetId in argSource
+	 *	and has not been modified since it was resolved.
+	 *
+	 *	@param	argSource	The table the caller would read from.
+	 *
+	 *	@param	argTargetId	The id the caller would read.
+	 *
+	 *	@return	The shared target, or null if it must be read again.
+	 */
+	public T resolve( ICFIntBuffRevisionSource argSource, CFLibDbKeyHash256 argTargetId ) {
+		if( ! refersTo( argSource, argTargetId ) ) {
+			return( null );
+		}
+		long stamp = argSource.getModStamp();
+		if( stamp == validatedStamp ) {
+			return( target );
+		}
+		if( argSource.isCurrent( targetId, targetRevision ) ) {
+			validatedStamp = stamp;
+			return( target );
+		}
+		return( null );
+	}
+
+	/**
+	 *	Get the cached target if it still stands for a row the caller has
+	 *	just read from a table that is not an ICFIntBuffRevisionSource.
+	 *
+	 *	@param	argSource	The table the row was read from.
+	 *
+	 *	@param	argTargetId	The id of the row read.
+	 *
+	 *	@param	argRevision	The requiredRevision of the row read.
+	 *
+	 *	@return	The shared target, or null if the row has changed.
+	 */
+	public T resolve( Object argSource, CFLibDbKeyHash256 argTargetId, int argRevision ) {
+		if( refersTo( argSource, argTargetId ) && ( argRevision == targetRevision ) ) {
+			return( target );
+		}
+		return( null );
+	}
+}
@@ -0,0 +1,93 @@
+// Description: Java 25 striped row locks for the CFInt buffer tables.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.util.concurrent.locks.*;
+import server.markhome.mcf.v3_1.cflib.*;
+
+/**
+ *	CFIntBuffRowLocks maps keys onto a fixed set of locks, so that writers
+ *	of the same row are serialized.  It is striped
+ *	locking rather than a per-row compare-and-set, because a row's log
+ *	record, history row and index entries must all follow the order of
+ *	its changes.  Every key that hashes to a stripe shares its lock, so
+ *	writers of unrelated rows still wait for each other when their keys
+ *	collide, for a given pair about once in DEFAULT_STRIPES.  Tenants are
+ *	locked through CFIntBuffTenantLocks instead, so that an eviction can
+ *	exclude one tenant's writers without touching these stripes.
+ *
+ *	The only calls out of a table made with a row lock held are a delete's
+ *	cascade into the tables below it and a child write, which locks its
+ *	container's row before any lock of its own table, so locks are always
+ *	taken from the top of the containment tree down and never the other
+ *	way.
+ */
+public class CFIntBuffRowLocks
+{
+	public final static int DEFAULT_STRIPES = 64;
+
+	protected final ReentrantLock[] stripes;
+	protected final int mask;
+
+	public CFIntBuffRowLocks() {
+		this( DEFAULT_STRIPES );
+	}
+
+	/**
+	 *	@param	count	The number of stripes, rounded up to a power of two.
+	 */
+	public CFIntBuffRowLocks( int count ) {
+		if( count < 1 ) {
+			throw new CFLibArgumentUnderflowException( getClass(),
+				"constructor",
+				1,
+				"count",
+				count,
+				1 );
+		}
+		int size = Integer.highestOneBit( count );
+		if( size < count ) {
+			size <<= 1;
+		}
+		stripes = new ReentrantLock[ size ];
+		for( int idx = 0; idx < size; idx ++ ) {
+			stripes[ idx ] = new ReentrantLock();
+		}
+		mask = size - 1;
+	}
+
+	/**
+	 *	Get the lock guarding a key.
+	 *
+	 *	@param	key	A row's primary key.
+	 *	@return	The lock of the key's stripe.
+	 */
+	public ReentrantLock lockFor( Object key ) {
+		int hash = key.hashCode();
+		hash ^= hash >>> 16;
+		return( stripes[ hash & mask ] );
+	}
+}
@@ -25,8 +25,11 @@
 
 package server.markhome.mcf.v3_1.cfint.cfint.buff;
 
+import java.io.*;
 import java.lang.reflect.*;
 import java.net.*;
+import java.nio.*;
+import java.nio.file.*;
 import java.rmi.*;
 import java.sql.*;
 import java.text.*;
@@ -112,140 +115,130 @@ public class CFIntBuffSchema
 	protected ICFIntTopProjectFactory factoryTopProject;
 	protected ICFIntURLProtocolFactory factoryURLProtocol;
 
+	protected final CFIntBuffInt32IdGen idGenMimeType = new CFIntBuffInt32IdGen( "MimeTypeIdGen" );
+	protected final CFIntBuffInt32IdGen idGenURLProtocol = new CFIntBuffInt32IdGen( "URLProtocolIdGen" );
+	protected final CFIntBuffDbKeyHash256IdGen idGenCluster = new CFIntBuffDbKeyHash256IdGen( "ClusterIdGen" );
+	protected final CFIntBuffDbKeyHash256IdGen idGenSecSession = new CFIntBuffDbKeyHash256IdGen( "SecSessionIdGen" );
+	protected final CFIntBuffDbKeyHash256IdGen idGenSecUser = new CFIntBuffDbKeyHash256IdGen( "SecUserIdGen" );
+	protected final CFIntBuffDbKeyHash256IdGen idGenTenant = new CFIntBuffDbKeyHash256IdGen( "TenantIdGen" );
+	protected final CFIntBuffDbKeyHash256IdGen idGenSecSysGrp = new CFIntBuffDbKeyHash256IdGen( "SecSysGrpIdGen" );
+	protected final CFIntBuffDbKeyHash256IdGen idGenSecClusGrp = new CFIntBuffDbKeyHash256IdGen( "SecClusGrpIdGen" );
+	protected final CFIntBuffDbKeyHash256IdGen idGenSecTentGrp = new CFIntBuffDbKeyHash256IdGen( "SecTentGrpIdGen" );
+	protected final CFIntBuffDbKeyHash256IdGen idGenMajorVersion = new CFIntBuffDbKeyHash256IdGen( "MajorVersionIdGen" );
+	protected final CFIntBuffDbKeyHash256IdGen idGenMinorVersion = new CFIntBuffDbKeyHash256IdGen( "MinorVersionIdGen" );
+	protected final CFIntBuffDbKeyHash256IdGen idGenSubProject = new CFIntBuffDbKeyHash256IdGen( "SubProjectIdGen" );
+	protected final CFIntBuffDbKeyHash256IdGen idGenTld = new CFIntBuffDbKeyHash256IdGen( "TldIdGen" );
+	protected final CFIntBuffDbKeyHash256IdGen idGenTopDomain = new CFIntBuffDbKeyHash256IdGen( "TopDomainIdGen" );
+	protected final CFIntBuffDbKeyHash256IdGen idGenTopProject = new CFIntBuffDbKeyHash256IdGen( "TopProjectIdGen" );
+	protected final CFIntBuffDbKeyHash256IdGen idGenLicense = new CFIntBuffDbKeyHash256IdGen( "LicenseIdGen" );
+
+	protected final CFIntBuffDomainTrie domainTrie = new CFIntBuffDomainTrie();
+
+	protected final CFIntBuffHistoryDictionary< CFLibDbKeyHash256 > historyKeyDictionary = new CFIntBuffHistoryDictionary<>();
+	protected final CFIntBuffHistoryDictionary< String > historyStringPool = new CFIntBuffHistoryDictionary<>();
+
 	@Override
 	public int initClassMapEntries(int value) {
 		return( ICFIntSchema.doInitClassMapEntries(value) );
 	}
 
-	@Override
-	public void wireRecConstructors() {
-		ICFSecSchema.ClassMapEntry entry;
-		entry = ICFIntSchema.getClassMapByBackingClassCode(ICFIntLicense.CLASS_CODE);
-		if (entry != null) {
-			entry.setBackingRecConstructor( new BackingRecConstructor() {
-				@Override
-				public Object instantiate() {
-					ICFIntLicense ret = new CFIntBuffLicense();
-					return(ret);
-				}
-			});
-		}
-		else {
-			throw new CFLibNullArgumentException(CFIntBuffSchema.class, "wireRecConstructors", 0, "ICFIntSchema.getClassMapByBackingClassCode(ICFIntLicense.CLASS_CODE)[" + ICFIntLicense.CLASS_CODE + "]");
-		}
-	
-		entry = ICFIntSchema.getClassMapByBackingClassCode(ICFIntMajorVersion.CLASS_CODE);
-		if (entry != null) {
-			entry.setBackingRecConstructor( new BackingRecConstructor() {
-				@Override
-				public Object instantiate() {
-					ICFIntMajorVersion ret = new CFIntBuffMajorVersion();
-					return(ret);
-				}
-			});
-		}
-		else {
-			throw new CFLibNullArgumentException(CFIntBuffSchema.class, "wireRecConstructors", 0, "ICFIntSchema.getClassMapByBackingClassCode(ICFIntMajorVersion.CLASS_CODE)[" + ICFIntMajorVersion.CLASS_CODE + "]");
-		}
-	
-		entry = ICFIntSchema.getClassMapByBackingClassCode(ICFIntMimeType.CLASS_CODE);
-		if (entry != null) {
-			entry.setBackingRecConstructor( new BackingRecConstructor() {
-				@Override
-				public Object instantiate() {
-					ICFIntMimeType ret = new CFIntBuffMimeType();
-					return(ret);
-				}
-			});
-		}
-		else {
-			throw new CFLibNullArgumentException(CFIntBuffSchema.class, "wireRecConstructors", 0, "ICFIntSchema.getClassMapByBackingClassCode(ICFIntMimeType.CLASS_CODE)[" + ICFIntMimeType.CLASS_CODE + "]");
-		}
-	
-		entry = ICFIntSchema.getClassMapByBackingClassCode(ICFIntMinorVersion.CLASS_CODE);
-		if (entry != null) {
-			entry.setBackingRecConstructor( new BackingRecConstructor() {
-				@Override
-				public Object instantiate() {
-					ICFIntMinorVersion ret = new CFIntBuffMinorVersion();
-					return(ret);
-				}
-			});
-		}
-		else {
-			throw new CFLibNullArgumentException(CFIntBuffSchema.class, "wireRecConstructors", 0, "ICFIntSchema.getClassMapByBackingClassCode(ICFIntMinorVersion.CLASS_CODE)[" + ICFIntMinorVersion.CLASS_CODE + "]");
-		}
-	
-		entry = ICFIntSchema.getClassMapByBackingClassCode(ICFIntSubProject.CLASS_CODE);
-		if (entry != null) {
-			entry.setBackingRecConstructor( new BackingRecConstructor() {
-				@Override
-				public Object instantiate() {
-					ICFIntSubProject ret = new CFIntBuffSubProject();
-					return(ret);
-				}
-			});
-		}
-		else {
-			throw new CFLibNullArgumentException(CFIntBuffSchema.class, "wireRecConstructors", 0, "ICFIntSchema.getClassMapByBackingClassCode(ICFIntSubProject.CLASS_CODE)[" + ICFIntSubProject.CLASS_CODE + "]");
-		}
-	
-		entry = ICFIntSchema.getClassMapByBackingClassCode(ICFIntTld.CLASS_CODE);
-		if (entry != null) {
-			entry.setBackingRecConstructor( new BackingRecConstructor() {
-				@Override
-				public Object instantiate() {
-					ICFIntTld ret = new CFIntBuffTld();
-					return(ret);
-				}
-			});
-		}
-		else {
-			throw new CFLibNullArgumentException(CFIntBuffSchema.class, "wireRecConstructors", 0, "ICFIntSchema.getClassMapByBackingClassCode(ICFIntTld.CLASS_CODE)[" + ICFIntTld.CLASS_CODE + "]");
-		}
-	
-		entry = ICFIntSchema.getClassMapByBackingClassCode(ICFIntTopDomain.CLASS_CODE);
-		if (entry != null) {
-			entry.setBackingRecConstructor( new BackingRecConstructor() {
-				@Override
-				public Object instantiate() {
-					ICFIntTopDomain ret = new CFIntBuffTopDomain();
-					return(ret);
-				}
-			});
+	/**
+	 *	The buffer record constructors, indexed by backing class code.  The
+	 *	table is built once per JVM when the class is initialized and is shared
+	 *	by every schema instance.
+	 */
+	protected final static BackingRecConstructor[] recConstructorsByClassCode = buildRecConstructors();
+
+	protected static BackingRecConstructor[] buildRecConstructors() {
+		int[] classCodes = {
+			ICFIntLicense.CLASS_CODE,
+			ICFIntMajorVersion.CLASS_CODE,
+			ICFIntMimeType.CLASS_CODE,
+			ICFIntMinorVersion.CLASS_CODE,
+			ICFIntSubProject.CLASS_CODE,
+			ICFIntTld.CLASS_CODE,
+			ICFIntTopDomain.CLASS_CODE,
+			ICFIntTopProject.CLASS_CODE,
+			ICFIntURLProtocol.CLASS_CODE
+		};
+		BackingRecConstructor[] ctors = {
+			CFIntBuffLicense::new,
+			CFIntBuffMajorVersion::new,
+			CFIntBuffMimeType::new,
+			CFIntBuffMinorVersion::new,
+			CFIntBuffSubProject::new,
+			CFIntBuffTld::new,
+			CFIntBuffTopDomain::new,
+			CFIntBuffTopProject::new,
+			CFIntBuffURLProtocol::new
+		};
+		int maxClassCode = 0;
+		for( int classCode : classCodes ) {
+			if( classCode > maxClassCode ) {
+				maxClassCode = classCode;
+			}
 		}
-		else {
-			throw new CFLibNullArgumentException(CFIntBuffSchema.class, "wireRecConstructors", 0, "ICFIntSchema.getClassMapByBackingClassCode(ICFIntTopDomain.CLASS_CODE)[" + ICFIntTopDomain.CLASS_CODE + "]");
+		BackingRecConstructor[] ret = new BackingRecConstructor[ maxClassCode + 1 ];
+		for( int idx = 0; idx < classCodes.length; idx ++ ) {
+			ret[ classCodes[idx] ] = ctors[idx];
 		}
-	
-		entry = ICFIntSchema.getClassMapByBackingClassCode(ICFIntTopProject.CLASS_CODE);
-		if (entry != null) {
-			entry.setBackingRecConstructor( new BackingRecConstructor() {
-				@Override
-				public Object instantiate() {
-					ICFIntTopProject ret = new CFIntBuffTopProject();
-					return(ret);
-				}
-			});
+		return( ret );
+	}
+
+	/**
+	 *	Instantiate a buffer record by its backing class code without going
+	 *	through the class map.
+	 *
+	 *	@param	backingClassCode	The backing class code of the record to create.
+	 *	@return	A new, default-initialized buffer record.
+	 */
+	public static Object instantiateRec( int backingClassCode ) {
+		if( backingClassCode < 0 ) {
+			throw new CFLibArgumentUnderflowException( CFIntBuffSchema.class,
+				"instantiateRec",
+				1,
+				"backingClassCode",
+				backingClassCode,
+				0 );
 		}
-		else {
-			throw new CFLibNullArgumentException(CFIntBuffSchema.class, "wireRecConstructors", 0, "ICFIntSchema.getClassMapByBackingClassCode(ICFIntTopProject.CLASS_CODE)[" + ICFIntTopProject.CLASS_CODE + "]");
+		if( backingClassCode >= recConstructorsByClassCode.length ) {
+			throw new CFLibArgumentOverflowException( CFIntBuffSchema.class,
+				"instantiateRec",
+				1,
+				"backingClassCode",
+				backingClassCode,
+				recConstructorsByClassCode.length - 1 );
 		}
-	
-		entry = ICFIntSchema.getClassMapByBackingClassCode(ICFIntURLProtocol.CLASS_CODE);
-		if (entry != null) {
-			entry.setBackingRecConstructor( new BackingRecConstructor() {
-				@Override
-				public Object instantiate() {
-					ICFIntURLProtocol ret = new CFIntBuffURLProtocol();
-					return(ret);
-				}
-			});
+		BackingRecConstructor ctor = recConstructorsByClassCode[ backingClassCode ];
+		if( ctor == null ) {
+			throw new CFLibNullArgumentException( CFIntBuffSchema.class,
+				"instantiateRec",
+				1,
+				"recConstructorsByClassCode[" + backingClassCode + "]" );
 		}
-		else {
-			throw new CFLibNullArgumentException(CFIntBuffSchema.class, "wireRecConstructors", 0, "ICFIntSchema.getClassMapByBackingClassCode(ICFIntURLProtocol.CLASS_CODE)[" + ICFIntURLProtocol.CLASS_CODE + "]");
+		return( ctor.instantiate() );
+	}
+
+	/**
+	 *	Register the buffer record constructors with the class map.  The
+	 *	entries are shared by every schema, and another schema may have
+	 *	registered its own constructors since this one last ran, so every call
+	 *	registers all of them again.
+	 */
+	@Override
+	public void wireRecConstructors() {
+		ICFSecSchema.ClassMapEntry entry;
+		for( int classCode = 0; classCode < recConstructorsByClassCode.length; classCode ++ ) {
+			BackingRecConstructor ctor = recConstructorsByClassCode[ classCode ];
+			if( ctor == null ) {
+				continue;
+			}
+			entry = ICFIntSchema.getClassMapByBackingClassCode( classCode );
+			if( entry == null ) {
+				throw new CFLibNullArgumentException(CFIntBuffSchema.class, "wireRecConstructors", 0, "ICFIntSchema.getClassMapByBackingClassCode(classCode)[" + classCode + "]");
+			}
+			entry.setBackingRecConstructor( ctor );
 		}
-	
 	}
 
 	@Override
@@ -284,10 +277,10 @@ public class CFIntBuffSchema
 	tableISOCtryLang = null; // new CFSecBuffISOCtryLangTable();
 	tableISOLang = null; // new CFSecBuffISOLangTable();
 	tableISOTZone = null; // new CFSecBuffISOTZoneTable();
-	tableLicense = null; // new CFIntBuffLicenseTable();
-	tableMajorVersion = null; // new CFIntBuffMajorVersionTable();
-	tableMimeType = null; // new CFIntBuffMimeTypeTable();
-	tableMinorVersion = null; // new CFIntBuffMinorVersionTable();
+	tableLicense = new CFIntBuffLicenseTable( this );
+	tableMajorVersion = new CFIntBuffMajorVersionTable( this );
+	tableMimeType = new CFIntBuffMimeTypeTable( this );
+	tableMinorVersion = new CFIntBuffMinorVersionTable( this );
 	tableSecClusGrp = null; // new CFSecBuffSecClusGrpTable();
 	tableSecClusGrpInc = null; // new CFSecBuffSecClusGrpIncTable();
 	tableSecClusGrpMemb = null; // new CFSecBuffSecClusGrpMembTable();
@@ -303,13 +296,13 @@ public class CFIntBuffSchema
 	tableSecUserPWHistory = null; // new CFSecBuffSecUserPWHistoryTable();
 	tableSecUserPWReset = null; // new CFSecBuffSecUserPWResetTable();
 	tableSecUserPassword = null; // new CFSecBuffSecUserPasswordTable();
-	tableSubProject = null; // new CFIntBuffSubProjectTable();
+	tableSubProject = new CFIntBuffSubProjectTable( this );
 	tableSysCluster = null; // new CFSecBuffSysClusterTable();
 	tableTenant = null; // new CFSecBuffTenantTable();
-	tableTld = null; // new CFIntBuffTldTable();
-	tableTopDomain = null; // new CFIntBuffTopDomainTable();
-	tableTopProject = null; // new CFIntBuffTopProjectTable();
-	tableURLProtocol = null; // new CFIntBuffURLProtocolTable();
+	tableTld = new CFIntBuffTldTable( this );
+	tableTopDomain = new CFIntBuffTopDomainTable( this );
+	tableTopProject = new CFIntBuffTopProjectTable( this );
+	tableURLProtocol = new CFIntBuffURLProtocolTable( this );
 
 	factoryCluster = new CFSecBuffClusterDefaultFactory();
 	factoryISOCcy = new CFSecBuffISOCcyDefaultFactory();
@@ -416,7 +409,7 @@ public class CFIntBuffSchema
 	 *	@throws CFLibNotSupportedException thrown by client-side implementations.
 	 */
 	public int nextMimeTypeIdGen() {
-		throw new CFLibMustOverrideException(getClass(), "nextMimeTypeIdGen");
+		return( idGenMimeType.next() );
 	}
 
 	/**
@@ -427,7 +420,7 @@ public class CFIntBuffSchema
 	 *	@throws CFLibNotSupportedException thrown by client-side implementations.
 	 */
 	public int nextURLProtocolIdGen() {
-		throw new CFLibMustOverrideException(getClass(), "nextURLProtocolIdGen");
+		return( idGenURLProtocol.next() );
 	}
 
 	/**
@@ -438,7 +431,7 @@ public class CFIntBuffSchema
 	 *	@throws CFLibNotSupportedException thrown by client-side implementations.
 	 */
 	public CFLibDbKeyHash256 nextClusterIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( idGenCluster.next() );
 	}
 
 	/**
@@ -449,7 +442,7 @@ public class CFIntBuffSchema
 	 *	@throws CFLibNotSupportedException thrown by client-side implementations.
 	 */
 	public CFLibDbKeyHash256 nextSecSessionIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( idGenSecSession.next() );
 	}
 
 	/**
@@ -460,7 +453,7 @@ public class CFIntBuffSchema
 	 *	@throws CFLibNotSupportedException thrown by client-side implementations.
 	 */
 	public CFLibDbKeyHash256 nextSecUserIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( idGenSecUser.next() );
 	}
 
 	/**
@@ -471,7 +464,7 @@ public class CFIntBuffSchema
 	 *	@throws CFLibNotSupportedException thrown by client-side implementations.
 	 */
 	public CFLibDbKeyHash256 nextTenantIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( idGenTenant.next() );
 	}
 
 	/**
@@ -482,7 +475,7 @@ public class CFIntBuffSchema
 	 *	@throws CFLibNotSupportedException thrown by client-side implementations.
 	 */
 	public CFLibDbKeyHash256 nextSecSysGrpIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( idGenSecSysGrp.next() );
 	}
 
 	/**
@@ -493,7 +486,7 @@ public class CFIntBuffSchema
 	 *	@throws CFLibNotSupportedException thrown by client-side implementations.
 	 */
 	public CFLibDbKeyHash256 nextSecClusGrpIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( idGenSecClusGrp.next() );
 	}
 
 	/**
@@ -504,7 +497,7 @@ public class CFIntBuffSchema
 	 *	@throws CFLibNotSupportedException thrown by client-side implementations.
 	 */
 	public CFLibDbKeyHash256 nextSecTentGrpIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( idGenSecTentGrp.next() );
 	}
 
 	/**
@@ -515,7 +508,7 @@ public class CFIntBuffSchema
 	 *	@throws CFLibNotSupportedException thrown by client-side implementations.
 	 */
 	public CFLibDbKeyHash256 nextMajorVersionIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( idGenMajorVersion.next() );
 	}
 
 	/**
@@ -526,7 +519,7 @@ public class CFIntBuffSchema
 	 *	@throws CFLibNotSupportedException thrown by client-side implementations.
 	 */
 	public CFLibDbKeyHash256 nextMinorVersionIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( idGenMinorVersion.next() );
 	}
 
 	/**
@@ -537,7 +530,7 @@ public class CFIntBuffSchema
 	 *	@throws CFLibNotSupportedException thrown by client-side implementations.
 	 */
 	public CFLibDbKeyHash256 nextSubProjectIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( idGenSubProject.next() );
 	}
 
 	/**
@@ -548,7 +541,7 @@ public class CFIntBuffSchema
 	 *	@throws CFLibNotSupportedException thrown by client-side implementations.
 	 */
 	public CFLibDbKeyHash256 nextTldIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( idGenTld.next() );
 	}
 
 	/**
@@ -559,7 +552,7 @@ public class CFIntBuffSchema
 	 *	@throws CFLibNotSupportedException thrown by client-side implementations.
 	 */
 	public CFLibDbKeyHash256 nextTopDomainIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( idGenTopDomain.next() );
 	}
 
 	/**
@@ -570,7 +563,7 @@ public class CFIntBuffSchema
 	 *	@throws CFLibNotSupportedException thrown by client-side implementations.
 	 */
 	public CFLibDbKeyHash256 nextTopProjectIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( idGenTopProject.next() );
 	}
 
 	/**
@@ -581,7 +574,71 @@ public class CFIntBuffSchema
 	 *	@throws CFLibNotSupportedException thrown by client-side implementations.
 	 */
 	public CFLibDbKeyHash256 nextLicenseIdGen() {
-		return( new CFLibDbKeyHash256(0) );
+		return( idGenLicense.next() );
+	}
+
+	public CFIntBuffInt32IdGen getMimeTypeIdGen() {
+		return( idGenMimeType );
+	}
+
+	public CFIntBuffInt32IdGen getURLProtocolIdGen() {
+		return( idGenURLProtocol );
+	}
+
+	public CFIntBuffDbKeyHash256IdGen getClusterIdGen() {
+		return( idGenCluster );
+	}
+
+	public CFIntBuffDbKeyHash256IdGen getSecSessionIdGen() {
+		return( idGenSecSession );
+	}
+
+	public CFIntBuffDbKeyHash256IdGen getSecUserIdGen() {
+		return( idGenSecUser );
+	}
+
+	public CFIntBuffDbKeyHash256IdGen getTenantIdGen() {
+		return( idGenTenant );
+	}
+
+	public CFIntBuffDbKeyHash256IdGen getSecSysGrpIdGen() {
+		return( idGenSecSysGrp );
+	}
+
+	public CFIntBuffDbKeyHash256IdGen getSecClusGrpIdGen() {
+		return( idGenSecClusGrp );
+	}
+
+	public CFIntBuffDbKeyHash256IdGen getSecTentGrpIdGen() {
+		return( idGenSecTentGrp );
+	}
+
+	public CFIntBuffDbKeyHash256IdGen getMajorVersionIdGen() {
+		return( idGenMajorVersion );
+	}
+
+	public CFIntBuffDbKeyHash256IdGen getMinorVersionIdGen() {
+		return( idGenMinorVersion );
+	}
+
+	public CFIntBuffDbKeyHash256IdGen getSubProjectIdGen() {
+		return( idGenSubProject );
+	}
+
+	public CFIntBuffDbKeyHash256IdGen getTldIdGen() {
+		return( idGenTld );
+	}
+
+	public CFIntBuffDbKeyHash256IdGen getTopDomainIdGen() {
+		return( idGenTopDomain );
+	}
+
+	public CFIntBuffDbKeyHash256IdGen getTopProjectIdGen() {
+		return( idGenTopProject );
+	}
+
+	public CFIntBuffDbKeyHash256IdGen getLicenseIdGen() {
+		return( idGenLicense );
 	}
 
 	public ICFSecClusterTable getTableCluster() {
@@ -1145,6 +1202,263 @@ public class CFIntBuffSchema
 		CFSecBuffSchema.setTablePerms(value);
 	}
 
+	/**
+	 *	Get the host name trie maintained by the Tld and TopDomain buffer tables.
+	 *
+	 *	@return	The domain trie of this schema.
+	 */
+	public CFIntBuffDomainTrie getDomainTrie() {
+		return( domainTrie );
+	}
+
+	/**
+	 *	Get the id dictionary shared by the columnar history stores of the
+	 *	buffer tables.
+	 *
+	 *	@return	The history key dictionary of this schema.
+	 */
+	public CFIntBuffHistoryDictionary< CFLibDbKeyHash256 > getHistoryKeyDictionary() {
+		return( historyKeyDictionary );
+	}
+
+	/**
+	 *	Get the string pool shared by the columnar history stores of the
+	 *	buffer tables.
+	 *
+	 *	@return	The history string pool of this schema.
+	 */
+	public CFIntBuffHistoryDictionary< String > getHistoryStringPool() {
+		return( historyStringPool );
+	}
+
+	/**
+	 *	Get the history store of a buffer table.
+	 *
+	 *	@param	classCode	The class code of the table's entity.
+	 *	@return	The table's history store, or null if it keeps no history.
+	 */
+	public ICFIntBuffHistoryStore< ?, ? > getHistoryStore( int classCode ) {
+		for( ICFIntBuffSnapshotTable table : CFIntBuffSnapshotFile.getSnapshotTables( this ) ) {
+			if( ( table.getSnapshotClassCode() == classCode ) && ( table instanceof ICFIntBuffHistoryTable ) ) {
+				return( ( (ICFIntBuffHistoryTable)table ).getHistoryStore() );
+			}
+		}
+		return( null );
+	}
+
+	/**
+	 *	Dump the CFInt buffer tables to a snapshot file.
+	 *
+	 *	@param	path	The snapshot file to create or replace.
+	 */
+	public void writeSnapshot( Path path ) throws IOException {
+		CFIntBuffWriteAheadLog log = writeAheadLog;
+		CFIntBuffSnapshotFile.write( this, path, ( log != null ) ? log.getLastSequence() : 0L );
+	}
+
+	/**
+	 *	Map a snapshot file and attach its sections to the buffer tables.
+	 *	Rows are decoded when first read by primary key, or all at once by
+	 *	the first index lookup or write against their table, so a warm start
+	 *	only pays for the rows it touches.  Rows already in a table take
+	 *	precedence over the snapshot copy.
+	 *
+	 *	@param	path	The snapshot file.
+	 *	@return	The opened snapshot.
+	 */
+	public CFIntBuffSnapshotFile openSnapshot( Path path ) throws IOException {
+		CFIntBuffSnapshotFile file = CFIntBuffSnapshotFile.open( path );
+		for( ICFIntBuffSnapshotTable table : CFIntBuffSnapshotFile.getSnapshotTables( this ) ) {
+			table.attachSnapshot( file.getSection( table.getSnapshotClassCode() ) );
+		}
+		return( file );
+	}
+
+	protected volatile CFIntBuffWriteAheadLog writeAheadLog = null;
+
+	/**
+	 *	Get the write-ahead log the buffer tables append their changes to.
+	 *
+	 *	@return	The log, or null if changes are not logged.
+	 */
+	public CFIntBuffWriteAheadLog getWriteAheadLog() {
+		return( writeAheadLog );
+	}
+
+	/**
+	 *	Set the write-ahead log.  Set it before the tables are written to;
+	 *	changes made while no log is set are not recoverable.
+	 *
+	 *	@param	value	The log, or null to stop logging.
+	 */
+	public void setWriteAheadLog( CFIntBuffWriteAheadLog value ) {
+		writeAheadLog = value;
+	}
+
+	/**
+	 *	Restore the buffer tables from a snapshot and a write-ahead log, then
+	 *	keep logging to that log.  Either file may be missing: without a
+	 *	snapshot the whole log is replayed, and without a log a new one is
+	 *	started.
+	 *
+	 *	@param	snapshotPath	The snapshot file, or null.
+	 *	@param	logPath	The write-ahead log file.
+	 *	@param	groupCommitMicros	The group commit delay of the log.
+	 *	@return	The opened log.
+	 */
+	public CFIntBuffWriteAheadLog recover( Path snapshotPath, Path logPath, int groupCommitMicros ) throws IOException {
+		long afterSequence = 0L;
+		if( ( snapshotPath != null ) && Files.exists( snapshotPath ) ) {
+			afterSequence = openSnapshot( snapshotPath ).getLogSequence();
+		}
+		CFIntBuffWriteAheadLog log = CFIntBuffWriteAheadLog.open( logPath, groupCommitMicros );
+		try {
+			log.replay( afterSequence, this::replayLogRecord );
+		}
+		catch( IOException | RuntimeException e ) {
+			log.close();
+			throw e;
+		}
+		setWriteAheadLog( log );
+		return( log );
+	}
+
+	/**
+	 *	Write a snapshot and drop the log records it covers.
+	 *
+	 *	@param	snapshotPath	The snapshot file to create or replace.
+	 */
+	public void checkpoint( Path snapshotPath ) throws IOException {
+		CFIntBuffWriteAheadLog log = writeAheadLog;
+		long seq = ( log != null ) ? log.getLastSequence() : 0L;
+		CFIntBuffSnapshotFile.write( this, snapshotPath, seq );
+		if( log != null ) {
+			log.discardThrough( seq );
+		}
+	}
+
+	/**
+	 *	Evict a tenant's rows from every tenant buffer table, children
+	 *	before the rows they refer to.  Other tenants keep reading and
+	 *	writing throughout, as each table's eviction only takes the write
+	 *	lock of the evicted tenant.
+	 *
+	 *	@param	TenantId	The tenant to evict.
+	 *	@return	The number of rows evicted.
+	 */
+	public int evictTenant( CFLibDbKeyHash256 TenantId ) {
+		if( TenantId == null ) {
+			throw new CFLibNullArgumentException( getClass(), "evictTenant", 1, "TenantId" );
+		}
+		int evicted = 0;
+		for( Object table : new Object[] {
+			getTableMinorVersion(),
+			getTableMajorVersion(),
+			getTableSubProject(),
+			getTableTopProject(),
+			getTableLicense(),
+			getTableTopDomain(),
+			getTableTld() } )
+		{
+			if( table instanceof ICFIntBuffTenantTable ) {
+				evicted += ( (ICFIntBuffTenantTable)table ).evictTenant( TenantId );
+			}
+		}
+		return( evicted );
+	}
+
+	protected void replayLogRecord( long sequence, byte op, int classCode, ByteBuffer payload ) {
+		for( ICFIntBuffSnapshotTable table : CFIntBuffSnapshotFile.getSnapshotTables( this ) ) {
+			if( table.getSnapshotClassCode() == classCode ) {
+				if( op == CFIntBuffWriteAheadLog.OP_PUT ) {
+					table.replayPut( payload );
+				}
+				else if( op == CFIntBuffWriteAheadLog.OP_DELETE ) {
+					table.replayDelete( payload );
+				}
+				else if( ( op == CFIntBuffWriteAheadLog.OP_EVICT_TENANT ) && ( table instanceof ICFIntBuffTenantTable ) ) {
+					( (ICFIntBuffTenantTable)table ).replayEvictTenant( payload );
+				}
+				else {
+					throw new CFLibArgumentOverflowException( getClass(),
+						"replayLogRecord",
+						2,
+						"op",
+						op,
+						CFIntBuffWriteAheadLog.OP_EVICT_TENANT );
+				}
+				return;
+			}
+		}
+		throw new CFLibUnsupportedClassException( getClass(),
+			"replayLogRecord",
+			"classCode",
+			Integer.valueOf( classCode ),
+			"ICFIntBuffSnapshotTable" );
+	}
+
+	protected static volatile boolean navigationCacheEnabled = true;
+
+	/**
+	 *	Check whether the buffer records cache the container records they
+	 *	resolve through getRequiredContainer*().  While enabled those getters
+	 *	return shared read-only CFIntBuff*View records, which throw on any
+	 *	setter.  A hit needs no read when the backing table is an
+	 *	ICFIntBuffRevisionSource; over any other table the row is read and
+	 *	its requiredRevision decides whether the shared record still stands.
+	 *
+	 *	@return	true if navigation caching is enabled.
+	 */
+	public static boolean isNavigationCacheEnabled() {
+		return( navigationCacheEnabled );
+	}
+
+	/**
+	 *	Enable or disable the navigation cache of the buffer records.
+	 *
+	 *	@param	value	true to cache resolved container references.
+	 */
+	public static void setNavigationCacheEnabled( boolean value ) {
+		navigationCacheEnabled = value;
+	}
+
+	protected static volatile boolean keyInterningEnabled = false;
+
+	/**
+	 *	Check whether the buffer records canonicalize their tenant and
+	 *	container ids through CFIntBuffWeakInterner.KEYS.
+	 *
+	 *	@return	true if key interning is enabled.
+	 */
+	public static boolean isKeyInterningEnabled() {
+		return( keyInterningEnabled );
+	}
+
+	/**
+	 *	Enable or disable canonicalization of the tenant and container ids
+	 *	assigned through the buffer record setters.  Interning costs a pool
+	 *	lookup per assignment, so it pays off for large, long-lived caches
+	 *	where the same few ids are repeated across many rows.
+	 *
+	 *	@param	value	true to intern tenant and container ids.
+	 */
+	public static void setKeyInterningEnabled( boolean value ) {
+		keyInterningEnabled = value;
+	}
+
+	/**
+	 *	Get the canonical instance of an id when key interning is enabled.
+	 *
+	 *	@param	value	The id to canonicalize; may be null.
+	 *	@return	The canonical id, or value itself when interning is disabled.
+	 */
+	public static CFLibDbKeyHash256 canonicalKey( CFLibDbKeyHash256 value ) {
+		if( keyInterningEnabled ) {
+			return( CFIntBuffWeakInterner.KEYS.intern( value ) );
+		}
+		return( value );
+	}
+
 	public static String xmlEncodeString( String val ) {
 		StringBuffer buff = new StringBuffer();
 		int len = val.length();
@@ -0,0 +1,593 @@
+// Description: Java 25 memory-mapped snapshot file for the CFInt buffer tables.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/*
+ *	CFIntBuffSnapshotFile dumps the CFInt buffer tables to one file and maps
+ *	it back in on startup.  Nothing is decoded when the file is opened; each
+ *	table gets a Section and decodes rows as they are first touched.
+ *
+ *	The file starts with a header and a fixed-size section directory:
+ *
+ *	<pre>
+ *	int	MAGIC
+ *	int	FORMAT_VERSION
+ *	int	sectionCount
+ *	long	logSequence
+ *	sectionCount times:
+ *		int	classCode
+ *		int	rowCount
+ *		int	keyWidth
+ *		int	indexCount
+ *		long	dataOffset
+ *		long	dataLength
+ *		long	indexOffset
+ *		long	secondaryOffset
+ *	</pre>
+ *
+ *	Each section has a data region holding the rows in their
+ *	CFIntBuff*Codec form, followed by an index of fixed-width entries
+ *	sorted by primary key.  An entry is the raw key (32 hash bytes or a
+ *	4-byte int) followed by the int offset and int length of the row
+ *	within the data region, so a key lookup is a binary search over the
+ *	mapped index.  A row's number is the position of its entry.
+ *
+ *	The primary key index is followed by indexCount secondary indexes,
+ *	one after the other, each holding an entry per row of the 32 raw
+ *	bytes of a foreign key (the owning tenant or the container) and the
+ *	int row number, sorted by key and then row.  A table can then decode
+ *	just the rows of one tenant or container with a binary search and a
+ *	scan.  Each region is mapped separately and must stay under 2GB.
+ */
+public class CFIntBuffSnapshotFile
+{
+	public final static int MAGIC = 0x43464953;
+	public final static int FORMAT_VERSION = 3;
+
+	public final static int HASH_KEY_WIDTH = CFIntBuffCodec.KEY_BYTES;
+	public final static int INT_KEY_WIDTH = 4;
+
+	protected final static int HEADER_SIZE = 4 + 4 + 4 + 8;
+	protected final static int DIRECTORY_ENTRY_SIZE = 4 + 4 + 4 + 4 + 8 + 8 + 8 + 8;
+	protected final static int SECONDARY_ENTRY_SIZE = HASH_KEY_WIDTH + 4;
+
+	protected final Path path;
+	protected final long logSequence;
+	protected final Map< Integer, Section > sectionsByClassCode;
+
+	protected CFIntBuffSnapshotFile( Path argPath, long argLogSequence, Map< Integer, Section > argSections ) {
+		path = argPath;
+		logSequence = argLogSequence;
+		sectionsByClassCode = argSections;
+	}
+
+	public Path getPath() {
+		return( path );
+	}
+
+	/**
+	 *	Get the last write-ahead log sequence the snapshot is known to
+	 *	contain.  Replaying the log from after this sequence brings the
+	 *	tables up to date.
+	 *
+	 *	@return	The log sequence, or 0 if no log was in use.
+	 */
+	public long getLogSequence() {
+		return( logSequence );
+	}
+
+	/**
+	 *	Get the section holding an entity's rows.
+	 *
+	 *	@param	classCode	The entity class code.
+	 *	@return	The section, or null if the file has none for the entity.
+	 */
+	public Section getSection( int classCode ) {
+		return( sectionsByClassCode.get( classCode ) );
+	}
+
+	/**
+	 *	Write the rows of every CFInt buffer table in schema to path.
+	 *	The file is written beside path and moved into place once it is
+	 *	complete, so a crash never leaves a partial snapshot behind.  Each
+	 *	table is copied under its own write lock; quiesce writers first if
+	 *	the tables must be consistent with each other.
+	 *
+	 *	@param	schema	The schema to dump.
+	 *	@param	path	The snapshot file to create or replace.
+	 *	@param	logSequence	The last write-ahead log sequence already
+	 *		applied to the tables when the dump starts, or 0.
+	 */
+	public static void write( CFIntBuffSchema schema, Path path, long logSequence ) throws IOException {
+		if( schema == null ) {
+			throw new CFLibNullArgumentException( CFIntBuffSnapshotFile.class,
+				"write",
+				1,
+				"schema" );
+		}
+		write( getSnapshotTables( schema ), path, logSequence );
+	}
+
+	/**
+	 *	Write the rows of a list of tables to path, one section per table
+	 *	in list order.
+	 *
+	 *	@param	tables	The tables to dump.
+	 *	@param	path	The snapshot file to create or replace.
+	 *	@param	logSequence	The last write-ahead log sequence already
+	 *		applied to the tables when the dump starts, or 0.
+	 */
+	public static void write( List< ? extends ICFIntBuffSnapshotTable > tables, Path path, long logSequence ) throws IOException {
+		Path tmpPath = path.resolveSibling( path.getFileName().toString() + ".tmp" );
+		try( FileChannel channel = FileChannel.open( tmpPath,
+			StandardOpenOption.CREATE,
+			StandardOpenOption.TRUNCATE_EXISTING,
+			StandardOpenOption.WRITE ) )
+		{
+			long dirSize = HEADER_SIZE + (long)DIRECTORY_ENTRY_SIZE * tables.size();
+			channel.position( dirSize );
+			ByteBuffer dir = ByteBuffer.allocate( (int)dirSize );
+			dir.putInt( MAGIC );
+			dir.putInt( FORMAT_VERSION );
+			dir.putInt( tables.size() );
+			dir.putLong( logSequence );
+			for( ICFIntBuffSnapshotTable table : tables ) {
+				SectionWriter writer = new SectionWriter( channel,
+					table.getSnapshotClassCode(),
+					table.getSnapshotKeyWidth(),
+					table.getSnapshotIndexCount() );
+				table.writeSnapshotSection( writer );
+				writer.finish( dir );
+			}
+			dir.flip();
+			long pos = 0;
+			while( dir.hasRemaining() ) {
+				pos += channel.write( dir, pos );
+			}
+			channel.force( true );
+		}
+		Files.move( tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+	}
+
+	/**
+	 *	Get the tables of a schema that can be written to a snapshot, in
+	 *	the order their sections are written.
+	 *
+	 *	@param	schema	The schema.
+	 *	@return	The buffer tables the schema is currently using.
+	 */
+	public static ArrayList< ICFIntBuffSnapshotTable > getSnapshotTables( CFIntBuffSchema schema ) {
+		ArrayList< ICFIntBuffSnapshotTable > tables = new ArrayList<>();
+		for( Object table : new Object[] {
+			schema.getTableLicense(),
+			schema.getTableMajorVersion(),
+			schema.getTableMimeType(),
+			schema.getTableMinorVersion(),
+			schema.getTableSubProject(),
+			schema.getTableTld(),
+			schema.getTableTopDomain(),
+			schema.getTableTopProject(),
+			schema.getTableURLProtocol() } )
+		{
+			if( table instanceof ICFIntBuffSnapshotTable ) {
+				tables.add( (ICFIntBuffSnapshotTable)table );
+			}
+		}
+		return( tables );
+	}
+
+	/**
+	 *	Map a snapshot file.  Only the directory is read; the rows stay in
+	 *	the page cache until a table touches them.
+	 *
+	 *	@param	path	The snapshot file.
+	 *	@return	The opened snapshot.
+	 */
+	public static CFIntBuffSnapshotFile open( Path path ) throws IOException {
+		final String S_ProcName = "open";
+		try( FileChannel channel = FileChannel.open( path, StandardOpenOption.READ ) ) {
+			ByteBuffer head = ByteBuffer.allocate( HEADER_SIZE );
+			readFully( channel, head, 0 );
+			head.flip();
+			if( head.getInt() != MAGIC ) {
+				throw new StreamCorruptedException( path + " is not a CFInt buffer snapshot" );
+			}
+			int version = head.getInt();
+			if( version != FORMAT_VERSION ) {
+				throw new CFLibArgumentOverflowException( CFIntBuffSnapshotFile.class,
+					S_ProcName,
+					1,
+					"version",
+					version,
+					FORMAT_VERSION );
+			}
+			int sectionCount = head.getInt();
+			long logSequence = head.getLong();
+			ByteBuffer dir = ByteBuffer.allocate( DIRECTORY_ENTRY_SIZE * sectionCount );
+			readFully( channel, dir, HEADER_SIZE );
+			dir.flip();
+			HashMap< Integer, Section > sections = new HashMap<>();
+			for( int idx = 0; idx < sectionCount; idx++ ) {
+				int classCode = dir.getInt();
+				int rowCount = dir.getInt();
+				int keyWidth = dir.getInt();
+				int indexCount = dir.getInt();
+				long dataOffset = dir.getLong();
+				long dataLength = dir.getLong();
+				long indexOffset = dir.getLong();
+				long secondaryOffset = dir.getLong();
+				long indexLength = (long)rowCount * ( keyWidth + 8 );
+				long secondaryLength = (long)indexCount * rowCount * SECONDARY_ENTRY_SIZE;
+				// A mapping remains valid after the channel that created it is closed
+				ByteBuffer data = channel.map( FileChannel.MapMode.READ_ONLY, dataOffset, dataLength );
+				ByteBuffer index = channel.map( FileChannel.MapMode.READ_ONLY, indexOffset, indexLength );
+				ByteBuffer secondary = channel.map( FileChannel.MapMode.READ_ONLY, secondaryOffset, secondaryLength );
+				sections.put( classCode, new Section( classCode, rowCount, keyWidth, indexCount, data, index, secondary ) );
+			}
+			return( new CFIntBuffSnapshotFile( path, logSequence, sections ) );
+		}
+	}
+
+	protected static void readFully( FileChannel channel, ByteBuffer dst, long pos ) throws IOException {
+		while( dst.hasRemaining() ) {
+			int n = channel.read( dst, pos );
+			if( n < 0 ) {
+				throw new EOFException();
+			}
+			pos += n;
+		}
+	}
+
+	/*
+	 *	Streams one table's rows into the data region and remembers their
+	 *	index entries, which are sorted and written after the data.
+	 */
+	public static class SectionWriter
+	{
+		protected final FileChannel channel;
+		protected final int classCode;
+		protected final int keyWidth;
+		protected final int indexCount;
+		protected final long dataOffset;
+		protected final ArrayList< IndexEntry > entries = new ArrayList<>();
+		protected long dataLength = 0;
+
+		protected SectionWriter( FileChannel argChannel, int argClassCode, int argKeyWidth, int argIndexCount ) throws IOException {
+			channel = argChannel;
+			classCode = argClassCode;
+			keyWidth = argKeyWidth;
+			indexCount = argIndexCount;
+			dataOffset = argChannel.position();
+		}
+
+		/**
+		 *	Add a row keyed by a hash.
+		 *
+		 *	@param	key	The primary key.
+		 *	@param	encoded	The row in its CFIntBuff*Codec form.
+		 *	@param	indexKeys	The row's key in each secondary index of the
+		 *		section, in the order the table numbers them.
+		 */
+		public void addRow( CFLibDbKeyHash256 key, ByteBuffer encoded, CFLibDbKeyHash256... indexKeys ) throws IOException {
+			addRow( CFIntBuffCodec.toKeyBytes( key, new byte[ HASH_KEY_WIDTH ] ), encoded, indexKeys );
+		}
+
+		public void addRow( int key, ByteBuffer encoded, CFLibDbKeyHash256... indexKeys ) throws IOException {
+			addRow( ByteBuffer.allocate( INT_KEY_WIDTH ).putInt( key ^ Integer.MIN_VALUE ).array(), encoded, indexKeys );
+		}
+
+		protected void addRow( byte[] key, ByteBuffer encoded, CFLibDbKeyHash256[] indexKeys ) throws IOException {
+			if( indexKeys.length != indexCount ) {
+				throw new CFLibArgumentOverflowException( getClass(),
+					"addRow",
+					3,
+					"indexKeys.length",
+					indexKeys.length,
+					indexCount );
+			}
+			byte[][] indexBytes = new byte[ indexCount ][];
+			for( int i = 0; i < indexCount; i++ ) {
+				// A null foreign key is written as zeroes, which no lookup asks for
+				indexBytes[i] = new byte[ HASH_KEY_WIDTH ];
+				if( ( indexKeys[i] != null ) && ! indexKeys[i].isNull() ) {
+					CFIntBuffCodec.toKeyBytes( indexKeys[i], indexBytes[i] );
+				}
+			}
+			int len = encoded.remaining();
+			if( dataLength + len > Integer.MAX_VALUE ) {
+				throw new CFLibArgumentOverflowException( getClass(),
+					"addRow",
+					2,
+					"encoded.remaining()",
+					len,
+					(int)( Integer.MAX_VALUE - dataLength ) );
+			}
+			entries.add( new IndexEntry( key, (int)dataLength, len, indexBytes ) );
+			while( encoded.hasRemaining() ) {
+				channel.write( encoded );
+			}
+			dataLength += len;
+		}
+
+		protected void finish( ByteBuffer dir ) throws IOException {
+			entries.sort( ( lhs, rhs ) -> Arrays.compareUnsigned( lhs.key, rhs.key ) );
+			long indexOffset = channel.position();
+			ByteBuffer index = ByteBuffer.allocate( entries.size() * ( keyWidth + 8 ) );
+			for( IndexEntry entry : entries ) {
+				index.put( entry.key );
+				index.putInt( entry.offset );
+				index.putInt( entry.length );
+			}
+			index.flip();
+			while( index.hasRemaining() ) {
+				channel.write( index );
+			}
+			long secondaryOffset = channel.position();
+			for( int idx = 0; idx < indexCount; idx++ ) {
+				writeSecondary( idx );
+			}
+			dir.putInt( classCode );
+			dir.putInt( entries.size() );
+			dir.putInt( keyWidth );
+			dir.putInt( indexCount );
+			dir.putLong( dataOffset );
+			dir.putLong( dataLength );
+			dir.putLong( indexOffset );
+			dir.putLong( secondaryOffset );
+		}
+
+		/**
+		 *	Write one secondary index.  The entries must already be in
+		 *	primary key order, which gives each row its number.
+		 */
+		protected void writeSecondary( int idx ) throws IOException {
+			Integer[] rows = new Integer[ entries.size() ];
+			for( int row = 0; row < rows.length; row++ ) {
+				rows[ row ] = row;
+			}
+			Arrays.sort( rows, ( lhs, rhs ) -> {
+				int cmp = Arrays.compareUnsigned( entries.get( lhs ).indexKeys[ idx ], entries.get( rhs ).indexKeys[ idx ] );
+				return( ( cmp != 0 ) ? cmp : Integer.compare( lhs, rhs ) );
+			} );
+			ByteBuffer secondary = ByteBuffer.allocate( rows.length * SECONDARY_ENTRY_SIZE );
+			for( Integer row : rows ) {
+				secondary.put( entries.get( row ).indexKeys[ idx ] );
+				secondary.putInt( row );
+			}
+			secondary.flip();
+			while( secondary.hasRemaining() ) {
+				channel.write( secondary );
+			}
+		}
+	}
+
+	protected record IndexEntry( byte[] key, int offset, int length, byte[][] indexKeys ) {
+	}
+
+	/*
+	 *	The mapped rows of one table.  A row is claimed exactly once, when
+	 *	its table decodes it; after that the table owns the row and the
+	 *	snapshot copy is never consulted again.
+	 */
+	public static class Section
+	{
+		protected final int classCode;
+		protected final int rowCount;
+		protected final int keyWidth;
+		protected final int indexCount;
+		protected final ByteBuffer data;
+		protected final ByteBuffer index;
+		protected final ByteBuffer secondary;
+		protected final BitSet claimed;
+		protected int claimedCount = 0;
+
+		protected Section( int argClassCode,
+			int argRowCount,
+			int argKeyWidth,
+			int argIndexCount,
+			ByteBuffer argData,
+			ByteBuffer argIndex,
+			ByteBuffer argSecondary )
+		{
+			classCode = argClassCode;
+			rowCount = argRowCount;
+			keyWidth = argKeyWidth;
+			indexCount = argIndexCount;
+			data = argData;
+			index = argIndex;
+			secondary = argSecondary;
+			claimed = new BitSet( argRowCount );
+		}
+
+		public int getClassCode() {
+			return( classCode );
+		}
+
+		public int getRowCount() {
+			return( rowCount );
+		}
+
+		public int getIndexCount() {
+			return( indexCount );
+		}
+
+		public synchronized int getUnclaimedCount() {
+			return( rowCount - claimedCount );
+		}
+
+		public int findRow( CFLibDbKeyHash256 key ) {
+			if( ( key == null ) || key.isNull() || ( keyWidth != HASH_KEY_WIDTH ) ) {
+				return( -1 );
+			}
+			return( findRow( CFIntBuffCodec.toKeyBytes( key, new byte[ HASH_KEY_WIDTH ] ) ) );
+		}
+
+		public int findRow( int key ) {
+			if( keyWidth != INT_KEY_WIDTH ) {
+				return( -1 );
+			}
+			return( findRow( ByteBuffer.allocate( INT_KEY_WIDTH ).putInt( key ^ Integer.MIN_VALUE ).array() ) );
+		}
+
+		/**
+		 *	Binary search the mapped index for a raw key.
+		 *
+		 *	@param	key	The raw key bytes.
+		 *	@return	The row number, or -1 if the key is not in the section.
+		 */
+		protected int findRow( byte[] key ) {
+			int entryWidth = keyWidth + 8;
+			int lo = 0;
+			int hi = rowCount - 1;
+			while( lo <= hi ) {
+				int mid = ( lo + hi ) >>> 1;
+				int base = mid * entryWidth;
+				int cmp = 0;
+				for( int i = 0; ( cmp == 0 ) && ( i < keyWidth ); i++ ) {
+					cmp = Integer.compare( index.get( base + i ) & 0xff, key[ i ] & 0xff );
+				}
+				if( cmp < 0 ) {
+					lo = mid + 1;
+				}
+				else if( cmp > 0 ) {
+					hi = mid - 1;
+				}
+				else {
+					return( mid );
+				}
+			}
+			return( -1 );
+		}
+
+		/**
+		 *	Find the rows whose key in a secondary index is key.  The index
+		 *	describes the rows as they were written; a table that has since
+		 *	changed a row's key has already claimed it.
+		 *
+		 *	@param	idx	The secondary index, numbered as the table wrote it.
+		 *	@param	key	The foreign key.
+		 *	@return	The row numbers in ascending order, possibly empty.
+		 */
+		public int[] findRows( int idx, CFLibDbKeyHash256 key ) {
+			if( ( key == null ) || key.isNull() || ( idx < 0 ) || ( idx >= indexCount ) ) {
+				return( new int[0] );
+			}
+			byte[] raw = CFIntBuffCodec.toKeyBytes( key, new byte[ HASH_KEY_WIDTH ] );
+			int regionBase = idx * rowCount * SECONDARY_ENTRY_SIZE;
+			// Find the first entry not below key
+			int lo = 0;
+			int hi = rowCount;
+			while( lo < hi ) {
+				int mid = ( lo + hi ) >>> 1;
+				if( compareSecondary( regionBase + mid * SECONDARY_ENTRY_SIZE, raw ) < 0 ) {
+					lo = mid + 1;
+				}
+				else {
+					hi = mid;
+				}
+			}
+			int end = lo;
+			while( ( end < rowCount ) && ( compareSecondary( regionBase + end * SECONDARY_ENTRY_SIZE, raw ) == 0 ) ) {
+				end++;
+			}
+			int[] rows = new int[ end - lo ];
+			for( int i = lo; i < end; i++ ) {
+				rows[ i - lo ] = secondary.getInt( regionBase + i * SECONDARY_ENTRY_SIZE + HASH_KEY_WIDTH );
+			}
+			return( rows );
+		}
+
+		protected int compareSecondary( int base, byte[] key ) {
+			int cmp = 0;
+			for( int i = 0; ( cmp == 0 ) && ( i < HASH_KEY_WIDTH ); i++ ) {
+				cmp = Integer.compare( secondary.get( base + i ) & 0xff, key[ i ] & 0xff );
+			}
+			return( cmp );
+		}
+
+		/**
+		 *	Get a read-only view of an encoded row, positioned at its header.
+		 *
+		 *	@param	row	The row number.
+		 *	@return	The encoded row.
+		 */
+		public ByteBuffer getRow( int row ) {
+			int base = row * ( keyWidth + 8 ) + keyWidth;
+			int offset = index.getInt( base );
+			int length = index.getInt( base + 4 );
+			return( data.slice( offset, length ) );
+		}
+
+		/**
+		 *	Claim a row for decoding.
+		 *
+		 *	@param	row	The row number.
+		 *	@return	True if the caller is the first to claim the row.
+		 */
+		public synchronized boolean claim( int row ) {
+			if( claimed.get( row ) ) {
+				return( false );
+			}
+			claimed.set( row );
+			claimedCount++;
+			return( true );
+		}
+
+		/**
+		 *	Check whether every one of a set of rows has been claimed.
+		 *
+		 *	@param	rows	The row numbers.
+		 *	@return	True if there is nothing left to decode among them.
+		 */
+		public synchronized boolean isClaimed( int[] rows ) {
+			for( int row : rows ) {
+				if( ! claimed.get( row ) ) {
+					return( false );
+				}
+			}
+			return( true );
+		}
+
+		/**
+		 *	Get the next row nobody has claimed yet.
+		 *
+		 *	@param	from	The row number to start at.
+		 *	@return	The row number, or -1 when every row has been claimed.
+		 */
+		public synchronized int nextUnclaimed( int from ) {
+			int ret = claimed.nextClearBit( from );
+			return( ( ret < rowCount ) ? ret : -1 );
+		}
+	}
+}
@@ -34,6 +34,7 @@ import java.sql.*;
 import java.text.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.text.StringEscapeUtils;
 import server.markhome.mcf.v3_1.cflib.*;
@@ -44,23 +45,38 @@ import server.markhome.mcf.v3_1.cfint.cfint.*;
 import server.markhome.mcf.v3_1.cfsec.cfsec.buff.*;
 
 public class CFIntBuffSubProject
-	implements ICFIntSubProject, Comparable<Object>, Serializable
+	implements ICFIntSubProject, Comparable<Object>, Externalizable
 {
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffSubProject, LocalDateTime> CREATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffSubProject.class, LocalDateTime.class, "createdAt" );
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffSubProject, LocalDateTime> UPDATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffSubProject.class, LocalDateTime.class, "updatedAt" );
+
+	public final static CFIntBuffPKeyIdentity<ICFIntSubProject> PKEY_IDENTITY =
+		CFIntBuffPKeyIdentity.forHashKey( ICFIntSubProject::getRequiredId, ICFIntSubProject::getRequiredRevision );
+
+	protected final static CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex( ICFIntSubProject.S_INIT_CREATED_BY );
+	protected final static CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex( ICFIntSubProject.S_INIT_UPDATED_BY );
+
 	protected CFLibDbKeyHash256 requiredId;
 	protected int requiredRevision;
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFIntSubProject.S_INIT_CREATED_BY);
-	protected LocalDateTime createdAt = LocalDateTime.now();
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFIntSubProject.S_INIT_UPDATED_BY);
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
+	protected volatile LocalDateTime createdAt = null;
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
+	protected volatile LocalDateTime updatedAt = null;
 	protected CFLibDbKeyHash256 requiredTenantId;
 	protected CFLibDbKeyHash256 requiredTopProjectId;
 	protected String requiredName;
 	protected String optionalDescription;
 
+	protected transient CFIntBuffResolvedRef<ICFIntTopProject> resolvedContainerParentTPrj = null;
+	protected transient int cachedHashCode = 0;
+	protected transient volatile CFIntBuffSubProjectSnapshot cachedSnapshot = null;
+
 	public CFIntBuffSubProject() {
-		requiredId = CFLibDbKeyHash256.fromHex( ICFIntSubProject.ID_INIT_VALUE.toString() );
-		requiredTenantId = CFLibDbKeyHash256.fromHex( ICFIntSubProject.TENANTID_INIT_VALUE.toString() );
-		requiredTopProjectId = CFLibDbKeyHash256.fromHex( ICFIntSubProject.TOPPROJECTID_INIT_VALUE.toString() );
+		requiredId = ICFIntSubProject.ID_INIT_VALUE;
+		requiredTenantId = ICFIntSubProject.TENANTID_INIT_VALUE;
+		requiredTopProjectId = ICFIntSubProject.TOPPROJECTID_INIT_VALUE;
 		requiredName = ICFIntSubProject.NAME_INIT_VALUE;
 		optionalDescription = null;
 	}
@@ -73,6 +89,8 @@ public class CFIntBuffSubProject
 	@Override
 	public void setPKey(CFLibDbKeyHash256 requiredId) {
 		this.requiredId = requiredId;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -89,6 +107,8 @@ public class CFIntBuffSubProject
 				"value" );
 		}
 		requiredId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -99,16 +119,26 @@ public class CFIntBuffSubProject
 	@Override
 	public void setCreatedByUserId( CFLibDbKeyHash256 value ) {
 		createdByUserId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
 	public LocalDateTime getCreatedAt() {
-		return( createdAt );
+		LocalDateTime value = createdAt;
+		if( value == null ) {
+			// The first reader stamps it, and every reader sees that one stamp
+			CREATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+			value = createdAt;
+		}
+		return( value );
 	}
 
 	@Override
 	public void setCreatedAt( LocalDateTime value ) {
 		createdAt = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -119,16 +149,26 @@ public class CFIntBuffSubProject
 	@Override
 	public void setUpdatedByUserId( CFLibDbKeyHash256 value ) {
 		updatedByUserId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
 	public LocalDateTime getUpdatedAt() {
-		return( updatedAt );
+		LocalDateTime value = updatedAt;
+		if( value == null ) {
+			// The first reader stamps it, and every reader sees that one stamp
+			UPDATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+			value = updatedAt;
+		}
+		return( value );
 	}
 
 	@Override
 	public void setUpdatedAt( LocalDateTime value ) {
 		updatedAt = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 	@Override
 	public int getRequiredRevision() {
@@ -138,6 +178,8 @@ public class CFIntBuffSubProject
 	@Override
 	public void setRequiredRevision( int value ) {
 		requiredRevision = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -168,6 +210,77 @@ public class CFIntBuffSubProject
 			return( results );
 		}
 	}
+
+	/**
+	 *	Get the MajorVersion components as an unmodifiable view over the array read
+	 *	from the table, without copying it into a new list.
+	 *
+	 *	@return	The components; an empty shared list if there are none.
+	 */
+	public List<ICFIntMajorVersion> getOptionalComponentsMajorVerView() {
+		ICFIntSchema targetBackingSchema = ICFIntSchema.getBackingCFInt();
+		if (targetBackingSchema == null) {
+			throw new CFLibNullArgumentException(getClass(), "getOptionalComponentsMajorVerView", 0, "ICFIntSchema.getBackingCFInt()");
+		}
+		ICFIntMajorVersionTable targetTable = targetBackingSchema.getTableMajorVersion();
+		if (targetTable == null) {
+			throw new CFLibNullArgumentException(getClass(), "getOptionalComponentsMajorVerView", 0, "ICFIntSchema.getBackingCFInt().getTableMajorVersion()");
+		}
+		ICFIntMajorVersion[] targetArr = targetTable.readDerivedBySubProjectIdx(null, getRequiredId());
+		if( ( targetArr == null ) || ( targetArr.length == 0 ) ) {
+			return( Collections.emptyList() );
+		}
+		return( Collections.unmodifiableList(Arrays.asList(targetArr)) );
+	}
+
+	/**
+	 *	Read the MajorVersion components of several SubProject records at once.  When the
+	 *	backing table is a buffer table all of the parents are resolved in a
+	 *	single pass over its BySubProjectIdx; otherwise each parent is read in turn.
+	 *
+	 *	@param	parents	The SubProject records whose components are wanted.
+	 *
+	 *	@return	A map from each parent id to its components, in argument order.
+	 */
+	public static Map<CFLibDbKeyHash256, List<ICFIntMajorVersion>> readOptionalComponentsMajorVer( Collection<? extends ICFIntSubProject> parents ) {
+		if (parents == null) {
+			throw new CFLibNullArgumentException(CFIntBuffSubProject.class, "readOptionalComponentsMajorVer", 1, "parents");
+		}
+		ICFIntSchema targetBackingSchema = ICFIntSchema.getBackingCFInt();
+		if (targetBackingSchema == null) {
+			throw new CFLibNullArgumentException(CFIntBuffSubProject.class, "readOptionalComponentsMajorVer", 0, "ICFIntSchema.getBackingCFInt()");
+		}
+		ICFIntMajorVersionTable targetTable = targetBackingSchema.getTableMajorVersion();
+		if (targetTable == null) {
+			throw new CFLibNullArgumentException(CFIntBuffSubProject.class, "readOptionalComponentsMajorVer", 0, "ICFIntSchema.getBackingCFInt().getTableMajorVersion()");
+		}
+		List<CFLibDbKeyHash256> parentIds = new ArrayList<>(parents.size());
+		for (ICFIntSubProject parent : parents) {
+			parentIds.add(parent.getRequiredId());
+		}
+		if (targetTable instanceof CFIntBuffMajorVersionTable) {
+			return( ((CFIntBuffMajorVersionTable)targetTable).readDerivedBySubProjectIdxBatch(null, parentIds) );
+		}
+		Map<CFLibDbKeyHash256, List<ICFIntMajorVersion>> results = new LinkedHashMap<>();
+		for (CFLibDbKeyHash256 parentId : parentIds) {
+			if (results.containsKey(parentId)) {
+				continue;
+			}
+			ICFIntMajorVersion[] targetArr = targetTable.readDerivedBySubProjectIdx(null, parentId);
+			List<ICFIntMajorVersion> children;
+			if( targetArr != null ) {
+				children = new ArrayList<>(targetArr.length);
+				for (int idx = 0; idx < targetArr.length; idx++) {
+					children.add(targetArr[idx]);
+				}
+			}
+			else {
+				children = new ArrayList<>();
+			}
+			results.put(parentId, children);
+		}
+		return( results );
+	}
 	@Override
 	public ICFSecTenant getRequiredOwnerTenant() {
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
@@ -187,13 +300,17 @@ public class CFIntBuffSubProject
 			throw new CFLibNullArgumentException(getClass(), "setOwnerTenant", 1, "argObj");
 		}
 		else {
-			requiredTenantId = argObj.getRequiredId();
+			requiredTenantId = CFIntBuffSchema.canonicalKey( argObj.getRequiredId() );
+			cachedHashCode = 0;
+			cachedSnapshot = null;
 		}
 	}
 
 	@Override
 	public void setRequiredOwnerTenant(CFLibDbKeyHash256 argTenantId) {
-		requiredTenantId = argTenantId;
+		requiredTenantId = CFIntBuffSchema.canonicalKey( argTenantId );
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -206,6 +323,40 @@ public class CFIntBuffSubProject
 		if (targetTable == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredContainerParentTPrj", 0, "ICFIntSchema.getBackingCFInt().getTableTopProject()");
 		}
+		if( CFIntBuffSchema.isNavigationCacheEnabled() ) {
+			CFIntBuffResolvedRef<ICFIntTopProject> ref = resolvedContainerParentTPrj;
+			long stamp = 0L;
+			ICFIntTopProject targetRec;
+			if( targetTable instanceof ICFIntBuffRevisionSource ) {
+				ICFIntBuffRevisionSource revisionSource = (ICFIntBuffRevisionSource)targetTable;
+				if( ref != null ) {
+					ICFIntTopProject cachedRec = ref.resolve( revisionSource, getRequiredTopProjectId() );
+					if( cachedRec != null ) {
+						return( cachedRec );
+					}
+				}
+				// Taken before the read, so a change in between fails the next validation
+				stamp = revisionSource.getModStamp();
+				targetRec = targetTable.readDerived(null, getRequiredTopProjectId());
+			}
+			else {
+				// Without a revision source the row is read, but an unchanged one is still shared
+				targetRec = targetTable.readDerived(null, getRequiredTopProjectId());
+				if( ( ref != null ) && ( targetRec != null ) ) {
+					ICFIntTopProject cachedRec = ref.resolve( targetTable, targetRec.getRequiredId(), targetRec.getRequiredRevision() );
+					if( cachedRec != null ) {
+						return( cachedRec );
+					}
+				}
+			}
+			if( targetRec == null ) {
+				resolvedContainerParentTPrj = null;
+				return( null );
+			}
+			CFIntBuffTopProjectView view = new CFIntBuffTopProjectView( targetRec );
+			resolvedContainerParentTPrj = new CFIntBuffResolvedRef<>( targetTable, view.getRequiredId(), view.getRequiredRevision(), view, stamp );
+			return( view );
+		}
 		ICFIntTopProject targetRec = targetTable.readDerived(null, getRequiredTopProjectId());
 		return(targetRec);
 	}
@@ -215,13 +366,17 @@ public class CFIntBuffSubProject
 			throw new CFLibNullArgumentException(getClass(), "setContainerParentTPrj", 1, "argObj");
 		}
 		else {
-			requiredTopProjectId = argObj.getRequiredId();
+			requiredTopProjectId = CFIntBuffSchema.canonicalKey( argObj.getRequiredId() );
+			cachedHashCode = 0;
+			cachedSnapshot = null;
 		}
 	}
 
 	@Override
 	public void setRequiredContainerParentTPrj(CFLibDbKeyHash256 argTopProjectId) {
-		requiredTopProjectId = argTopProjectId;
+		requiredTopProjectId = CFIntBuffSchema.canonicalKey( argTopProjectId );
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -256,6 +411,8 @@ public class CFIntBuffSubProject
 				64 );
 		}
 		requiredName = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -274,6 +431,8 @@ public class CFIntBuffSubProject
 				1024 );
 		}
 		optionalDescription = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -548,23 +707,54 @@ public class CFIntBuffSubProject
 		}
 	}
 
+	/**
+	 *	Get an immutable snapshot of this record.  The snapshot is cached until
+	 *	a setter changes the record, so records held by the buffer tables,
+	 *	which are never modified in place, hand every reader the same instance.
+	 *
+	 *	@return	The snapshot of the current values.
+	 */
+	public CFIntBuffSubProjectSnapshot toSnapshot() {
+		CFIntBuffSubProjectSnapshot snapshot = cachedSnapshot;
+		if( snapshot == null ) {
+			snapshot = CFIntBuffSubProjectSnapshot.of( this );
+			cachedSnapshot = snapshot;
+		}
+		return( snapshot );
+	}
+
 	@Override
 	public int hashCode() {
+		int hashCode = cachedHashCode;
+		if( hashCode == 0 ) {
+			hashCode = computeHashCode();
+			cachedHashCode = hashCode;
+		}
+		return( hashCode );
+	}
+
+	/**
+	 *	Compute the hash code from the attribute values.  The setters reset
+	 *	the cached value so it is recomputed on the next hashCode() call.
+	 *
+	 *	@return	The non-zero hash code.
+	 */
+	protected int computeHashCode() {
 		int hashCode = 0;
-		hashCode = hashCode + getCreatedByUserId().hashCode();
-		hashCode = hashCode + getCreatedAt().hashCode();
-		hashCode = hashCode + getUpdatedByUserId().hashCode();
-		hashCode = hashCode + getUpdatedAt().hashCode();
-		hashCode = hashCode + getRequiredId().hashCode();
-		hashCode = hashCode + getRequiredTenantId().hashCode();
-		hashCode = hashCode + getRequiredTopProjectId().hashCode();
+		hashCode = CFIntBuffHash.mix( hashCode, getCreatedByUserId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getCreatedAt().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getUpdatedByUserId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getUpdatedAt().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredTenantId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredTopProjectId().hashCode() );
 		if( getRequiredName() != null ) {
-			hashCode = hashCode + getRequiredName().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getRequiredName().hashCode() );
 		}
 		if( getOptionalDescription() != null ) {
-			hashCode = hashCode + getOptionalDescription().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getOptionalDescription().hashCode() );
 		}
-		return( hashCode & 0x7fffffff );
+		return( CFIntBuffHash.finish( hashCode ) );
 	}
 
 	@Override
@@ -863,7 +1053,7 @@ public class CFIntBuffSubProject
 		setUpdatedByUserId( src.getUpdatedByUserId() );
 		setUpdatedAt( src.getUpdatedAt() );
 		setRequiredOwnerTenant(src.getRequiredTenantId());
-		setRequiredContainerParentTPrj(src.getRequiredContainerParentTPrj());
+		setRequiredContainerParentTPrj(src.getRequiredTopProjectId());
 		setRequiredName(src.getRequiredName());
 		setOptionalDescription(src.getOptionalDescription());
 	}
@@ -882,22 +1072,56 @@ public class CFIntBuffSubProject
 		setOptionalDescription(src.getOptionalDescription());
 	}
 
+	/**
+	 *	Write this row in the compact CFIntBuffSubProjectCodec form instead of
+	 *	the default field serialization.
+	 */
+	@Override
+	public void writeExternal( ObjectOutput out ) throws IOException {
+		CFIntBuffCodec.writeBlock( out, CFIntBuffSubProjectCodec.encode( this ) );
+	}
+
+	@Override
+	public void readExternal( ObjectInput in ) throws IOException {
+		CFIntBuffSubProjectCodec.decodeInto( CFIntBuffCodec.readBlock( in ), this );
+	}
+
 	@Override
 	public String getXmlAttrFragment() {
-		String ret = ""
-			+ " RequiredId=" + "\"" + getRequiredId().toString() + "\""
-			+ " RequiredRevision=\"" + Integer.toString( getRequiredRevision() ) + "\""
-			+ " RequiredId=" + "\"" + getRequiredId().toString() + "\""
-			+ " RequiredTenantId=" + "\"" + getRequiredTenantId().toString() + "\""
-			+ " RequiredTopProjectId=" + "\"" + getRequiredTopProjectId().toString() + "\""
-			+ " RequiredName=" + "\"" + StringEscapeUtils.escapeXml11( getRequiredName() ) + "\""
-			+ " OptionalDescription=" + ( ( getOptionalDescription() == null ) ? "null" : "\"" + StringEscapeUtils.escapeXml11( getOptionalDescription() ) + "\"" );
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toFragment( this::appendXmlAttrs ) );
+	}
+
+	/**
+	 *	Stream the getXmlAttrFragment() attributes to out without building
+	 *	the fragment or any escaped copy of the values.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXmlAttrs( Appendable out ) throws IOException {
+		appendXmlAttrs( new CFIntBuffXmlAttrWriter( out ) );
+	}
+
+	public void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException {
+		writer.attrKey( "RequiredId", getRequiredId() );
+		writer.attrInt( "RequiredRevision", getRequiredRevision() );
+		writer.attrKey( "RequiredId", getRequiredId() );
+		writer.attrKey( "RequiredTenantId", getRequiredTenantId() );
+		writer.attrKey( "RequiredTopProjectId", getRequiredTopProjectId() );
+		writer.attrString( "RequiredName", getRequiredName() );
+		writer.attrOptionalString( "OptionalDescription", getOptionalDescription() );
+	}
+
+	/**
+	 *	Stream this buffer as the same element toString() returns.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXml( Appendable out ) throws IOException {
+		CFIntBuffXmlAttrWriter.appendElement( out, "CFIntBuffSubProject", this::appendXmlAttrs );
 	}
 
 	@Override
 	public String toString() {
-		String ret = "<CFIntBuffSubProject" + getXmlAttrFragment() + "/>";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toElement( "CFIntBuffSubProject", this::appendXmlAttrs ) );
 	}
 }
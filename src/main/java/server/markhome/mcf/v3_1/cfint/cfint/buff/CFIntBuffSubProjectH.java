@@ -34,6 +34,7 @@ import java.sql.*;
 import java.text.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.text.StringEscapeUtils;
 import server.markhome.mcf.v3_1.cflib.*;
@@ -46,21 +47,30 @@ import server.markhome.mcf.v3_1.cfsec.cfsec.buff.*;
 public class CFIntBuffSubProjectH
     implements ICFIntSubProjectH, Comparable<Object>, Serializable
 {
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffSubProjectH, LocalDateTime> CREATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffSubProjectH.class, LocalDateTime.class, "createdAt" );
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffSubProjectH, LocalDateTime> UPDATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffSubProjectH.class, LocalDateTime.class, "updatedAt" );
+
+	protected final static CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex( ICFIntSubProject.S_INIT_CREATED_BY );
+	protected final static CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex( ICFIntSubProject.S_INIT_UPDATED_BY );
+
     protected CFIntBuffSubProjectHPKey pkey;
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFIntSubProject.S_INIT_CREATED_BY);
-	protected LocalDateTime createdAt = LocalDateTime.now();
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFIntSubProject.S_INIT_UPDATED_BY);
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
+	protected volatile LocalDateTime createdAt = null;
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
+	protected volatile LocalDateTime updatedAt = null;
 	protected CFLibDbKeyHash256 requiredTenantId;
 	protected CFLibDbKeyHash256 requiredTopProjectId;
 	protected String requiredName;
 	protected String optionalDescription;
+	protected transient int cachedHashCode = 0;
 
     public CFIntBuffSubProjectH() {
             // The primary key member attributes are initialized on construction
             pkey = new CFIntBuffSubProjectHPKey();
-		requiredTenantId = CFLibDbKeyHash256.fromHex( ICFIntSubProject.TENANTID_INIT_VALUE.toString() );
-		requiredTopProjectId = CFLibDbKeyHash256.fromHex( ICFIntSubProject.TOPPROJECTID_INIT_VALUE.toString() );
+		requiredTenantId = ICFIntSubProject.TENANTID_INIT_VALUE;
+		requiredTopProjectId = ICFIntSubProject.TOPPROJECTID_INIT_VALUE;
 		requiredName = ICFIntSubProject.NAME_INIT_VALUE;
 		optionalDescription = null;
     }
@@ -81,11 +91,18 @@ public class CFIntBuffSubProjectH
             throw new CFLibNullArgumentException(getClass(), "setCreatedByUserId", 1, "value");
         }
         createdByUserId = value;
+        cachedHashCode = 0;
     }
 
     @Override
     public LocalDateTime getCreatedAt() {
-        return( createdAt );
+        LocalDateTime value = createdAt;
+        if( value == null ) {
+            // The first reader stamps it, and every reader sees that one stamp
+            CREATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+            value = createdAt;
+        }
+        return( value );
     }
 
     @Override
@@ -94,6 +111,7 @@ public class CFIntBuffSubProjectH
             throw new CFLibNullArgumentException(getClass(), "setCreatedAt", 1, "value");
         }
         createdAt = value;
+        cachedHashCode = 0;
     }
 
     @Override
@@ -107,11 +125,18 @@ public class CFIntBuffSubProjectH
             throw new CFLibNullArgumentException(getClass(), "setUpdatedByUserId", 1, "value");
         }
         updatedByUserId = value;
+        cachedHashCode = 0;
     }
 
     @Override
     public LocalDateTime getUpdatedAt() {
-        return( updatedAt );
+        LocalDateTime value = updatedAt;
+        if( value == null ) {
+            // The first reader stamps it, and every reader sees that one stamp
+            UPDATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+            value = updatedAt;
+        }
+        return( value );
     }
 
     @Override
@@ -120,6 +145,7 @@ public class CFIntBuffSubProjectH
             throw new CFLibNullArgumentException(getClass(), "setUpdatedAt", 1, "value");
         }
         updatedAt = value;
+        cachedHashCode = 0;
     }
 
     @Override
@@ -212,7 +238,8 @@ public class CFIntBuffSubProjectH
 				1,
 				"value" );
 		}
-		requiredTenantId = value;
+		requiredTenantId = CFIntBuffSchema.canonicalKey( value );
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -228,7 +255,8 @@ public class CFIntBuffSubProjectH
 				1,
 				"value" );
 		}
-		requiredTopProjectId = value;
+		requiredTopProjectId = CFIntBuffSchema.canonicalKey( value );
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -253,6 +281,7 @@ public class CFIntBuffSubProjectH
 				64 );
 		}
 		requiredName = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -271,6 +300,7 @@ public class CFIntBuffSubProjectH
 				1024 );
 		}
 		optionalDescription = value;
+		cachedHashCode = 0;
 	}
 
     @Override
@@ -531,18 +561,33 @@ public class CFIntBuffSubProjectH
     }
     
     @Override
-    public int hashCode() {
-        int hashCode = pkey.hashCode();
-		hashCode = hashCode + getRequiredTenantId().hashCode();
-		hashCode = hashCode + getRequiredTopProjectId().hashCode();
+	public int hashCode() {
+		int hashCode = cachedHashCode;
+		if( hashCode == 0 ) {
+			hashCode = computeHashCode();
+			cachedHashCode = hashCode;
+		}
+		return( CFIntBuffHash.finish( CFIntBuffHash.mix( pkey.hashCode(), hashCode ) ) );
+	}
+
+	/**
+	 *	Compute the hash of the history attributes other than the primary key,
+	 *	which keeps its own cached hash code.
+	 *
+	 *	@return	The non-zero hash of the non-key attributes.
+	 */
+	protected int computeHashCode() {
+		int hashCode = 0;
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredTenantId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredTopProjectId().hashCode() );
 		if( getRequiredName() != null ) {
-			hashCode = hashCode + getRequiredName().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getRequiredName().hashCode() );
 		}
 		if( getOptionalDescription() != null ) {
-			hashCode = hashCode + getOptionalDescription().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getOptionalDescription().hashCode() );
 		}
-        return( hashCode & 0x7fffffff );
-    }
+		return( CFIntBuffHash.finish( hashCode ) );
+	}
 
     @Override
     public int compareTo( Object obj ) {
@@ -821,17 +866,38 @@ public class CFIntBuffSubProjectH
     }
 
     public String getXmlAttrFragment() {
-        String ret = pkey.getXmlAttrFragment() 
-			+ " RequiredRevision=\"" + Integer.toString( getRequiredRevision() ) + "\""
-			+ " RequiredTenantId=" + "\"" + getRequiredTenantId().toString() + "\""
-			+ " RequiredTopProjectId=" + "\"" + getRequiredTopProjectId().toString() + "\""
-			+ " RequiredName=" + "\"" + StringEscapeUtils.escapeXml11( getRequiredName() ) + "\""
-			+ " OptionalDescription=" + ( ( getOptionalDescription() == null ) ? "null" : "\"" + StringEscapeUtils.escapeXml11( getOptionalDescription() ) + "\"" );
-        return( ret );
+        return( CFIntBuffXmlAttrWriter.toFragment( this::appendXmlAttrs ) );
+    }
+
+    /**
+     *	Stream the getXmlAttrFragment() attributes to out without building
+     *	the fragment or any escaped copy of the values.
+     *
+     *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+     */
+    public void appendXmlAttrs( Appendable out ) throws IOException {
+        appendXmlAttrs( new CFIntBuffXmlAttrWriter( out ) );
+    }
+
+    public void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException {
+        pkey.appendXmlAttrs( writer );
+        writer.attrInt( "RequiredRevision", getRequiredRevision() );
+        writer.attrKey( "RequiredTenantId", getRequiredTenantId() );
+        writer.attrKey( "RequiredTopProjectId", getRequiredTopProjectId() );
+        writer.attrString( "RequiredName", getRequiredName() );
+        writer.attrOptionalString( "OptionalDescription", getOptionalDescription() );
+    }
+
+    /**
+     *	Stream this buffer as the same element toString() returns.
+     *
+     *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+     */
+    public void appendXml( Appendable out ) throws IOException {
+        CFIntBuffXmlAttrWriter.appendElement( out, "CFIntBuffSubProjectH", this::appendXmlAttrs );
     }
 
     public String toString() {
-        String ret = "<CFIntBuffSubProjectH" + getXmlAttrFragment() + "/>";
-        return( ret );
+        return( CFIntBuffXmlAttrWriter.toElement( "CFIntBuffSubProjectH", this::appendXmlAttrs ) );
     }
 }
@@ -25,10 +25,11 @@
 
 package server.markhome.mcf.v3_1.cfint.cfint.buff;
 
-import java.io.Serializable;
+import java.io.*;
 import java.math.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.text.StringEscapeUtils;
 import server.markhome.mcf.v3_1.cflib.*;
@@ -45,21 +46,25 @@ import server.markhome.mcf.v3_1.cfsec.cfsec.buff.*;
 public class CFIntBuffSubProjectHPKey
 	implements ICFIntSubProjectHPKey, Comparable<Object>, Serializable
 {
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffSubProjectHPKey, LocalDateTime> AUDIT_STAMP =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffSubProjectHPKey.class, LocalDateTime.class, "auditStamp" );
+
 	protected CFLibDbKeyHash256 auditClusterId;
-	protected LocalDateTime auditStamp;
+	protected volatile LocalDateTime auditStamp;
 	protected short auditActionId;
 	protected int requiredRevision;
 	protected CFLibDbKeyHash256 auditSessionId;
 
 	protected CFLibDbKeyHash256 requiredId;
+	protected transient int cachedHashCode = 0;
 
 	public CFIntBuffSubProjectHPKey() {
 		auditClusterId = ICFSecCluster.ID_INIT_VALUE;
-		auditStamp = LocalDateTime.now();
+		auditStamp = null;
 		auditActionId = 0;
 		requiredRevision = 1;
 		auditSessionId = CFLibDbKeyHash256.nullGet();
-		requiredId = CFLibDbKeyHash256.fromHex( ICFIntSubProject.ID_INIT_VALUE.toString() );
+		requiredId = ICFIntSubProject.ID_INIT_VALUE;
 	}
 
 	@Override
@@ -70,16 +75,24 @@ public class CFIntBuffSubProjectHPKey
 	@Override
 	public void setAuditClusterId( CFLibDbKeyHash256 value ) {
 		auditClusterId = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
 	public LocalDateTime getAuditStamp() {
-		return( auditStamp );
+		LocalDateTime value = auditStamp;
+		if( value == null ) {
+			// The first reader stamps it, and every reader sees that one stamp
+			AUDIT_STAMP.compareAndSet( this, null, LocalDateTime.now() );
+			value = auditStamp;
+		}
+		return( value );
 	}
 
 	@Override
 	public void setAuditStamp( LocalDateTime value ) {
 		auditStamp = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -90,6 +103,7 @@ public class CFIntBuffSubProjectHPKey
 	@Override
 	public void setAuditActionId( short value ) {
 		auditActionId = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -100,6 +114,7 @@ public class CFIntBuffSubProjectHPKey
 	@Override
 	public void setRequiredRevision( int value ) {
 		requiredRevision = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -110,6 +125,7 @@ public class CFIntBuffSubProjectHPKey
 	@Override
 	public void setAuditSessionId( CFLibDbKeyHash256 value ) {
 		auditSessionId = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -126,6 +142,7 @@ public class CFIntBuffSubProjectHPKey
 				"value" );
 		}
 		requiredId = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -287,20 +304,35 @@ public class CFIntBuffSubProjectHPKey
 
 	@Override
 	public int hashCode() {
+		int hashCode = cachedHashCode;
+		if( hashCode == 0 ) {
+			hashCode = computeHashCode();
+			cachedHashCode = hashCode;
+		}
+		return( hashCode );
+	}
+
+	/**
+	 *	Compute the hash code from the attribute values.  The setters reset
+	 *	the cached value so it is recomputed on the next hashCode() call.
+	 *
+	 *	@return	The non-zero hash code.
+	 */
+	protected int computeHashCode() {
 		int hashCode = 0;
 		if( auditClusterId != null ) {
-			hashCode = hashCode + auditClusterId.hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, auditClusterId.hashCode() );
 		}
-		if( auditStamp != null ) {
-			hashCode = hashCode + auditStamp.hashCode();
+		if( getAuditStamp() != null ) {
+			hashCode = CFIntBuffHash.mix( hashCode, getAuditStamp().hashCode() );
 		}
-		hashCode = hashCode + auditActionId;
-		hashCode = hashCode + requiredRevision;
+		hashCode = CFIntBuffHash.mix( hashCode, auditActionId );
+		hashCode = CFIntBuffHash.mix( hashCode, requiredRevision );
 		if( auditSessionId != null ) {
-			hashCode = hashCode + auditSessionId.hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, auditSessionId.hashCode() );
 		}
-		hashCode = hashCode + getRequiredId().hashCode();
-		return( hashCode & 0x7fffffff );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredId().hashCode() );
+		return( CFIntBuffHash.finish( hashCode ) );
 	}
 
 	@Override
@@ -482,18 +514,39 @@ public class CFIntBuffSubProjectHPKey
 
 	@Override
 	public String getXmlAttrFragment() {
-		String ret = " auditClusterId=\"" + (auditClusterId != null ? auditClusterId.toString() : "null") + "\""
-			+ " auditStamp=\"" + (auditStamp != null ? CFLibXmlUtil.formatTimestamp(auditStamp) : "null") + "\""
-			+ " auditAction=\"" + auditActionId + "\""
-			+ " revision=\"" + requiredRevision + "\""
-			+ " auditSessionId=\"" + (getAuditSessionId() != null ? getAuditSessionId().toString() : "null") + "\""
-			+ " RequiredId=" + "\"" + getRequiredId().toString() + "\"";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toFragment( this::appendXmlAttrs ) );
+	}
+
+	/**
+	 *	Stream the getXmlAttrFragment() attributes to out without building
+	 *	the fragment or any escaped copy of the values.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXmlAttrs( Appendable out ) throws IOException {
+		appendXmlAttrs( new CFIntBuffXmlAttrWriter( out ) );
+	}
+
+	public void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException {
+		writer.attrKey( "auditClusterId", auditClusterId );
+		writer.attrTimestamp( "auditStamp", getAuditStamp() );
+		writer.attrInt( "auditAction", auditActionId );
+		writer.attrInt( "revision", requiredRevision );
+		writer.attrKey( "auditSessionId", getAuditSessionId() );
+		writer.attrKey( "RequiredId", getRequiredId() );
+	}
+
+	/**
+	 *	Stream this buffer as the same element toString() returns.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXml( Appendable out ) throws IOException {
+		CFIntBuffXmlAttrWriter.appendElement( out, "CFIntBuffSubProjectHPKey", this::appendXmlAttrs );
 	}
 
 	@Override
 	public String toString() {
-		String ret = "<CFIntBuffSubProjectHPKey" + getXmlAttrFragment() + "/>";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toElement( "CFIntBuffSubProjectHPKey", this::appendXmlAttrs ) );
 	}
 }
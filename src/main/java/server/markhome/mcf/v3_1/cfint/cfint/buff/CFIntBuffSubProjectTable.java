@@ -0,0 +1,1105 @@
+// Description: Java 25 in-memory buffer table implementation for SubProject.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.io.*;
+import java.nio.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+import server.markhome.mcf.v3_1.cfsec.cfsec.*;
+import server.markhome.mcf.v3_1.cfint.cfint.*;
+import server.markhome.mcf.v3_1.cfsec.cfsec.buff.*;
+
+/*
+ *	CFIntBuffSubProjectTable in-memory implementation of ICFIntSubProjectTable for SubProject.
+ *	Rows are held in concurrent hash maps keyed by primary key, with every
+ *	secondary index maintained alongside.  Reads do not lock.  Writes are
+ *	striped by tenant through ByTenantIdx: creates, deletes and updates
+ *	that move a row between index keys share the table lock and hold the
+ *	read lock of the row's tenant, so they only wait for each other on
+ *	the row's lock stripe.  Updates that leave every index key alone also
+ *	hold the tenant's read lock; every update is checked against the
+ *	stored requiredRevision and bumps it.  Evicting a tenant takes its
+ *	write lock and holds up no other tenant.  Only whole-table work and
+ *	moving a row to another tenant take the table write lock.
+ */
+public class CFIntBuffSubProjectTable
+	implements ICFIntSubProjectTable,
+		ICFIntBuffRevisionSource,
+		ICFIntBuffSnapshotTable,
+		ICFIntBuffTenantTable,
+		ICFIntBuffHistoryTable,
+		ICFIntBuffContainerTable
+{
+	/**
+	 *	The secondary indexes written into the table's snapshot section.
+	 */
+	public final static int SNAPSHOT_TENANT_IDX = 0;
+	public final static int SNAPSHOT_TOPPROJECT_IDX = 1;
+
+	protected CFIntBuffSchema schema;
+	protected final ReentrantReadWriteLock tableLock = new ReentrantReadWriteLock();
+	protected final ReentrantReadWriteLock.WriteLock writeLock = tableLock.writeLock();
+	protected final CFIntBuffRowLocks rowLocks = new CFIntBuffRowLocks();
+	protected final CFIntBuffTenantLocks tenantLocks = new CFIntBuffTenantLocks();
+	protected final AtomicLong modStamp = new AtomicLong();
+	protected final ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffSubProject > dictByPKey
+		= new ConcurrentHashMap<>();
+	protected final ConcurrentHashMap< CFIntBuffSubProjectByTenantIdxKey,
+		ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffSubProject > > dictByTenantIdx
+		= new ConcurrentHashMap<>();
+	protected final ConcurrentHashMap< CFIntBuffSubProjectByTopProjectIdxKey,
+		ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffSubProject > > dictByTopProjectIdx
+		= new ConcurrentHashMap<>();
+	protected final ConcurrentHashMap< CFIntBuffSubProjectByNameIdxKey, CFIntBuffSubProject > dictByNameIdx
+		= new ConcurrentHashMap<>();
+	protected volatile CFIntBuffSnapshotFile.Section snapshotSection = null;
+	protected final ICFIntBuffHistoryStore< CFLibDbKeyHash256, CFIntBuffSubProjectH > history;
+
+	public CFIntBuffSubProjectTable( CFIntBuffSchema argSchema ) {
+		schema = argSchema;
+		history = newHistoryStore();
+	}
+
+	/**
+	 *	Create the store that holds this table's history.  The default is a
+	 *	columnar store sharing the schema's history dictionaries; override
+	 *	to keep the rows as objects in a CFIntBuffHistoryStore instead.
+	 *
+	 *	@return	The history store.
+	 */
+	protected ICFIntBuffHistoryStore< CFLibDbKeyHash256, CFIntBuffSubProjectH > newHistoryStore() {
+		return( new CFIntBuffColumnarHistoryStore<>( newHistoryLayout(),
+			schema.getHistoryKeyDictionary(),
+			schema.getHistoryStringPool() ) );
+	}
+
+	@Override
+	public ICFIntBuffHistoryStore< CFLibDbKeyHash256, CFIntBuffSubProjectH > getHistoryStore() {
+		return( history );
+	}
+
+	protected static CFIntBuffColumnarHistoryStore.Layout< CFLibDbKeyHash256, CFIntBuffSubProjectH > newHistoryLayout() {
+		return( new CFIntBuffColumnarHistoryStore.Layout< CFLibDbKeyHash256, CFIntBuffSubProjectH >( CFIntBuffSubProjectH::new, CFIntBuffSubProjectH[]::new )
+			.id( CFIntBuffSubProjectH::getRequiredId, CFIntBuffSubProjectH::setRequiredId )
+			.revision( CFIntBuffSubProjectH::getRequiredRevision, CFIntBuffSubProjectH::setRequiredRevision )
+			.auditStamp( CFIntBuffSubProjectH::getAuditStamp, CFIntBuffSubProjectH::setAuditStamp )
+			.auditActionId( CFIntBuffSubProjectH::getAuditActionId, ( hist, value ) -> hist.setAuditActionId( (short)value ) )
+			.auditClusterId( CFIntBuffSubProjectH::getAuditClusterId, CFIntBuffSubProjectH::setAuditClusterId )
+			.auditSessionId( CFIntBuffSubProjectH::getAuditSessionId, CFIntBuffSubProjectH::setAuditSessionId )
+			.keyColumn( CFIntBuffSubProjectH::getCreatedByUserId, CFIntBuffSubProjectH::setCreatedByUserId )
+			.timestampColumn( CFIntBuffSubProjectH::getCreatedAt, CFIntBuffSubProjectH::setCreatedAt )
+			.keyColumn( CFIntBuffSubProjectH::getUpdatedByUserId, CFIntBuffSubProjectH::setUpdatedByUserId )
+			.timestampColumn( CFIntBuffSubProjectH::getUpdatedAt, CFIntBuffSubProjectH::setUpdatedAt )
+			.keyColumn( CFIntBuffSubProjectH::getRequiredTenantId, CFIntBuffSubProjectH::setRequiredTenantId )
+			.keyColumn( CFIntBuffSubProjectH::getRequiredTopProjectId, CFIntBuffSubProjectH::setRequiredTopProjectId )
+			.stringColumn( CFIntBuffSubProjectH::getRequiredName, CFIntBuffSubProjectH::setRequiredName )
+			.stringColumn( CFIntBuffSubProjectH::getOptionalDescription, CFIntBuffSubProjectH::setOptionalDescription ) );
+	}
+
+	public CFIntBuffSchema getSchema() {
+		return( schema );
+	}
+
+	public long getModStamp() {
+		return( modStamp.get() );
+	}
+
+	public boolean isCurrent( CFLibDbKeyHash256 PKey, int revision ) {
+		CFIntBuffSubProject buff = lookupPKey( PKey );
+		return( ( buff != null ) && ( buff.getRequiredRevision() == revision ) );
+	}
+
+	/**
+	 *	Lock a row against deletion while a child row is written under it.
+	 *	The row is faulted in before its lock is taken, as faulting takes
+	 *	the write lock, which must not be waited for with a row lock held.
+	 */
+	public ReentrantLock lockContainer( CFLibDbKeyHash256 PKey ) {
+		if( ( PKey == null ) || ( lookupPKey( PKey ) == null ) ) {
+			return( null );
+		}
+		ReentrantLock rowLock = rowLocks.lockFor( PKey );
+		rowLock.lock();
+		if( ! dictByPKey.containsKey( PKey ) ) {
+			rowLock.unlock();
+			return( null );
+		}
+		return( rowLock );
+	}
+
+	protected CFIntBuffSubProject copyRec( ICFIntSubProject rec ) {
+		CFIntBuffSubProject buff = new CFIntBuffSubProject();
+		buff.set( rec );
+		return( buff );
+	}
+
+	protected CFIntBuffSubProjectByTenantIdxKey newByTenantIdxKey( ICFIntSubProject rec ) {
+		CFIntBuffSubProjectByTenantIdxKey key = new CFIntBuffSubProjectByTenantIdxKey();
+		key.setRequiredTenantId( rec.getRequiredTenantId() );
+		return( key );
+	}
+
+	protected CFIntBuffSubProjectByTopProjectIdxKey newByTopProjectIdxKey( ICFIntSubProject rec ) {
+		CFIntBuffSubProjectByTopProjectIdxKey key = new CFIntBuffSubProjectByTopProjectIdxKey();
+		key.setRequiredTopProjectId( rec.getRequiredTopProjectId() );
+		return( key );
+	}
+
+	protected CFIntBuffSubProjectByNameIdxKey newByNameIdxKey( ICFIntSubProject rec ) {
+		CFIntBuffSubProjectByNameIdxKey key = new CFIntBuffSubProjectByNameIdxKey();
+		key.setRequiredTopProjectId( rec.getRequiredTopProjectId() );
+		key.setRequiredName( rec.getRequiredName() );
+		return( key );
+	}
+
+	protected void indexRec( CFIntBuffSubProject buff ) {
+		CFLibDbKeyHash256 pkey = buff.getRequiredId();
+		dictByTenantIdx.compute( newByTenantIdxKey( buff ),
+			( k, subdict ) -> {
+				if( subdict == null ) {
+					subdict = new ConcurrentHashMap<>();
+				}
+				subdict.put( pkey, buff );
+				return( subdict );
+			} );
+		dictByTopProjectIdx.compute( newByTopProjectIdxKey( buff ),
+			( k, subdict ) -> {
+				if( subdict == null ) {
+					subdict = new ConcurrentHashMap<>();
+				}
+				subdict.put( pkey, buff );
+				return( subdict );
+			} );
+		dictByNameIdx.put( newByNameIdxKey( buff ), buff );
+		dictByPKey.put( pkey, buff );
+		modStamp.incrementAndGet();
+	}
+
+	protected void unindexRec( CFIntBuffSubProject buff ) {
+		CFLibDbKeyHash256 pkey = buff.getRequiredId();
+		dictByPKey.remove( pkey );
+		dictByTenantIdx.computeIfPresent( newByTenantIdxKey( buff ),
+			( k, subdict ) -> {
+				subdict.remove( pkey );
+				return( subdict.isEmpty() ? null : subdict );
+			} );
+		dictByTopProjectIdx.computeIfPresent( newByTopProjectIdxKey( buff ),
+			( k, subdict ) -> {
+				subdict.remove( pkey );
+				return( subdict.isEmpty() ? null : subdict );
+			} );
+		dictByNameIdx.computeIfPresent( newByNameIdxKey( buff ),
+			( k, indexed ) -> ( CFIntBuffSubProject.PKEY_IDENTITY.withRevisionCheck().equivalent( indexed, buff ) ? null : indexed ) );
+		modStamp.incrementAndGet();
+	}
+
+	protected ICFIntSubProject[] toDerivedArray( Collection< CFIntBuffSubProject > values ) {
+		ArrayList< ICFIntSubProject > list = new ArrayList<>( values.size() );
+		for( CFIntBuffSubProject buff : values ) {
+			list.add( copyRec( buff ) );
+		}
+		return( list.toArray( new ICFIntSubProject[ list.size() ] ) );
+	}
+
+	public int getSnapshotClassCode() {
+		return( ICFIntSubProject.CLASS_CODE );
+	}
+
+	public int getSnapshotKeyWidth() {
+		return( CFIntBuffSnapshotFile.HASH_KEY_WIDTH );
+	}
+
+	public int getSnapshotIndexCount() {
+		return( 2 );
+	}
+
+	public void attachSnapshot( CFIntBuffSnapshotFile.Section section ) {
+		writeLock.lock();
+		try {
+			snapshotSection = section;
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	public void writeSnapshotSection( CFIntBuffSnapshotFile.SectionWriter writer ) throws IOException {
+		faultInAll();
+		writeLock.lock();
+		try {
+			for( CFIntBuffSubProject buff : dictByPKey.values() ) {
+				writer.addRow( buff.getRequiredId(), CFIntBuffSubProjectCodec.encode( buff ), buff.getRequiredTenantId(), buff.getRequiredTopProjectId() );
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 *	Get a stored row by primary key, decoding it from the attached
+	 *	snapshot if it has not been read since the snapshot was opened.
+	 *
+	 *	@param	PKey	The primary key.
+	 *	@return	The stored row, or null.
+	 */
+	protected CFIntBuffSubProject lookupPKey( CFLibDbKeyHash256 PKey ) {
+		CFIntBuffSubProject buff = dictByPKey.get( PKey );
+		if( ( buff == null ) && ( snapshotSection != null ) ) {
+			writeLock.lock();
+			try {
+				buff = dictByPKey.get( PKey );
+				CFIntBuffSnapshotFile.Section section = snapshotSection;
+				if( ( buff == null ) && ( section != null ) ) {
+					int row = section.findRow( PKey );
+					if( ( row >= 0 ) && section.claim( row ) ) {
+						buff = CFIntBuffSubProjectCodec.decode( section.getRow( row ) );
+						indexRec( buff );
+					}
+				}
+			}
+			finally {
+				writeLock.unlock();
+			}
+		}
+		return( buff );
+	}
+
+	/**
+	 *	Decode every snapshot row that has not been read yet and detach the
+	 *	snapshot.  Reads of the whole table and the snapshot writer call
+	 *	this first; reads and writes of one tenant or container call
+	 *	faultInBy() instead.
+	 */
+	protected void faultInAll() {
+		if( snapshotSection == null ) {
+			return;
+		}
+		writeLock.lock();
+		try {
+			CFIntBuffSnapshotFile.Section section = snapshotSection;
+			if( section == null ) {
+				return;
+			}
+			for( int row = section.nextUnclaimed( 0 ); row >= 0; row = section.nextUnclaimed( row + 1 ) ) {
+				if( section.claim( row ) ) {
+					CFIntBuffSubProject buff = CFIntBuffSubProjectCodec.decode( section.getRow( row ) );
+					if( ! dictByPKey.containsKey( buff.getRequiredId() ) ) {
+						indexRec( buff );
+					}
+				}
+			}
+			snapshotSection = null;
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 *	Decode the snapshot rows filed under key in one of the section's
+	 *	secondary indexes, so the matching entry of that index is complete
+	 *	without decoding the rest of the table.  The snapshot is detached
+	 *	once its last row has been read.
+	 *
+	 *	@param	idx	SNAPSHOT_TENANT_IDX or SNAPSHOT_TOPPROJECT_IDX.
+	 *	@param	key	The indexed key.
+	 */
+	protected void faultInBy( int idx, CFLibDbKeyHash256 key ) {
+		CFIntBuffSnapshotFile.Section section = snapshotSection;
+		if( section == null ) {
+			return;
+		}
+		int[] rows = section.findRows( idx, key );
+		if( section.isClaimed( rows ) ) {
+			return;
+		}
+		writeLock.lock();
+		try {
+			if( snapshotSection == section ) {
+				for( int row : rows ) {
+					if( section.claim( row ) ) {
+						CFIntBuffSubProject buff = CFIntBuffSubProjectCodec.decode( section.getRow( row ) );
+						if( ! dictByPKey.containsKey( buff.getRequiredId() ) ) {
+							indexRec( buff );
+						}
+					}
+				}
+				if( section.getUnclaimedCount() == 0 ) {
+					snapshotSection = null;
+				}
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	protected long logPut( CFIntBuffSubProject buff ) {
+		CFIntBuffWriteAheadLog log = schema.getWriteAheadLog();
+		if( log == null ) {
+			return( 0L );
+		}
+		return( log.appendPut( ICFIntSubProject.CLASS_CODE, CFIntBuffSubProjectCodec.encode( buff ) ) );
+	}
+
+	protected long logDelete( CFLibDbKeyHash256 PKey ) {
+		CFIntBuffWriteAheadLog log = schema.getWriteAheadLog();
+		if( log == null ) {
+			return( 0L );
+		}
+		return( log.appendDelete( ICFIntSubProject.CLASS_CODE, PKey ) );
+	}
+
+	protected long logEvictTenant( CFLibDbKeyHash256 TenantId ) {
+		CFIntBuffWriteAheadLog log = schema.getWriteAheadLog();
+		if( log == null ) {
+			return( 0L );
+		}
+		return( log.appendEvictTenant( ICFIntSubProject.CLASS_CODE, TenantId ) );
+	}
+
+	/**
+	 *	Wait for a logged change to reach disk.  This is called after the
+	 *	table and row locks are released so concurrent writers can share
+	 *	an fsync, so the change is already visible in memory.  If the flush
+	 *	fails the change is in doubt: it may or may not survive a restart.
+	 *	The log refuses every append after a failed flush, so no later
+	 *	change is applied.
+	 *
+	 *	@param	logSeq	The sequence returned by logPut() or logDelete(), or 0.
+	 */
+	protected void awaitLogged( long logSeq ) {
+		CFIntBuffWriteAheadLog log = schema.getWriteAheadLog();
+		if( ( logSeq > 0L ) && ( log != null ) ) {
+			try {
+				log.awaitDurable( logSeq );
+			}
+			catch( IOException e ) {
+				throw new UncheckedIOException( "SubProject change was applied but its write-ahead log record may not be durable", e );
+			}
+		}
+	}
+
+	public void replayPut( ByteBuffer payload ) {
+		CFIntBuffSubProject buff = CFIntBuffSubProjectCodec.decode( payload );
+		writeLock.lock();
+		try {
+			CFIntBuffSubProject existing = lookupPKey( buff.getRequiredId() );
+			if( existing != null ) {
+				unindexRec( existing );
+			}
+			indexRec( buff );
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	public void replayDelete( ByteBuffer payload ) {
+		CFLibDbKeyHash256 pkey = CFIntBuffCodec.getKey( payload );
+		writeLock.lock();
+		try {
+			CFIntBuffSubProject existing = lookupPKey( pkey );
+			if( existing != null ) {
+				unindexRec( existing );
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	public void replayEvictTenant( ByteBuffer payload ) {
+		CFLibDbKeyHash256 tenantId = CFIntBuffCodec.getKey( payload );
+		writeLock.lock();
+		try {
+			faultInBy( SNAPSHOT_TENANT_IDX, tenantId );
+			CFIntBuffSubProjectByTenantIdxKey key = new CFIntBuffSubProjectByTenantIdxKey();
+			key.setRequiredTenantId( tenantId );
+			ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffSubProject > tenantRows = dictByTenantIdx.remove( key );
+			if( tenantRows != null ) {
+				for( CFIntBuffSubProject buff : tenantRows.values() ) {
+					unindexRec( buff );
+				}
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 *	Append a history row for a row version.  Called under the write
+	 *	lock or the row's lock so a row's history stamps follow the order
+	 *	of its changes.
+	 *
+	 *	@param	Authorization	The session authorization, or null.
+	 *	@param	buff	The row version.
+	 *	@param	actionId	The audit action applied to it.
+	 */
+	protected void recordHistory( ICFSecAuthorization Authorization,
+		CFIntBuffSubProject buff,
+		short actionId )
+	{
+		CFIntBuffSubProjectH hist = new CFIntBuffSubProjectH();
+		hist.set( buff );
+		hist.setAuditStamp( LocalDateTime.now() );
+		hist.setAuditActionId( actionId );
+		if( Authorization != null ) {
+			hist.setAuditClusterId( Authorization.getSecClusterId() );
+			hist.setAuditSessionId( Authorization.getSecSessionId() );
+		}
+		history.add( hist );
+	}
+
+	protected CFIntBuffSubProjectH copyHistRec( ICFIntSubProjectH src ) {
+		CFIntBuffSubProjectH hist = new CFIntBuffSubProjectH();
+		hist.set( src );
+		hist.setAuditClusterId( src.getAuditClusterId() );
+		hist.setAuditStamp( src.getAuditStamp() );
+		hist.setAuditActionId( src.getAuditActionId() );
+		hist.setAuditSessionId( src.getAuditSessionId() );
+		return( hist );
+	}
+
+	/**
+	 *	Check an update or delete against the stored revision of its row.
+	 *
+	 *	@param	procName	The calling method, for the exception.
+	 *	@param	existing	The stored row, or null.
+	 *	@param	rec	The caller's copy of the row.
+	 */
+	protected void checkRevision( String procName, CFIntBuffSubProject existing, ICFIntSubProject rec ) {
+		if( existing == null ) {
+			throw new CFLibStaleCacheDetectedException( getClass(), procName, "Existing record not found", "SubProject", rec.getRequiredId() );
+		}
+		if( existing.getRequiredRevision() != rec.getRequiredRevision() ) {
+			throw new CFLibCollisionDetectedException( getClass(), procName, rec.getRequiredId() );
+		}
+	}
+
+	/**
+	 *	Lock the TopProject a row is written under, so the TopProject cannot be
+	 *	deleted, and its cascade cannot miss the row, until the write is
+	 *	done.  Called before any lock of this table is taken.
+	 *
+	 *	@param	procName	The calling method, for the exception.
+	 *	@param	TopProjectId	The primary key of the TopProject.
+	 *	@return	The held lock, or null if the TopProject table is not a buffer table.
+	 */
+	protected ReentrantLock lockParent( String procName, CFLibDbKeyHash256 TopProjectId ) {
+		ICFIntTopProjectTable table = schema.getTableTopProject();
+		if( ! ( table instanceof ICFIntBuffContainerTable ) ) {
+			return( null );
+		}
+		ReentrantLock lock = ( (ICFIntBuffContainerTable)table ).lockContainer( TopProjectId );
+		if( lock == null ) {
+			throw new CFLibStaleCacheDetectedException( getClass(), procName, "Container record not found", "TopProject", TopProjectId );
+		}
+		return( lock );
+	}
+
+	/**
+	 *	Check whether a new version of a row keeps every index key of the
+	 *	stored version, so it can replace it without reindexing.
+	 */
+	protected boolean sameIndexKeys( CFIntBuffSubProject existing, CFIntBuffSubProject buff ) {
+		if( ! newByTenantIdxKey( existing ).equals( newByTenantIdxKey( buff ) ) ) {
+			return( false );
+		}
+		if( ! newByTopProjectIdxKey( existing ).equals( newByTopProjectIdxKey( buff ) ) ) {
+			return( false );
+		}
+		if( ! newByNameIdxKey( existing ).equals( newByNameIdxKey( buff ) ) ) {
+			return( false );
+		}
+		return( true );
+	}
+
+	/**
+	 *	Swap a new version of a row into every index in place of the
+	 *	stored version.  The caller holds the row's lock and has checked
+	 *	sameIndexKeys(), so no index entry is added or removed.
+	 */
+	protected void replaceIndexed( CFIntBuffSubProject existing, CFIntBuffSubProject buff ) {
+		CFLibDbKeyHash256 pkey = buff.getRequiredId();
+		ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffSubProject > subDictByTenantIdx = dictByTenantIdx.get( newByTenantIdxKey( buff ) );
+		if( subDictByTenantIdx != null ) {
+			subDictByTenantIdx.put( pkey, buff );
+		}
+		ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffSubProject > subDictByTopProjectIdx = dictByTopProjectIdx.get( newByTopProjectIdxKey( buff ) );
+		if( subDictByTopProjectIdx != null ) {
+			subDictByTopProjectIdx.put( pkey, buff );
+		}
+		dictByNameIdx.put( newByNameIdxKey( buff ), buff );
+		dictByPKey.put( pkey, buff );
+		modStamp.incrementAndGet();
+	}
+
+	public ICFIntSubProject createSubProject( ICFSecAuthorization Authorization,
+		ICFIntSubProject rec )
+	{
+		final String S_ProcName = "createSubProject";
+		if( rec == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 2, "rec" );
+		}
+		CFLibDbKeyHash256 argId = rec.getRequiredId();
+		if( ( argId == null ) || argId.isNull() || argId.equals( ICFIntSubProject.ID_INIT_VALUE ) ) {
+			rec.setRequiredId( schema.nextSubProjectIdGen() );
+		}
+		CFIntBuffSubProject buff = copyRec( rec );
+		long logSeq = 0L;
+		CFLibDbKeyHash256 pkey = buff.getRequiredId();
+		// Decode any snapshot row with this key and the rows of the container,
+		// so the checks below see them
+		lookupPKey( pkey );
+		faultInBy( SNAPSHOT_TOPPROJECT_IDX, buff.getRequiredTopProjectId() );
+		ReentrantReadWriteLock.ReadLock tenantLock = tenantLocks.lockFor( buff.getRequiredTenantId() ).readLock();
+		ReentrantLock rowLock = rowLocks.lockFor( pkey );
+		ReentrantLock parentLock = lockParent( S_ProcName, buff.getRequiredTopProjectId() );
+		tableLock.readLock().lock();
+		tenantLock.lock();
+		rowLock.lock();
+		try {
+			if( dictByPKey.containsKey( pkey ) ) {
+				throw new CFLibPrimaryKeyNotNewException( getClass(), S_ProcName, pkey );
+			}
+			// Writers of other tenants run concurrently, so claim the unique key atomically
+			CFIntBuffSubProjectByNameIdxKey keyNameIdx = newByNameIdxKey( buff );
+			if( dictByNameIdx.putIfAbsent( keyNameIdx, buff ) != null ) {
+				throw new CFLibUniqueIndexViolationException( getClass(), S_ProcName, "SubProjectNameIdx", keyNameIdx );
+			}
+			try {
+				logSeq = logPut( buff );
+			}
+			catch( RuntimeException e ) {
+				// Nothing was applied, so release the claim before failing
+				dictByNameIdx.computeIfPresent( keyNameIdx, ( k, indexed ) -> ( ( indexed == buff ) ? null : indexed ) );
+				throw e;
+			}
+			indexRec( buff );
+			recordHistory( Authorization, buff, ICFIntBuffHistoryStore.AUDIT_ACTION_CREATE );
+		}
+		finally {
+			rowLock.unlock();
+			tenantLock.unlock();
+			tableLock.readLock().unlock();
+			if( parentLock != null ) {
+				parentLock.unlock();
+			}
+		}
+		awaitLogged( logSeq );
+		return( copyRec( buff ) );
+	}
+
+	public ICFIntSubProject updateSubProject( ICFSecAuthorization Authorization,
+		ICFIntSubProject rec )
+	{
+		final String S_ProcName = "updateSubProject";
+		if( rec == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 2, "rec" );
+		}
+		CFIntBuffSubProject buff = copyRec( rec );
+		CFLibDbKeyHash256 pkey = buff.getRequiredId();
+		// Decode the rows of the container the row may move to, so the
+		// unique index check below sees them
+		faultInBy( SNAPSHOT_TOPPROJECT_IDX, buff.getRequiredTopProjectId() );
+		// A stale revision fails here without taking any lock
+		checkRevision( S_ProcName, lookupPKey( pkey ), buff );
+		long logSeq = 0L;
+		boolean replaced = false;
+		ReentrantLock rowLock = rowLocks.lockFor( pkey );
+		ReentrantReadWriteLock.ReadLock tenantLock = tenantLocks.lockFor( buff.getRequiredTenantId() ).readLock();
+		tableLock.readLock().lock();
+		tenantLock.lock();
+		try {
+			rowLock.lock();
+			try {
+				CFIntBuffSubProject existing = dictByPKey.get( pkey );
+				checkRevision( S_ProcName, existing, buff );
+				if( sameIndexKeys( existing, buff ) ) {
+					buff.setRequiredRevision( existing.getRequiredRevision() + 1 );
+					logSeq = logPut( buff );
+					replaceIndexed( existing, buff );
+					recordHistory( Authorization, buff, ICFIntBuffHistoryStore.AUDIT_ACTION_UPDATE );
+					replaced = true;
+				}
+			}
+			finally {
+				rowLock.unlock();
+			}
+		}
+		finally {
+			tenantLock.unlock();
+			tableLock.readLock().unlock();
+		}
+		if( ! replaced ) {
+			// A row that moves may move to another container, which must exist
+			ReentrantLock parentLock = lockParent( S_ProcName, buff.getRequiredTopProjectId() );
+			tableLock.readLock().lock();
+			tenantLock.lock();
+			rowLock.lock();
+			try {
+				CFIntBuffSubProject existing = dictByPKey.get( pkey );
+				checkRevision( S_ProcName, existing, buff );
+				if( existing.getRequiredTenantId().equals( buff.getRequiredTenantId() ) ) {
+					CFIntBuffSubProjectByNameIdxKey keyNameIdx = newByNameIdxKey( buff );
+					CFIntBuffSubProject conflictNameIdx = dictByNameIdx.putIfAbsent( keyNameIdx, buff );
+					if( ( conflictNameIdx != null ) && ( conflictNameIdx != existing ) ) {
+						throw new CFLibUniqueIndexViolationException( getClass(), S_ProcName, "SubProjectNameIdx", keyNameIdx );
+					}
+					buff.setRequiredRevision( existing.getRequiredRevision() + 1 );
+					try {
+						logSeq = logPut( buff );
+					}
+					catch( RuntimeException e ) {
+						if( conflictNameIdx == null ) {
+							dictByNameIdx.computeIfPresent( keyNameIdx, ( k, indexed ) -> ( ( indexed == buff ) ? null : indexed ) );
+						}
+						throw e;
+					}
+					if( conflictNameIdx == existing ) {
+						dictByNameIdx.computeIfPresent( keyNameIdx,
+							( k, indexed ) -> ( CFIntBuffSubProject.PKEY_IDENTITY.withRevisionCheck().equivalent( indexed, existing ) ? buff : indexed ) );
+					}
+					unindexRec( existing );
+					indexRec( buff );
+					recordHistory( Authorization, buff, ICFIntBuffHistoryStore.AUDIT_ACTION_UPDATE );
+					replaced = true;
+				}
+			}
+			finally {
+				rowLock.unlock();
+				tenantLock.unlock();
+				tableLock.readLock().unlock();
+				if( parentLock != null ) {
+					parentLock.unlock();
+				}
+			}
+		}
+		if( ! replaced ) {
+			ReentrantLock parentLock = lockParent( S_ProcName, buff.getRequiredTopProjectId() );
+			writeLock.lock();
+			try {
+				CFIntBuffSubProject existing = dictByPKey.get( pkey );
+				checkRevision( S_ProcName, existing, buff );
+				CFIntBuffSubProjectByNameIdxKey keyNameIdx = newByNameIdxKey( buff );
+				CFIntBuffSubProject conflictNameIdx = dictByNameIdx.get( keyNameIdx );
+				if( ( conflictNameIdx != null ) && ( conflictNameIdx != existing ) ) {
+					throw new CFLibUniqueIndexViolationException( getClass(), S_ProcName, "SubProjectNameIdx", keyNameIdx );
+				}
+				buff.setRequiredRevision( existing.getRequiredRevision() + 1 );
+				logSeq = logPut( buff );
+				unindexRec( existing );
+				indexRec( buff );
+				recordHistory( Authorization, buff, ICFIntBuffHistoryStore.AUDIT_ACTION_UPDATE );
+			}
+			finally {
+				writeLock.unlock();
+				if( parentLock != null ) {
+					parentLock.unlock();
+				}
+			}
+		}
+		awaitLogged( logSeq );
+		return( copyRec( buff ) );
+	}
+
+	public void deleteSubProject( ICFSecAuthorization Authorization,
+		ICFIntSubProject rec )
+	{
+		final String S_ProcName = "deleteSubProject";
+		if( rec == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 2, "rec" );
+		}
+		deleteRow( Authorization, S_ProcName, rec.getRequiredId(), rec );
+	}
+
+	public void deleteSubProjectByIdIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argKey )
+	{
+		deleteRow( Authorization, "deleteSubProjectByIdIdx", argKey, null );
+	}
+
+	/**
+	 *	Delete a row and everything under it.  The row's tenant and row
+	 *	locks are held from the revision check through the cascade to the
+	 *	unindex, so the version checked is the version deleted and a stale
+	 *	delete fails before any child is touched.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	procName	The calling method, for exceptions.
+	 *	@param	argKey	The primary key of the row.
+	 *	@param	rec	The caller's copy of the row, whose revision must match
+	 *		the stored one, or null to delete whatever version is stored.
+	 */
+	protected void deleteRow( ICFSecAuthorization Authorization,
+		String procName,
+		CFLibDbKeyHash256 argKey,
+		ICFIntSubProject rec )
+	{
+		CFIntBuffSubProject existing = lookupPKey( argKey );
+		if( existing == null ) {
+			if( rec != null ) {
+				checkRevision( procName, null, rec );
+			}
+			return;
+		}
+		long logSeq = 0L;
+		boolean done = false;
+		ReentrantReadWriteLock.ReadLock tenantLock = tenantLocks.lockFor( existing.getRequiredTenantId() ).readLock();
+		ReentrantLock rowLock = rowLocks.lockFor( argKey );
+		tableLock.readLock().lock();
+		tenantLock.lock();
+		rowLock.lock();
+		try {
+			CFIntBuffSubProject current = dictByPKey.get( argKey );
+			if( ( current == null ) || current.getRequiredTenantId().equals( existing.getRequiredTenantId() ) ) {
+				logSeq = deleteLocked( Authorization, procName, argKey, current, rec );
+				done = true;
+			}
+		}
+		finally {
+			rowLock.unlock();
+			tenantLock.unlock();
+			tableLock.readLock().unlock();
+		}
+		if( ! done ) {
+			// The row moved to another tenant after it was looked up
+			writeLock.lock();
+			rowLock.lock();
+			try {
+				logSeq = deleteLocked( Authorization, procName, argKey, dictByPKey.get( argKey ), rec );
+			}
+			finally {
+				rowLock.unlock();
+				writeLock.unlock();
+			}
+		}
+		awaitLogged( logSeq );
+	}
+
+	/**
+	 *	Check and delete a row with its locks held.
+	 *
+	 *	@param	current	The stored row, or null if it is gone.
+	 *	@return	The log sequence of the delete, or 0.
+	 */
+	protected long deleteLocked( ICFSecAuthorization Authorization,
+		String procName,
+		CFLibDbKeyHash256 argKey,
+		CFIntBuffSubProject current,
+		ICFIntSubProject rec )
+	{
+		if( rec != null ) {
+			checkRevision( procName, current, rec );
+		}
+		if( current == null ) {
+			return( 0L );
+		}
+		// Writers of this row wait for its lock, so the cascade cannot change it
+		schema.getTableMajorVersion().deleteMajorVersionBySubProjectIdx( Authorization, argKey );
+		long logSeq = logDelete( argKey );
+		unindexRec( current );
+		recordHistory( Authorization, current, ICFIntBuffHistoryStore.AUDIT_ACTION_DELETE );
+		return( logSeq );
+	}
+
+	public void deleteSubProjectByTenantIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argTenantId )
+	{
+		ICFIntSubProject[] matches = readDerivedByTenantIdx( Authorization, argTenantId );
+		for( ICFIntSubProject match : matches ) {
+			deleteSubProjectByIdIdx( Authorization, match.getRequiredId() );
+		}
+	}
+
+	public void deleteSubProjectByTopProjectIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argTopProjectId )
+	{
+		ICFIntSubProject[] matches = readDerivedByTopProjectIdx( Authorization, argTopProjectId );
+		for( ICFIntSubProject match : matches ) {
+			deleteSubProjectByIdIdx( Authorization, match.getRequiredId() );
+		}
+	}
+
+	public void deleteSubProjectByNameIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 argTopProjectId,
+		String argName )
+	{
+		ICFIntSubProject match = readDerivedByNameIdx( Authorization, argTopProjectId, argName );
+		if( match != null ) {
+			deleteSubProjectByIdIdx( Authorization, match.getRequiredId() );
+		}
+	}
+
+	/**
+	 *	Evict every SubProject row of a tenant from the buffer.  The eviction
+	 *	holds the write lock of the tenant, which every writer of the
+	 *	tenant's rows holds shared, so no change of the tenant's rows can
+	 *	interleave with it, and it is logged as a single record before any
+	 *	row leaves the indexes.  Writers of other tenants do not wait for
+	 *	it.  Its cost is proportional to the tenant's rows, each of which is
+	 *	removed from every index.  It is not a delete: nothing cascades and
+	 *	no history is recorded.
+	 *
+	 *	@param	TenantId	The tenant to evict.
+	 *	@return	The number of rows evicted.
+	 */
+	public int evictTenant( CFLibDbKeyHash256 TenantId ) {
+		faultInBy( SNAPSHOT_TENANT_IDX, TenantId );
+		CFIntBuffSubProjectByTenantIdxKey key = new CFIntBuffSubProjectByTenantIdxKey();
+		key.setRequiredTenantId( TenantId );
+		int evicted = 0;
+		long logSeq = 0L;
+		ReentrantReadWriteLock.WriteLock tenantLock = tenantLocks.lockFor( TenantId ).writeLock();
+		tableLock.readLock().lock();
+		// Every writer of the tenant's rows holds its read lock, so none is in flight
+		tenantLock.lock();
+		try {
+			ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffSubProject > tenantRows = dictByTenantIdx.get( key );
+			if( tenantRows != null ) {
+				logSeq = logEvictTenant( TenantId );
+				dictByTenantIdx.remove( key );
+				for( CFIntBuffSubProject buff : tenantRows.values() ) {
+					unindexRec( buff );
+					evicted++;
+				}
+			}
+		}
+		finally {
+			tenantLock.unlock();
+			tableLock.readLock().unlock();
+		}
+		awaitLogged( logSeq );
+		return( evicted );
+	}
+
+	public ICFIntSubProject readDerived( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 PKey )
+	{
+		CFIntBuffSubProject buff = lookupPKey( PKey );
+		if( buff == null ) {
+			return( null );
+		}
+		return( copyRec( buff ) );
+	}
+
+	/**
+	 *	Read a row as a shared immutable snapshot instead of a private copy.
+	 *	Every reader of the same row version gets the same instance.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	PKey	The primary key of the row.
+	 *	@return	The snapshot, or null if the row does not exist.
+	 */
+	public CFIntBuffSubProjectSnapshot readSnapshot( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 PKey )
+	{
+		CFIntBuffSubProject buff = lookupPKey( PKey );
+		if( buff == null ) {
+			return( null );
+		}
+		return( buff.toSnapshot() );
+	}
+
+	public ICFIntSubProject lockDerived( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 PKey )
+	{
+		return( readDerived( Authorization, PKey ) );
+	}
+
+	/**
+	 *	Read a row as it stood at a point in time, rebuilt from the
+	 *	history recorded by this table.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	PKey	The primary key of the row.
+	 *	@param	asOf	The point in time.
+	 *	@return	The row version current at asOf, or null if the row did
+	 *		not exist then or had been deleted.
+	 */
+	public ICFIntSubProject readDerivedAsOf( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 PKey,
+		LocalDateTime asOf )
+	{
+		CFIntBuffSubProjectH hist = history.readAsOf( PKey, asOf );
+		if( hist == null ) {
+			return( null );
+		}
+		CFIntBuffSubProject buff = new CFIntBuffSubProject();
+		buff.set( hist );
+		buff.setRequiredRevision( hist.getRequiredRevision() );
+		return( buff );
+	}
+
+	/**
+	 *	Read the recorded history of a row, oldest first.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	PKey	The primary key of the row.
+	 *	@return	Copies of the history rows.
+	 */
+	public ICFIntSubProjectH[] readHistory( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 PKey )
+	{
+		CFIntBuffSubProjectH[] rows = history.readHistory( PKey );
+		if( ! history.isSharingRows() ) {
+			return( rows );
+		}
+		ICFIntSubProjectH[] ret = new ICFIntSubProjectH[ rows.length ];
+		for( int i = 0; i < rows.length; i++ ) {
+			ret[i] = copyHistRec( rows[i] );
+		}
+		return( ret );
+	}
+
+	public ICFIntSubProject[] readAllDerived( ICFSecAuthorization Authorization ) {
+		faultInAll();
+		return( toDerivedArray( dictByPKey.values() ) );
+	}
+
+	public ICFIntSubProject readDerivedByIdIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 Id )
+	{
+		return( readDerived( Authorization, Id ) );
+	}
+
+	public ICFIntSubProject[] readDerivedByTenantIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 TenantId )
+	{
+		faultInBy( SNAPSHOT_TENANT_IDX, TenantId );
+		CFIntBuffSubProjectByTenantIdxKey key = new CFIntBuffSubProjectByTenantIdxKey();
+		key.setRequiredTenantId( TenantId );
+		ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffSubProject > subdict = dictByTenantIdx.get( key );
+		if( subdict == null ) {
+			return( new ICFIntSubProject[0] );
+		}
+		return( toDerivedArray( subdict.values() ) );
+	}
+
+	public ICFIntSubProject[] readDerivedByTopProjectIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 TopProjectId )
+	{
+		faultInBy( SNAPSHOT_TOPPROJECT_IDX, TopProjectId );
+		CFIntBuffSubProjectByTopProjectIdxKey key = new CFIntBuffSubProjectByTopProjectIdxKey();
+		key.setRequiredTopProjectId( TopProjectId );
+		ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffSubProject > subdict = dictByTopProjectIdx.get( key );
+		if( subdict == null ) {
+			return( new ICFIntSubProject[0] );
+		}
+		return( toDerivedArray( subdict.values() ) );
+	}
+
+	public ICFIntSubProject readDerivedByNameIdx( ICFSecAuthorization Authorization,
+		CFLibDbKeyHash256 TopProjectId,
+		String Name )
+	{
+		faultInBy( SNAPSHOT_TOPPROJECT_IDX, TopProjectId );
+		CFIntBuffSubProjectByNameIdxKey key = new CFIntBuffSubProjectByNameIdxKey();
+		key.setRequiredTopProjectId( TopProjectId );
+		key.setRequiredName( Name );
+		CFIntBuffSubProject buff = dictByNameIdx.get( key );
+		if( buff == null ) {
+			return( null );
+		}
+		return( copyRec( buff ) );
+	}
+
+	/**
+	 *	Read the SubProject rows of several TenantId values in one pass over ByTenantIdx.
+	 *
+	 *	@return	A map from each distinct TenantId to its rows, in argument order.
+	 */
+	public Map< CFLibDbKeyHash256, List< ICFIntSubProject > > readDerivedByTenantIdxBatch( ICFSecAuthorization Authorization,
+		Collection< CFLibDbKeyHash256 > TenantIds )
+	{
+		LinkedHashMap< CFLibDbKeyHash256, List< ICFIntSubProject > > results = new LinkedHashMap<>();
+		CFIntBuffSubProjectByTenantIdxKey key = new CFIntBuffSubProjectByTenantIdxKey();
+		for( CFLibDbKeyHash256 TenantId : TenantIds ) {
+			if( results.containsKey( TenantId ) ) {
+				continue;
+			}
+			faultInBy( SNAPSHOT_TENANT_IDX, TenantId );
+			key.setRequiredTenantId( TenantId );
+			ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffSubProject > subdict = dictByTenantIdx.get( key );
+			ArrayList< ICFIntSubProject > children;
+			if( subdict == null ) {
+				children = new ArrayList<>( 0 );
+			}
+			else {
+				children = new ArrayList<>( subdict.size() );
+				for( CFIntBuffSubProject buff : subdict.values() ) {
+					children.add( copyRec( buff ) );
+				}
+			}
+			results.put( TenantId, children );
+		}
+		return( results );
+	}
+
+	/**
+	 *	Read the SubProject rows of several TopProjectId values in one pass over ByTopProjectIdx.
+	 *
+	 *	@return	A map from each distinct TopProjectId to its rows, in argument order.
+	 */
+	public Map< CFLibDbKeyHash256, List< ICFIntSubProject > > readDerivedByTopProjectIdxBatch( ICFSecAuthorization Authorization,
+		Collection< CFLibDbKeyHash256 > TopProjectIds )
+	{
+		LinkedHashMap< CFLibDbKeyHash256, List< ICFIntSubProject > > results = new LinkedHashMap<>();
+		CFIntBuffSubProjectByTopProjectIdxKey key = new CFIntBuffSubProjectByTopProjectIdxKey();
+		for( CFLibDbKeyHash256 TopProjectId : TopProjectIds ) {
+			if( results.containsKey( TopProjectId ) ) {
+				continue;
+			}
+			faultInBy( SNAPSHOT_TOPPROJECT_IDX, TopProjectId );
+			key.setRequiredTopProjectId( TopProjectId );
+			ConcurrentHashMap< CFLibDbKeyHash256, CFIntBuffSubProject > subdict = dictByTopProjectIdx.get( key );
+			ArrayList< ICFIntSubProject > children;
+			if( subdict == null ) {
+				children = new ArrayList<>( 0 );
+			}
+			else {
+				children = new ArrayList<>( subdict.size() );
+				for( CFIntBuffSubProject buff : subdict.values() ) {
+					children.add( copyRec( buff ) );
+				}
+			}
+			results.put( TopProjectId, children );
+		}
+		return( results );
+	}
+
+	public void releasePreparedStatements() {
+	}
+}
@@ -0,0 +1,75 @@
+// Description: Java 25 per-tenant read/write locks for the CFInt buffer tables.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.util.concurrent.*;
+import java.util.concurrent.locks.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffTenantLocks gives each tenant of a table its own read/write
+ *	lock.  Every writer of a tenant's rows holds the read lock, so writers
+ *	of one tenant only wait for each other on their row locks.  Evicting a
+ *	tenant takes the write lock, so it waits for that tenant's writers
+ *	alone and no writer of another tenant ever waits for it.
+ *
+ *	A tenant's lock is made on first use and kept for the life of the
+ *	table, as a writer may still be waiting on it when the tenant is
+ *	evicted and a tenant's rows may be loaded again.  Tables hold few
+ *	tenants, so the map stays small.
+ */
+public class CFIntBuffTenantLocks
+{
+	protected final ConcurrentHashMap< CFLibDbKeyHash256, ReentrantReadWriteLock > locks = new ConcurrentHashMap<>();
+
+	public CFIntBuffTenantLocks() {
+	}
+
+	/**
+	 *	Get the lock of a tenant.
+	 *
+	 *	@param	TenantId	The tenant id.
+	 *	@return	The tenant's lock.
+	 */
+	public ReentrantReadWriteLock lockFor( CFLibDbKeyHash256 TenantId ) {
+		if( TenantId == null ) {
+			throw new CFLibNullArgumentException( getClass(),
+				"lockFor",
+				1,
+				"TenantId" );
+		}
+		ReentrantReadWriteLock lock = locks.get( TenantId );
+		if( lock == null ) {
+			lock = locks.computeIfAbsent( TenantId, ( key ) -> new ReentrantReadWriteLock() );
+		}
+		return( lock );
+	}
+
+	public int getTenantCount() {
+		return( locks.size() );
+	}
+}
@@ -34,6 +34,7 @@ import java.sql.*;
 import java.text.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.text.StringEscapeUtils;
 import server.markhome.mcf.v3_1.cflib.*;
@@ -44,21 +45,34 @@ import server.markhome.mcf.v3_1.cfint.cfint.*;
 import server.markhome.mcf.v3_1.cfsec.cfsec.buff.*;
 
 public class CFIntBuffTld
-	implements ICFIntTld, Comparable<Object>, Serializable
+	implements ICFIntTld, Comparable<Object>, Externalizable
 {
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffTld, LocalDateTime> CREATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffTld.class, LocalDateTime.class, "createdAt" );
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffTld, LocalDateTime> UPDATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffTld.class, LocalDateTime.class, "updatedAt" );
+
+	public final static CFIntBuffPKeyIdentity<ICFIntTld> PKEY_IDENTITY =
+		CFIntBuffPKeyIdentity.forHashKey( ICFIntTld::getRequiredId, ICFIntTld::getRequiredRevision );
+
+	protected final static CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex( ICFIntTld.S_INIT_CREATED_BY );
+	protected final static CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex( ICFIntTld.S_INIT_UPDATED_BY );
+
 	protected CFLibDbKeyHash256 requiredId;
 	protected int requiredRevision;
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFIntTld.S_INIT_CREATED_BY);
-	protected LocalDateTime createdAt = LocalDateTime.now();
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFIntTld.S_INIT_UPDATED_BY);
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
+	protected volatile LocalDateTime createdAt = null;
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
+	protected volatile LocalDateTime updatedAt = null;
 	protected CFLibDbKeyHash256 requiredTenantId;
 	protected String requiredName;
 	protected String optionalDescription;
+	protected transient int cachedHashCode = 0;
+	protected transient volatile CFIntBuffTldSnapshot cachedSnapshot = null;
 
 	public CFIntBuffTld() {
-		requiredId = CFLibDbKeyHash256.fromHex( ICFIntTld.ID_INIT_VALUE.toString() );
-		requiredTenantId = CFLibDbKeyHash256.fromHex( ICFIntTld.TENANTID_INIT_VALUE.toString() );
+		requiredId = ICFIntTld.ID_INIT_VALUE;
+		requiredTenantId = ICFIntTld.TENANTID_INIT_VALUE;
 		requiredName = ICFIntTld.NAME_INIT_VALUE;
 		optionalDescription = null;
 	}
@@ -71,6 +85,8 @@ public class CFIntBuffTld
 	@Override
 	public void setPKey(CFLibDbKeyHash256 requiredId) {
 		this.requiredId = requiredId;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -87,6 +103,8 @@ public class CFIntBuffTld
 				"value" );
 		}
 		requiredId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -97,16 +115,26 @@ public class CFIntBuffTld
 	@Override
 	public void setCreatedByUserId( CFLibDbKeyHash256 value ) {
 		createdByUserId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
 	public LocalDateTime getCreatedAt() {
-		return( createdAt );
+		LocalDateTime value = createdAt;
+		if( value == null ) {
+			// The first reader stamps it, and every reader sees that one stamp
+			CREATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+			value = createdAt;
+		}
+		return( value );
 	}
 
 	@Override
 	public void setCreatedAt( LocalDateTime value ) {
 		createdAt = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -117,16 +145,26 @@ public class CFIntBuffTld
 	@Override
 	public void setUpdatedByUserId( CFLibDbKeyHash256 value ) {
 		updatedByUserId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
 	public LocalDateTime getUpdatedAt() {
-		return( updatedAt );
+		LocalDateTime value = updatedAt;
+		if( value == null ) {
+			// The first reader stamps it, and every reader sees that one stamp
+			UPDATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+			value = updatedAt;
+		}
+		return( value );
 	}
 
 	@Override
 	public void setUpdatedAt( LocalDateTime value ) {
 		updatedAt = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 	@Override
 	public int getRequiredRevision() {
@@ -136,6 +174,8 @@ public class CFIntBuffTld
 	@Override
 	public void setRequiredRevision( int value ) {
 		requiredRevision = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -166,6 +206,77 @@ public class CFIntBuffTld
 			return( results );
 		}
 	}
+
+	/**
+	 *	Get the TopDomain components as an unmodifiable view over the array read
+	 *	from the table, without copying it into a new list.
+	 *
+	 *	@return	The components; an empty shared list if there are none.
+	 */
+	public List<ICFIntTopDomain> getOptionalComponentsTopDomainView() {
+		ICFIntSchema targetBackingSchema = ICFIntSchema.getBackingCFInt();
+		if (targetBackingSchema == null) {
+			throw new CFLibNullArgumentException(getClass(), "getOptionalComponentsTopDomainView", 0, "ICFIntSchema.getBackingCFInt()");
+		}
+		ICFIntTopDomainTable targetTable = targetBackingSchema.getTableTopDomain();
+		if (targetTable == null) {
+			throw new CFLibNullArgumentException(getClass(), "getOptionalComponentsTopDomainView", 0, "ICFIntSchema.getBackingCFInt().getTableTopDomain()");
+		}
+		ICFIntTopDomain[] targetArr = targetTable.readDerivedByTldIdx(null, getRequiredId());
+		if( ( targetArr == null ) || ( targetArr.length == 0 ) ) {
+			return( Collections.emptyList() );
+		}
+		return( Collections.unmodifiableList(Arrays.asList(targetArr)) );
+	}
+
+	/**
+	 *	Read the TopDomain components of several Tld records at once.  When the
+	 *	backing table is a buffer table all of the parents are resolved in a
+	 *	single pass over its ByTldIdx; otherwise each parent is read in turn.
+	 *
+	 *	@param	parents	The Tld records whose components are wanted.
+	 *
+	 *	@return	A map from each parent id to its components, in argument order.
+	 */
+	public static Map<CFLibDbKeyHash256, List<ICFIntTopDomain>> readOptionalComponentsTopDomain( Collection<? extends ICFIntTld> parents ) {
+		if (parents == null) {
+			throw new CFLibNullArgumentException(CFIntBuffTld.class, "readOptionalComponentsTopDomain", 1, "parents");
+		}
+		ICFIntSchema targetBackingSchema = ICFIntSchema.getBackingCFInt();
+		if (targetBackingSchema == null) {
+			throw new CFLibNullArgumentException(CFIntBuffTld.class, "readOptionalComponentsTopDomain", 0, "ICFIntSchema.getBackingCFInt()");
+		}
+		ICFIntTopDomainTable targetTable = targetBackingSchema.getTableTopDomain();
+		if (targetTable == null) {
+			throw new CFLibNullArgumentException(CFIntBuffTld.class, "readOptionalComponentsTopDomain", 0, "ICFIntSchema.getBackingCFInt().getTableTopDomain()");
+		}
+		List<CFLibDbKeyHash256> parentIds = new ArrayList<>(parents.size());
+		for (ICFIntTld parent : parents) {
+			parentIds.add(parent.getRequiredId());
+		}
+		if (targetTable instanceof CFIntBuffTopDomainTable) {
+			return( ((CFIntBuffTopDomainTable)targetTable).readDerivedByTldIdxBatch(null, parentIds) );
+		}
+		Map<CFLibDbKeyHash256, List<ICFIntTopDomain>> results = new LinkedHashMap<>();
+		for (CFLibDbKeyHash256 parentId : parentIds) {
+			if (results.containsKey(parentId)) {
+				continue;
+			}
+			ICFIntTopDomain[] targetArr = targetTable.readDerivedByTldIdx(null, parentId);
+			List<ICFIntTopDomain> children;
+			if( targetArr != null ) {
+				children = new ArrayList<>(targetArr.length);
+				for (int idx = 0; idx < targetArr.length; idx++) {
+					children.add(targetArr[idx]);
+				}
+			}
+			else {
+				children = new ArrayList<>();
+			}
+			results.put(parentId, children);
+		}
+		return( results );
+	}
 	@Override
 	public ICFSecTenant getRequiredContainerTenant() {
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
@@ -185,13 +296,17 @@ public class CFIntBuffTld
 			throw new CFLibNullArgumentException(getClass(), "setContainerTenant", 1, "argObj");
 		}
 		else {
-			requiredTenantId = argObj.getRequiredId();
+			requiredTenantId = CFIntBuffSchema.canonicalKey( argObj.getRequiredId() );
+			cachedHashCode = 0;
+			cachedSnapshot = null;
 		}
 	}
 
 	@Override
 	public void setRequiredContainerTenant(CFLibDbKeyHash256 argTenantId) {
-		requiredTenantId = argTenantId;
+		requiredTenantId = CFIntBuffSchema.canonicalKey( argTenantId );
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -221,6 +336,8 @@ public class CFIntBuffTld
 				64 );
 		}
 		requiredName = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -239,6 +356,8 @@ public class CFIntBuffTld
 				1024 );
 		}
 		optionalDescription = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -449,22 +568,53 @@ public class CFIntBuffTld
 		}
 	}
 
+	/**
+	 *	Get an immutable snapshot of this record.  The snapshot is cached until
+	 *	a setter changes the record, so records held by the buffer tables,
+	 *	which are never modified in place, hand every reader the same instance.
+	 *
+	 *	@return	The snapshot of the current values.
+	 */
+	public CFIntBuffTldSnapshot toSnapshot() {
+		CFIntBuffTldSnapshot snapshot = cachedSnapshot;
+		if( snapshot == null ) {
+			snapshot = CFIntBuffTldSnapshot.of( this );
+			cachedSnapshot = snapshot;
+		}
+		return( snapshot );
+	}
+
 	@Override
 	public int hashCode() {
+		int hashCode = cachedHashCode;
+		if( hashCode == 0 ) {
+			hashCode = computeHashCode();
+			cachedHashCode = hashCode;
+		}
+		return( hashCode );
+	}
+
+	/**
+	 *	Compute the hash code from the attribute values.  The setters reset
+	 *	the cached value so it is recomputed on the next hashCode() call.
+	 *
+	 *	@return	The non-zero hash code.
+	 */
+	protected int computeHashCode() {
 		int hashCode = 0;
-		hashCode = hashCode + getCreatedByUserId().hashCode();
-		hashCode = hashCode + getCreatedAt().hashCode();
-		hashCode = hashCode + getUpdatedByUserId().hashCode();
-		hashCode = hashCode + getUpdatedAt().hashCode();
-		hashCode = hashCode + getRequiredId().hashCode();
-		hashCode = hashCode + getRequiredTenantId().hashCode();
+		hashCode = CFIntBuffHash.mix( hashCode, getCreatedByUserId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getCreatedAt().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getUpdatedByUserId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getUpdatedAt().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredTenantId().hashCode() );
 		if( getRequiredName() != null ) {
-			hashCode = hashCode + getRequiredName().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getRequiredName().hashCode() );
 		}
 		if( getOptionalDescription() != null ) {
-			hashCode = hashCode + getOptionalDescription().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getOptionalDescription().hashCode() );
 		}
-		return( hashCode & 0x7fffffff );
+		return( CFIntBuffHash.finish( hashCode ) );
 	}
 
 	@Override
@@ -720,21 +870,55 @@ public class CFIntBuffTld
 		setOptionalDescription(src.getOptionalDescription());
 	}
 
+	/**
+	 *	Write this row in the compact CFIntBuffTldCodec form instead of
+	 *	the default field serialization.
+	 */
+	@Override
+	public void writeExternal( ObjectOutput out ) throws IOException {
+		CFIntBuffCodec.writeBlock( out, CFIntBuffTldCodec.encode( this ) );
+	}
+
+	@Override
+	public void readExternal( ObjectInput in ) throws IOException {
+		CFIntBuffTldCodec.decodeInto( CFIntBuffCodec.readBlock( in ), this );
+	}
+
 	@Override
 	public String getXmlAttrFragment() {
-		String ret = ""
-			+ " RequiredId=" + "\"" + getRequiredId().toString() + "\""
-			+ " RequiredRevision=\"" + Integer.toString( getRequiredRevision() ) + "\""
-			+ " RequiredId=" + "\"" + getRequiredId().toString() + "\""
-			+ " RequiredTenantId=" + "\"" + getRequiredTenantId().toString() + "\""
-			+ " RequiredName=" + "\"" + StringEscapeUtils.escapeXml11( getRequiredName() ) + "\""
-			+ " OptionalDescription=" + ( ( getOptionalDescription() == null ) ? "null" : "\"" + StringEscapeUtils.escapeXml11( getOptionalDescription() ) + "\"" );
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toFragment( this::appendXmlAttrs ) );
+	}
+
+	/**
+	 *	Stream the getXmlAttrFragment() attributes to out without building
+	 *	the fragment or any escaped copy of the values.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXmlAttrs( Appendable out ) throws IOException {
+		appendXmlAttrs( new CFIntBuffXmlAttrWriter( out ) );
+	}
+
+	public void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException {
+		writer.attrKey( "RequiredId", getRequiredId() );
+		writer.attrInt( "RequiredRevision", getRequiredRevision() );
+		writer.attrKey( "RequiredId", getRequiredId() );
+		writer.attrKey( "RequiredTenantId", getRequiredTenantId() );
+		writer.attrString( "RequiredName", getRequiredName() );
+		writer.attrOptionalString( "OptionalDescription", getOptionalDescription() );
+	}
+
+	/**
+	 *	Stream this buffer as the same element toString() returns.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXml( Appendable out ) throws IOException {
+		CFIntBuffXmlAttrWriter.appendElement( out, "CFIntBuffTld", this::appendXmlAttrs );
 	}
 
 	@Override
 	public String toString() {
-		String ret = "<CFIntBuffTld" + getXmlAttrFragment() + "/>";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toElement( "CFIntBuffTld", this::appendXmlAttrs ) );
 	}
 }
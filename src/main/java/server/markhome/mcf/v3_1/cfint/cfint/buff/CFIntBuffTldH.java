@@ -34,6 +34,7 @@ import java.sql.*;
 import java.text.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.text.StringEscapeUtils;
 import server.markhome.mcf.v3_1.cflib.*;
@@ -46,19 +47,28 @@ import server.markhome.mcf.v3_1.cfsec.cfsec.buff.*;
 public class CFIntBuffTldH
     implements ICFIntTldH, Comparable<Object>, Serializable
 {
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffTldH, LocalDateTime> CREATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffTldH.class, LocalDateTime.class, "createdAt" );
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffTldH, LocalDateTime> UPDATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffTldH.class, LocalDateTime.class, "updatedAt" );
+
+	protected final static CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex( ICFIntTld.S_INIT_CREATED_BY );
+	protected final static CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex( ICFIntTld.S_INIT_UPDATED_BY );
+
     protected CFIntBuffTldHPKey pkey;
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFIntTld.S_INIT_CREATED_BY);
-	protected LocalDateTime createdAt = LocalDateTime.now();
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFIntTld.S_INIT_UPDATED_BY);
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
+	protected volatile LocalDateTime createdAt = null;
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
+	protected volatile LocalDateTime updatedAt = null;
 	protected CFLibDbKeyHash256 requiredTenantId;
 	protected String requiredName;
 	protected String optionalDescription;
+	protected transient int cachedHashCode = 0;
 
     public CFIntBuffTldH() {
             // The primary key member attributes are initialized on construction
             pkey = new CFIntBuffTldHPKey();
-		requiredTenantId = CFLibDbKeyHash256.fromHex( ICFIntTld.TENANTID_INIT_VALUE.toString() );
+		requiredTenantId = ICFIntTld.TENANTID_INIT_VALUE;
 		requiredName = ICFIntTld.NAME_INIT_VALUE;
 		optionalDescription = null;
     }
@@ -79,11 +89,18 @@ public class CFIntBuffTldH
             throw new CFLibNullArgumentException(getClass(), "setCreatedByUserId", 1, "value");
         }
         createdByUserId = value;
+        cachedHashCode = 0;
     }
 
     @Override
     public LocalDateTime getCreatedAt() {
-        return( createdAt );
+        LocalDateTime value = createdAt;
+        if( value == null ) {
+            // The first reader stamps it, and every reader sees that one stamp
+            CREATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+            value = createdAt;
+        }
+        return( value );
     }
 
     @Override
@@ -92,6 +109,7 @@ public class CFIntBuffTldH
             throw new CFLibNullArgumentException(getClass(), "setCreatedAt", 1, "value");
         }
         createdAt = value;
+        cachedHashCode = 0;
     }
 
     @Override
@@ -105,11 +123,18 @@ public class CFIntBuffTldH
             throw new CFLibNullArgumentException(getClass(), "setUpdatedByUserId", 1, "value");
         }
         updatedByUserId = value;
+        cachedHashCode = 0;
     }
 
     @Override
     public LocalDateTime getUpdatedAt() {
-        return( updatedAt );
+        LocalDateTime value = updatedAt;
+        if( value == null ) {
+            // The first reader stamps it, and every reader sees that one stamp
+            UPDATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+            value = updatedAt;
+        }
+        return( value );
     }
 
     @Override
@@ -118,6 +143,7 @@ public class CFIntBuffTldH
             throw new CFLibNullArgumentException(getClass(), "setUpdatedAt", 1, "value");
         }
         updatedAt = value;
+        cachedHashCode = 0;
     }
 
     @Override
@@ -210,7 +236,8 @@ public class CFIntBuffTldH
 				1,
 				"value" );
 		}
-		requiredTenantId = value;
+		requiredTenantId = CFIntBuffSchema.canonicalKey( value );
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -235,6 +262,7 @@ public class CFIntBuffTldH
 				64 );
 		}
 		requiredName = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -253,6 +281,7 @@ public class CFIntBuffTldH
 				1024 );
 		}
 		optionalDescription = value;
+		cachedHashCode = 0;
 	}
 
     @Override
@@ -449,17 +478,32 @@ public class CFIntBuffTldH
     }
     
     @Override
-    public int hashCode() {
-        int hashCode = pkey.hashCode();
-		hashCode = hashCode + getRequiredTenantId().hashCode();
+	public int hashCode() {
+		int hashCode = cachedHashCode;
+		if( hashCode == 0 ) {
+			hashCode = computeHashCode();
+			cachedHashCode = hashCode;
+		}
+		return( CFIntBuffHash.finish( CFIntBuffHash.mix( pkey.hashCode(), hashCode ) ) );
+	}
+
+	/**
+	 *	Compute the hash of the history attributes other than the primary key,
+	 *	which keeps its own cached hash code.
+	 *
+	 *	@return	The non-zero hash of the non-key attributes.
+	 */
+	protected int computeHashCode() {
+		int hashCode = 0;
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredTenantId().hashCode() );
 		if( getRequiredName() != null ) {
-			hashCode = hashCode + getRequiredName().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getRequiredName().hashCode() );
 		}
 		if( getOptionalDescription() != null ) {
-			hashCode = hashCode + getOptionalDescription().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getOptionalDescription().hashCode() );
 		}
-        return( hashCode & 0x7fffffff );
-    }
+		return( CFIntBuffHash.finish( hashCode ) );
+	}
 
     @Override
     public int compareTo( Object obj ) {
@@ -676,16 +720,37 @@ public class CFIntBuffTldH
     }
 
     public String getXmlAttrFragment() {
-        String ret = pkey.getXmlAttrFragment() 
-			+ " RequiredRevision=\"" + Integer.toString( getRequiredRevision() ) + "\""
-			+ " RequiredTenantId=" + "\"" + getRequiredTenantId().toString() + "\""
-			+ " RequiredName=" + "\"" + StringEscapeUtils.escapeXml11( getRequiredName() ) + "\""
-			+ " OptionalDescription=" + ( ( getOptionalDescription() == null ) ? "null" : "\"" + StringEscapeUtils.escapeXml11( getOptionalDescription() ) + "\"" );
-        return( ret );
+        return( CFIntBuffXmlAttrWriter.toFragment( this::appendXmlAttrs ) );
+    }
+
+    /**
+     *	Stream the getXmlAttrFragment() attributes to out without building
+     *	the fragment or any escaped copy of the values.
+     *
+     *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+     */
+    public void appendXmlAttrs( Appendable out ) throws IOException {
+        appendXmlAttrs( new CFIntBuffXmlAttrWriter( out ) );
+    }
+
+    public void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException {
+        pkey.appendXmlAttrs( writer );
+        writer.attrInt( "RequiredRevision", getRequiredRevision() );
+        writer.attrKey( "RequiredTenantId", getRequiredTenantId() );
+        writer.attrString( "RequiredName", getRequiredName() );
+        writer.attrOptionalString( "OptionalDescription", getOptionalDescription() );
+    }
+
+    /**
+     *	Stream this buffer as the same element toString() returns.
+     *
+     *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+     */
+    public void appendXml( Appendable out ) throws IOException {
+        CFIntBuffXmlAttrWriter.appendElement( out, "CFIntBuffTldH", this::appendXmlAttrs );
     }
 
     public String toString() {
-        String ret = "<CFIntBuffTldH" + getXmlAttrFragment() + "/>";
-        return( ret );
+        return( CFIntBuffXmlAttrWriter.toElement( "CFIntBuffTldH", this::appendXmlAttrs ) );
     }
 }
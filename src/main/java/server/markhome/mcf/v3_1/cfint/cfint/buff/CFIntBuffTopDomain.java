@@ -34,6 +34,7 @@ import java.sql.*;
 import java.text.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.text.StringEscapeUtils;
 import server.markhome.mcf.v3_1.cflib.*;
@@ -44,23 +45,38 @@ import server.markhome.mcf.v3_1.cfint.cfint.*;
 import server.markhome.mcf.v3_1.cfsec.cfsec.buff.*;
 
 public class CFIntBuffTopDomain
-	implements ICFIntTopDomain, Comparable<Object>, Serializable
+	implements ICFIntTopDomain, Comparable<Object>, Externalizable
 {
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffTopDomain, LocalDateTime> CREATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffTopDomain.class, LocalDateTime.class, "createdAt" );
+	protected final static AtomicReferenceFieldUpdater<CFIntBuffTopDomain, LocalDateTime> UPDATED_AT =
+		AtomicReferenceFieldUpdater.newUpdater( CFIntBuffTopDomain.class, LocalDateTime.class, "updatedAt" );
+
+	public final static CFIntBuffPKeyIdentity<ICFIntTopDomain> PKEY_IDENTITY =
+		CFIntBuffPKeyIdentity.forHashKey( ICFIntTopDomain::getRequiredId, ICFIntTopDomain::getRequiredRevision );
+
+	protected final static CFLibDbKeyHash256 INIT_CREATED_BY = CFLibDbKeyHash256.fromHex( ICFIntTopDomain.S_INIT_CREATED_BY );
+	protected final static CFLibDbKeyHash256 INIT_UPDATED_BY = CFLibDbKeyHash256.fromHex( ICFIntTopDomain.S_INIT_UPDATED_BY );
+
 	protected CFLibDbKeyHash256 requiredId;
 	protected int requiredRevision;
-	protected CFLibDbKeyHash256 createdByUserId = CFLibDbKeyHash256.fromHex(ICFIntTopDomain.S_INIT_CREATED_BY);
-	protected LocalDateTime createdAt = LocalDateTime.now();
-	protected CFLibDbKeyHash256 updatedByUserId = CFLibDbKeyHash256.fromHex(ICFIntTopDomain.S_INIT_UPDATED_BY);
-	protected LocalDateTime updatedAt = LocalDateTime.now();
+	protected CFLibDbKeyHash256 createdByUserId = INIT_CREATED_BY;
+	protected volatile LocalDateTime createdAt = null;
+	protected CFLibDbKeyHash256 updatedByUserId = INIT_UPDATED_BY;
+	protected volatile LocalDateTime updatedAt = null;
 	protected CFLibDbKeyHash256 requiredTenantId;
 	protected CFLibDbKeyHash256 requiredTldId;
 	protected String requiredName;
 	protected String optionalDescription;
 
+	protected transient CFIntBuffResolvedRef<ICFIntTld> resolvedContainerParentTld = null;
+	protected transient int cachedHashCode = 0;
+	protected transient volatile CFIntBuffTopDomainSnapshot cachedSnapshot = null;
+
 	public CFIntBuffTopDomain() {
-		requiredId = CFLibDbKeyHash256.fromHex( ICFIntTopDomain.ID_INIT_VALUE.toString() );
-		requiredTenantId = CFLibDbKeyHash256.fromHex( ICFIntTopDomain.TENANTID_INIT_VALUE.toString() );
-		requiredTldId = CFLibDbKeyHash256.fromHex( ICFIntTopDomain.TLDID_INIT_VALUE.toString() );
+		requiredId = ICFIntTopDomain.ID_INIT_VALUE;
+		requiredTenantId = ICFIntTopDomain.TENANTID_INIT_VALUE;
+		requiredTldId = ICFIntTopDomain.TLDID_INIT_VALUE;
 		requiredName = ICFIntTopDomain.NAME_INIT_VALUE;
 		optionalDescription = null;
 	}
@@ -73,6 +89,8 @@ public class CFIntBuffTopDomain
 	@Override
 	public void setPKey(CFLibDbKeyHash256 requiredId) {
 		this.requiredId = requiredId;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -89,6 +107,8 @@ public class CFIntBuffTopDomain
 				"value" );
 		}
 		requiredId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -99,16 +119,26 @@ public class CFIntBuffTopDomain
 	@Override
 	public void setCreatedByUserId( CFLibDbKeyHash256 value ) {
 		createdByUserId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
 	public LocalDateTime getCreatedAt() {
-		return( createdAt );
+		LocalDateTime value = createdAt;
+		if( value == null ) {
+			// The first reader stamps it, and every reader sees that one stamp
+			CREATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+			value = createdAt;
+		}
+		return( value );
 	}
 
 	@Override
 	public void setCreatedAt( LocalDateTime value ) {
 		createdAt = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -119,16 +149,26 @@ public class CFIntBuffTopDomain
 	@Override
 	public void setUpdatedByUserId( CFLibDbKeyHash256 value ) {
 		updatedByUserId = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
 	public LocalDateTime getUpdatedAt() {
-		return( updatedAt );
+		LocalDateTime value = updatedAt;
+		if( value == null ) {
+			// The first reader stamps it, and every reader sees that one stamp
+			UPDATED_AT.compareAndSet( this, null, LocalDateTime.now() );
+			value = updatedAt;
+		}
+		return( value );
 	}
 
 	@Override
 	public void setUpdatedAt( LocalDateTime value ) {
 		updatedAt = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 	@Override
 	public int getRequiredRevision() {
@@ -138,6 +178,8 @@ public class CFIntBuffTopDomain
 	@Override
 	public void setRequiredRevision( int value ) {
 		requiredRevision = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -168,6 +210,77 @@ public class CFIntBuffTopDomain
 			return( results );
 		}
 	}
+
+	/**
+	 *	Get the TopProject components as an unmodifiable view over the array read
+	 *	from the table, without copying it into a new list.
+	 *
+	 *	@return	The components; an empty shared list if there are none.
+	 */
+	public List<ICFIntTopProject> getOptionalComponentsTopProjectView() {
+		ICFIntSchema targetBackingSchema = ICFIntSchema.getBackingCFInt();
+		if (targetBackingSchema == null) {
+			throw new CFLibNullArgumentException(getClass(), "getOptionalComponentsTopProjectView", 0, "ICFIntSchema.getBackingCFInt()");
+		}
+		ICFIntTopProjectTable targetTable = targetBackingSchema.getTableTopProject();
+		if (targetTable == null) {
+			throw new CFLibNullArgumentException(getClass(), "getOptionalComponentsTopProjectView", 0, "ICFIntSchema.getBackingCFInt().getTableTopProject()");
+		}
+		ICFIntTopProject[] targetArr = targetTable.readDerivedByTopDomainIdx(null, getRequiredId());
+		if( ( targetArr == null ) || ( targetArr.length == 0 ) ) {
+			return( Collections.emptyList() );
+		}
+		return( Collections.unmodifiableList(Arrays.asList(targetArr)) );
+	}
+
+	/**
+	 *	Read the TopProject components of several TopDomain records at once.  When the
+	 *	backing table is a buffer table all of the parents are resolved in a
+	 *	single pass over its ByTopDomainIdx; otherwise each parent is read in turn.
+	 *
+	 *	@param	parents	The TopDomain records whose components are wanted.
+	 *
+	 *	@return	A map from each parent id to its components, in argument order.
+	 */
+	public static Map<CFLibDbKeyHash256, List<ICFIntTopProject>> readOptionalComponentsTopProject( Collection<? extends ICFIntTopDomain> parents ) {
+		if (parents == null) {
+			throw new CFLibNullArgumentException(CFIntBuffTopDomain.class, "readOptionalComponentsTopProject", 1, "parents");
+		}
+		ICFIntSchema targetBackingSchema = ICFIntSchema.getBackingCFInt();
+		if (targetBackingSchema == null) {
+			throw new CFLibNullArgumentException(CFIntBuffTopDomain.class, "readOptionalComponentsTopProject", 0, "ICFIntSchema.getBackingCFInt()");
+		}
+		ICFIntTopProjectTable targetTable = targetBackingSchema.getTableTopProject();
+		if (targetTable == null) {
+			throw new CFLibNullArgumentException(CFIntBuffTopDomain.class, "readOptionalComponentsTopProject", 0, "ICFIntSchema.getBackingCFInt().getTableTopProject()");
+		}
+		List<CFLibDbKeyHash256> parentIds = new ArrayList<>(parents.size());
+		for (ICFIntTopDomain parent : parents) {
+			parentIds.add(parent.getRequiredId());
+		}
+		if (targetTable instanceof CFIntBuffTopProjectTable) {
+			return( ((CFIntBuffTopProjectTable)targetTable).readDerivedByTopDomainIdxBatch(null, parentIds) );
+		}
+		Map<CFLibDbKeyHash256, List<ICFIntTopProject>> results = new LinkedHashMap<>();
+		for (CFLibDbKeyHash256 parentId : parentIds) {
+			if (results.containsKey(parentId)) {
+				continue;
+			}
+			ICFIntTopProject[] targetArr = targetTable.readDerivedByTopDomainIdx(null, parentId);
+			List<ICFIntTopProject> children;
+			if( targetArr != null ) {
+				children = new ArrayList<>(targetArr.length);
+				for (int idx = 0; idx < targetArr.length; idx++) {
+					children.add(targetArr[idx]);
+				}
+			}
+			else {
+				children = new ArrayList<>();
+			}
+			results.put(parentId, children);
+		}
+		return( results );
+	}
 	@Override
 	public List<ICFIntLicense> getOptionalComponentsLicense() {
 		ICFIntSchema targetBackingSchema = ICFIntSchema.getBackingCFInt();
@@ -191,6 +304,77 @@ public class CFIntBuffTopDomain
 			return( results );
 		}
 	}
+
+	/**
+	 *	Get the License components as an unmodifiable view over the array read
+	 *	from the table, without copying it into a new list.
+	 *
+	 *	@return	The components; an empty shared list if there are none.
+	 */
+	public List<ICFIntLicense> getOptionalComponentsLicenseView() {
+		ICFIntSchema targetBackingSchema = ICFIntSchema.getBackingCFInt();
+		if (targetBackingSchema == null) {
+			throw new CFLibNullArgumentException(getClass(), "getOptionalComponentsLicenseView", 0, "ICFIntSchema.getBackingCFInt()");
+		}
+		ICFIntLicenseTable targetTable = targetBackingSchema.getTableLicense();
+		if (targetTable == null) {
+			throw new CFLibNullArgumentException(getClass(), "getOptionalComponentsLicenseView", 0, "ICFIntSchema.getBackingCFInt().getTableLicense()");
+		}
+		ICFIntLicense[] targetArr = targetTable.readDerivedByDomainIdx(null, getRequiredId());
+		if( ( targetArr == null ) || ( targetArr.length == 0 ) ) {
+			return( Collections.emptyList() );
+		}
+		return( Collections.unmodifiableList(Arrays.asList(targetArr)) );
+	}
+
+	/**
+	 *	Read the License components of several TopDomain records at once.  When the
+	 *	backing table is a buffer table all of the parents are resolved in a
+	 *	single pass over its ByDomainIdx; otherwise each parent is read in turn.
+	 *
+	 *	@param	parents	The TopDomain records whose components are wanted.
+	 *
+	 *	@return	A map from each parent id to its components, in argument order.
+	 */
+	public static Map<CFLibDbKeyHash256, List<ICFIntLicense>> readOptionalComponentsLicense( Collection<? extends ICFIntTopDomain> parents ) {
+		if (parents == null) {
+			throw new CFLibNullArgumentException(CFIntBuffTopDomain.class, "readOptionalComponentsLicense", 1, "parents");
+		}
+		ICFIntSchema targetBackingSchema = ICFIntSchema.getBackingCFInt();
+		if (targetBackingSchema == null) {
+			throw new CFLibNullArgumentException(CFIntBuffTopDomain.class, "readOptionalComponentsLicense", 0, "ICFIntSchema.getBackingCFInt()");
+		}
+		ICFIntLicenseTable targetTable = targetBackingSchema.getTableLicense();
+		if (targetTable == null) {
+			throw new CFLibNullArgumentException(CFIntBuffTopDomain.class, "readOptionalComponentsLicense", 0, "ICFIntSchema.getBackingCFInt().getTableLicense()");
+		}
+		List<CFLibDbKeyHash256> parentIds = new ArrayList<>(parents.size());
+		for (ICFIntTopDomain parent : parents) {
+			parentIds.add(parent.getRequiredId());
+		}
+		if (targetTable instanceof CFIntBuffLicenseTable) {
+			return( ((CFIntBuffLicenseTable)targetTable).readDerivedByDomainIdxBatch(null, parentIds) );
+		}
+		Map<CFLibDbKeyHash256, List<ICFIntLicense>> results = new LinkedHashMap<>();
+		for (CFLibDbKeyHash256 parentId : parentIds) {
+			if (results.containsKey(parentId)) {
+				continue;
+			}
+			ICFIntLicense[] targetArr = targetTable.readDerivedByDomainIdx(null, parentId);
+			List<ICFIntLicense> children;
+			if( targetArr != null ) {
+				children = new ArrayList<>(targetArr.length);
+				for (int idx = 0; idx < targetArr.length; idx++) {
+					children.add(targetArr[idx]);
+				}
+			}
+			else {
+				children = new ArrayList<>();
+			}
+			results.put(parentId, children);
+		}
+		return( results );
+	}
 	@Override
 	public ICFSecTenant getRequiredOwnerTenant() {
 		ICFSecSchema targetBackingSchema = ICFSecSchema.getBackingCFSec();
@@ -210,13 +394,17 @@ public class CFIntBuffTopDomain
 			throw new CFLibNullArgumentException(getClass(), "setOwnerTenant", 1, "argObj");
 		}
 		else {
-			requiredTenantId = argObj.getRequiredId();
+			requiredTenantId = CFIntBuffSchema.canonicalKey( argObj.getRequiredId() );
+			cachedHashCode = 0;
+			cachedSnapshot = null;
 		}
 	}
 
 	@Override
 	public void setRequiredOwnerTenant(CFLibDbKeyHash256 argTenantId) {
-		requiredTenantId = argTenantId;
+		requiredTenantId = CFIntBuffSchema.canonicalKey( argTenantId );
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -229,6 +417,40 @@ public class CFIntBuffTopDomain
 		if (targetTable == null) {
 			throw new CFLibNullArgumentException(getClass(), "setRequiredContainerParentTld", 0, "ICFIntSchema.getBackingCFInt().getTableTld()");
 		}
+		if( CFIntBuffSchema.isNavigationCacheEnabled() ) {
+			CFIntBuffResolvedRef<ICFIntTld> ref = resolvedContainerParentTld;
+			long stamp = 0L;
+			ICFIntTld targetRec;
+			if( targetTable instanceof ICFIntBuffRevisionSource ) {
+				ICFIntBuffRevisionSource revisionSource = (ICFIntBuffRevisionSource)targetTable;
+				if( ref != null ) {
+					ICFIntTld cachedRec = ref.resolve( revisionSource, getRequiredTldId() );
+					if( cachedRec != null ) {
+						return( cachedRec );
+					}
+				}
+				// Taken before the read, so a change in between fails the next validation
+				stamp = revisionSource.getModStamp();
+				targetRec = targetTable.readDerived(null, getRequiredTldId());
+			}
+			else {
+				// Without a revision source the row is read, but an unchanged one is still shared
+				targetRec = targetTable.readDerived(null, getRequiredTldId());
+				if( ( ref != null ) && ( targetRec != null ) ) {
+					ICFIntTld cachedRec = ref.resolve( targetTable, targetRec.getRequiredId(), targetRec.getRequiredRevision() );
+					if( cachedRec != null ) {
+						return( cachedRec );
+					}
+				}
+			}
+			if( targetRec == null ) {
+				resolvedContainerParentTld = null;
+				return( null );
+			}
+			CFIntBuffTldView view = new CFIntBuffTldView( targetRec );
+			resolvedContainerParentTld = new CFIntBuffResolvedRef<>( targetTable, view.getRequiredId(), view.getRequiredRevision(), view, stamp );
+			return( view );
+		}
 		ICFIntTld targetRec = targetTable.readDerived(null, getRequiredTldId());
 		return(targetRec);
 	}
@@ -238,13 +460,17 @@ public class CFIntBuffTopDomain
 			throw new CFLibNullArgumentException(getClass(), "setContainerParentTld", 1, "argObj");
 		}
 		else {
-			requiredTldId = argObj.getRequiredId();
+			requiredTldId = CFIntBuffSchema.canonicalKey( argObj.getRequiredId() );
+			cachedHashCode = 0;
+			cachedSnapshot = null;
 		}
 	}
 
 	@Override
 	public void setRequiredContainerParentTld(CFLibDbKeyHash256 argTldId) {
-		requiredTldId = argTldId;
+		requiredTldId = CFIntBuffSchema.canonicalKey( argTldId );
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -279,6 +505,8 @@ public class CFIntBuffTopDomain
 				64 );
 		}
 		requiredName = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -297,6 +525,8 @@ public class CFIntBuffTopDomain
 				1024 );
 		}
 		optionalDescription = value;
+		cachedHashCode = 0;
+		cachedSnapshot = null;
 	}
 
 	@Override
@@ -571,23 +801,54 @@ public class CFIntBuffTopDomain
 		}
 	}
 
+	/**
+	 *	Get an immutable snapshot of this record.  The snapshot is cached until
+	 *	a setter changes the record, so records held by the buffer tables,
+	 *	which are never modified in place, hand every reader the same instance.
+	 *
+	 *	@return	The snapshot of the current values.
+	 */
+	public CFIntBuffTopDomainSnapshot toSnapshot() {
+		CFIntBuffTopDomainSnapshot snapshot = cachedSnapshot;
+		if( snapshot == null ) {
+			snapshot = CFIntBuffTopDomainSnapshot.of( this );
+			cachedSnapshot = snapshot;
+		}
+		return( snapshot );
+	}
+
 	@Override
 	public int hashCode() {
+		int hashCode = cachedHashCode;
+		if( hashCode == 0 ) {
+			hashCode = computeHashCode();
+			cachedHashCode = hashCode;
+		}
+		return( hashCode );
+	}
+
+	/**
+	 *	Compute the hash code from the attribute values.  The setters reset
+	 *	the cached value so it is recomputed on the next hashCode() call.
+	 *
+	 *	@return	The non-zero hash code.
+	 */
+	protected int computeHashCode() {
 		int hashCode = 0;
-		hashCode = hashCode + getCreatedByUserId().hashCode();
-		hashCode = hashCode + getCreatedAt().hashCode();
-		hashCode = hashCode + getUpdatedByUserId().hashCode();
-		hashCode = hashCode + getUpdatedAt().hashCode();
-		hashCode = hashCode + getRequiredId().hashCode();
-		hashCode = hashCode + getRequiredTenantId().hashCode();
-		hashCode = hashCode + getRequiredTldId().hashCode();
+		hashCode = CFIntBuffHash.mix( hashCode, getCreatedByUserId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getCreatedAt().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getUpdatedByUserId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getUpdatedAt().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredTenantId().hashCode() );
+		hashCode = CFIntBuffHash.mix( hashCode, getRequiredTldId().hashCode() );
 		if( getRequiredName() != null ) {
-			hashCode = hashCode + getRequiredName().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getRequiredName().hashCode() );
 		}
 		if( getOptionalDescription() != null ) {
-			hashCode = hashCode + getOptionalDescription().hashCode();
+			hashCode = CFIntBuffHash.mix( hashCode, getOptionalDescription().hashCode() );
 		}
-		return( hashCode & 0x7fffffff );
+		return( CFIntBuffHash.finish( hashCode ) );
 	}
 
 	@Override
@@ -886,7 +1147,7 @@ public class CFIntBuffTopDomain
 		setUpdatedByUserId( src.getUpdatedByUserId() );
 		setUpdatedAt( src.getUpdatedAt() );
 		setRequiredOwnerTenant(src.getRequiredTenantId());
-		setRequiredContainerParentTld(src.getRequiredContainerParentTld());
+		setRequiredContainerParentTld(src.getRequiredTldId());
 		setRequiredName(src.getRequiredName());
 		setOptionalDescription(src.getOptionalDescription());
 	}
@@ -905,22 +1166,56 @@ public class CFIntBuffTopDomain
 		setOptionalDescription(src.getOptionalDescription());
 	}
 
+	/**
+	 *	Write this row in the compact CFIntBuffTopDomainCodec form instead of
+	 *	the default field serialization.
+	 */
+	@Override
+	public void writeExternal( ObjectOutput out ) throws IOException {
+		CFIntBuffCodec.writeBlock( out, CFIntBuffTopDomainCodec.encode( this ) );
+	}
+
+	@Override
+	public void readExternal( ObjectInput in ) throws IOException {
+		CFIntBuffTopDomainCodec.decodeInto( CFIntBuffCodec.readBlock( in ), this );
+	}
+
 	@Override
 	public String getXmlAttrFragment() {
-		String ret = ""
-			+ " RequiredId=" + "\"" + getRequiredId().toString() + "\""
-			+ " RequiredRevision=\"" + Integer.toString( getRequiredRevision() ) + "\""
-			+ " RequiredId=" + "\"" + getRequiredId().toString() + "\""
-			+ " RequiredTenantId=" + "\"" + getRequiredTenantId().toString() + "\""
-			+ " RequiredTldId=" + "\"" + getRequiredTldId().toString() + "\""
-			+ " RequiredName=" + "\"" + StringEscapeUtils.escapeXml11( getRequiredName() ) + "\""
-			+ " OptionalDescription=" + ( ( getOptionalDescription() == null ) ? "null" : "\"" + StringEscapeUtils.escapeXml11( getOptionalDescription() ) + "\"" );
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toFragment( this::appendXmlAttrs ) );
+	}
+
+	/**
+	 *	Stream the getXmlAttrFragment() attributes to out without building
+	 *	the fragment or any escaped copy of the values.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXmlAttrs( Appendable out ) throws IOException {
+		appendXmlAttrs( new CFIntBuffXmlAttrWriter( out ) );
+	}
+
+	public void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException {
+		writer.attrKey( "RequiredId", getRequiredId() );
+		writer.attrInt( "RequiredRevision", getRequiredRevision() );
+		writer.attrKey( "RequiredId", getRequiredId() );
+		writer.attrKey( "RequiredTenantId", getRequiredTenantId() );
+		writer.attrKey( "RequiredTldId", getRequiredTldId() );
+		writer.attrString( "RequiredName", getRequiredName() );
+		writer.attrOptionalString( "OptionalDescription", getOptionalDescription() );
+	}
+
+	/**
+	 *	Stream this buffer as the same element toString() returns.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXml( Appendable out ) throws IOException {
+		CFIntBuffXmlAttrWriter.appendElement( out, "CFIntBuffTopDomain", this::appendXmlAttrs );
 	}
 
 	@Override
 	public String toString() {
-		String ret = "<CFIntBuffTopDomain" + getXmlAttrFragment() + "/>";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toElement( "CFIntBuffTopDomain", this::appendXmlAttrs ) );
 	}
 }
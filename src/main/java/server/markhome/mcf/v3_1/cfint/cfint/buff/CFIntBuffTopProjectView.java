@@ -0,0 +1,163 @@
+// Description: Java 25 read-only TopProject record for the CFInt navigation cache.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.io.*;
+import java.time.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+import server.markhome.mcf.v3_1.cfsec.cfsec.*;
+import server.markhome.mcf.v3_1.cfint.cfint.*;
+
+/**
+ *	CFIntBuffTopProjectView is a TopProject record that cannot be modified, so the
+ *	navigation cache can hand the same instance to every caller instead of
+ *	a copy per call.  Every setter throws CFLibNotSupportedException; use
+ *	toBuff() to get an editable copy.  A serialized view reads back as a
+ *	plain CFIntBuffTopProject.
+ */
+public class CFIntBuffTopProjectView
+	extends CFIntBuffTopProject
+{
+	public CFIntBuffTopProjectView( ICFIntTopProject src ) {
+		super();
+		super.setRequiredId(src.getRequiredId());
+		super.setRequiredRevision( src.getRequiredRevision() );
+		super.setCreatedByUserId( src.getCreatedByUserId() );
+		super.setCreatedAt( src.getCreatedAt() );
+		super.setUpdatedByUserId( src.getUpdatedByUserId() );
+		super.setUpdatedAt( src.getUpdatedAt() );
+		super.setRequiredOwnerTenant(src.getRequiredTenantId());
+		super.setRequiredContainerParentSDom(src.getRequiredTopDomainId());
+		super.setRequiredName(src.getRequiredName());
+		super.setOptionalDescription(src.getOptionalDescription());
+	}
+
+	/**
+	 *	Get an editable copy of this record.
+	 *
+	 *	@return	A new buffer record.
+	 */
+	public CFIntBuffTopProject toBuff() {
+		CFIntBuffTopProject buff = new CFIntBuffTopProject();
+		buff.set( this );
+		return( buff );
+	}
+
+	protected Object writeReplace() throws ObjectStreamException {
+		return( toBuff() );
+	}
+
+	@Override
+	public void setPKey( CFLibDbKeyHash256 requiredId ) {
+		throw new CFLibNotSupportedException( getClass(), "setPKey" );
+	}
+
+	@Override
+	public void setRequiredId( CFLibDbKeyHash256 value ) {
+		throw new CFLibNotSupportedException( getClass(), "setRequiredId" );
+	}
+
+	@Override
+	public void setCreatedByUserId( CFLibDbKeyHash256 value ) {
+		throw new CFLibNotSupportedException( getClass(), "setCreatedByUserId" );
+	}
+
+	@Override
+	public void setCreatedAt( LocalDateTime value ) {
+		throw new CFLibNotSupportedException( getClass(), "setCreatedAt" );
+	}
+
+	@Override
+	public void setUpdatedByUserId( CFLibDbKeyHash256 value ) {
+		throw new CFLibNotSupportedException( getClass(), "setUpdatedByUserId" );
+	}
+
+	@Override
+	public void setUpdatedAt( LocalDateTime value ) {
+		throw new CFLibNotSupportedException( getClass(), "setUpdatedAt" );
+	}
+
+	@Override
+	public void setRequiredRevision( int value ) {
+		throw new CFLibNotSupportedException( getClass(), "setRequiredRevision" );
+	}
+
+	@Override
+	public void setRequiredOwnerTenant( ICFSecTenant argObj ) {
+		throw new CFLibNotSupportedException( getClass(), "setRequiredOwnerTenant" );
+	}
+
+	@Override
+	public void setRequiredOwnerTenant( CFLibDbKeyHash256 argTenantId ) {
+		throw new CFLibNotSupportedException( getClass(), "setRequiredOwnerTenant" );
+	}
+
+	@Override
+	public void setRequiredContainerParentSDom( ICFIntTopDomain argObj ) {
+		throw new CFLibNotSupportedException( getClass(), "setRequiredContainerParentSDom" );
+	}
+
+	@Override
+	public void setRequiredContainerParentSDom( CFLibDbKeyHash256 argTopDomainId ) {
+		throw new CFLibNotSupportedException( getClass(), "setRequiredContainerParentSDom" );
+	}
+
+	@Override
+	public void setRequiredName( String value ) {
+		throw new CFLibNotSupportedException( getClass(), "setRequiredName" );
+	}
+
+	@Override
+	public void setOptionalDescription( String value ) {
+		throw new CFLibNotSupportedException( getClass(), "setOptionalDescription" );
+	}
+
+	@Override
+	public void set( ICFIntTopProject src ) {
+		throw new CFLibNotSupportedException( getClass(), "set" );
+	}
+
+	@Override
+	public void setTopProject( ICFIntTopProject src ) {
+		throw new CFLibNotSupportedException( getClass(), "setTopProject" );
+	}
+
+	@Override
+	public void set( ICFIntTopProjectH src ) {
+		throw new CFLibNotSupportedException( getClass(), "set" );
+	}
+
+	@Override
+	public void setTopProject( ICFIntTopProjectH src ) {
+		throw new CFLibNotSupportedException( getClass(), "setTopProject" );
+	}
+
+	@Override
+	public void readExternal( ObjectInput in ) throws IOException {
+		throw new CFLibNotSupportedException( getClass(), "readExternal" );
+	}
+}
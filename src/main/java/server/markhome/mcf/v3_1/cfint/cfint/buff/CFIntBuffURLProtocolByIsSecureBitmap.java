@@ -0,0 +1,121 @@
+// Description: Java 25 bitmap-backed IsSecure index for CFInt URLProtocol buffers
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.util.*;
+
+/**
+ *	CFIntBuffURLProtocolByIsSecureBitmap implements the URLProtocol IsSecure
+ *	index as a pair of BitSets over URLProtocolId, one for the secure and one
+ *	for the insecure partition.  Testing a protocol is a bit test with no key
+ *	object and no boxing.
+ *	<p>
+ *	The bitsets are copy-on-write.  Writers, which the owning table
+ *	serializes, replace them with modified copies.  Readers only ever see a
+ *	complete bitset and need no locking.  URLProtocol is a small, rarely
+ *	updated table, so the copies are cheap.
+ */
+public class CFIntBuffURLProtocolByIsSecureBitmap
+{
+	protected volatile BitSet secureIds = new BitSet();
+	protected volatile BitSet insecureIds = new BitSet();
+
+	public CFIntBuffURLProtocolByIsSecureBitmap() {
+	}
+
+	/**
+	 *	Test whether a protocol is in the secure partition.
+	 *
+	 *	@param	urlProtocolId	The protocol to test.
+	 *	@return	True if the protocol exists and is secure.
+	 */
+	public boolean isSecure( int urlProtocolId ) {
+		return( ( urlProtocolId >= 0 ) && secureIds.get( urlProtocolId ) );
+	}
+
+	/**
+	 *	Test whether a protocol is in the insecure partition.
+	 *
+	 *	@param	urlProtocolId	The protocol to test.
+	 *	@return	True if the protocol exists and is not secure.
+	 */
+	public boolean isInsecure( int urlProtocolId ) {
+		return( ( urlProtocolId >= 0 ) && insecureIds.get( urlProtocolId ) );
+	}
+
+	/**
+	 *	Get the protocol ids in one partition, in ascending order.
+	 *
+	 *	@param	isSecure	The partition to list.
+	 *	@return	The protocol ids.
+	 */
+	public int[] getIds( boolean isSecure ) {
+		BitSet ids = isSecure ? secureIds : insecureIds;
+		return( ids.stream().toArray() );
+	}
+
+	public int getCount( boolean isSecure ) {
+		BitSet ids = isSecure ? secureIds : insecureIds;
+		return( ids.cardinality() );
+	}
+
+	public void add( int urlProtocolId, boolean isSecure ) {
+		if( urlProtocolId < 0 ) {
+			return;
+		}
+		if( isSecure ) {
+			BitSet next = (BitSet)secureIds.clone();
+			next.set( urlProtocolId );
+			secureIds = next;
+		}
+		else {
+			BitSet next = (BitSet)insecureIds.clone();
+			next.set( urlProtocolId );
+			insecureIds = next;
+		}
+	}
+
+	public void remove( int urlProtocolId, boolean isSecure ) {
+		if( urlProtocolId < 0 ) {
+			return;
+		}
+		if( isSecure ) {
+			BitSet next = (BitSet)secureIds.clone();
+			next.clear( urlProtocolId );
+			secureIds = next;
+		}
+		else {
+			BitSet next = (BitSet)insecureIds.clone();
+			next.clear( urlProtocolId );
+			insecureIds = next;
+		}
+	}
+
+	public void clear() {
+		secureIds = new BitSet();
+		insecureIds = new BitSet();
+	}
+}
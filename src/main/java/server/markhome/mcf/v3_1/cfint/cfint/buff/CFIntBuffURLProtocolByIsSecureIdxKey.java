@@ -47,6 +47,7 @@ public class CFIntBuffURLProtocolByIsSecureIdxKey
 	implements ICFIntURLProtocolByIsSecureIdxKey, Comparable<Object>, Serializable
 {
 	protected boolean requiredIsSecure;
+	protected transient int cachedHashCode = 0;
 	public CFIntBuffURLProtocolByIsSecureIdxKey() {
 		requiredIsSecure = ICFIntURLProtocol.ISSECURE_INIT_VALUE;
 	}
@@ -59,6 +60,7 @@ public class CFIntBuffURLProtocolByIsSecureIdxKey
 	@Override
 	public void setRequiredIsSecure( boolean value ) {
 		requiredIsSecure = value;
+		cachedHashCode = 0;
 	}
 
 	@Override
@@ -87,14 +89,29 @@ public class CFIntBuffURLProtocolByIsSecureIdxKey
 
 	@Override
 	public int hashCode() {
+		int hashCode = cachedHashCode;
+		if( hashCode == 0 ) {
+			hashCode = computeHashCode();
+			cachedHashCode = hashCode;
+		}
+		return( hashCode );
+	}
+
+	/**
+	 *	Compute the hash code from the attribute values.  The setters reset
+	 *	the cached value so it is recomputed on the next hashCode() call.
+	 *
+	 *	@return	The non-zero hash code.
+	 */
+	protected int computeHashCode() {
 		int hashCode = 0;
 		if( getRequiredIsSecure() ) {
-			hashCode = ( hashCode * 2 ) + 1;
+			hashCode = CFIntBuffHash.mix( hashCode, 1 );
 		}
 		else {
-			hashCode = hashCode * 2;
+			hashCode = CFIntBuffHash.mix( hashCode, 0 );
 		}
-		return( hashCode & 0x7fffffff );
+		return( CFIntBuffHash.finish( hashCode ) );
 	}
 
 	@Override
@@ -142,14 +159,34 @@ public class CFIntBuffURLProtocolByIsSecureIdxKey
 
 	@Override
 	public String getXmlAttrFragment() {
-		String ret = ""
-			+ " RequiredIsSecure=" + (( getRequiredIsSecure() ) ? "\"true\"" : "\"false\"" );
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toFragment( this::appendXmlAttrs ) );
+	}
+
+	/**
+	 *	Stream the getXmlAttrFragment() attributes to out without building
+	 *	the fragment or any escaped copy of the values.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXmlAttrs( Appendable out ) throws IOException {
+		appendXmlAttrs( new CFIntBuffXmlAttrWriter( out ) );
+	}
+
+	public void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException {
+		writer.attrBoolean( "RequiredIsSecure", getRequiredIsSecure() );
+	}
+
+	/**
+	 *	Stream this buffer as the same element toString() returns.
+	 *
+	 *	@param	out	The Writer, StringBuilder or other Appendable to fill.
+	 */
+	public void appendXml( Appendable out ) throws IOException {
+		CFIntBuffXmlAttrWriter.appendElement( out, "CFIntBuffURLProtocolByIsSecureIdxKey", this::appendXmlAttrs );
 	}
 
 	@Override
 	public String toString() {
-		String ret = "<CFIntBuffURLProtocolByIsSecureIdxKey" + getXmlAttrFragment() + "/>";
-		return( ret );
+		return( CFIntBuffXmlAttrWriter.toElement( "CFIntBuffURLProtocolByIsSecureIdxKey", this::appendXmlAttrs ) );
 	}
 }
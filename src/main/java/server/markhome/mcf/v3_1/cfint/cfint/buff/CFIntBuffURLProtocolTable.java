@@ -0,0 +1,701 @@
+// Description: Java 25 in-memory buffer table implementation for URLProtocol.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.io.*;
+import java.nio.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+import server.markhome.mcf.v3_1.cfsec.cfsec.*;
+import server.markhome.mcf.v3_1.cfint.cfint.*;
+import server.markhome.mcf.v3_1.cfsec.cfsec.buff.*;
+
+/*
+ *	CFIntBuffURLProtocolTable in-memory implementation of ICFIntURLProtocolTable for URLProtocol.
+ *	Rows are held in concurrent hash maps keyed by primary key, with every
+ *	secondary index maintained alongside.  Reads do not lock.  Creates,
+ *	deletes and updates that move a row between index keys are serialized
+ *	by the table write lock.  Updates that leave every index key alone
+ *	share the table lock and serialize on the row's stripe of
+ *	CFIntBuffRowLocks, which it shares with the other rows that hash to
+ *	it; every update is checked against the stored requiredRevision and
+ *	bumps it.
+ */
+public class CFIntBuffURLProtocolTable
+	implements ICFIntURLProtocolTable,
+		ICFIntBuffSnapshotTable,
+		ICFIntBuffHistoryTable
+{
+	protected CFIntBuffSchema schema;
+	protected final ReentrantReadWriteLock tableLock = new ReentrantReadWriteLock();
+	protected final ReentrantReadWriteLock.WriteLock writeLock = tableLock.writeLock();
+	protected final CFIntBuffRowLocks rowLocks = new CFIntBuffRowLocks();
+	protected final AtomicLong modStamp = new AtomicLong();
+	protected final ConcurrentHashMap< Integer, CFIntBuffURLProtocol > dictByPKey
+		= new ConcurrentHashMap<>();
+	protected final ConcurrentHashMap< CFIntBuffURLProtocolByUNameIdxKey, CFIntBuffURLProtocol > dictByUNameIdx
+		= new ConcurrentHashMap<>();
+	protected final CFIntBuffURLProtocolByIsSecureBitmap indexByIsSecure
+		= new CFIntBuffURLProtocolByIsSecureBitmap();
+	protected volatile CFIntBuffSnapshotFile.Section snapshotSection = null;
+	protected final ICFIntBuffHistoryStore< Integer, CFIntBuffURLProtocolH > history;
+
+	public CFIntBuffURLProtocolTable( CFIntBuffSchema argSchema ) {
+		schema = argSchema;
+		history = newHistoryStore();
+	}
+
+	/**
+	 *	Create the store that holds this table's history.  The default is a
+	 *	columnar store sharing the schema's history dictionaries; override
+	 *	to keep the rows as objects in a CFIntBuffHistoryStore instead.
+	 *
+	 *	@return	The history store.
+	 */
+	protected ICFIntBuffHistoryStore< Integer, CFIntBuffURLProtocolH > newHistoryStore() {
+		return( new CFIntBuffColumnarHistoryStore<>( newHistoryLayout(),
+			schema.getHistoryKeyDictionary(),
+			schema.getHistoryStringPool() ) );
+	}
+
+	@Override
+	public ICFIntBuffHistoryStore< Integer, CFIntBuffURLProtocolH > getHistoryStore() {
+		return( history );
+	}
+
+	protected static CFIntBuffColumnarHistoryStore.Layout< Integer, CFIntBuffURLProtocolH > newHistoryLayout() {
+		return( new CFIntBuffColumnarHistoryStore.Layout< Integer, CFIntBuffURLProtocolH >( CFIntBuffURLProtocolH::new, CFIntBuffURLProtocolH[]::new )
+			.id( CFIntBuffURLProtocolH::getRequiredURLProtocolId, CFIntBuffURLProtocolH::setRequiredURLProtocolId )
+			.revision( CFIntBuffURLProtocolH::getRequiredRevision, CFIntBuffURLProtocolH::setRequiredRevision )
+			.auditStamp( CFIntBuffURLProtocolH::getAuditStamp, CFIntBuffURLProtocolH::setAuditStamp )
+			.auditActionId( CFIntBuffURLProtocolH::getAuditActionId, ( hist, value ) -> hist.setAuditActionId( (short)value ) )
+			.auditClusterId( CFIntBuffURLProtocolH::getAuditClusterId, CFIntBuffURLProtocolH::setAuditClusterId )
+			.auditSessionId( CFIntBuffURLProtocolH::getAuditSessionId, CFIntBuffURLProtocolH::setAuditSessionId )
+			.keyColumn( CFIntBuffURLProtocolH::getCreatedByUserId, CFIntBuffURLProtocolH::setCreatedByUserId )
+			.timestampColumn( CFIntBuffURLProtocolH::getCreatedAt, CFIntBuffURLProtocolH::setCreatedAt )
+			.keyColumn( CFIntBuffURLProtocolH::getUpdatedByUserId, CFIntBuffURLProtocolH::setUpdatedByUserId )
+			.timestampColumn( CFIntBuffURLProtocolH::getUpdatedAt, CFIntBuffURLProtocolH::setUpdatedAt )
+			.stringColumn( CFIntBuffURLProtocolH::getRequiredName, CFIntBuffURLProtocolH::setRequiredName )
+			.stringColumn( CFIntBuffURLProtocolH::getRequiredDescription, CFIntBuffURLProtocolH::setRequiredDescription )
+			.intColumn( ( hist ) -> hist.getRequiredIsSecure() ? 1 : 0, ( hist, value ) -> hist.setRequiredIsSecure( value != 0 ) ) );
+	}
+
+	public CFIntBuffSchema getSchema() {
+		return( schema );
+	}
+
+	public long getModStamp() {
+		return( modStamp.get() );
+	}
+
+	public boolean isCurrent( int PKey, int revision ) {
+		CFIntBuffURLProtocol buff = lookupPKey( PKey );
+		return( ( buff != null ) && ( buff.getRequiredRevision() == revision ) );
+	}
+
+	protected CFIntBuffURLProtocol copyRec( ICFIntURLProtocol rec ) {
+		CFIntBuffURLProtocol buff = new CFIntBuffURLProtocol();
+		buff.set( rec );
+		return( buff );
+	}
+
+	protected CFIntBuffURLProtocolByUNameIdxKey newByUNameIdxKey( ICFIntURLProtocol rec ) {
+		CFIntBuffURLProtocolByUNameIdxKey key = new CFIntBuffURLProtocolByUNameIdxKey();
+		key.setRequiredName( rec.getRequiredName() );
+		return( key );
+	}
+
+	protected void indexRec( CFIntBuffURLProtocol buff ) {
+		Integer pkey = buff.getRequiredURLProtocolId();
+		dictByUNameIdx.put( newByUNameIdxKey( buff ), buff );
+		indexByIsSecure.add( pkey, buff.getRequiredIsSecure() );
+		dictByPKey.put( pkey, buff );
+		modStamp.incrementAndGet();
+	}
+
+	protected void unindexRec( CFIntBuffURLProtocol buff ) {
+		Integer pkey = buff.getRequiredURLProtocolId();
+		dictByPKey.remove( pkey );
+		dictByUNameIdx.computeIfPresent( newByUNameIdxKey( buff ),
+			( k, indexed ) -> ( CFIntBuffURLProtocol.PKEY_IDENTITY.withRevisionCheck().equivalent( indexed, buff ) ? null : indexed ) );
+		indexByIsSecure.remove( pkey, buff.getRequiredIsSecure() );
+		modStamp.incrementAndGet();
+	}
+
+	protected ICFIntURLProtocol[] toDerivedArray( Collection< CFIntBuffURLProtocol > values ) {
+		ArrayList< ICFIntURLProtocol > list = new ArrayList<>( values.size() );
+		for( CFIntBuffURLProtocol buff : values ) {
+			list.add( copyRec( buff ) );
+		}
+		return( list.toArray( new ICFIntURLProtocol[ list.size() ] ) );
+	}
+
+	public int getSnapshotClassCode() {
+		return( ICFIntURLProtocol.CLASS_CODE );
+	}
+
+	public int getSnapshotKeyWidth() {
+		return( CFIntBuffSnapshotFile.INT_KEY_WIDTH );
+	}
+
+	public int getSnapshotIndexCount() {
+		return( 0 );
+	}
+
+	public void attachSnapshot( CFIntBuffSnapshotFile.Section section ) {
+		writeLock.lock();
+		try {
+			snapshotSection = section;
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	public void writeSnapshotSection( CFIntBuffSnapshotFile.SectionWriter writer ) throws IOException {
+		faultInAll();
+		writeLock.lock();
+		try {
+			for( CFIntBuffURLProtocol buff : dictByPKey.values() ) {
+				writer.addRow( buff.getRequiredURLProtocolId(), CFIntBuffURLProtocolCodec.encode( buff ) );
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 *	Get a stored row by primary key, decoding it from the attached
+	 *	snapshot if it has not been read since the snapshot was opened.
+	 *
+	 *	@param	PKey	The primary key.
+	 *	@return	The stored row, or null.
+	 */
+	protected CFIntBuffURLProtocol lookupPKey( int PKey ) {
+		CFIntBuffURLProtocol buff = dictByPKey.get( PKey );
+		if( ( buff == null ) && ( snapshotSection != null ) ) {
+			writeLock.lock();
+			try {
+				buff = dictByPKey.get( PKey );
+				CFIntBuffSnapshotFile.Section section = snapshotSection;
+				if( ( buff == null ) && ( section != null ) ) {
+					int row = section.findRow( PKey );
+					if( ( row >= 0 ) && section.claim( row ) ) {
+						buff = CFIntBuffURLProtocolCodec.decode( section.getRow( row ) );
+						schema.getURLProtocolIdGen().advancePast( buff.getRequiredURLProtocolId() );
+						indexRec( buff );
+					}
+				}
+			}
+			finally {
+				writeLock.unlock();
+			}
+		}
+		return( buff );
+	}
+
+	/**
+	 *	Decode every snapshot row that has not been read yet and detach the
+	 *	snapshot.  Secondary index lookups and writes call this first, as
+	 *	their indexes only cover decoded rows.
+	 */
+	protected void faultInAll() {
+		if( snapshotSection == null ) {
+			return;
+		}
+		writeLock.lock();
+		try {
+			CFIntBuffSnapshotFile.Section section = snapshotSection;
+			if( section == null ) {
+				return;
+			}
+			for( int row = section.nextUnclaimed( 0 ); row >= 0; row = section.nextUnclaimed( row + 1 ) ) {
+				if( section.claim( row ) ) {
+					CFIntBuffURLProtocol buff = CFIntBuffURLProtocolCodec.decode( section.getRow( row ) );
+					schema.getURLProtocolIdGen().advancePast( buff.getRequiredURLProtocolId() );
+					if( ! dictByPKey.containsKey( buff.getRequiredURLProtocolId() ) ) {
+						indexRec( buff );
+					}
+				}
+			}
+			snapshotSection = null;
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	protected long logPut( CFIntBuffURLProtocol buff ) {
+		CFIntBuffWriteAheadLog log = schema.getWriteAheadLog();
+		if( log == null ) {
+			return( 0L );
+		}
+		return( log.appendPut( ICFIntURLProtocol.CLASS_CODE, CFIntBuffURLProtocolCodec.encode( buff ) ) );
+	}
+
+	protected long logDelete( int PKey ) {
+		CFIntBuffWriteAheadLog log = schema.getWriteAheadLog();
+		if( log == null ) {
+			return( 0L );
+		}
+		return( log.appendDelete( ICFIntURLProtocol.CLASS_CODE, PKey ) );
+	}
+
+	/**
+	 *	Wait for a logged change to reach disk.  This is called after the
+	 *	table and row locks are released so concurrent writers can share
+	 *	an fsync, so the change is already visible in memory.  If the flush
+	 *	fails the change is in doubt: it may or may not survive a restart.
+	 *	The log refuses every append after a failed flush, so no later
+	 *	change is applied.
+	 *
+	 *	@param	logSeq	The sequence returned by logPut() or logDelete(), or 0.
+	 */
+	protected void awaitLogged( long logSeq ) {
+		CFIntBuffWriteAheadLog log = schema.getWriteAheadLog();
+		if( ( logSeq > 0L ) && ( log != null ) ) {
+			try {
+				log.awaitDurable( logSeq );
+			}
+			catch( IOException e ) {
+				throw new UncheckedIOException( "URLProtocol change was applied but its write-ahead log record may not be durable", e );
+			}
+		}
+	}
+
+	public void replayPut( ByteBuffer payload ) {
+		CFIntBuffURLProtocol buff = CFIntBuffURLProtocolCodec.decode( payload );
+		writeLock.lock();
+		try {
+			CFIntBuffURLProtocol existing = lookupPKey( buff.getRequiredURLProtocolId() );
+			if( existing != null ) {
+				unindexRec( existing );
+			}
+			schema.getURLProtocolIdGen().advancePast( buff.getRequiredURLProtocolId() );
+			indexRec( buff );
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	public void replayDelete( ByteBuffer payload ) {
+		int pkey = payload.getInt();
+		writeLock.lock();
+		try {
+			CFIntBuffURLProtocol existing = lookupPKey( pkey );
+			if( existing != null ) {
+				unindexRec( existing );
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 *	Append a history row for a row version.  Called under the write
+	 *	lock or the row's lock so a row's history stamps follow the order
+	 *	of its changes.
+	 *
+	 *	@param	Authorization	The session authorization, or null.
+	 *	@param	buff	The row version.
+	 *	@param	actionId	The audit action applied to it.
+	 */
+	protected void recordHistory( ICFSecAuthorization Authorization,
+		CFIntBuffURLProtocol buff,
+		short actionId )
+	{
+		CFIntBuffURLProtocolH hist = new CFIntBuffURLProtocolH();
+		hist.set( buff );
+		hist.setAuditStamp( LocalDateTime.now() );
+		hist.setAuditActionId( actionId );
+		if( Authorization != null ) {
+			hist.setAuditClusterId( Authorization.getSecClusterId() );
+			hist.setAuditSessionId( Authorization.getSecSessionId() );
+		}
+		history.add( hist );
+	}
+
+	protected CFIntBuffURLProtocolH copyHistRec( ICFIntURLProtocolH src ) {
+		CFIntBuffURLProtocolH hist = new CFIntBuffURLProtocolH();
+		hist.set( src );
+		hist.setAuditClusterId( src.getAuditClusterId() );
+		hist.setAuditStamp( src.getAuditStamp() );
+		hist.setAuditActionId( src.getAuditActionId() );
+		hist.setAuditSessionId( src.getAuditSessionId() );
+		return( hist );
+	}
+
+	/**
+	 *	Check an update or delete against the stored revision of its row.
+	 *
+	 *	@param	procName	The calling method, for the exception.
+	 *	@param	existing	The stored row, or null.
+	 *	@param	rec	The caller's copy of the row.
+	 */
+	protected void checkRevision( String procName, CFIntBuffURLProtocol existing, ICFIntURLProtocol rec ) {
+		if( existing == null ) {
+			throw new CFLibStaleCacheDetectedException( getClass(), procName, "Existing record not found", "URLProtocol", rec.getRequiredURLProtocolId() );
+		}
+		if( existing.getRequiredRevision() != rec.getRequiredRevision() ) {
+			throw new CFLibCollisionDetectedException( getClass(), procName, rec.getRequiredURLProtocolId() );
+		}
+	}
+
+	/**
+	 *	Check whether a new version of a row keeps every index key of the
+	 *	stored version, so it can replace it without reindexing.
+	 */
+	protected boolean sameIndexKeys( CFIntBuffURLProtocol existing, CFIntBuffURLProtocol buff ) {
+		if( ! newByUNameIdxKey( existing ).equals( newByUNameIdxKey( buff ) ) ) {
+			return( false );
+		}
+		if( existing.getRequiredIsSecure() != buff.getRequiredIsSecure() ) {
+			return( false );
+		}
+		return( true );
+	}
+
+	/**
+	 *	Swap a new version of a row into every index in place of the
+	 *	stored version.  The caller holds the row's lock and has checked
+	 *	sameIndexKeys(), so no index entry is added or removed.
+	 */
+	protected void replaceIndexed( CFIntBuffURLProtocol existing, CFIntBuffURLProtocol buff ) {
+		Integer pkey = buff.getRequiredURLProtocolId();
+		dictByUNameIdx.put( newByUNameIdxKey( buff ), buff );
+		dictByPKey.put( pkey, buff );
+		modStamp.incrementAndGet();
+	}
+
+	public ICFIntURLProtocol createURLProtocol( ICFSecAuthorization Authorization,
+		ICFIntURLProtocol rec )
+	{
+		final String S_ProcName = "createURLProtocol";
+		if( rec == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 2, "rec" );
+		}
+		faultInAll();
+		if( rec.getRequiredURLProtocolId() == ICFIntURLProtocol.URLPROTOCOLID_INIT_VALUE ) {
+			rec.setRequiredURLProtocolId( schema.nextURLProtocolIdGen() );
+		}
+		else {
+			schema.getURLProtocolIdGen().advancePast( rec.getRequiredURLProtocolId() );
+		}
+		CFIntBuffURLProtocol buff = copyRec( rec );
+		long logSeq = 0L;
+		writeLock.lock();
+		try {
+			Integer pkey = buff.getRequiredURLProtocolId();
+			if( dictByPKey.containsKey( pkey ) ) {
+				throw new CFLibPrimaryKeyNotNewException( getClass(), S_ProcName, pkey );
+			}
+			CFIntBuffURLProtocolByUNameIdxKey keyUNameIdx = newByUNameIdxKey( buff );
+			if( dictByUNameIdx.containsKey( keyUNameIdx ) ) {
+				throw new CFLibUniqueIndexViolationException( getClass(), S_ProcName, "URLProtocolUNameIdx", keyUNameIdx );
+			}
+			logSeq = logPut( buff );
+			indexRec( buff );
+			recordHistory( Authorization, buff, ICFIntBuffHistoryStore.AUDIT_ACTION_CREATE );
+		}
+		finally {
+			writeLock.unlock();
+		}
+		awaitLogged( logSeq );
+		return( copyRec( buff ) );
+	}
+
+	public ICFIntURLProtocol updateURLProtocol( ICFSecAuthorization Authorization,
+		ICFIntURLProtocol rec )
+	{
+		final String S_ProcName = "updateURLProtocol";
+		if( rec == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 2, "rec" );
+		}
+		CFIntBuffURLProtocol buff = copyRec( rec );
+		faultInAll();
+		Integer pkey = buff.getRequiredURLProtocolId();
+		// A stale revision fails here without taking any lock
+		checkRevision( S_ProcName, dictByPKey.get( pkey ), buff );
+		long logSeq = 0L;
+		boolean replaced = false;
+		ReentrantLock rowLock = rowLocks.lockFor( pkey );
+		tableLock.readLock().lock();
+		try {
+			rowLock.lock();
+			try {
+				CFIntBuffURLProtocol existing = dictByPKey.get( pkey );
+				checkRevision( S_ProcName, existing, buff );
+				if( sameIndexKeys( existing, buff ) ) {
+					buff.setRequiredRevision( existing.getRequiredRevision() + 1 );
+					logSeq = logPut( buff );
+					replaceIndexed( existing, buff );
+					recordHistory( Authorization, buff, ICFIntBuffHistoryStore.AUDIT_ACTION_UPDATE );
+					replaced = true;
+				}
+			}
+			finally {
+				rowLock.unlock();
+			}
+		}
+		finally {
+			tableLock.readLock().unlock();
+		}
+		if( ! replaced ) {
+			writeLock.lock();
+			try {
+				CFIntBuffURLProtocol existing = dictByPKey.get( pkey );
+				checkRevision( S_ProcName, existing, buff );
+				CFIntBuffURLProtocolByUNameIdxKey keyUNameIdx = newByUNameIdxKey( buff );
+				CFIntBuffURLProtocol conflictUNameIdx = dictByUNameIdx.get( keyUNameIdx );
+				if( ( conflictUNameIdx != null ) && ( conflictUNameIdx != existing ) ) {
+					throw new CFLibUniqueIndexViolationException( getClass(), S_ProcName, "URLProtocolUNameIdx", keyUNameIdx );
+				}
+				buff.setRequiredRevision( existing.getRequiredRevision() + 1 );
+				logSeq = logPut( buff );
+				unindexRec( existing );
+				indexRec( buff );
+				recordHistory( Authorization, buff, ICFIntBuffHistoryStore.AUDIT_ACTION_UPDATE );
+			}
+			finally {
+				writeLock.unlock();
+			}
+		}
+		awaitLogged( logSeq );
+		return( copyRec( buff ) );
+	}
+
+	public void deleteURLProtocol( ICFSecAuthorization Authorization,
+		ICFIntURLProtocol rec )
+	{
+		final String S_ProcName = "deleteURLProtocol";
+		if( rec == null ) {
+			throw new CFLibNullArgumentException( getClass(), S_ProcName, 2, "rec" );
+		}
+		deleteRow( Authorization, S_ProcName, rec.getRequiredURLProtocolId(), rec );
+	}
+
+	public void deleteURLProtocolByIdIdx( ICFSecAuthorization Authorization,
+		int argKey )
+	{
+		deleteRow( Authorization, "deleteURLProtocolByIdIdx", argKey, null );
+	}
+
+	/**
+	 *	Delete a row under the write lock, so the version checked is the
+	 *	version deleted.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	procName	The calling method, for exceptions.
+	 *	@param	argKey	The primary key of the row.
+	 *	@param	rec	The caller's copy of the row, whose revision must match
+	 *		the stored one, or null to delete whatever version is stored.
+	 */
+	protected void deleteRow( ICFSecAuthorization Authorization,
+		String procName,
+		int argKey,
+		ICFIntURLProtocol rec )
+	{
+		long logSeq = 0L;
+		writeLock.lock();
+		try {
+			CFIntBuffURLProtocol existing = lookupPKey( argKey );
+			if( rec != null ) {
+				checkRevision( procName, existing, rec );
+			}
+			if( existing != null ) {
+				logSeq = logDelete( argKey );
+				unindexRec( existing );
+				recordHistory( Authorization, existing, ICFIntBuffHistoryStore.AUDIT_ACTION_DELETE );
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+		awaitLogged( logSeq );
+	}
+
+	public void deleteURLProtocolByUNameIdx( ICFSecAuthorization Authorization,
+		String argName )
+	{
+		ICFIntURLProtocol match = readDerivedByUNameIdx( Authorization, argName );
+		if( match != null ) {
+			deleteURLProtocolByIdIdx( Authorization, match.getRequiredURLProtocolId() );
+		}
+	}
+
+	public void deleteURLProtocolByIsSecureIdx( ICFSecAuthorization Authorization,
+		boolean argIsSecure )
+	{
+		ICFIntURLProtocol[] matches = readDerivedByIsSecureIdx( Authorization, argIsSecure );
+		for( ICFIntURLProtocol match : matches ) {
+			deleteURLProtocolByIdIdx( Authorization, match.getRequiredURLProtocolId() );
+		}
+	}
+
+	public ICFIntURLProtocol readDerived( ICFSecAuthorization Authorization,
+		int PKey )
+	{
+		CFIntBuffURLProtocol buff = lookupPKey( PKey );
+		if( buff == null ) {
+			return( null );
+		}
+		return( copyRec( buff ) );
+	}
+
+	/**
+	 *	Read a row as a shared immutable snapshot instead of a private copy.
+	 *	Every reader of the same row version gets the same instance.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	PKey	The primary key of the row.
+	 *	@return	The snapshot, or null if the row does not exist.
+	 */
+	public CFIntBuffURLProtocolSnapshot readSnapshot( ICFSecAuthorization Authorization,
+		int PKey )
+	{
+		CFIntBuffURLProtocol buff = lookupPKey( PKey );
+		if( buff == null ) {
+			return( null );
+		}
+		return( buff.toSnapshot() );
+	}
+
+	public ICFIntURLProtocol lockDerived( ICFSecAuthorization Authorization,
+		int PKey )
+	{
+		return( readDerived( Authorization, PKey ) );
+	}
+
+	/**
+	 *	Read a row as it stood at a point in time, rebuilt from the
+	 *	history recorded by this table.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	PKey	The primary key of the row.
+	 *	@param	asOf	The point in time.
+	 *	@return	The row version current at asOf, or null if the row did
+	 *		not exist then or had been deleted.
+	 */
+	public ICFIntURLProtocol readDerivedAsOf( ICFSecAuthorization Authorization,
+		int PKey,
+		LocalDateTime asOf )
+	{
+		CFIntBuffURLProtocolH hist = history.readAsOf( PKey, asOf );
+		if( hist == null ) {
+			return( null );
+		}
+		CFIntBuffURLProtocol buff = new CFIntBuffURLProtocol();
+		buff.set( hist );
+		buff.setRequiredRevision( hist.getRequiredRevision() );
+		return( buff );
+	}
+
+	/**
+	 *	Read the recorded history of a row, oldest first.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	PKey	The primary key of the row.
+	 *	@return	Copies of the history rows.
+	 */
+	public ICFIntURLProtocolH[] readHistory( ICFSecAuthorization Authorization,
+		int PKey )
+	{
+		CFIntBuffURLProtocolH[] rows = history.readHistory( PKey );
+		if( ! history.isSharingRows() ) {
+			return( rows );
+		}
+		ICFIntURLProtocolH[] ret = new ICFIntURLProtocolH[ rows.length ];
+		for( int i = 0; i < rows.length; i++ ) {
+			ret[i] = copyHistRec( rows[i] );
+		}
+		return( ret );
+	}
+
+	public ICFIntURLProtocol[] readAllDerived( ICFSecAuthorization Authorization ) {
+		faultInAll();
+		return( toDerivedArray( dictByPKey.values() ) );
+	}
+
+	public ICFIntURLProtocol readDerivedByIdIdx( ICFSecAuthorization Authorization,
+		int URLProtocolId )
+	{
+		return( readDerived( Authorization, URLProtocolId ) );
+	}
+
+	public ICFIntURLProtocol readDerivedByUNameIdx( ICFSecAuthorization Authorization,
+		String Name )
+	{
+		faultInAll();
+		CFIntBuffURLProtocolByUNameIdxKey key = new CFIntBuffURLProtocolByUNameIdxKey();
+		key.setRequiredName( Name );
+		CFIntBuffURLProtocol buff = dictByUNameIdx.get( key );
+		if( buff == null ) {
+			return( null );
+		}
+		return( copyRec( buff ) );
+	}
+
+	public ICFIntURLProtocol[] readDerivedByIsSecureIdx( ICFSecAuthorization Authorization,
+		boolean IsSecure )
+	{
+		faultInAll();
+		int[] ids = indexByIsSecure.getIds( IsSecure );
+		ArrayList< CFIntBuffURLProtocol > matches = new ArrayList<>( ids.length );
+		for( int id : ids ) {
+			CFIntBuffURLProtocol buff = dictByPKey.get( id );
+			if( buff != null ) {
+				matches.add( buff );
+			}
+		}
+		return( toDerivedArray( matches ) );
+	}
+
+	/**
+	 *	Test whether a protocol is secure without reading or copying its row.
+	 *	This is a single bit test against the IsSecure index.
+	 *
+	 *	@param	Authorization	The session authorization.
+	 *	@param	URLProtocolId	The protocol to test.
+	 *	@return	True if the protocol exists and is secure.
+	 */
+	public boolean isSecureURLProtocol( ICFSecAuthorization Authorization,
+		int URLProtocolId )
+	{
+		faultInAll();
+		return( indexByIsSecure.isSecure( URLProtocolId ) );
+	}
+
+	public void releasePreparedStatements() {
+	}
+}
@@ -0,0 +1,116 @@
+// Description: Java 25 weak canonicalizing pool for CFInt buffer values
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.lang.ref.*;
+import java.util.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffWeakInterner maps equal immutable values to one canonical
+ *	instance, so that large caches hold a single copy of each repeated id or
+ *	name.  Entries are weak: a canonical instance is dropped once nothing
+ *	else refers to it.  The pool is split into stripes, each with its own
+ *	lock, to keep concurrent loaders from contending.
+ *	<p>
+ *	Only immutable values may be interned.
+ */
+public class CFIntBuffWeakInterner<T>
+{
+	public final static int STRIPES = 16;
+
+	/**
+	 *	The shared pool of CFLibDbKeyHash256 ids.
+	 */
+	public final static CFIntBuffWeakInterner<CFLibDbKeyHash256> KEYS = new CFIntBuffWeakInterner<>();
+
+	/**
+	 *	The shared pool of attribute strings such as names.
+	 */
+	public final static CFIntBuffWeakInterner<String> STRINGS = new CFIntBuffWeakInterner<>();
+
+	protected final ArrayList< WeakHashMap< T, WeakReference<T> > > stripes;
+
+	public CFIntBuffWeakInterner() {
+		stripes = new ArrayList<>( STRIPES );
+		for( int idx = 0; idx < STRIPES; idx ++ ) {
+			stripes.add( new WeakHashMap<>() );
+		}
+	}
+
+	/**
+	 *	Get the canonical instance equal to a value, making the value canonical
+	 *	if there is none yet.
+	 *
+	 *	@param	value	The value to intern; may be null.
+	 *	@return	The canonical instance, or null if value is null.
+	 */
+	public T intern( T value ) {
+		if( value == null ) {
+			return( null );
+		}
+		WeakHashMap< T, WeakReference<T> > stripe = stripeFor( value );
+		synchronized( stripe ) {
+			WeakReference<T> ref = stripe.get( value );
+			T canon = ( ref == null ) ? null : ref.get();
+			if( canon == null ) {
+				stripe.put( value, new WeakReference<>( value ) );
+				canon = value;
+			}
+			return( canon );
+		}
+	}
+
+	/**
+	 *	Get the number of live canonical instances.  The count is approximate
+	 *	while the garbage collector is clearing entries.
+	 *
+	 *	@return	The number of pooled values.
+	 */
+	public int size() {
+		int size = 0;
+		for( WeakHashMap< T, WeakReference<T> > stripe : stripes ) {
+			synchronized( stripe ) {
+				size += stripe.size();
+			}
+		}
+		return( size );
+	}
+
+	public void clear() {
+		for( WeakHashMap< T, WeakReference<T> > stripe : stripes ) {
+			synchronized( stripe ) {
+				stripe.clear();
+			}
+		}
+	}
+
+	protected WeakHashMap< T, WeakReference<T> > stripeFor( T value ) {
+		int hash = value.hashCode();
+		hash ^= hash >>> 16;
+		return( stripes.get( hash & ( STRIPES - 1 ) ) );
+	}
+}
@@ -0,0 +1,509 @@
+// Description: Java 25 append-only write-ahead log for the CFInt buffer tables.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.locks.*;
+import java.util.zip.CRC32C;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/*
+ *	CFIntBuffWriteAheadLog records every put, delete and tenant eviction
+ *	applied to the CFInt buffer tables so they can be replayed after a
+ *	snapshot.
+ *
+ *	Writers append a record while they hold the table or row lock that
+ *	orders the change, which only queues it in memory, and then wait for
+ *	it to become durable after releasing the lock.  The first waiter becomes the flush leader: it
+ *	takes everything queued so far, writes it with one gathering write and
+ *	one fsync, and wakes every writer the batch covered.  Writers arriving
+ *	during a flush queue up for the next one, so the fsync rate stays
+ *	bounded however many threads are writing.  An optional group commit
+ *	delay lets the leader wait briefly for more records before flushing.
+ *
+ *	The file is a header of MAGIC, FORMAT_VERSION and the base sequence,
+ *	followed by records of:
+ *
+ *	<pre>
+ *	int	bodyLength
+ *	int	CRC32C of the body
+ *	body:
+ *		long	sequence
+ *		byte	op
+ *		int	classCode
+ *		payload	the CFIntBuff*Codec row for OP_PUT, the primary key for OP_DELETE,
+ *			the tenant id for OP_EVICT_TENANT
+ *	</pre>
+ *
+ *	A torn or corrupt record ends the log; open() truncates it away.
+ *	<p>
+ *	Tables append a change before they apply it, so a change the log
+ *	refuses is never seen.  A failed flush is different: the changes of
+ *	that batch are already applied in memory, and their waiters are told
+ *	they are in doubt.  From then on the log refuses every append, so no
+ *	further change is applied until the log is reopened.
+ */
+public class CFIntBuffWriteAheadLog
+	implements Closeable
+{
+	public final static int MAGIC = 0x43464957;
+	public final static int FORMAT_VERSION = 1;
+
+	public final static byte OP_PUT = 1;
+	public final static byte OP_DELETE = 2;
+	public final static byte OP_EVICT_TENANT = 3;
+
+	protected final static int FILE_HEADER_SIZE = 4 + 4 + 8;
+	protected final static int RECORD_PREFIX_SIZE = 4 + 4;
+	protected final static int BODY_HEADER_SIZE = 8 + 1 + 4;
+
+	/**
+	 *	Receives the records of a log during replay.
+	 */
+	@FunctionalInterface
+	public interface Replayer {
+		void apply( long sequence, byte op, int classCode, ByteBuffer payload );
+	}
+
+	protected final Path path;
+	protected final long groupCommitNanos;
+	protected final ReentrantLock appendLock = new ReentrantLock();
+	protected final Condition durableChanged = appendLock.newCondition();
+	protected FileChannel channel;
+	protected ArrayList< ByteBuffer > pending = new ArrayList<>();
+	protected long lastSequence;
+	protected long durableSequence;
+	protected boolean flushing = false;
+	protected IOException failure = null;
+
+	protected CFIntBuffWriteAheadLog( Path argPath, FileChannel argChannel, long argLastSequence, long argGroupCommitNanos ) {
+		path = argPath;
+		channel = argChannel;
+		lastSequence = argLastSequence;
+		durableSequence = argLastSequence;
+		groupCommitNanos = argGroupCommitNanos;
+	}
+
+	/**
+	 *	Open a log for appending, creating it if it does not exist and
+	 *	truncating any torn record left at its end by a crash.
+	 *
+	 *	@param	path	The log file.
+	 *	@param	groupCommitMicros	How long a flush leader waits for more
+	 *		records before writing, or 0 to flush immediately.
+	 *	@return	The open log.
+	 */
+	public static CFIntBuffWriteAheadLog open( Path path, int groupCommitMicros ) throws IOException {
+		if( groupCommitMicros < 0 ) {
+			throw new CFLibArgumentUnderflowException( CFIntBuffWriteAheadLog.class,
+				"open",
+				2,
+				"groupCommitMicros",
+				groupCommitMicros,
+				0 );
+		}
+		FileChannel channel = FileChannel.open( path,
+			StandardOpenOption.CREATE,
+			StandardOpenOption.READ,
+			StandardOpenOption.WRITE );
+		try {
+			long lastSequence;
+			if( channel.size() < FILE_HEADER_SIZE ) {
+				channel.truncate( 0 );
+				writeHeader( channel, 0 );
+				channel.force( true );
+				lastSequence = 0;
+			}
+			else {
+				long[] end = scan( channel, Long.MAX_VALUE, null );
+				if( end[0] < channel.size() ) {
+					channel.truncate( end[0] );
+					channel.force( true );
+				}
+				lastSequence = end[1];
+			}
+			channel.position( channel.size() );
+			return( new CFIntBuffWriteAheadLog( path, channel, lastSequence, groupCommitMicros * 1000L ) );
+		}
+		catch( IOException | RuntimeException e ) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	public Path getPath() {
+		return( path );
+	}
+
+	/**
+	 *	Get the sequence of the most recently appended record.  Tables append
+	 *	and apply a change under the same lock, so every record up to it has
+	 *	been applied once its table's write lock can be taken.
+	 *
+	 *	@return	The last assigned sequence.
+	 */
+	public long getLastSequence() {
+		appendLock.lock();
+		try {
+			return( lastSequence );
+		}
+		finally {
+			appendLock.unlock();
+		}
+	}
+
+	public long getDurableSequence() {
+		appendLock.lock();
+		try {
+			return( durableSequence );
+		}
+		finally {
+			appendLock.unlock();
+		}
+	}
+
+	public long appendPut( int classCode, ByteBuffer encoded ) {
+		return( append( OP_PUT, classCode, encoded ) );
+	}
+
+	public long appendDelete( int classCode, CFLibDbKeyHash256 key ) {
+		ByteBuffer payload = ByteBuffer.allocate( CFIntBuffCodec.sizeOfKey( key ) );
+		CFIntBuffCodec.putKey( payload, key );
+		payload.flip();
+		return( append( OP_DELETE, classCode, payload ) );
+	}
+
+	public long appendDelete( int classCode, int key ) {
+		ByteBuffer payload = ByteBuffer.allocate( CFIntBuffCodec.INT_SIZE );
+		payload.putInt( key );
+		payload.flip();
+		return( append( OP_DELETE, classCode, payload ) );
+	}
+
+	public long appendEvictTenant( int classCode, CFLibDbKeyHash256 tenantId ) {
+		ByteBuffer payload = ByteBuffer.allocate( CFIntBuffCodec.sizeOfKey( tenantId ) );
+		CFIntBuffCodec.putKey( payload, tenantId );
+		payload.flip();
+		return( append( OP_EVICT_TENANT, classCode, payload ) );
+	}
+
+	/**
+	 *	Queue a record.  Nothing is written until a caller waits for it.
+	 *
+	 *	@return	The sequence assigned to the record.
+	 */
+	protected long append( byte op, int classCode, ByteBuffer payload ) {
+		appendLock.lock();
+		try {
+			if( failure != null ) {
+				throw new UncheckedIOException( "Write-ahead log " + path + " has failed", failure );
+			}
+			long seq = ++lastSequence;
+			pending.add( encodeRecord( seq, op, classCode, payload ) );
+			return( seq );
+		}
+		finally {
+			appendLock.unlock();
+		}
+	}
+
+	/**
+	 *	Wait until the record with the given sequence has been written and
+	 *	forced to disk, flushing the queue if no other thread is doing so.
+	 *
+	 *	@param	seq	The sequence returned by an append.
+	 */
+	public void awaitDurable( long seq ) throws IOException {
+		appendLock.lock();
+		try {
+			while( durableSequence < seq ) {
+				if( failure != null ) {
+					throw new IOException( "Write-ahead log " + path + " has failed", failure );
+				}
+				if( flushing ) {
+					durableChanged.await();
+					continue;
+				}
+				flushing = true;
+				try {
+					if( groupCommitNanos > 0 ) {
+						durableChanged.awaitNanos( groupCommitNanos );
+					}
+					long batchSequence = lastSequence;
+					ArrayList< ByteBuffer > batch = pending;
+					pending = new ArrayList<>();
+					IOException err = null;
+					appendLock.unlock();
+					try {
+						writeBatch( batch );
+					}
+					catch( IOException e ) {
+						err = e;
+					}
+					finally {
+						appendLock.lock();
+					}
+					if( err != null ) {
+						failure = err;
+					}
+					else if( batchSequence > durableSequence ) {
+						durableSequence = batchSequence;
+					}
+				}
+				finally {
+					flushing = false;
+					durableChanged.signalAll();
+				}
+			}
+		}
+		catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException( "Interrupted waiting for write-ahead log " + path );
+		}
+		finally {
+			appendLock.unlock();
+		}
+	}
+
+	protected void writeBatch( ArrayList< ByteBuffer > batch ) throws IOException {
+		if( batch.isEmpty() ) {
+			return;
+		}
+		ByteBuffer[] bufs = batch.toArray( new ByteBuffer[ batch.size() ] );
+		long remaining = 0;
+		for( ByteBuffer buf : bufs ) {
+			remaining += buf.remaining();
+		}
+		while( remaining > 0 ) {
+			remaining -= channel.write( bufs );
+		}
+		channel.force( false );
+	}
+
+	/**
+	 *	Flush and force every record appended so far.
+	 */
+	public void sync() throws IOException {
+		awaitDurable( getLastSequence() );
+	}
+
+	/**
+	 *	Replay the durable records of this log with a sequence after
+	 *	afterSequence.  Records still queued in memory are not replayed.
+	 *
+	 *	@param	afterSequence	The sequence already covered, usually that of
+	 *		the snapshot the tables were restored from.
+	 *	@param	replayer	Receives each record in sequence order.
+	 *	@return	The sequence of the last record in the log.
+	 */
+	public long replay( long afterSequence, Replayer replayer ) throws IOException {
+		appendLock.lock();
+		try {
+			return( scan( channel, afterSequence, replayer )[1] );
+		}
+		finally {
+			appendLock.unlock();
+		}
+	}
+
+	/**
+	 *	Drop every record up to and including seq, typically once a snapshot
+	 *	covering them has been written.  Records after seq are copied to a
+	 *	new file that replaces the log; appenders wait while this runs.
+	 *
+	 *	@param	seq	The last sequence to drop.
+	 */
+	public void discardThrough( long seq ) throws IOException {
+		sync();
+		appendLock.lock();
+		try {
+			while( flushing ) {
+				durableChanged.awaitUninterruptibly();
+			}
+			// Records appended since sync() are still queued and go to the new file
+			Path tmpPath = path.resolveSibling( path.getFileName().toString() + ".tmp" );
+			try( FileChannel tmp = FileChannel.open( tmpPath,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE ) )
+			{
+				writeHeader( tmp, Math.min( seq, durableSequence ) );
+				// writeHeader() writes by position, so append the records after it
+				tmp.position( FILE_HEADER_SIZE );
+				scan( channel, seq, ( recSeq, op, classCode, payload ) -> {
+					ByteBuffer rec = encodeRecord( recSeq, op, classCode, payload );
+					try {
+						while( rec.hasRemaining() ) {
+							tmp.write( rec );
+						}
+					}
+					catch( IOException e ) {
+						throw new UncheckedIOException( e );
+					}
+				} );
+				tmp.force( true );
+			}
+			catch( UncheckedIOException e ) {
+				throw e.getCause();
+			}
+			Files.move( tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+			FileChannel retired = channel;
+			channel = FileChannel.open( path, StandardOpenOption.READ, StandardOpenOption.WRITE );
+			channel.position( channel.size() );
+			retired.close();
+		}
+		finally {
+			appendLock.unlock();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			if( failure == null ) {
+				sync();
+			}
+		}
+		finally {
+			appendLock.lock();
+			try {
+				channel.close();
+			}
+			finally {
+				appendLock.unlock();
+			}
+		}
+	}
+
+	protected static ByteBuffer encodeRecord( long seq, byte op, int classCode, ByteBuffer payload ) {
+		int bodyLength = BODY_HEADER_SIZE + payload.remaining();
+		ByteBuffer rec = ByteBuffer.allocate( RECORD_PREFIX_SIZE + bodyLength );
+		rec.putInt( bodyLength );
+		rec.putInt( 0 );
+		rec.putLong( seq );
+		rec.put( op );
+		rec.putInt( classCode );
+		rec.put( payload );
+		CRC32C crc = new CRC32C();
+		crc.update( rec.array(), RECORD_PREFIX_SIZE, bodyLength );
+		rec.putInt( 4, (int)crc.getValue() );
+		rec.flip();
+		return( rec );
+	}
+
+	protected static void writeHeader( FileChannel channel, long baseSequence ) throws IOException {
+		ByteBuffer head = ByteBuffer.allocate( FILE_HEADER_SIZE );
+		head.putInt( MAGIC );
+		head.putInt( FORMAT_VERSION );
+		head.putLong( baseSequence );
+		head.flip();
+		long pos = 0;
+		while( head.hasRemaining() ) {
+			pos += channel.write( head, pos );
+		}
+	}
+
+	/**
+	 *	Walk the valid records of a log file.
+	 *
+	 *	@param	channel	The log file.
+	 *	@param	afterSequence	Records at or before this sequence are skipped.
+	 *	@param	replayer	Receives the remaining records, or null.
+	 *	@return	The file offset just past the last valid record, and the
+	 *		sequence of that record (or the base sequence of an empty log).
+	 */
+	protected static long[] scan( FileChannel channel, long afterSequence, Replayer replayer ) throws IOException {
+		ByteBuffer head = ByteBuffer.allocate( FILE_HEADER_SIZE );
+		if( !readFully( channel, head, 0 ) ) {
+			throw new EOFException( "Write-ahead log header is incomplete" );
+		}
+		head.flip();
+		if( head.getInt() != MAGIC ) {
+			throw new StreamCorruptedException( "Not a CFInt buffer write-ahead log" );
+		}
+		int version = head.getInt();
+		if( version != FORMAT_VERSION ) {
+			throw new CFLibArgumentOverflowException( CFIntBuffWriteAheadLog.class,
+				"scan",
+				1,
+				"version",
+				version,
+				FORMAT_VERSION );
+		}
+		long lastSeq = head.getLong();
+		long pos = FILE_HEADER_SIZE;
+		long size = channel.size();
+		ByteBuffer prefix = ByteBuffer.allocate( RECORD_PREFIX_SIZE );
+		CRC32C crc = new CRC32C();
+		while( pos + RECORD_PREFIX_SIZE <= size ) {
+			prefix.clear();
+			if( !readFully( channel, prefix, pos ) ) {
+				break;
+			}
+			prefix.flip();
+			int bodyLength = prefix.getInt();
+			int expectedCrc = prefix.getInt();
+			if( ( bodyLength < BODY_HEADER_SIZE ) || ( pos + RECORD_PREFIX_SIZE + bodyLength > size ) ) {
+				break;
+			}
+			ByteBuffer body = ByteBuffer.allocate( bodyLength );
+			if( !readFully( channel, body, pos + RECORD_PREFIX_SIZE ) ) {
+				break;
+			}
+			crc.reset();
+			crc.update( body.array(), 0, bodyLength );
+			if( (int)crc.getValue() != expectedCrc ) {
+				break;
+			}
+			body.flip();
+			long seq = body.getLong();
+			byte op = body.get();
+			int classCode = body.getInt();
+			if( ( replayer != null ) && ( seq > afterSequence ) ) {
+				replayer.apply( seq, op, classCode, body.slice() );
+			}
+			lastSeq = seq;
+			pos += RECORD_PREFIX_SIZE + bodyLength;
+		}
+		return( new long[] { pos, lastSeq } );
+	}
+
+	protected static boolean readFully( FileChannel channel, ByteBuffer dst, long pos ) throws IOException {
+		while( dst.hasRemaining() ) {
+			int n = channel.read( dst, pos );
+			if( n < 0 ) {
+				return( false );
+			}
+			pos += n;
+		}
+		return( true );
+	}
+}
@@ -0,0 +1,255 @@
+// Description: Java 25 streaming XML attribute writer for the CFInt buffers.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.io.*;
+import java.time.*;
+import org.apache.commons.text.StringEscapeUtils;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+import server.markhome.mcf.v3_1.cflib.xml.CFLibXmlUtil;
+
+/*
+ *	CFIntBuffXmlAttrWriter streams the attributes produced by the buffer
+ *	getXmlAttrFragment() methods straight to a Writer or Appendable.
+ *	Values are escaped with the same XML 1.1 translator as
+ *	StringEscapeUtils.escapeXml11() and timestamps are formatted by
+ *	CFLibXmlUtil, so the streamed text is identical to the String form,
+ *	but no escaped copy of a value is ever built.
+ */
+public class CFIntBuffXmlAttrWriter
+{
+	/**
+	 *	A buffer that can stream its attributes to a writer.
+	 */
+	@FunctionalInterface
+	public interface Source {
+		void appendXmlAttrs( CFIntBuffXmlAttrWriter writer ) throws IOException;
+	}
+
+	protected final Writer out;
+
+	public CFIntBuffXmlAttrWriter( Appendable dest ) {
+		if( dest == null ) {
+			throw new CFLibNullArgumentException( getClass(),
+				"constructor",
+				1,
+				"dest" );
+		}
+		if( dest instanceof Writer ) {
+			out = (Writer)dest;
+		}
+		else {
+			out = new AppendableWriter( dest );
+		}
+	}
+
+	/**
+	 *	Get the underlying Writer, for callers that mix attribute output
+	 *	with their own markup.
+	 *
+	 *	@return	The Writer all output is sent to.
+	 */
+	public Writer getWriter() {
+		return( out );
+	}
+
+	public CFIntBuffXmlAttrWriter openElement( String tag ) throws IOException {
+		out.write( '<' );
+		out.write( tag );
+		return( this );
+	}
+
+	public CFIntBuffXmlAttrWriter closeEmptyElement() throws IOException {
+		out.write( "/>" );
+		return( this );
+	}
+
+	public CFIntBuffXmlAttrWriter attrKey( String name, CFLibDbKeyHash256 value ) throws IOException {
+		writeName( name );
+		out.write( '"' );
+		out.write( ( value != null ) ? value.toString() : "null" );
+		out.write( '"' );
+		return( this );
+	}
+
+	public CFIntBuffXmlAttrWriter attrInt( String name, int value ) throws IOException {
+		writeName( name );
+		out.write( '"' );
+		out.write( Integer.toString( value ) );
+		out.write( '"' );
+		return( this );
+	}
+
+	public CFIntBuffXmlAttrWriter attrBoolean( String name, boolean value ) throws IOException {
+		writeName( name );
+		out.write( value ? "\"true\"" : "\"false\"" );
+		return( this );
+	}
+
+	public CFIntBuffXmlAttrWriter attrTimestamp( String name, LocalDateTime value ) throws IOException {
+		writeName( name );
+		out.write( '"' );
+		out.write( ( value != null ) ? CFLibXmlUtil.formatTimestamp( value ) : "null" );
+		out.write( '"' );
+		return( this );
+	}
+
+	/**
+	 *	Write a required string attribute, escaping the value as it is copied.
+	 *
+	 *	@param	name	The attribute name.
+	 *	@param	value	The unescaped value.
+	 *	@return	This writer.
+	 */
+	public CFIntBuffXmlAttrWriter attrString( String name, String value ) throws IOException {
+		writeName( name );
+		out.write( '"' );
+		if( value != null ) {
+			StringEscapeUtils.ESCAPE_XML11.translate( value, out );
+		}
+		else {
+			out.write( "null" );
+		}
+		out.write( '"' );
+		return( this );
+	}
+
+	/**
+	 *	Write an optional string attribute.  A null value is written as
+	 *	an unquoted null, matching getXmlAttrFragment().
+	 *
+	 *	@param	name	The attribute name.
+	 *	@param	value	The unescaped value, or null.
+	 *	@return	This writer.
+	 */
+	public CFIntBuffXmlAttrWriter attrOptionalString( String name, String value ) throws IOException {
+		if( value == null ) {
+			writeName( name );
+			out.write( "null" );
+			return( this );
+		}
+		return( attrString( name, value ) );
+	}
+
+	protected void writeName( String name ) throws IOException {
+		out.write( ' ' );
+		out.write( name );
+		out.write( '=' );
+	}
+
+	/**
+	 *	Render a source's attributes as a String.
+	 *
+	 *	@param	src	The buffer to render.
+	 *	@return	The attribute fragment.
+	 */
+	public static String toFragment( Source src ) {
+		StringWriter buff = new StringWriter();
+		try {
+			src.appendXmlAttrs( new CFIntBuffXmlAttrWriter( buff ) );
+		}
+		catch( IOException e ) {
+			throw new UncheckedIOException( e );
+		}
+		return( buff.toString() );
+	}
+
+	/**
+	 *	Render a source as an empty element carrying its attributes.
+	 *
+	 *	@param	tag	The element name.
+	 *	@param	src	The buffer to render.
+	 *	@return	The element text.
+	 */
+	public static String toElement( String tag, Source src ) {
+		StringWriter buff = new StringWriter();
+		try {
+			appendElement( buff, tag, src );
+		}
+		catch( IOException e ) {
+			throw new UncheckedIOException( e );
+		}
+		return( buff.toString() );
+	}
+
+	/**
+	 *	Stream a source as an empty element carrying its attributes.
+	 *
+	 *	@param	dest	The output.
+	 *	@param	tag	The element name.
+	 *	@param	src	The buffer to render.
+	 */
+	public static void appendElement( Appendable dest, String tag, Source src ) throws IOException {
+		CFIntBuffXmlAttrWriter writer = new CFIntBuffXmlAttrWriter( dest );
+		writer.openElement( tag );
+		src.appendXmlAttrs( writer );
+		writer.closeEmptyElement();
+	}
+
+	/*
+	 *	Adapts a plain Appendable such as a StringBuilder to the Writer
+	 *	interface the escape translator requires.
+	 */
+	protected static class AppendableWriter
+		extends Writer
+	{
+		protected final Appendable dest;
+
+		protected AppendableWriter( Appendable argDest ) {
+			dest = argDest;
+		}
+
+		@Override
+		public void write( int c ) throws IOException {
+			dest.append( (char)c );
+		}
+
+		@Override
+		public void write( char[] cbuf, int off, int len ) throws IOException {
+			for( int i = 0; i < len; i++ ) {
+				dest.append( cbuf[ off + i ] );
+			}
+		}
+
+		@Override
+		public void write( String str, int off, int len ) throws IOException {
+			dest.append( str, off, off + len );
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if( dest instanceof Flushable ) {
+				( (Flushable)dest ).flush();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+	}
+}
@@ -0,0 +1,49 @@
+// Description: Java 25 container buffer table interface for CFInt.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.util.concurrent.locks.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	ICFIntBuffContainerTable is implemented by the buffer tables whose
+ *	deletes cascade to rows of other tables.  A delete holds its row's lock
+ *	from its revision check through the cascade, so a child table that
+ *	writes a row under the same lock can never leave it behind a deleted
+ *	container.
+ */
+public interface ICFIntBuffContainerTable
+{
+	/**
+	 *	Lock a container row against deletion while a child row is written
+	 *	under it.  Take it before any lock of the child's table.
+	 *
+	 *	@param	PKey	The primary key of the container row.
+	 *	@return	The held lock, which the caller must unlock, or null if
+	 *		the row does not exist.
+	 */
+	ReentrantLock lockContainer( CFLibDbKeyHash256 PKey );
+}
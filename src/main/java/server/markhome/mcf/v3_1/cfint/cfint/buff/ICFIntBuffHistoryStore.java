@@ -0,0 +1,141 @@
+// Description: Java 25 history store interface for the CFInt buffer tables.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ *	ICFIntBuffHistoryStore is implemented by the in-memory backends that hold
+ *	the CFIntBuff*H rows of one entity and answer as-of reads over them.
+ *	Rows of a key are ordered by auditStamp and then revision.
+ */
+public interface ICFIntBuffHistoryStore< K, H >
+{
+	/**
+	 *	The CFSec AuditAction ids recorded against history rows.
+	 */
+	public final static short AUDIT_ACTION_CREATE = 0;
+	public final static short AUDIT_ACTION_UPDATE = 1;
+	public final static short AUDIT_ACTION_DELETE = 2;
+
+	/**
+	 *	Add a history row.  The store may keep the row itself, so the
+	 *	caller must not modify it afterwards.
+	 *
+	 *	@param	row	The history row to add.
+	 */
+	void add( H row );
+
+	/**
+	 *	Find the row that was current for a key at a point in time.
+	 *
+	 *	@param	id	The primary key.
+	 *
+	 *	@param	asOf	The point in time.
+	 *
+	 *	@return	The last row stamped at or before asOf, or null if the key
+	 *		did not exist then or had been deleted.
+	 */
+	H readAsOf( K id, LocalDateTime asOf );
+
+	/**
+	 *	Get every history row of a key, oldest first.
+	 *
+	 *	@param	id	The primary key.
+	 *
+	 *	@return	The rows, or an empty array.
+	 */
+	H[] readHistory( K id );
+
+	/**
+	 *	Get the history rows of a key stamped in [from, to).
+	 *
+	 *	@param	id	The primary key.
+	 *
+	 *	@param	from	The inclusive lower bound, or null for no bound.
+	 *
+	 *	@param	to	The exclusive upper bound, or null for no bound.
+	 *
+	 *	@return	The rows, oldest first.
+	 */
+	H[] readHistory( K id, LocalDateTime from, LocalDateTime to );
+
+	/**
+	 *	Check whether the rows read back are the stored rows themselves,
+	 *	which a caller must copy before handing out, rather than rows
+	 *	built for the read.
+	 *
+	 *	@return	True if reads return stored rows.
+	 */
+	boolean isSharingRows();
+
+	int getIdCount();
+
+	Set< K > getIds();
+
+	/**
+	 *	Get the number of history rows held for all keys.
+	 *
+	 *	@return	The row count.
+	 */
+	long getRowCount();
+
+	/**
+	 *	Apply a retention policy to the history of one key.  Only that
+	 *	key's rows are touched, and readers keep seeing either the old or
+	 *	the new set of rows.
+	 *
+	 *	@param	id	The primary key.
+	 *
+	 *	@param	policy	The retention policy.
+	 *
+	 *	@param	now	The time the policy's age limit is measured from.
+	 *
+	 *	@return	The number of rows dropped.
+	 */
+	int compact( K id, CFIntBuffHistoryRetentionPolicy policy, LocalDateTime now );
+
+	/**
+	 *	Release the space held by rows that were dropped, if the backend
+	 *	holds on to it.  Readers are not blocked.  A backend that has to
+	 *	move rows to release their space moves them in small steps, so
+	 *	that an add waits for at most one step rather than the whole
+	 *	reclaim.
+	 *
+	 *	@return	The number of rows whose space was released.
+	 */
+	long reclaim();
+
+	/**
+	 *	Drop all history of a key.
+	 *
+	 *	@param	id	The primary key.
+	 */
+	void remove( K id );
+
+	void clear();
+}
@@ -0,0 +1,41 @@
+// Description: Java 25 interface of the CFInt buffer tables that record history.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+/**
+ *	ICFIntBuffHistoryTable is implemented by the buffer tables that record
+ *	a CFIntBuff*H row for every change, so maintenance such as history
+ *	compaction can reach their stores without knowing the entity.
+ */
+public interface ICFIntBuffHistoryTable
+{
+	/**
+	 *	Get the store holding the table's history rows.
+	 *
+	 *	@return	The history store.
+	 */
+	ICFIntBuffHistoryStore< ?, ? > getHistoryStore();
+}
@@ -0,0 +1,60 @@
+// Description: Java 25 interface for buffer tables that can validate cached references
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	ICFIntBuffRevisionSource is implemented by the tables that hold
+ *	navigation targets, so a record can tell whether a reference it resolved
+ *	earlier is still current without re-reading the row.  It depends on
+ *	nothing but the row key and requiredRevision, so any backing table can
+ *	implement it to make the navigation cache work over it.
+ */
+public interface ICFIntBuffRevisionSource
+{
+	/**
+	 *	Get the modification stamp of the table.  The stamp changes whenever a
+	 *	row is added, replaced or removed, so an unchanged stamp means every
+	 *	previously read row is still current.
+	 *
+	 *	@return	The current modification stamp.
+	 */
+	long getModStamp();
+
+	/**
+	 *	Check whether a row is still present at the given revision.  Every
+	 *	update bumps requiredRevision, so an unchanged revision means the row
+	 *	is unchanged.
+	 *
+	 *	@param	PKey	The primary key of the row.
+	 *
+	 *	@param	revision	The requiredRevision the row was read at.
+	 *
+	 *	@return	true if the row exists at that revision.
+	 */
+	boolean isCurrent( CFLibDbKeyHash256 PKey, int revision );
+}
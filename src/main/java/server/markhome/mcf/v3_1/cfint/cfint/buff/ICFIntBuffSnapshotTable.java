@@ -0,0 +1,92 @@
+// Description: Java 25 interface for buffer tables that can be snapshotted.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.io.*;
+import java.nio.*;
+
+/**
+ *	ICFIntBuffSnapshotTable is implemented by the buffer tables that can be
+ *	dumped to a CFIntBuffSnapshotFile, lazily restored from one, and brought
+ *	up to date from a CFIntBuffWriteAheadLog.
+ */
+public interface ICFIntBuffSnapshotTable
+{
+	/**
+	 *	Get the class code of the rows the table holds, which names its
+	 *	section in the snapshot file.
+	 *
+	 *	@return	The entity class code.
+	 */
+	int getSnapshotClassCode();
+
+	/**
+	 *	Get the width of the raw primary key in the snapshot index.
+	 *
+	 *	@return	CFIntBuffSnapshotFile.HASH_KEY_WIDTH or INT_KEY_WIDTH.
+	 */
+	int getSnapshotKeyWidth();
+
+	/**
+	 *	Get the number of secondary indexes the table writes into its
+	 *	section, so it can later decode only the rows of one tenant or
+	 *	container.
+	 *
+	 *	@return	The number of foreign keys passed with each row.
+	 */
+	int getSnapshotIndexCount();
+
+	/**
+	 *	Encode every row of the table into writer.
+	 *
+	 *	@param	writer	The section being written.
+	 */
+	void writeSnapshotSection( CFIntBuffSnapshotFile.SectionWriter writer ) throws IOException;
+
+	/**
+	 *	Serve rows missing from the table out of section, decoding each one
+	 *	the first time it is read, either by primary key or along with the
+	 *	other rows of its tenant or container.
+	 *
+	 *	@param	section	The table's section, or null to detach.
+	 */
+	void attachSnapshot( CFIntBuffSnapshotFile.Section section );
+
+	/**
+	 *	Apply a logged put, replacing any stored row with the same key.
+	 *	Replay skips validation and does not log or cascade.
+	 *
+	 *	@param	payload	The row in its CFIntBuff*Codec form.
+	 */
+	void replayPut( ByteBuffer payload );
+
+	/**
+	 *	Apply a logged delete of a single row, if it is present.
+	 *
+	 *	@param	payload	The encoded primary key.
+	 */
+	void replayDelete( ByteBuffer payload );
+}
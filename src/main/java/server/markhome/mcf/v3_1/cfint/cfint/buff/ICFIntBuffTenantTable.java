@@ -0,0 +1,57 @@
+// Description: Java 25 tenant striped buffer table interface for CFInt.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import java.nio.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	ICFIntBuffTenantTable is implemented by the buffer tables whose writers
+ *	hold a per-tenant read lock, so that evicting one tenant only waits for
+ *	that tenant's writers, and whose rows are indexed by tenant, so that a
+ *	tenant's rows can be evicted together.  The rows of every tenant still
+ *	share the table's maps.
+ */
+public interface ICFIntBuffTenantTable
+{
+	/**
+	 *	Evict every row of a tenant from the table, logging the eviction
+	 *	as one record.  Each row is removed from every index, so the cost
+	 *	grows with the tenant's rows.  Nothing cascades and no history is
+	 *	recorded.
+	 *
+	 *	@param	TenantId	The tenant to evict.
+	 *	@return	The number of rows evicted.
+	 */
+	int evictTenant( CFLibDbKeyHash256 TenantId );
+
+	/**
+	 *	Apply a logged tenant eviction.
+	 *
+	 *	@param	payload	The encoded tenant id.
+	 */
+	void replayEvictTenant( ByteBuffer payload );
+}
@@ -0,0 +1,130 @@
+// Description: Java 25 unit tests for the deferred CFInt buffer audit stamps.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import org.junit.jupiter.api.*;
+
+/**
+ *	CFIntBuffAuditStampTest checks that a record's deferred createdAt,
+ *	updatedAt and history auditStamp are stamped once: every reader, on
+ *	any thread, sees the same value, and copies carry it along.
+ */
+public class CFIntBuffAuditStampTest
+{
+	protected final static LocalDateTime STAMP = LocalDateTime.of( 2026, 1, 1, 12, 30, 15 );
+
+	/**
+	 *	Read a value on several threads released together.
+	 *
+	 *	@param	read	The getter to race.
+	 *	@return	The distinct values read, by identity.
+	 */
+	protected static int distinctReads( Supplier< LocalDateTime > read ) throws Exception {
+		final int threads = 8;
+		CountDownLatch start = new CountDownLatch( 1 );
+		ExecutorService executor = Executors.newFixedThreadPool( threads );
+		try {
+			ArrayList< Future< LocalDateTime > > futures = new ArrayList<>();
+			for( int t = 0; t < threads; t++ ) {
+				futures.add( executor.submit( () -> {
+					start.await();
+					return( read.get() );
+				} ) );
+			}
+			start.countDown();
+			Set< LocalDateTime > seen = Collections.newSetFromMap( new IdentityHashMap<>() );
+			for( Future< LocalDateTime > future : futures ) {
+				LocalDateTime value = future.get();
+				assertNotNull( value );
+				seen.add( value );
+			}
+			return( seen.size() );
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void racingReadersSeeOneCreatedAt() throws Exception {
+		for( int round = 0; round < 100; round++ ) {
+			CFIntBuffTopDomain rec = new CFIntBuffTopDomain();
+			assertEquals( 1, distinctReads( rec::getCreatedAt ) );
+			assertEquals( 1, distinctReads( rec::getUpdatedAt ) );
+		}
+	}
+
+	@Test
+	public void racingReadersSeeOneHistoryStamp() throws Exception {
+		for( int round = 0; round < 100; round++ ) {
+			CFIntBuffTopDomainH hist = new CFIntBuffTopDomainH();
+			assertEquals( 1, distinctReads( hist::getCreatedAt ) );
+			CFIntBuffTopDomainHPKey key = new CFIntBuffTopDomainHPKey();
+			assertEquals( 1, distinctReads( key::getAuditStamp ) );
+		}
+	}
+
+	@Test
+	public void stampDoesNotChangeOnceRead() throws Exception {
+		CFIntBuffTopDomain rec = new CFIntBuffTopDomain();
+		LocalDateTime first = rec.getCreatedAt();
+		int hash = rec.hashCode();
+		Thread.sleep( 5 );
+		assertSame( first, rec.getCreatedAt() );
+		assertEquals( hash, rec.hashCode() );
+	}
+
+	@Test
+	public void copiesCarryTheStamp() {
+		CFIntBuffTopDomain src = new CFIntBuffTopDomain();
+		CFIntBuffTopDomain first = new CFIntBuffTopDomain();
+		first.set( src );
+		CFIntBuffTopDomain second = new CFIntBuffTopDomain();
+		second.set( src );
+		assertEquals( src.getCreatedAt(), first.getCreatedAt() );
+		assertEquals( src.getUpdatedAt(), second.getUpdatedAt() );
+		assertEquals( first, second );
+		assertEquals( first.hashCode(), second.hashCode() );
+	}
+
+	@Test
+	public void explicitStampIsKept() {
+		CFIntBuffTopDomain rec = new CFIntBuffTopDomain();
+		rec.setCreatedAt( STAMP );
+		rec.setUpdatedAt( STAMP );
+		assertEquals( STAMP, rec.getCreatedAt() );
+		assertEquals( STAMP, rec.getUpdatedAt() );
+		CFIntBuffTopDomainHPKey key = new CFIntBuffTopDomainHPKey();
+		key.setAuditStamp( STAMP );
+		assertEquals( STAMP, key.getAuditStamp() );
+	}
+}
@@ -0,0 +1,202 @@
+// Description: Java 25 unit tests for the CFInt buffer field codec.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.*;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import org.junit.jupiter.api.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffCodecTest round-trips the field encodings of CFIntBuffCodec and
+ *	checks that an entity codec's decodeInto() overwrites every column of a
+ *	reused record, including the ones that decode as null.
+ */
+public class CFIntBuffCodecTest
+{
+	protected final static LocalDateTime STAMP = LocalDateTime.of( 2026, 1, 1, 12, 30, 15, 123456789 );
+
+	protected final static String[] STRINGS = {
+		"",
+		"plain ascii",
+		"caf\u00e9 \u00fcber",
+		"\u65e5\u672c\u8a9e",
+		"emoji \ud83d\ude00 pair",
+		"lone high \ud83d surrogate",
+		"lone low \ude00 surrogate",
+		"trailing high \ud83d"
+	};
+
+	protected static CFLibDbKeyHash256 key( String suffix ) {
+		String hex = "0000000000000000000000000000000000000000000000000000000000000000";
+		return( CFLibDbKeyHash256.fromHex( hex.substring( suffix.length() ) + suffix ) );
+	}
+
+	protected static ByteBuffer roundTripKey( CFLibDbKeyHash256 value ) {
+		ByteBuffer buf = ByteBuffer.allocate( CFIntBuffCodec.sizeOfKey( value ) );
+		CFIntBuffCodec.putKey( buf, value );
+		assertFalse( buf.hasRemaining(), "sizeOfKey matches the bytes written" );
+		buf.flip();
+		return( buf );
+	}
+
+	@Test
+	public void keyRoundTripsPresentValue() {
+		CFLibDbKeyHash256 value = key( "1d2eff" );
+		ByteBuffer buf = roundTripKey( value );
+		assertEquals( value, CFIntBuffCodec.getKey( buf ) );
+		assertFalse( buf.hasRemaining() );
+	}
+
+	@Test
+	public void keyRoundTripsAbsentValue() {
+		ByteBuffer buf = roundTripKey( null );
+		assertNull( CFIntBuffCodec.getKey( buf ) );
+		assertFalse( buf.hasRemaining() );
+	}
+
+	@Test
+	public void keyRoundTripsNullValue() {
+		CFLibDbKeyHash256 value = CFLibDbKeyHash256.nullGet();
+		ByteBuffer buf = roundTripKey( value );
+		assertEquals( CFIntBuffCodec.KEY_NULL_VALUE, buf.get( 0 ) );
+		CFLibDbKeyHash256 decoded = CFIntBuffCodec.getKey( buf );
+		assertNotNull( decoded );
+		assertTrue( decoded.isNull() );
+		assertFalse( buf.hasRemaining() );
+	}
+
+	@Test
+	public void timestampRoundTrips() {
+		ByteBuffer buf = ByteBuffer.allocate( 2 * CFIntBuffCodec.TIMESTAMP_SIZE );
+		CFIntBuffCodec.putTimestamp( buf, STAMP );
+		CFIntBuffCodec.putTimestamp( buf, null );
+		buf.flip();
+		assertEquals( STAMP, CFIntBuffCodec.getTimestamp( buf ) );
+		assertNull( CFIntBuffCodec.getTimestamp( buf ) );
+		assertFalse( buf.hasRemaining() );
+	}
+
+	@Test
+	public void stringRoundTrips() {
+		for( String value : STRINGS ) {
+			ByteBuffer buf = ByteBuffer.allocate( CFIntBuffCodec.sizeOfString( value ) );
+			CFIntBuffCodec.putString( buf, value );
+			assertFalse( buf.hasRemaining(), "sizeOfString matches the bytes written" );
+			buf.flip();
+			String expected = new String( value.getBytes( StandardCharsets.UTF_8 ), StandardCharsets.UTF_8 );
+			assertEquals( expected, CFIntBuffCodec.getString( buf ) );
+		}
+	}
+
+	@Test
+	public void stringRoundTripsNull() {
+		ByteBuffer buf = ByteBuffer.allocate( CFIntBuffCodec.sizeOfString( null ) );
+		CFIntBuffCodec.putString( buf, null );
+		buf.flip();
+		assertNull( CFIntBuffCodec.getString( buf ) );
+		assertFalse( buf.hasRemaining() );
+	}
+
+	@Test
+	public void stringRoundTripsFromDirectBuffer() {
+		String value = STRINGS[ 4 ];
+		ByteBuffer buf = ByteBuffer.allocateDirect( CFIntBuffCodec.sizeOfString( value ) );
+		CFIntBuffCodec.putString( buf, value );
+		buf.flip();
+		assertEquals( value, CFIntBuffCodec.getString( buf ) );
+	}
+
+	@Test
+	public void sizeOfStringMatchesGetBytes() {
+		for( String value : STRINGS ) {
+			assertEquals( CFIntBuffCodec.INT_SIZE + value.getBytes( StandardCharsets.UTF_8 ).length,
+				CFIntBuffCodec.sizeOfString( value ),
+				value );
+		}
+		assertEquals( CFIntBuffCodec.INT_SIZE, CFIntBuffCodec.sizeOfString( null ) );
+	}
+
+	@Test
+	public void decodeIntoResetsNullAuditColumns() {
+		CFIntBuffTopDomain src = new CFIntBuffTopDomain();
+		src.setRequiredId( key( "01" ) );
+		src.setRequiredRevision( 3 );
+		src.setCreatedByUserId( null );
+		src.setCreatedAt( STAMP );
+		src.setUpdatedByUserId( null );
+		src.setUpdatedAt( STAMP );
+		src.setRequiredOwnerTenant( key( "02" ) );
+		src.setRequiredContainerParentTld( key( "03" ) );
+		src.setRequiredName( "caf\u00e9" );
+		src.setOptionalDescription( null );
+
+		CFIntBuffTopDomain dst = new CFIntBuffTopDomain();
+		dst.setCreatedByUserId( key( "0a" ) );
+		dst.setCreatedAt( STAMP.minusDays( 1 ) );
+		dst.setUpdatedByUserId( key( "0b" ) );
+		dst.setUpdatedAt( STAMP.minusDays( 1 ) );
+		dst.setOptionalDescription( "stale" );
+
+		ByteBuffer buf = CFIntBuffTopDomainCodec.encode( src );
+		assertEquals( CFIntBuffTopDomainCodec.encodedSize( src ), buf.remaining() );
+		CFIntBuffTopDomainCodec.decodeInto( buf, dst );
+		assertFalse( buf.hasRemaining() );
+
+		assertEquals( src.getRequiredId(), dst.getRequiredId() );
+		assertEquals( 3, dst.getRequiredRevision() );
+		assertNull( dst.getCreatedByUserId() );
+		assertEquals( STAMP, dst.getCreatedAt() );
+		assertNull( dst.getUpdatedByUserId() );
+		assertEquals( STAMP, dst.getUpdatedAt() );
+		assertEquals( src.getRequiredTenantId(), dst.getRequiredTenantId() );
+		assertEquals( src.getRequiredTldId(), dst.getRequiredTldId() );
+		assertEquals( "caf\u00e9", dst.getRequiredName() );
+		assertNull( dst.getOptionalDescription() );
+	}
+
+	@Test
+	public void decodeIntoKeepsNullValueKeys() {
+		CFIntBuffTld src = new CFIntBuffTld();
+		src.setRequiredId( key( "11" ) );
+		src.setRequiredRevision( 1 );
+		src.setCreatedByUserId( CFLibDbKeyHash256.nullGet() );
+		src.setCreatedAt( STAMP );
+		src.setUpdatedByUserId( CFLibDbKeyHash256.nullGet() );
+		src.setUpdatedAt( STAMP );
+		src.setRequiredContainerTenant( key( "12" ) );
+		src.setRequiredName( "uk" );
+
+		CFIntBuffTld dst = CFIntBuffTldCodec.decode( CFIntBuffTldCodec.encode( src ) );
+		assertTrue( dst.getCreatedByUserId().isNull() );
+		assertTrue( dst.getUpdatedByUserId().isNull() );
+		assertEquals( src.getRequiredTenantId(), dst.getRequiredTenantId() );
+		assertEquals( "uk", dst.getRequiredName() );
+	}
+}
@@ -0,0 +1,247 @@
+// Description: Java 25 unit tests for the CFInt buffer columnar history store.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.*;
+import java.util.concurrent.atomic.*;
+import org.junit.jupiter.api.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffColumnarHistoryStoreTest checks that reclaim() frees only
+ *	mostly dead segments, that the rows it moves read back unchanged, that
+ *	freed slots are reused, that freed rows give back their dictionary
+ *	codes, and that readers racing a reclaim never see a torn history.  The rows are a small stand-in H class, so the store is
+ *	tested without any entity.
+ */
+public class CFIntBuffColumnarHistoryStoreTest
+{
+	protected final static int SEGMENT_SIZE = CFIntBuffColumnarHistoryStore.SEGMENT_SIZE;
+	protected final static LocalDateTime BASE = LocalDateTime.of( 2026, 1, 1, 0, 0 );
+
+	/*
+	 *	A history row with the audit columns and one data column.
+	 */
+	protected static class Row
+	{
+		protected Long id;
+		protected int revision;
+		protected LocalDateTime stamp;
+		protected int action;
+		protected CFLibDbKeyHash256 cluster;
+		protected CFLibDbKeyHash256 session;
+		protected String name;
+
+		protected Row() {
+		}
+
+		protected Row( long argId, int argRevision, String argName ) {
+			id = Long.valueOf( argId );
+			revision = argRevision;
+			stamp = BASE.plusSeconds( argRevision );
+			action = ( argRevision == 1 )
+				? ICFIntBuffHistoryStore.AUDIT_ACTION_CREATE
+				: ICFIntBuffHistoryStore.AUDIT_ACTION_UPDATE;
+			name = argName;
+		}
+	}
+
+	protected CFIntBuffHistoryDictionary< String > stringPool;
+	protected CFIntBuffColumnarHistoryStore< Long, Row > store;
+
+	@BeforeEach
+	public void setUp() {
+		CFIntBuffColumnarHistoryStore.Layout< Long, Row > layout =
+			new CFIntBuffColumnarHistoryStore.Layout< Long, Row >( Row::new, Row[]::new )
+				.id( ( row ) -> row.id, ( row, value ) -> row.id = value )
+				.revision( ( row ) -> row.revision, ( row, value ) -> row.revision = value )
+				.auditStamp( ( row ) -> row.stamp, ( row, value ) -> row.stamp = value )
+				.auditActionId( ( row ) -> row.action, ( row, value ) -> row.action = value )
+				.auditClusterId( ( row ) -> row.cluster, ( row, value ) -> row.cluster = value )
+				.auditSessionId( ( row ) -> row.session, ( row, value ) -> row.session = value )
+				.stringColumn( ( row ) -> row.name, ( row, value ) -> row.name = value );
+		stringPool = new CFIntBuffHistoryDictionary<>();
+		store = new CFIntBuffColumnarHistoryStore<>( layout,
+			new CFIntBuffHistoryDictionary< CFLibDbKeyHash256 >(),
+			stringPool );
+	}
+
+	/**
+	 *	Add one row for each id in [first, last).
+	 */
+	protected void addIds( long first, long last ) {
+		for( long id = first; id < last; id++ ) {
+			store.add( new Row( id, 1, "name-" + id ) );
+		}
+	}
+
+	protected void assertRow( long id, int revision, Row row ) {
+		assertNotNull( row );
+		assertEquals( Long.valueOf( id ), row.id );
+		assertEquals( revision, row.revision );
+		assertEquals( BASE.plusSeconds( revision ), row.stamp );
+		assertEquals( "name-" + id, row.name );
+	}
+
+	@Test
+	public void reclaimFreesOnlyMostlyDeadSegments() {
+		addIds( 0, 3 * SEGMENT_SIZE );
+		assertEquals( 3, store.getSegmentCount() );
+		// Three quarters of the first segment die, one quarter of the second
+		for( long id = 0; id < 3 * SEGMENT_SIZE / 4; id++ ) {
+			store.remove( Long.valueOf( id ) );
+		}
+		for( long id = SEGMENT_SIZE; id < SEGMENT_SIZE + SEGMENT_SIZE / 4; id++ ) {
+			store.remove( Long.valueOf( id ) );
+		}
+		long live = store.getRowCount();
+		assertEquals( SEGMENT_SIZE, store.getDeadRowCount() );
+
+		assertEquals( 3 * SEGMENT_SIZE / 4, store.reclaim() );
+		assertEquals( live, store.getRowCount() );
+		assertEquals( SEGMENT_SIZE / 4, store.getDeadRowCount() );
+		// The first segment's live rows moved to a new tail before it was freed
+		assertEquals( 3, store.getSegmentCount() );
+		for( long id = 3 * SEGMENT_SIZE / 4; id < 3 * SEGMENT_SIZE; id++ ) {
+			Row[] rows = store.readHistory( Long.valueOf( id ) );
+			assertEquals( ( id < SEGMENT_SIZE + SEGMENT_SIZE / 4 ) && ( id >= SEGMENT_SIZE ) ? 0 : 1, rows.length );
+			if( rows.length > 0 ) {
+				assertRow( id, 1, rows[0] );
+			}
+		}
+		assertEquals( 0L, store.reclaim() );
+		// Only the names of the freed dead rows leave the pool
+		assertEquals( 3 * SEGMENT_SIZE - 3 * SEGMENT_SIZE / 4, stringPool.size() );
+	}
+
+	@Test
+	public void freedSlotsAreReused() {
+		addIds( 0, 2 * SEGMENT_SIZE );
+		for( long id = 0; id < SEGMENT_SIZE; id++ ) {
+			store.remove( Long.valueOf( id ) );
+		}
+		assertEquals( SEGMENT_SIZE, store.reclaim() );
+		assertEquals( 1, store.getSegmentCount() );
+		addIds( 2 * SEGMENT_SIZE, 3 * SEGMENT_SIZE );
+		assertEquals( 2, store.getSegmentCount() );
+		assertEquals( 2 * SEGMENT_SIZE, store.getRowCount() );
+		for( long id = SEGMENT_SIZE; id < 3 * SEGMENT_SIZE; id++ ) {
+			assertRow( id, 1, store.readAsOf( Long.valueOf( id ), BASE.plusDays( 1 ) ) );
+		}
+	}
+
+	@Test
+	public void compactedHistoryReadsBackAfterReclaim() {
+		int revisions = 2 * SEGMENT_SIZE + 10;
+		for( int revision = 1; revision <= revisions; revision++ ) {
+			store.add( new Row( 7L, revision, "name-7" ) );
+			store.add( new Row( 8L, revision, "name-8" ) );
+		}
+		CFIntBuffHistoryRetentionPolicy policy = new CFIntBuffHistoryRetentionPolicy();
+		policy.setMaxRowsPerId( 10 );
+		assertEquals( revisions - 10, store.compact( Long.valueOf( 7L ), policy, BASE ) );
+		assertTrue( store.reclaim() > 0L );
+
+		Row[] rows = store.readHistory( Long.valueOf( 7L ) );
+		assertEquals( 10, rows.length );
+		for( int i = 0; i < rows.length; i++ ) {
+			assertRow( 7L, revisions - 9 + i, rows[i] );
+		}
+		assertRow( 7L, revisions - 5, store.readAsOf( Long.valueOf( 7L ), BASE.plusSeconds( revisions - 5 ).plusNanos( 1 ) ) );
+		assertNull( store.readAsOf( Long.valueOf( 7L ), BASE.plusSeconds( 1 ) ) );
+
+		rows = store.readHistory( Long.valueOf( 8L ) );
+		assertEquals( revisions, rows.length );
+		for( int i = 0; i < rows.length; i++ ) {
+			assertRow( 8L, i + 1, rows[i] );
+		}
+		assertEquals( revisions + 10, store.getRowCount() );
+		assertEquals( 2, stringPool.size() );
+	}
+
+	@Test
+	public void clearDropsEverything() {
+		addIds( 0, SEGMENT_SIZE + 1 );
+		assertEquals( SEGMENT_SIZE + 1, stringPool.size() );
+		store.clear();
+		assertEquals( 0, stringPool.size() );
+		assertEquals( 0L, store.getRowCount() );
+		assertEquals( 0, store.getSegmentCount() );
+		assertEquals( 0, store.readHistory( Long.valueOf( 0L ) ).length );
+		addIds( 0, 1 );
+		assertRow( 0L, 1, store.readHistory( Long.valueOf( 0L ) )[0] );
+	}
+
+	@Test
+	public void readersRacingReclaimSeeWholeHistories() throws InterruptedException {
+		final int ids = 64;
+		final int revisions = 64;
+		for( int revision = 1; revision <= revisions; revision++ ) {
+			for( long id = 0; id < ids; id++ ) {
+				store.add( new Row( id, revision, "name-" + id ) );
+			}
+		}
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicReference< Throwable > failure = new AtomicReference<>();
+		Thread reader = new Thread( () -> {
+			try {
+				while( ! done.get() ) {
+					for( long id = 0; id < ids; id++ ) {
+						Row[] rows = store.readHistory( Long.valueOf( id ) );
+						// Compaction only ever drops older rows, so what is left ends at the newest
+						assertTrue( rows.length > 0 );
+						for( int i = 0; i < rows.length; i++ ) {
+							assertRow( id, revisions - rows.length + 1 + i, rows[i] );
+						}
+					}
+				}
+			}
+			catch( Throwable t ) {
+				failure.set( t );
+			}
+		} );
+		reader.start();
+		try {
+			CFIntBuffHistoryRetentionPolicy policy = new CFIntBuffHistoryRetentionPolicy();
+			for( int keep = revisions - 1; keep > 0; keep -= 3 ) {
+				policy.setMaxRowsPerId( keep );
+				for( long id = 0; id < ids; id++ ) {
+					store.compact( Long.valueOf( id ), policy, BASE );
+				}
+				store.reclaim();
+			}
+		}
+		finally {
+			done.set( true );
+			reader.join();
+		}
+		if( failure.get() != null ) {
+			throw new AssertionError( failure.get() );
+		}
+	}
+}
@@ -0,0 +1,197 @@
+// Description: Java 25 unit tests for the CFInt buffer domain trie.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffDomainTrieTest checks that host names resolve to their most
+ *	specific Tld and TopDomain, that labels match regardless of ASCII case,
+ *	and that the trie follows Tlds and TopDomains as the tables index,
+ *	rename and remove them.
+ */
+public class CFIntBuffDomainTrieTest
+{
+	protected CFIntBuffDomainTrie trie;
+	protected int nextId = 1;
+
+	protected static CFLibDbKeyHash256 key( int value ) {
+		return( CFLibDbKeyHash256.fromHex( String.format( "%064x", value ) ) );
+	}
+
+	protected CFIntBuffTld tld( String name ) {
+		CFIntBuffTld buff = new CFIntBuffTld();
+		buff.setRequiredId( key( nextId ++ ) );
+		buff.setRequiredName( name );
+		return( buff );
+	}
+
+	protected CFIntBuffTld renamed( CFIntBuffTld src, String name ) {
+		CFIntBuffTld buff = new CFIntBuffTld();
+		buff.setRequiredId( src.getRequiredId() );
+		buff.setRequiredName( name );
+		return( buff );
+	}
+
+	protected CFIntBuffTopDomain topDomain( CFIntBuffTld tld, String name ) {
+		CFIntBuffTopDomain buff = new CFIntBuffTopDomain();
+		buff.setRequiredId( key( nextId ++ ) );
+		buff.setRequiredContainerParentTld( tld.getRequiredId() );
+		buff.setRequiredName( name );
+		return( buff );
+	}
+
+	@BeforeEach
+	public void setUp() {
+		trie = new CFIntBuffDomainTrie();
+		nextId = 1;
+	}
+
+	@Test
+	public void mostSpecificTldWins() {
+		CFIntBuffTld uk = tld( "uk" );
+		CFIntBuffTld coUk = tld( "co.uk" );
+		trie.putTld( uk );
+		trie.putTld( coUk );
+		assertSame( coUk, trie.resolveTld( "www.example.co.uk" ) );
+		assertSame( uk, trie.resolveTld( "www.example.org.uk" ) );
+		assertSame( uk, trie.resolveTld( "uk" ) );
+		assertNull( trie.resolveTld( "example.com" ) );
+		assertNull( trie.resolveTld( "" ) );
+		assertNull( trie.resolveTld( null ) );
+	}
+
+	@Test
+	public void mostSpecificTopDomainWins() {
+		CFIntBuffTld uk = tld( "uk" );
+		CFIntBuffTld coUk = tld( "co.uk" );
+		trie.putTld( uk );
+		trie.putTld( coUk );
+		CFIntBuffTopDomain co = topDomain( uk, "co" );
+		CFIntBuffTopDomain example = topDomain( coUk, "example" );
+		trie.putTopDomain( co );
+		trie.putTopDomain( example );
+		assertSame( example, trie.resolveTopDomain( "www.example.co.uk" ) );
+		assertSame( example, trie.resolveTopDomain( "example.co.uk" ) );
+		assertSame( co, trie.resolveTopDomain( "www.other.co.uk" ) );
+		// A bare Tld names no TopDomain
+		assertNull( trie.resolveTopDomain( "co.uk" ) );
+		assertNull( trie.resolveTopDomain( "example.com" ) );
+	}
+
+	@Test
+	public void labelsMatchIgnoringCaseAndTrailingDot() {
+		CFIntBuffTld com = tld( "com" );
+		trie.putTld( com );
+		CFIntBuffTopDomain example = topDomain( com, "example" );
+		trie.putTopDomain( example );
+		assertSame( com, trie.resolveTld( "WWW.Example.COM" ) );
+		assertSame( example, trie.resolveTopDomain( "WWW.Example.COM" ) );
+		assertSame( example, trie.resolveTopDomain( "www.example.com." ) );
+		assertSame( com, trie.resolveTld( "com." ) );
+	}
+
+	@Test
+	public void exactCaseIsPreferred() {
+		CFIntBuffTld com = tld( "com" );
+		trie.putTld( com );
+		CFIntBuffTopDomain lower = topDomain( com, "example" );
+		CFIntBuffTopDomain upper = topDomain( com, "EXAMPLE" );
+		trie.putTopDomain( lower );
+		trie.putTopDomain( upper );
+		assertSame( lower, trie.resolveTopDomain( "www.example.com" ) );
+		assertSame( upper, trie.resolveTopDomain( "www.EXAMPLE.com" ) );
+	}
+
+	@Test
+	public void topDomainBeforeItsTldIsFoundOnceTheTldArrives() {
+		CFIntBuffTld org = tld( "org" );
+		CFIntBuffTopDomain example = topDomain( org, "example" );
+		trie.putTopDomain( example );
+		assertNull( trie.resolveTopDomain( "example.org" ) );
+		trie.putTld( org );
+		assertSame( example, trie.resolveTopDomain( "example.org" ) );
+	}
+
+	@Test
+	public void renamingATldMovesItsTopDomains() {
+		CFIntBuffTld org = tld( "org" );
+		trie.putTld( org );
+		CFIntBuffTopDomain example = topDomain( org, "example" );
+		trie.putTopDomain( example );
+
+		// The tables unindex the old row before indexing its update
+		CFIntBuffTld net = renamed( org, "net" );
+		trie.removeTld( org );
+		trie.putTld( net );
+
+		assertNull( trie.resolveTld( "example.org" ) );
+		assertNull( trie.resolveTopDomain( "example.org" ) );
+		assertSame( net, trie.resolveTld( "example.net" ) );
+		assertSame( example, trie.resolveTopDomain( "example.net" ) );
+	}
+
+	@Test
+	public void removingATldKeepsItsAncestors() {
+		CFIntBuffTld uk = tld( "uk" );
+		CFIntBuffTld coUk = tld( "co.uk" );
+		trie.putTld( uk );
+		trie.putTld( coUk );
+		trie.removeTld( coUk );
+		assertSame( uk, trie.resolveTld( "www.example.co.uk" ) );
+		trie.removeTld( uk );
+		assertNull( trie.resolveTld( "www.example.co.uk" ) );
+		assertNull( trie.root.children );
+		assertTrue( trie.tldEntries.isEmpty() );
+	}
+
+	@Test
+	public void staleRemovesAreIgnored() {
+		CFIntBuffTld com = tld( "com" );
+		trie.putTld( com );
+		CFIntBuffTopDomain example = topDomain( com, "example" );
+		trie.putTopDomain( example );
+
+		// Records equal to the indexed ones but not the indexed instances
+		trie.removeTld( renamed( com, "com" ) );
+		CFIntBuffTopDomain copy = new CFIntBuffTopDomain();
+		copy.setRequiredId( example.getRequiredId() );
+		copy.setRequiredContainerParentTld( com.getRequiredId() );
+		copy.setRequiredName( "example" );
+		trie.removeTopDomain( copy );
+
+		assertSame( com, trie.resolveTld( "example.com" ) );
+		assertSame( example, trie.resolveTopDomain( "example.com" ) );
+
+		trie.removeTopDomain( example );
+		assertNull( trie.resolveTopDomain( "example.com" ) );
+		assertSame( com, trie.resolveTld( "example.com" ) );
+	}
+}
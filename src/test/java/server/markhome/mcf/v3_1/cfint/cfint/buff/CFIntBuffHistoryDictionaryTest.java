@@ -0,0 +1,126 @@
+// Description: Java 25 unit tests for the CFInt buffer history dictionary.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.*;
+
+/**
+ *	CFIntBuffHistoryDictionaryTest checks that codes are reference counted:
+ *	a value lives while any reference does, its code is reused once the
+ *	last one goes, and concurrent encodes and releases keep the counts.
+ */
+public class CFIntBuffHistoryDictionaryTest
+{
+	@Test
+	public void nullHasNoReference() {
+		CFIntBuffHistoryDictionary< String > dict = new CFIntBuffHistoryDictionary<>();
+		assertEquals( CFIntBuffHistoryDictionary.NULL_CODE, dict.encode( null ) );
+		assertNull( dict.decode( CFIntBuffHistoryDictionary.NULL_CODE ) );
+		dict.release( CFIntBuffHistoryDictionary.NULL_CODE );
+		assertEquals( 0, dict.size() );
+	}
+
+	@Test
+	public void valueLivesUntilLastRelease() {
+		CFIntBuffHistoryDictionary< String > dict = new CFIntBuffHistoryDictionary<>();
+		int code = dict.encode( "alpha" );
+		assertEquals( code, dict.encode( "alpha" ) );
+		assertEquals( 1, dict.size() );
+		dict.release( code );
+		assertEquals( "alpha", dict.decode( code ) );
+		assertEquals( 1, dict.size() );
+		dict.release( code );
+		assertNull( dict.decode( code ) );
+		assertEquals( 0, dict.size() );
+	}
+
+	@Test
+	public void releasedCodesAreReused() {
+		CFIntBuffHistoryDictionary< String > dict = new CFIntBuffHistoryDictionary<>();
+		int alpha = dict.encode( "alpha" );
+		int beta = dict.encode( "beta" );
+		assertNotEquals( alpha, beta );
+		dict.release( alpha );
+		int gamma = dict.encode( "gamma" );
+		assertEquals( alpha, gamma );
+		assertEquals( "gamma", dict.decode( gamma ) );
+		assertEquals( "beta", dict.decode( beta ) );
+		// A forgotten value comes back under a new code of its own
+		int again = dict.encode( "alpha" );
+		assertNotEquals( gamma, again );
+		assertEquals( "alpha", dict.decode( again ) );
+		assertEquals( 3, dict.size() );
+	}
+
+	@Test
+	public void growsPastInitialCapacity() {
+		CFIntBuffHistoryDictionary< Integer > dict = new CFIntBuffHistoryDictionary<>();
+		int count = 4 * CFIntBuffHistoryDictionary.INITIAL_CAPACITY;
+		int[] codes = new int[ count ];
+		for( int i = 0; i < count; i++ ) {
+			codes[i] = dict.encode( Integer.valueOf( i ) );
+		}
+		for( int i = 0; i < count; i++ ) {
+			assertEquals( Integer.valueOf( i ), dict.decode( codes[i] ) );
+			dict.release( codes[i] );
+		}
+		assertEquals( 0, dict.size() );
+	}
+
+	@Test
+	public void concurrentEncodesAndReleasesBalance() throws Exception {
+		final CFIntBuffHistoryDictionary< String > dict = new CFIntBuffHistoryDictionary<>();
+		final String[] values = { "a", "b", "c", "d" };
+		final int threads = 4;
+		final int rounds = 20000;
+		ExecutorService executor = Executors.newFixedThreadPool( threads );
+		try {
+			ArrayList< Future< ? > > futures = new ArrayList<>();
+			for( int t = 0; t < threads; t++ ) {
+				final int seed = t;
+				futures.add( executor.submit( () -> {
+					for( int i = 0; i < rounds; i++ ) {
+						String value = values[ ( seed + i ) % values.length ];
+						int code = dict.encode( value );
+						assertEquals( value, dict.decode( code ) );
+						dict.release( code );
+					}
+				} ) );
+			}
+			for( Future< ? > future : futures ) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertEquals( 0, dict.size() );
+	}
+}
@@ -0,0 +1,166 @@
+// Description: Java 25 unit tests for the CFInt buffer history retention policy.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.*;
+import org.junit.jupiter.api.*;
+import server.markhome.mcf.v3_1.cflib.*;
+
+/**
+ *	CFIntBuffHistoryRetentionPolicyTest checks each rule of
+ *	CFIntBuffHistoryRetentionPolicy.retain() on its own and combined, and
+ *	that the newest row survives every rule but an expired delete.
+ */
+public class CFIntBuffHistoryRetentionPolicyTest
+{
+	protected final static LocalDateTime NOW = LocalDateTime.of( 2026, 3, 10, 12, 0 );
+
+	protected static LocalDateTime[] stamps( LocalDateTime... values ) {
+		return( values );
+	}
+
+	protected static LocalDateTime daysAgo( int days, int hour ) {
+		return( NOW.minusDays( days ).withHour( hour ) );
+	}
+
+	@Test
+	public void inactivePolicyKeepsEveryRow() {
+		CFIntBuffHistoryRetentionPolicy policy = new CFIntBuffHistoryRetentionPolicy();
+		assertFalse( policy.isActive() );
+		boolean[] keep = policy.retain( stamps( daysAgo( 3, 1 ), daysAgo( 2, 1 ), daysAgo( 1, 1 ) ), true, NOW );
+		assertArrayEquals( new boolean[] { true, true, true }, keep );
+	}
+
+	@Test
+	public void emptyHistoryKeepsNothing() {
+		CFIntBuffHistoryRetentionPolicy policy = new CFIntBuffHistoryRetentionPolicy();
+		policy.setCollapseIntermediate( true );
+		assertEquals( 0, policy.retain( new LocalDateTime[ 0 ], false, NOW ).length );
+	}
+
+	@Test
+	public void collapseIntermediateKeepsFirstAndLast() {
+		CFIntBuffHistoryRetentionPolicy policy = new CFIntBuffHistoryRetentionPolicy();
+		policy.setCollapseIntermediate( true );
+		assertTrue( policy.isActive() );
+		boolean[] keep = policy.retain(
+			stamps( daysAgo( 4, 1 ), daysAgo( 3, 1 ), daysAgo( 2, 1 ), daysAgo( 1, 1 ) ),
+			false,
+			NOW );
+		assertArrayEquals( new boolean[] { true, false, false, true }, keep );
+		assertArrayEquals( new boolean[] { true }, policy.retain( stamps( daysAgo( 1, 1 ) ), false, NOW ) );
+	}
+
+	@Test
+	public void firstAndLastPerDayKeepsDayBoundaries() {
+		CFIntBuffHistoryRetentionPolicy policy = new CFIntBuffHistoryRetentionPolicy();
+		policy.setFirstAndLastPerDay( true );
+		boolean[] keep = policy.retain(
+			stamps( daysAgo( 2, 1 ), daysAgo( 2, 5 ), daysAgo( 2, 9 ), daysAgo( 2, 23 ),
+				daysAgo( 1, 3 ),
+				daysAgo( 0, 1 ), daysAgo( 0, 2 ), daysAgo( 0, 3 ) ),
+			false,
+			NOW );
+		assertArrayEquals( new boolean[] { true, false, false, true, true, true, false, true }, keep );
+	}
+
+	@Test
+	public void maxAgeKeepsTheStateAtTheCutoff() {
+		CFIntBuffHistoryRetentionPolicy policy = new CFIntBuffHistoryRetentionPolicy();
+		policy.setMaxAge( Duration.ofDays( 7 ) );
+		boolean[] keep = policy.retain(
+			stamps( daysAgo( 30, 1 ), daysAgo( 20, 1 ), daysAgo( 10, 1 ), daysAgo( 5, 1 ), daysAgo( 1, 1 ) ),
+			false,
+			NOW );
+		// The row of ten days ago is still current at the cutoff, so it stays
+		assertArrayEquals( new boolean[] { false, false, true, true, true }, keep );
+	}
+
+	@Test
+	public void maxAgeKeepsHistoryNewerThanTheCutoff() {
+		CFIntBuffHistoryRetentionPolicy policy = new CFIntBuffHistoryRetentionPolicy();
+		policy.setMaxAge( Duration.ofDays( 7 ) );
+		boolean[] keep = policy.retain( stamps( daysAgo( 3, 1 ), daysAgo( 2, 1 ) ), true, NOW );
+		assertArrayEquals( new boolean[] { true, true }, keep );
+	}
+
+	@Test
+	public void maxAgeDropsAnExpiredDeleteWithItsHistory() {
+		CFIntBuffHistoryRetentionPolicy policy = new CFIntBuffHistoryRetentionPolicy();
+		policy.setMaxAge( Duration.ofDays( 7 ) );
+		boolean[] keep = policy.retain( stamps( daysAgo( 30, 1 ), daysAgo( 20, 1 ), daysAgo( 10, 1 ) ), true, NOW );
+		assertArrayEquals( new boolean[] { false, false, false }, keep );
+		// Without a now the age limit does not apply
+		keep = policy.retain( stamps( daysAgo( 30, 1 ), daysAgo( 20, 1 ) ), true, null );
+		assertArrayEquals( new boolean[] { true, true }, keep );
+	}
+
+	@Test
+	public void maxRowsPerIdKeepsTheNewestRows() {
+		CFIntBuffHistoryRetentionPolicy policy = new CFIntBuffHistoryRetentionPolicy();
+		policy.setMaxRowsPerId( 2 );
+		boolean[] keep = policy.retain(
+			stamps( daysAgo( 4, 1 ), daysAgo( 3, 1 ), daysAgo( 2, 1 ), daysAgo( 1, 1 ) ),
+			true,
+			NOW );
+		assertArrayEquals( new boolean[] { false, false, true, true }, keep );
+	}
+
+	@Test
+	public void maxRowsPerIdCountsOnlyRowsOtherRulesKeep() {
+		CFIntBuffHistoryRetentionPolicy policy = new CFIntBuffHistoryRetentionPolicy();
+		policy.setCollapseIntermediate( true );
+		policy.setMaxRowsPerId( 2 );
+		boolean[] keep = policy.retain(
+			stamps( daysAgo( 4, 1 ), daysAgo( 3, 1 ), daysAgo( 2, 1 ), daysAgo( 1, 1 ) ),
+			false,
+			NOW );
+		assertArrayEquals( new boolean[] { true, false, false, true }, keep );
+	}
+
+	@Test
+	public void newestRowSurvivesEveryRule() {
+		CFIntBuffHistoryRetentionPolicy policy = new CFIntBuffHistoryRetentionPolicy();
+		policy.setCollapseIntermediate( true );
+		policy.setFirstAndLastPerDay( true );
+		policy.setMaxAge( Duration.ofDays( 1 ) );
+		policy.setMaxRowsPerId( 1 );
+		boolean[] keep = policy.retain( stamps( daysAgo( 9, 1 ), daysAgo( 9, 2 ), daysAgo( 8, 1 ) ), false, NOW );
+		assertArrayEquals( new boolean[] { false, false, true }, keep );
+	}
+
+	@Test
+	public void settersRejectNegativeLimits() {
+		CFIntBuffHistoryRetentionPolicy policy = new CFIntBuffHistoryRetentionPolicy();
+		assertThrows( CFLibArgumentUnderflowException.class, () -> policy.setMaxAge( Duration.ofDays( -1 ) ) );
+		assertThrows( CFLibArgumentUnderflowException.class, () -> policy.setMaxRowsPerId( -1 ) );
+		policy.setMaxAge( null );
+		policy.setMaxRowsPerId( 0 );
+		assertFalse( policy.isActive() );
+	}
+}
@@ -0,0 +1,125 @@
+// Description: Java 25 unit tests for the read-only CFInt buffer record views.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.time.*;
+import org.junit.jupiter.api.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffRecordViewTest checks that a CFIntBuff*View holds the values
+ *	of its source, refuses every change, and gives back editable copies
+ *	through toBuff() and serialization.
+ */
+public class CFIntBuffRecordViewTest
+{
+	protected final static LocalDateTime STAMP = LocalDateTime.of( 2026, 2, 1, 9, 0 );
+
+	protected static CFLibDbKeyHash256 key( String suffix ) {
+		String hex = "0000000000000000000000000000000000000000000000000000000000000000";
+		return( CFLibDbKeyHash256.fromHex( hex.substring( suffix.length() ) + suffix ) );
+	}
+
+	protected static CFIntBuffTopDomain newTopDomain() {
+		CFIntBuffTopDomain rec = new CFIntBuffTopDomain();
+		rec.setRequiredId( key( "21" ) );
+		rec.setRequiredRevision( 4 );
+		rec.setCreatedAt( STAMP );
+		rec.setUpdatedAt( STAMP );
+		rec.setRequiredOwnerTenant( key( "22" ) );
+		rec.setRequiredContainerParentTld( key( "23" ) );
+		rec.setRequiredName( "example" );
+		rec.setOptionalDescription( "An example domain" );
+		return( rec );
+	}
+
+	@Test
+	public void viewHoldsTheSourceValues() {
+		CFIntBuffTopDomain src = newTopDomain();
+		CFIntBuffTopDomainView view = new CFIntBuffTopDomainView( src );
+		assertEquals( src, view );
+		assertEquals( src.hashCode(), view.hashCode() );
+		assertEquals( 4, view.getRequiredRevision() );
+		assertEquals( key( "23" ), view.getRequiredTldId() );
+		assertEquals( STAMP, view.getCreatedAt() );
+		// Later changes to the source do not reach the view
+		src.setRequiredName( "changed" );
+		assertEquals( "example", view.getRequiredName() );
+	}
+
+	@Test
+	public void viewRefusesChanges() {
+		CFIntBuffTopDomainView view = new CFIntBuffTopDomainView( newTopDomain() );
+		assertThrows( CFLibNotSupportedException.class, () -> view.setRequiredName( "other" ) );
+		assertThrows( CFLibNotSupportedException.class, () -> view.setRequiredRevision( 5 ) );
+		assertThrows( CFLibNotSupportedException.class, () -> view.setRequiredContainerParentTld( key( "24" ) ) );
+		assertThrows( CFLibNotSupportedException.class, () -> view.set( newTopDomain() ) );
+		assertEquals( "example", view.getRequiredName() );
+		assertEquals( 4, view.getRequiredRevision() );
+	}
+
+	@Test
+	public void toBuffIsAnEditableCopy() {
+		CFIntBuffTopDomainView view = new CFIntBuffTopDomainView( newTopDomain() );
+		CFIntBuffTopDomain buff = view.toBuff();
+		assertNotSame( view, buff );
+		assertEquals( CFIntBuffTopDomain.class, buff.getClass() );
+		assertEquals( view, buff );
+		buff.setRequiredName( "edited" );
+		assertEquals( "example", view.getRequiredName() );
+	}
+
+	@Test
+	public void serializedViewReadsBackEditable() throws Exception {
+		CFIntBuffTldView view = new CFIntBuffTldView( newTld() );
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try( ObjectOutputStream out = new ObjectOutputStream( bytes ) ) {
+			out.writeObject( view );
+		}
+		Object read;
+		try( ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) ) {
+			read = in.readObject();
+		}
+		assertEquals( CFIntBuffTld.class, read.getClass() );
+		assertEquals( view, read );
+		( (CFIntBuffTld)read ).setRequiredName( "edited" );
+	}
+
+	protected static CFIntBuffTld newTld() {
+		CFIntBuffTld rec = new CFIntBuffTld();
+		rec.setRequiredId( key( "31" ) );
+		rec.setRequiredRevision( 2 );
+		rec.setCreatedAt( STAMP );
+		rec.setUpdatedAt( STAMP );
+		rec.setRequiredContainerTenant( key( "32" ) );
+		rec.setRequiredName( "org" );
+		return( rec );
+	}
+}
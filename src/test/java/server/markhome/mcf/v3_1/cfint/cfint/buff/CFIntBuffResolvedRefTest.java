@@ -0,0 +1,131 @@
+// Description: Java 25 unit tests for the CFInt buffer navigation cache references.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffResolvedRefTest checks that a resolved reference hands back its
+ *	one shared target while the row is unchanged, re-checks the revision
+ *	only when the table's stamp moves, and lets go of a changed, deleted or
+ *	different row.  The table is a small stand-in revision source.
+ */
+public class CFIntBuffResolvedRefTest
+{
+	protected final static CFLibDbKeyHash256 ID = CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000000a1" );
+	protected final static CFLibDbKeyHash256 OTHER_ID = CFLibDbKeyHash256.fromHex( "00000000000000000000000000000000000000000000000000000000000000a2" );
+
+	/*
+	 *	A table of row revisions that counts its revision checks.
+	 */
+	protected static class Source
+		implements ICFIntBuffRevisionSource
+	{
+		protected final HashMap< CFLibDbKeyHash256, Integer > revisions = new HashMap<>();
+		protected long stamp = 1L;
+		protected int checks = 0;
+
+		protected void put( CFLibDbKeyHash256 id, int revision ) {
+			revisions.put( id, Integer.valueOf( revision ) );
+			stamp++;
+		}
+
+		protected void remove( CFLibDbKeyHash256 id ) {
+			revisions.remove( id );
+			stamp++;
+		}
+
+		public long getModStamp() {
+			return( stamp );
+		}
+
+		public boolean isCurrent( CFLibDbKeyHash256 PKey, int revision ) {
+			checks++;
+			Integer current = revisions.get( PKey );
+			return( ( current != null ) && ( current.intValue() == revision ) );
+		}
+	}
+
+	protected Source source;
+	protected String target;
+	protected CFIntBuffResolvedRef< String > ref;
+
+	@BeforeEach
+	public void setUp() {
+		source = new Source();
+		source.put( ID, 1 );
+		target = new String( "target" );
+		ref = new CFIntBuffResolvedRef<>( source, ID, 1, target, source.getModStamp() );
+	}
+
+	@Test
+	public void unchangedTableHitsWithoutACheck() {
+		assertSame( target, ref.resolve( source, ID ) );
+		assertSame( target, ref.resolve( source, ID ) );
+		assertEquals( 0, source.checks );
+	}
+
+	@Test
+	public void otherChangesCostOneCheck() {
+		source.put( OTHER_ID, 1 );
+		assertSame( target, ref.resolve( source, ID ) );
+		assertSame( target, ref.resolve( source, ID ) );
+		assertEquals( 1, source.checks );
+	}
+
+	@Test
+	public void updatedRowIsReadAgain() {
+		source.put( ID, 2 );
+		assertNull( ref.resolve( source, ID ) );
+	}
+
+	@Test
+	public void deletedRowIsReadAgain() {
+		source.remove( ID );
+		assertNull( ref.resolve( source, ID ) );
+	}
+
+	@Test
+	public void otherIdOrTableMisses() {
+		assertNull( ref.resolve( source, OTHER_ID ) );
+		assertNull( ref.resolve( source, null ) );
+		assertNull( ref.resolve( new Source(), ID ) );
+	}
+
+	@Test
+	public void plainTableMatchesByRevision() {
+		Object table = new Object();
+		CFIntBuffResolvedRef< String > plain = new CFIntBuffResolvedRef<>( table, ID, 3, target, 0L );
+		assertSame( target, plain.resolve( table, ID, 3 ) );
+		assertNull( plain.resolve( table, ID, 4 ) );
+		assertNull( plain.resolve( table, OTHER_ID, 3 ) );
+		assertNull( plain.resolve( new Object(), ID, 3 ) );
+	}
+}
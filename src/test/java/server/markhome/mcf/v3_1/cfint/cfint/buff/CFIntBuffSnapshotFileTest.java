@@ -0,0 +1,245 @@
+// Description: Java 25 unit tests for the CFInt buffer snapshot file.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffSnapshotFileTest writes sections through a stand-in table and
+ *	checks that the primary key index and the tenant and container indexes
+ *	read back the rows they were written with, so a table can decode one
+ *	tenant or container without touching the rest of its section.
+ */
+public class CFIntBuffSnapshotFileTest
+{
+	protected final static int CLASS_CODE = 0x7b;
+	protected final static int TENANT_IDX = 0;
+	protected final static int CONTAINER_IDX = 1;
+
+	protected final static CFLibDbKeyHash256 TENANT_A = key( "a0" );
+	protected final static CFLibDbKeyHash256 TENANT_B = key( "b0" );
+	protected final static CFLibDbKeyHash256 CONTAINER_1 = key( "c1" );
+	protected final static CFLibDbKeyHash256 CONTAINER_2 = key( "c2" );
+	protected final static CFLibDbKeyHash256 CONTAINER_3 = key( "c3" );
+
+	@TempDir
+	Path tempDir;
+
+	protected static CFLibDbKeyHash256 key( String suffix ) {
+		String hex = "0000000000000000000000000000000000000000000000000000000000000000";
+		return( CFLibDbKeyHash256.fromHex( hex.substring( suffix.length() ) + suffix ) );
+	}
+
+	protected record Row( CFLibDbKeyHash256 id, CFLibDbKeyHash256 tenantId, CFLibDbKeyHash256 containerId, String text ) {
+	}
+
+	/*
+	 *	A table whose rows are plain strings, filed under a tenant and a
+	 *	container like the CFInt tenant tables.
+	 */
+	protected static class RowTable
+		implements ICFIntBuffSnapshotTable
+	{
+		protected final List< Row > rows;
+		protected final int indexCount;
+
+		protected RowTable( List< Row > argRows, int argIndexCount ) {
+			rows = argRows;
+			indexCount = argIndexCount;
+		}
+
+		public int getSnapshotClassCode() {
+			return( CLASS_CODE );
+		}
+
+		public int getSnapshotKeyWidth() {
+			return( CFIntBuffSnapshotFile.HASH_KEY_WIDTH );
+		}
+
+		public int getSnapshotIndexCount() {
+			return( indexCount );
+		}
+
+		public void writeSnapshotSection( CFIntBuffSnapshotFile.SectionWriter writer ) throws IOException {
+			for( Row row : rows ) {
+				writer.addRow( row.id(),
+					ByteBuffer.wrap( row.text().getBytes( StandardCharsets.UTF_8 ) ),
+					row.tenantId(),
+					row.containerId() );
+			}
+		}
+
+		public void attachSnapshot( CFIntBuffSnapshotFile.Section section ) {
+		}
+
+		public void replayPut( ByteBuffer payload ) {
+		}
+
+		public void replayDelete( ByteBuffer payload ) {
+		}
+	}
+
+	protected static List< Row > sampleRows() {
+		ArrayList< Row > rows = new ArrayList<>();
+		// Ids descend so primary key order differs from insertion order
+		rows.add( new Row( key( "19" ), TENANT_A, CONTAINER_1, "a1-first" ) );
+		rows.add( new Row( key( "18" ), TENANT_B, CONTAINER_2, "b2-first" ) );
+		rows.add( new Row( key( "17" ), TENANT_A, CONTAINER_1, "a1-second" ) );
+		rows.add( new Row( key( "16" ), TENANT_A, CONTAINER_3, "a3-first" ) );
+		rows.add( new Row( key( "15" ), TENANT_B, CONTAINER_2, "b2-second" ) );
+		rows.add( new Row( key( "14" ), TENANT_A, CONTAINER_1, "a1-third" ) );
+		return( rows );
+	}
+
+	protected CFIntBuffSnapshotFile.Section writeAndOpen( List< Row > rows ) throws IOException {
+		Path path = tempDir.resolve( "cfint.snap" );
+		CFIntBuffSnapshotFile.write( List.of( new RowTable( rows, 2 ) ), path, 42L );
+		CFIntBuffSnapshotFile file = CFIntBuffSnapshotFile.open( path );
+		assertEquals( 42L, file.getLogSequence() );
+		CFIntBuffSnapshotFile.Section section = file.getSection( CLASS_CODE );
+		assertNotNull( section );
+		assertEquals( rows.size(), section.getRowCount() );
+		assertEquals( 2, section.getIndexCount() );
+		return( section );
+	}
+
+	protected static String text( CFIntBuffSnapshotFile.Section section, int row ) {
+		ByteBuffer buf = section.getRow( row );
+		byte[] bytes = new byte[ buf.remaining() ];
+		buf.get( bytes );
+		return( new String( bytes, StandardCharsets.UTF_8 ) );
+	}
+
+	protected static Set< String > texts( CFIntBuffSnapshotFile.Section section, int[] rows ) {
+		TreeSet< String > ret = new TreeSet<>();
+		for( int row : rows ) {
+			ret.add( text( section, row ) );
+		}
+		return( ret );
+	}
+
+	@Test
+	public void primaryKeyFindsEveryRow() throws IOException {
+		List< Row > rows = sampleRows();
+		CFIntBuffSnapshotFile.Section section = writeAndOpen( rows );
+		for( Row row : rows ) {
+			int found = section.findRow( row.id() );
+			assertTrue( found >= 0, row.text() );
+			assertEquals( row.text(), text( section, found ) );
+		}
+		assertEquals( -1, section.findRow( key( "99" ) ) );
+	}
+
+	@Test
+	public void tenantIndexFindsOnlyThatTenant() throws IOException {
+		CFIntBuffSnapshotFile.Section section = writeAndOpen( sampleRows() );
+		assertEquals( new TreeSet<>( List.of( "a1-first", "a1-second", "a1-third", "a3-first" ) ),
+			texts( section, section.findRows( TENANT_IDX, TENANT_A ) ) );
+		assertEquals( new TreeSet<>( List.of( "b2-first", "b2-second" ) ),
+			texts( section, section.findRows( TENANT_IDX, TENANT_B ) ) );
+	}
+
+	@Test
+	public void containerIndexFindsOnlyThatContainer() throws IOException {
+		CFIntBuffSnapshotFile.Section section = writeAndOpen( sampleRows() );
+		assertEquals( new TreeSet<>( List.of( "a1-first", "a1-second", "a1-third" ) ),
+			texts( section, section.findRows( CONTAINER_IDX, CONTAINER_1 ) ) );
+		assertEquals( new TreeSet<>( List.of( "b2-first", "b2-second" ) ),
+			texts( section, section.findRows( CONTAINER_IDX, CONTAINER_2 ) ) );
+		assertEquals( new TreeSet<>( List.of( "a3-first" ) ),
+			texts( section, section.findRows( CONTAINER_IDX, CONTAINER_3 ) ) );
+	}
+
+	@Test
+	public void secondaryRowsMatchPrimaryRows() throws IOException {
+		List< Row > rows = sampleRows();
+		CFIntBuffSnapshotFile.Section section = writeAndOpen( rows );
+		for( Row row : rows ) {
+			int found = section.findRow( row.id() );
+			assertTrue( Arrays.stream( section.findRows( TENANT_IDX, row.tenantId() ) ).anyMatch( r -> r == found ), row.text() );
+			assertTrue( Arrays.stream( section.findRows( CONTAINER_IDX, row.containerId() ) ).anyMatch( r -> r == found ), row.text() );
+		}
+	}
+
+	@Test
+	public void missingKeysFindNothing() throws IOException {
+		CFIntBuffSnapshotFile.Section section = writeAndOpen( sampleRows() );
+		assertArrayEquals( new int[0], section.findRows( TENANT_IDX, key( "a1" ) ) );
+		assertArrayEquals( new int[0], section.findRows( TENANT_IDX, null ) );
+		assertArrayEquals( new int[0], section.findRows( TENANT_IDX, CFLibDbKeyHash256.nullGet() ) );
+		assertArrayEquals( new int[0], section.findRows( 2, TENANT_A ) );
+	}
+
+	@Test
+	public void nullForeignKeysAreNotFound() throws IOException {
+		ArrayList< Row > rows = new ArrayList<>( sampleRows() );
+		rows.add( new Row( key( "20" ), TENANT_B, null, "b-orphan" ) );
+		CFIntBuffSnapshotFile.Section section = writeAndOpen( rows );
+		assertEquals( new TreeSet<>( List.of( "b-orphan", "b2-first", "b2-second" ) ),
+			texts( section, section.findRows( TENANT_IDX, TENANT_B ) ) );
+		assertEquals( "b-orphan", text( section, section.findRow( key( "20" ) ) ) );
+	}
+
+	@Test
+	public void emptySectionFindsNothing() throws IOException {
+		CFIntBuffSnapshotFile.Section section = writeAndOpen( new ArrayList<>() );
+		assertEquals( 0, section.getRowCount() );
+		assertEquals( -1, section.findRow( key( "19" ) ) );
+		assertArrayEquals( new int[0], section.findRows( TENANT_IDX, TENANT_A ) );
+		assertTrue( section.isClaimed( new int[0] ) );
+	}
+
+	@Test
+	public void claimingATenantLeavesTheOthers() throws IOException {
+		CFIntBuffSnapshotFile.Section section = writeAndOpen( sampleRows() );
+		int[] tenantRows = section.findRows( TENANT_IDX, TENANT_A );
+		assertFalse( section.isClaimed( tenantRows ) );
+		for( int row : tenantRows ) {
+			assertTrue( section.claim( row ) );
+		}
+		assertTrue( section.isClaimed( tenantRows ) );
+		assertEquals( 2, section.getUnclaimedCount() );
+		assertFalse( section.isClaimed( section.findRows( TENANT_IDX, TENANT_B ) ) );
+		assertFalse( section.claim( tenantRows[0] ) );
+	}
+
+	@Test
+	public void addRowRejectsWrongIndexCount() {
+		RowTable table = new RowTable( sampleRows(), 1 );
+		assertThrows( CFLibArgumentOverflowException.class,
+			() -> CFIntBuffSnapshotFile.write( List.of( table ), tempDir.resolve( "bad.snap" ), 0L ) );
+	}
+}
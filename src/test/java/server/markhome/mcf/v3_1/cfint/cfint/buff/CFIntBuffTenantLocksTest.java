@@ -0,0 +1,112 @@
+// Description: Java 25 unit tests for the CFInt buffer per-tenant locks.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.*;
+import java.util.concurrent.locks.*;
+import org.junit.jupiter.api.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+
+/**
+ *	CFIntBuffTenantLocksTest checks that an eviction holding one tenant's
+ *	write lock shuts out that tenant's writers and no other tenant's, and
+ *	that writers of the same tenant do not shut out each other.
+ */
+public class CFIntBuffTenantLocksTest
+{
+	protected final static CFLibDbKeyHash256 TENANT_A = key( "a0" );
+	protected final static CFLibDbKeyHash256 TENANT_B = key( "b0" );
+
+	protected static CFLibDbKeyHash256 key( String suffix ) {
+		String hex = "0000000000000000000000000000000000000000000000000000000000000000";
+		return( CFLibDbKeyHash256.fromHex( hex.substring( suffix.length() ) + suffix ) );
+	}
+
+	/**
+	 *	Try a lock from another thread, as a writer would.
+	 */
+	protected static boolean tryFromOtherThread( Lock lock ) throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			return( executor.submit( () -> {
+				boolean locked = lock.tryLock( 50, TimeUnit.MILLISECONDS );
+				if( locked ) {
+					lock.unlock();
+				}
+				return( locked );
+			} ).get() );
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void lockForReturnsOneLockPerTenant() {
+		CFIntBuffTenantLocks locks = new CFIntBuffTenantLocks();
+		assertSame( locks.lockFor( TENANT_A ), locks.lockFor( key( "a0" ) ) );
+		assertNotSame( locks.lockFor( TENANT_A ), locks.lockFor( TENANT_B ) );
+		assertEquals( 2, locks.getTenantCount() );
+	}
+
+	@Test
+	public void evictionShutsOutOnlyItsTenant() throws Exception {
+		CFIntBuffTenantLocks locks = new CFIntBuffTenantLocks();
+		ReentrantReadWriteLock.WriteLock eviction = locks.lockFor( TENANT_A ).writeLock();
+		eviction.lock();
+		try {
+			assertFalse( tryFromOtherThread( locks.lockFor( TENANT_A ).readLock() ) );
+			assertTrue( tryFromOtherThread( locks.lockFor( TENANT_B ).readLock() ) );
+		}
+		finally {
+			eviction.unlock();
+		}
+		assertTrue( tryFromOtherThread( locks.lockFor( TENANT_A ).readLock() ) );
+	}
+
+	@Test
+	public void writersOfOneTenantShareItsLock() throws Exception {
+		CFIntBuffTenantLocks locks = new CFIntBuffTenantLocks();
+		ReentrantReadWriteLock.ReadLock writer = locks.lockFor( TENANT_A ).readLock();
+		writer.lock();
+		try {
+			assertTrue( tryFromOtherThread( locks.lockFor( TENANT_A ).readLock() ) );
+			assertFalse( tryFromOtherThread( locks.lockFor( TENANT_A ).writeLock() ) );
+		}
+		finally {
+			writer.unlock();
+		}
+	}
+
+	@Test
+	public void lockForRejectsNullTenant() {
+		CFIntBuffTenantLocks locks = new CFIntBuffTenantLocks();
+		assertThrows( CFLibNullArgumentException.class, () -> locks.lockFor( null ) );
+	}
+}
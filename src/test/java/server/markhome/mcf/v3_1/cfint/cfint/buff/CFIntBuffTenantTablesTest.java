@@ -0,0 +1,439 @@
+// Description: Java 25 behaviour tests for the CFInt buffer tenant tables.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+import org.junit.jupiter.api.*;
+import server.markhome.mcf.v3_1.cflib.*;
+import server.markhome.mcf.v3_1.cflib.dbutil.*;
+import server.markhome.mcf.v3_1.cfint.cfint.*;
+
+/**
+ *	CFIntBuffTenantTablesTest drives the Tld to MinorVersion chain of buffer
+ *	tables through one CFIntBuffSchema.  It checks revision conflicts,
+ *	writers contending for one container, cascading deletes, container
+ *	locking against a concurrent cascade, tenant eviction, and the shared
+ *	records handed out by the navigation cache.  Every concurrent test
+ *	bounds its wait, so a deadlock fails rather than hangs.
+ */
+public class CFIntBuffTenantTablesTest
+{
+	protected final static long TIMEOUT_SECONDS = 30L;
+
+	protected final static CFLibDbKeyHash256 TENANT_A = key( "a0" );
+	protected final static CFLibDbKeyHash256 TENANT_B = key( "b0" );
+
+	protected CFIntBuffSchema schema;
+	protected CFIntBuffTldTable tldTable;
+	protected CFIntBuffTopDomainTable topDomainTable;
+	protected CFIntBuffTopProjectTable topProjectTable;
+	protected CFIntBuffSubProjectTable subProjectTable;
+	protected CFIntBuffMajorVersionTable majorVersionTable;
+	protected CFIntBuffMinorVersionTable minorVersionTable;
+
+	protected static CFLibDbKeyHash256 key( String suffix ) {
+		String hex = "0000000000000000000000000000000000000000000000000000000000000000";
+		return( CFLibDbKeyHash256.fromHex( hex.substring( suffix.length() ) + suffix ) );
+	}
+
+	@BeforeEach
+	public void setUp() {
+		schema = new CFIntBuffSchema();
+		ICFIntSchema.setBackingCFInt( schema );
+		tldTable = (CFIntBuffTldTable)schema.getTableTld();
+		topDomainTable = (CFIntBuffTopDomainTable)schema.getTableTopDomain();
+		topProjectTable = (CFIntBuffTopProjectTable)schema.getTableTopProject();
+		subProjectTable = (CFIntBuffSubProjectTable)schema.getTableSubProject();
+		majorVersionTable = (CFIntBuffMajorVersionTable)schema.getTableMajorVersion();
+		minorVersionTable = (CFIntBuffMinorVersionTable)schema.getTableMinorVersion();
+	}
+
+	protected ICFIntTld createTld( CFLibDbKeyHash256 tenantId, String name ) {
+		CFIntBuffTld rec = new CFIntBuffTld();
+		rec.setRequiredContainerTenant( tenantId );
+		rec.setRequiredName( name );
+		return( tldTable.createTld( null, rec ) );
+	}
+
+	protected ICFIntTopDomain createTopDomain( ICFIntTld tld, String name ) {
+		CFIntBuffTopDomain rec = new CFIntBuffTopDomain();
+		rec.setRequiredOwnerTenant( tld.getRequiredTenantId() );
+		rec.setRequiredContainerParentTld( tld.getRequiredId() );
+		rec.setRequiredName( name );
+		return( topDomainTable.createTopDomain( null, rec ) );
+	}
+
+	protected ICFIntTopProject createTopProject( ICFIntTopDomain topDomain, String name ) {
+		CFIntBuffTopProject rec = new CFIntBuffTopProject();
+		rec.setRequiredOwnerTenant( topDomain.getRequiredTenantId() );
+		rec.setRequiredContainerParentSDom( topDomain.getRequiredId() );
+		rec.setRequiredName( name );
+		return( topProjectTable.createTopProject( null, rec ) );
+	}
+
+	protected ICFIntSubProject createSubProject( ICFIntTopProject topProject, String name ) {
+		CFIntBuffSubProject rec = new CFIntBuffSubProject();
+		rec.setRequiredOwnerTenant( topProject.getRequiredTenantId() );
+		rec.setRequiredContainerParentTPrj( topProject.getRequiredId() );
+		rec.setRequiredName( name );
+		return( subProjectTable.createSubProject( null, rec ) );
+	}
+
+	protected ICFIntMajorVersion createMajorVersion( ICFIntSubProject subProject, String name ) {
+		CFIntBuffMajorVersion rec = new CFIntBuffMajorVersion();
+		rec.setRequiredOwnerTenant( subProject.getRequiredTenantId() );
+		rec.setRequiredContainerParentSPrj( subProject.getRequiredId() );
+		rec.setRequiredName( name );
+		return( majorVersionTable.createMajorVersion( null, rec ) );
+	}
+
+	protected ICFIntMinorVersion createMinorVersion( ICFIntMajorVersion majorVersion, String name ) {
+		CFIntBuffMinorVersion rec = new CFIntBuffMinorVersion();
+		rec.setRequiredOwnerTenant( majorVersion.getRequiredTenantId() );
+		rec.setRequiredContainerParentMajVer( majorVersion.getRequiredId() );
+		rec.setRequiredName( name );
+		return( minorVersionTable.createMinorVersion( null, rec ) );
+	}
+
+	/**
+	 *	Build one row of every table under a tenant.
+	 *
+	 *	@return	The TopProject, whose SubProject, MajorVersion and
+	 *		MinorVersion are each named "1".
+	 */
+	protected ICFIntTopProject createChain( CFLibDbKeyHash256 tenantId, String tldName ) {
+		ICFIntTld tld = createTld( tenantId, tldName );
+		ICFIntTopDomain topDomain = createTopDomain( tld, "example" );
+		ICFIntTopProject topProject = createTopProject( topDomain, "project" );
+		ICFIntSubProject subProject = createSubProject( topProject, "1" );
+		ICFIntMajorVersion majorVersion = createMajorVersion( subProject, "1" );
+		createMinorVersion( majorVersion, "1" );
+		return( topProject );
+	}
+
+	protected static < T > T await( Future< T > future ) throws Exception {
+		return( future.get( TIMEOUT_SECONDS, TimeUnit.SECONDS ) );
+	}
+
+	@Test
+	public void updateChecksAndBumpsRevision() {
+		ICFIntTopProject topProject = createChain( TENANT_A, "org" );
+		ICFIntSubProject rec = createSubProject( topProject, "2" );
+		int created = rec.getRequiredRevision();
+
+		rec.setOptionalDescription( "first" );
+		ICFIntSubProject updated = subProjectTable.updateSubProject( null, rec );
+		assertEquals( created + 1, updated.getRequiredRevision() );
+
+		// The caller's copy still carries the old revision
+		rec.setOptionalDescription( "stale" );
+		assertThrows( CFLibCollisionDetectedException.class, () -> subProjectTable.updateSubProject( null, rec ) );
+		assertEquals( "first", subProjectTable.readDerived( null, rec.getRequiredId() ).getOptionalDescription() );
+	}
+
+	@Test
+	public void staleDeleteLeavesRowAndChildren() {
+		ICFIntTopProject topProject = createChain( TENANT_A, "org" );
+		ICFIntSubProject rec = subProjectTable.readDerivedByTopProjectIdx( null, topProject.getRequiredId() )[0];
+		ICFIntSubProject fresh = subProjectTable.readDerived( null, rec.getRequiredId() );
+		fresh.setOptionalDescription( "moved on" );
+		subProjectTable.updateSubProject( null, fresh );
+
+		assertThrows( CFLibCollisionDetectedException.class, () -> subProjectTable.deleteSubProject( null, rec ) );
+		assertNotNull( subProjectTable.readDerived( null, rec.getRequiredId() ) );
+		assertEquals( 1, majorVersionTable.readDerivedBySubProjectIdx( null, rec.getRequiredId() ).length );
+	}
+
+	@Test
+	public void createRejectsDuplicateNameAndMissingContainer() {
+		ICFIntTopProject topProject = createChain( TENANT_A, "org" );
+		assertThrows( CFLibUniqueIndexViolationException.class, () -> createSubProject( topProject, "1" ) );
+
+		CFIntBuffTopProject missing = new CFIntBuffTopProject();
+		missing.setRequiredId( key( "dead" ) );
+		missing.setRequiredOwnerTenant( TENANT_A );
+		assertThrows( CFLibStaleCacheDetectedException.class, () -> createSubProject( missing, "orphan" ) );
+		assertEquals( 1, subProjectTable.readDerivedByTenantIdx( null, TENANT_A ).length );
+	}
+
+	@Test
+	public void deleteCascadesDownTheChain() {
+		ICFIntTopProject topProject = createChain( TENANT_A, "org" );
+		ICFIntSubProject subProject = subProjectTable.readDerivedByTopProjectIdx( null, topProject.getRequiredId() )[0];
+		ICFIntMajorVersion majorVersion = majorVersionTable.readDerivedBySubProjectIdx( null, subProject.getRequiredId() )[0];
+
+		topProjectTable.deleteTopProjectByIdIdx( null, topProject.getRequiredId() );
+
+		assertNull( topProjectTable.readDerived( null, topProject.getRequiredId() ) );
+		assertNull( subProjectTable.readDerived( null, subProject.getRequiredId() ) );
+		assertNull( majorVersionTable.readDerived( null, majorVersion.getRequiredId() ) );
+		assertEquals( 0, minorVersionTable.readDerivedByMajorVerIdx( null, majorVersion.getRequiredId() ).length );
+		assertEquals( 0, minorVersionTable.readDerivedByTenantIdx( null, TENANT_A ).length );
+		// The TopDomain above the deleted row is untouched
+		assertEquals( 1, topDomainTable.readDerivedByTenantIdx( null, TENANT_A ).length );
+	}
+
+	@Test
+	public void contendingWritersKeepRowsAndRevisionsConsistent() throws Exception {
+		ICFIntTopProject topProject = createChain( TENANT_A, "org" );
+		final int threads = 8;
+		final int perThread = 50;
+		ExecutorService executor = Executors.newFixedThreadPool( threads );
+		try {
+			ArrayList< Future< Integer > > futures = new ArrayList<>();
+			for( int t = 0; t < threads; t++ ) {
+				final int thread = t;
+				futures.add( executor.submit( () -> {
+					int kept = 0;
+					for( int i = 0; i < perThread; i++ ) {
+						ICFIntSubProject rec = createSubProject( topProject, "t" + thread + "-" + i );
+						rec.setOptionalDescription( "updated" );
+						rec = subProjectTable.updateSubProject( null, rec );
+						// Renaming moves the row within the name index
+						rec.setRequiredName( "t" + thread + "-" + i + "-renamed" );
+						rec = subProjectTable.updateSubProject( null, rec );
+						if( ( i % 2 ) == 0 ) {
+							subProjectTable.deleteSubProject( null, rec );
+						}
+						else {
+							kept++;
+						}
+					}
+					return( kept );
+				} ) );
+			}
+			int kept = 0;
+			for( Future< Integer > future : futures ) {
+				kept += await( future );
+			}
+			ICFIntSubProject[] rows = subProjectTable.readDerivedByTopProjectIdx( null, topProject.getRequiredId() );
+			// Every thread keeps its odd rows, and the chain's own row is still there
+			assertEquals( kept + 1, rows.length );
+			assertEquals( rows.length, subProjectTable.readDerivedByTenantIdx( null, TENANT_A ).length );
+			for( ICFIntSubProject row : rows ) {
+				if( ! row.getRequiredName().equals( "1" ) ) {
+					assertTrue( row.getRequiredName().endsWith( "-renamed" ), row.getRequiredName() );
+					assertEquals( "updated", row.getOptionalDescription() );
+					assertEquals( row.getRequiredId(), subProjectTable.readDerivedByNameIdx( null, topProject.getRequiredId(), row.getRequiredName() ).getRequiredId() );
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void racingUpdatesEitherWinOrCollide() throws Exception {
+		ICFIntTopProject topProject = createChain( TENANT_A, "org" );
+		ICFIntSubProject rec = subProjectTable.readDerivedByTopProjectIdx( null, topProject.getRequiredId() )[0];
+		int start = rec.getRequiredRevision();
+		final int threads = 8;
+		final int perThread = 100;
+		AtomicInteger wins = new AtomicInteger();
+		AtomicInteger collisions = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool( threads );
+		try {
+			ArrayList< Future< ? > > futures = new ArrayList<>();
+			for( int t = 0; t < threads; t++ ) {
+				futures.add( executor.submit( () -> {
+					for( int i = 0; i < perThread; i++ ) {
+						ICFIntSubProject mine = subProjectTable.readDerived( null, rec.getRequiredId() );
+						mine.setOptionalDescription( Thread.currentThread().getName() + i );
+						try {
+							subProjectTable.updateSubProject( null, mine );
+							wins.incrementAndGet();
+						}
+						catch( CFLibCollisionDetectedException e ) {
+							collisions.incrementAndGet();
+						}
+					}
+				} ) );
+			}
+			for( Future< ? > future : futures ) {
+				await( future );
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertEquals( threads * perThread, wins.get() + collisions.get() );
+		// Each win bumped the revision exactly once, so no update was lost
+		assertEquals( start + wins.get(), subProjectTable.readDerived( null, rec.getRequiredId() ).getRequiredRevision() );
+	}
+
+	@Test
+	public void createsRacingACascadeLeaveNoOrphans() throws Exception {
+		ICFIntTopProject topProject = createChain( TENANT_A, "org" );
+		CountDownLatch started = new CountDownLatch( 1 );
+		ExecutorService executor = Executors.newFixedThreadPool( 2 );
+		try {
+			Future< Integer > creator = executor.submit( () -> {
+				int created = 0;
+				try {
+					for( int i = 0; i < 10000; i++ ) {
+						createSubProject( topProject, "c" + i );
+						created++;
+						started.countDown();
+					}
+				}
+				catch( CFLibStaleCacheDetectedException e ) {
+					// The TopProject is gone, so no further row can be created under it
+				}
+				return( created );
+			} );
+			Future< ? > deleter = executor.submit( () -> {
+				started.await();
+				topProjectTable.deleteTopProjectByIdIdx( null, topProject.getRequiredId() );
+				return( null );
+			} );
+			await( deleter );
+			assertTrue( await( creator ) > 0 );
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertNull( topProjectTable.readDerived( null, topProject.getRequiredId() ) );
+		assertEquals( 0, subProjectTable.readDerivedByTopProjectIdx( null, topProject.getRequiredId() ).length );
+		assertEquals( 0, subProjectTable.readDerivedByTenantIdx( null, TENANT_A ).length );
+	}
+
+	@Test
+	public void crossingMovesBetweenContainersDoNotDeadlock() throws Exception {
+		ICFIntTopProject left = createChain( TENANT_A, "org" );
+		ICFIntTopDomain topDomain = topDomainTable.readDerivedByTenantIdx( null, TENANT_A )[0];
+		ICFIntTopProject right = createTopProject( topDomain, "other" );
+		ICFIntSubProject fromLeft = createSubProject( left, "mover-left" );
+		ICFIntSubProject fromRight = createSubProject( right, "mover-right" );
+		ExecutorService executor = Executors.newFixedThreadPool( 2 );
+		try {
+			Future< ? > one = executor.submit( () -> {
+				moveBackAndForth( fromLeft.getRequiredId(), right, left );
+				return( null );
+			} );
+			Future< ? > two = executor.submit( () -> {
+				moveBackAndForth( fromRight.getRequiredId(), left, right );
+				return( null );
+			} );
+			await( one );
+			await( two );
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertEquals( left.getRequiredId(), subProjectTable.readDerived( null, fromLeft.getRequiredId() ).getRequiredTopProjectId() );
+		assertEquals( right.getRequiredId(), subProjectTable.readDerived( null, fromRight.getRequiredId() ).getRequiredTopProjectId() );
+	}
+
+	protected void moveBackAndForth( CFLibDbKeyHash256 id, ICFIntTopProject there, ICFIntTopProject back ) {
+		for( int i = 0; i < 200; i++ ) {
+			ICFIntSubProject rec = subProjectTable.readDerived( null, id );
+			rec.setRequiredContainerParentTPrj( ( ( i % 2 ) == 0 ) ? there.getRequiredId() : back.getRequiredId() );
+			subProjectTable.updateSubProject( null, rec );
+		}
+	}
+
+	@Test
+	public void evictTenantRemovesOnlyThatTenant() {
+		ICFIntTopProject projectA = createChain( TENANT_A, "org" );
+		ICFIntTopProject projectB = createChain( TENANT_B, "net" );
+		ICFIntSubProject subProjectA = subProjectTable.readDerivedByTopProjectIdx( null, projectA.getRequiredId() )[0];
+		int historyRows = subProjectTable.readHistory( null, subProjectA.getRequiredId() ).length;
+
+		// One row of each of the six tables
+		assertEquals( 6, schema.evictTenant( TENANT_A ) );
+
+		assertEquals( 0, tldTable.readDerivedByTenantIdx( null, TENANT_A ).length );
+		assertEquals( 0, topDomainTable.readDerivedByTenantIdx( null, TENANT_A ).length );
+		assertNull( topProjectTable.readDerived( null, projectA.getRequiredId() ) );
+		assertNull( subProjectTable.readDerived( null, subProjectA.getRequiredId() ) );
+		assertEquals( 0, majorVersionTable.readDerivedByTenantIdx( null, TENANT_A ).length );
+		assertEquals( 0, minorVersionTable.readDerivedByTenantIdx( null, TENANT_A ).length );
+		// An eviction is not a delete, so no history is recorded for it
+		assertEquals( historyRows, subProjectTable.readHistory( null, subProjectA.getRequiredId() ).length );
+
+		assertNotNull( topProjectTable.readDerived( null, projectB.getRequiredId() ) );
+		assertEquals( 1, subProjectTable.readDerivedByTenantIdx( null, TENANT_B ).length );
+		assertEquals( 1, minorVersionTable.readDerivedByTenantIdx( null, TENANT_B ).length );
+		assertEquals( 0, schema.evictTenant( TENANT_A ) );
+	}
+
+	@Test
+	public void evictionShutsOutOnlyItsTenantsWriters() throws Exception {
+		ICFIntTopProject projectA = createChain( TENANT_A, "org" );
+		ICFIntTopProject projectB = createChain( TENANT_B, "net" );
+		ReentrantReadWriteLock.WriteLock eviction = subProjectTable.tenantLocks.lockFor( TENANT_A ).writeLock();
+		ExecutorService executor = Executors.newFixedThreadPool( 2 );
+		eviction.lock();
+		try {
+			// Held as an eviction of tenant A would hold it
+			Future< ICFIntSubProject > writerB = executor.submit( () -> createSubProject( projectB, "b-during" ) );
+			assertNotNull( await( writerB ) );
+			Future< ICFIntSubProject > writerA = executor.submit( () -> createSubProject( projectA, "a-during" ) );
+			assertThrows( TimeoutException.class, () -> writerA.get( 200, TimeUnit.MILLISECONDS ) );
+			eviction.unlock();
+			assertNotNull( await( writerA ) );
+		}
+		finally {
+			if( eviction.isHeldByCurrentThread() ) {
+				eviction.unlock();
+			}
+			executor.shutdownNow();
+		}
+		assertEquals( 2, subProjectTable.readDerivedByTenantIdx( null, TENANT_A ).length );
+		assertEquals( 2, subProjectTable.readDerivedByTenantIdx( null, TENANT_B ).length );
+	}
+
+	@Test
+	public void navigationSharesTheContainerUntilItChanges() {
+		boolean wasEnabled = CFIntBuffSchema.isNavigationCacheEnabled();
+		CFIntBuffSchema.setNavigationCacheEnabled( true );
+		try {
+			ICFIntTopProject topProject = createChain( TENANT_A, "org" );
+			ICFIntSubProject subProject = subProjectTable.readDerivedByTopProjectIdx( null, topProject.getRequiredId() )[0];
+			ICFIntTopProject first = subProject.getRequiredContainerParentTPrj();
+			assertSame( first, subProject.getRequiredContainerParentTPrj() );
+			assertThrows( CFLibNotSupportedException.class, () -> first.setOptionalDescription( "shared" ) );
+
+			ICFIntTopProject edit = topProjectTable.readDerived( null, topProject.getRequiredId() );
+			edit.setOptionalDescription( "changed" );
+			topProjectTable.updateTopProject( null, edit );
+
+			ICFIntTopProject second = subProject.getRequiredContainerParentTPrj();
+			assertNotSame( first, second );
+			assertEquals( first.getRequiredRevision() + 1, second.getRequiredRevision() );
+			assertEquals( "changed", second.getOptionalDescription() );
+		}
+		finally {
+			CFIntBuffSchema.setNavigationCacheEnabled( wasEnabled );
+		}
+	}
+}
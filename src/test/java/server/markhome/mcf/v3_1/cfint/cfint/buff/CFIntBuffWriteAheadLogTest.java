@@ -0,0 +1,235 @@
+// Description: Java 25 unit tests for the CFInt buffer write-ahead log.
+
+/*
+ *	server.markhome.mcf.CFInt
+ *
+ *	Copyright (c) 2016-2026 Mark Stephen Sobkow
+ *	
+ *	Mark's Code Fractal 3.1 CFInt - Internet Essentials
+ *	
+ *	This file is part of Mark's Code Fractal CFInt.
+ *	
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *	
+ *	http://www.apache.org/licenses/LICENSE-2.0
+ *	
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ *	
+ */
+
+package server.markhome.mcf.v3_1.cfint.cfint.buff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+/**
+ *	CFIntBuffWriteAheadLogTest checks that replay skips the records a
+ *	snapshot already covers, that open() truncates a torn or corrupt tail,
+ *	that discardThrough() keeps the later records and the sequence, and that
+ *	a failed flush makes the log refuse further appends.
+ */
+public class CFIntBuffWriteAheadLogTest
+{
+	protected final static int CLASS_CODE = 0x7a;
+
+	@TempDir
+	Path tempDir;
+
+	protected Path logPath;
+
+	@BeforeEach
+	public void setUp() {
+		logPath = tempDir.resolve( "cfint.wal" );
+	}
+
+	protected static ByteBuffer payload( String text ) {
+		return( ByteBuffer.wrap( text.getBytes( StandardCharsets.UTF_8 ) ) );
+	}
+
+	protected static long appendRows( CFIntBuffWriteAheadLog log, int first, int last ) {
+		long seq = 0L;
+		for( int idx = first; idx <= last; idx ++ ) {
+			seq = log.appendPut( CLASS_CODE, payload( "row-" + idx ) );
+		}
+		return( seq );
+	}
+
+	/**
+	 *	Replay a log and describe each record as "seq:op:payload".
+	 */
+	protected static List< String > replayAll( CFIntBuffWriteAheadLog log, long afterSequence ) throws IOException {
+		ArrayList< String > ret = new ArrayList<>();
+		log.replay( afterSequence, ( seq, op, classCode, body ) -> {
+			assertEquals( CLASS_CODE, classCode );
+			byte[] bytes = new byte[ body.remaining() ];
+			body.get( bytes );
+			ret.add( seq + ":" + op + ":" + new String( bytes, StandardCharsets.UTF_8 ) );
+		} );
+		return( ret );
+	}
+
+	@Test
+	public void replaySkipsRecordsCoveredBySnapshot() throws IOException {
+		try( CFIntBuffWriteAheadLog log = CFIntBuffWriteAheadLog.open( logPath, 0 ) ) {
+			appendRows( log, 1, 3 );
+			log.appendEvictTenant( CLASS_CODE, null );
+			log.sync();
+		}
+		try( CFIntBuffWriteAheadLog log = CFIntBuffWriteAheadLog.open( logPath, 0 ) ) {
+			assertEquals( 4L, log.getLastSequence() );
+			List< String > replayed = replayAll( log, 2L );
+			assertEquals( 2, replayed.size() );
+			assertEquals( "3:" + CFIntBuffWriteAheadLog.OP_PUT + ":row-3", replayed.get( 0 ) );
+			assertTrue( replayed.get( 1 ).startsWith( "4:" + CFIntBuffWriteAheadLog.OP_EVICT_TENANT + ":" ) );
+			assertEquals( 4, replayAll( log, 0L ).size() );
+			assertTrue( replayAll( log, 4L ).isEmpty() );
+		}
+	}
+
+	@Test
+	public void replayIgnoresRecordsNotYetFlushed() throws IOException {
+		try( CFIntBuffWriteAheadLog log = CFIntBuffWriteAheadLog.open( logPath, 0 ) ) {
+			appendRows( log, 1, 2 );
+			log.sync();
+			appendRows( log, 3, 3 );
+			assertEquals( 2, replayAll( log, 0L ).size() );
+			assertEquals( 3L, log.getLastSequence() );
+			assertEquals( 2L, log.getDurableSequence() );
+		}
+	}
+
+	@Test
+	public void openTruncatesTornTail() throws IOException {
+		long endOfSecond;
+		try( CFIntBuffWriteAheadLog log = CFIntBuffWriteAheadLog.open( logPath, 0 ) ) {
+			appendRows( log, 1, 2 );
+			log.sync();
+			endOfSecond = Files.size( logPath );
+			appendRows( log, 3, 3 );
+			log.sync();
+		}
+		// Cut the third record in half, as a crash during its write would
+		try( FileChannel channel = FileChannel.open( logPath, StandardOpenOption.WRITE ) ) {
+			channel.truncate( endOfSecond + ( Files.size( logPath ) - endOfSecond ) / 2 );
+		}
+		try( CFIntBuffWriteAheadLog log = CFIntBuffWriteAheadLog.open( logPath, 0 ) ) {
+			assertEquals( endOfSecond, Files.size( logPath ) );
+			assertEquals( 2L, log.getLastSequence() );
+			assertEquals( 3L, appendRows( log, 4, 4 ) );
+			log.sync();
+			List< String > replayed = replayAll( log, 0L );
+			assertEquals( Arrays.asList(
+					"1:" + CFIntBuffWriteAheadLog.OP_PUT + ":row-1",
+					"2:" + CFIntBuffWriteAheadLog.OP_PUT + ":row-2",
+					"3:" + CFIntBuffWriteAheadLog.OP_PUT + ":row-4" ),
+				replayed );
+		}
+	}
+
+	@Test
+	public void openTruncatesCorruptTail() throws IOException {
+		long endOfFirst;
+		try( CFIntBuffWriteAheadLog log = CFIntBuffWriteAheadLog.open( logPath, 0 ) ) {
+			appendRows( log, 1, 1 );
+			log.sync();
+			endOfFirst = Files.size( logPath );
+			appendRows( log, 2, 2 );
+			log.sync();
+		}
+		// Flip the last payload byte so the second record fails its CRC
+		try( FileChannel channel = FileChannel.open( logPath, StandardOpenOption.READ, StandardOpenOption.WRITE ) ) {
+			long pos = channel.size() - 1;
+			ByteBuffer one = ByteBuffer.allocate( 1 );
+			channel.read( one, pos );
+			one.put( 0, (byte)( one.get( 0 ) ^ 0xff ) );
+			one.rewind();
+			channel.write( one, pos );
+		}
+		try( CFIntBuffWriteAheadLog log = CFIntBuffWriteAheadLog.open( logPath, 0 ) ) {
+			assertEquals( endOfFirst, Files.size( logPath ) );
+			assertEquals( 1L, log.getLastSequence() );
+			assertEquals( 1, replayAll( log, 0L ).size() );
+		}
+	}
+
+	@Test
+	public void discardThroughKeepsLaterRecords() throws IOException {
+		try( CFIntBuffWriteAheadLog log = CFIntBuffWriteAheadLog.open( logPath, 0 ) ) {
+			appendRows( log, 1, 5 );
+			log.sync();
+			log.discardThrough( 3L );
+			assertEquals( 5L, log.getLastSequence() );
+			assertEquals( Arrays.asList(
+					"4:" + CFIntBuffWriteAheadLog.OP_PUT + ":row-4",
+					"5:" + CFIntBuffWriteAheadLog.OP_PUT + ":row-5" ),
+				replayAll( log, 0L ) );
+			assertEquals( 6L, appendRows( log, 6, 6 ) );
+			log.sync();
+		}
+		try( CFIntBuffWriteAheadLog log = CFIntBuffWriteAheadLog.open( logPath, 0 ) ) {
+			assertEquals( 6L, log.getLastSequence() );
+			assertEquals( 3, replayAll( log, 0L ).size() );
+		}
+		assertFalse( Files.exists( logPath.resolveSibling( logPath.getFileName().toString() + ".tmp" ) ) );
+	}
+
+	@Test
+	public void discardThroughEverythingKeepsSequence() throws IOException {
+		try( CFIntBuffWriteAheadLog log = CFIntBuffWriteAheadLog.open( logPath, 0 ) ) {
+			appendRows( log, 1, 3 );
+			log.discardThrough( 3L );
+			assertTrue( replayAll( log, 0L ).isEmpty() );
+		}
+		try( CFIntBuffWriteAheadLog log = CFIntBuffWriteAheadLog.open( logPath, 0 ) ) {
+			assertEquals( 3L, log.getLastSequence() );
+			assertEquals( 4L, appendRows( log, 4, 4 ) );
+		}
+	}
+
+	@Test
+	public void appendsAfterDiscardGoToNewFile() throws IOException {
+		try( CFIntBuffWriteAheadLog log = CFIntBuffWriteAheadLog.open( logPath, 0 ) ) {
+			appendRows( log, 1, 2 );
+			log.discardThrough( 1L );
+			appendRows( log, 3, 3 );
+			log.sync();
+			assertEquals( 2, replayAll( log, 0L ).size() );
+		}
+	}
+
+	@Test
+	public void failedFlushRefusesLaterAppends() throws IOException {
+		CFIntBuffWriteAheadLog log = CFIntBuffWriteAheadLog.open( logPath, 0 );
+		try {
+			long seq = appendRows( log, 1, 1 );
+			// Closing the channel underneath the log makes the next flush fail
+			log.channel.close();
+			assertThrows( IOException.class, () -> log.awaitDurable( seq ) );
+			assertThrows( UncheckedIOException.class, () -> appendRows( log, 2, 2 ) );
+			assertEquals( 0L, log.getDurableSequence() );
+		}
+		finally {
+			log.close();
+		}
+	}
+
+	@Test
+	public void openRejectsNegativeGroupCommitDelay() {
+		assertThrows( RuntimeException.class, () -> CFIntBuffWriteAheadLog.open( logPath, -1 ) );
+		assertFalse( Files.exists( logPath ) );
+	}
+}